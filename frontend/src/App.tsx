@@ -1,5 +1,5 @@
-import React, { useState, useEffect, useCallback } from 'react';
-import { GameState, BidRequest } from './types';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
+import { GameState, GameStateDelta, BidRequest, CallEvent, BidderEvent } from './types';
 import { BridgeAPI } from './api';
 import BiddingTable from './components/BiddingTable';
 import HandDisplay from './components/HandDisplay';
@@ -8,35 +8,163 @@ import GameControls from './components/GameControls';
 import PastDeals from './components/PastDeals';
 import './App.css';
 
+// The state with one more call, placed in the bidding table by its position in the auction
+const withCall = (prev: GameState, event: CallEvent): GameState => {
+  const cell = prev.dealerIndex + event.index;
+  const biddingTable = prev.biddingTable.map(row => [...row]);
+  while (biddingTable.length <= Math.floor(cell / 4)) {
+    biddingTable.push(['', '', '', '']);
+  }
+  biddingTable[Math.floor(cell / 4)][cell % 4] = event.bid.displayText;
+  return { ...prev, biddingHistory: [...prev.biddingHistory, event.bid], biddingTable };
+};
+
+// The state brought up to a delta, or null if the delta does not follow on from it
+const withDelta = (prev: GameState, delta: GameStateDelta): GameState | null => {
+  let state = prev;
+  for (const call of delta.calls) {
+    if (call.index < state.biddingHistory.length) {
+      continue;
+    }
+    if (call.index > state.biddingHistory.length) {
+      return null;
+    }
+    state = withCall(state, call);
+  }
+  return {
+    ...state,
+    version: delta.version,
+    currentBidderIndex: delta.currentBidderIndex,
+    biddingFinished: delta.biddingFinished,
+    biddingSystem: delta.biddingSystem,
+    legalCalls: delta.legalCalls,
+    currentHand: delta.currentHand,
+  };
+};
+
 const App: React.FC = () => {
   const [gameState, setGameState] = useState<GameState | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [currentView, setCurrentView] = useState<'game' | 'past-deals'>('game');
   const [trainingMode, setTrainingMode] = useState<string>('single');
-  const [biddingSystem, setBiddingSystem] = useState<string>('2/1 Game Forcing');
+  const [biddingSystem, setBiddingSystem] = useState<string>('two-over-one');
+  // Whether the server's event stream is connected; while it is, updates arrive as events
+  // instead of being fetched after every action
+  const [live, setLive] = useState(false);
+  // The latest state, also between renders, so that events arriving together each build on
+  // the one before
+  const stateRef = useRef<GameState | null>(null);
+  // ETag of the last state fetched, for the server to answer 304 when nothing has changed
+  const etagRef = useRef<string | null>(null);
+
+  const updateGameState = useCallback((state: GameState) => {
+    stateRef.current = state;
+    setGameState(state);
+  }, []);
 
   const loadGameState = useCallback(async () => {
     try {
       setLoading(true);
       const state = await BridgeAPI.getGameState(biddingSystem, trainingMode);
-      setGameState(state);
+      updateGameState(state);
       setError(null);
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Failed to load game state');
     } finally {
       setLoading(false);
     }
-  }, [biddingSystem, trainingMode]);
+  }, [biddingSystem, trainingMode, updateGameState]);
+
+  // Catches up without the loading screen: only what changed since the state we have, or the
+  // whole state when the deal has changed
+  const refreshGameState = useCallback(async () => {
+    try {
+      const prev = stateRef.current;
+      if (!prev) {
+        updateGameState(await BridgeAPI.getGameState(biddingSystem, trainingMode));
+        return;
+      }
+      const result = await BridgeAPI.getGameStateSince(prev, etagRef.current, biddingSystem, trainingMode);
+      if (!result) {
+        return;
+      }
+      etagRef.current = result.etag;
+      if (!result.state.delta) {
+        updateGameState(result.state);
+        return;
+      }
+      const next = withDelta(stateRef.current ?? prev, result.state);
+      if (next) {
+        updateGameState(next);
+      } else {
+        etagRef.current = null;
+        updateGameState(await BridgeAPI.getGameState(biddingSystem, trainingMode));
+      }
+    } catch (err) {
+      setError(err instanceof Error ? err.message : 'Failed to load game state');
+    }
+  }, [biddingSystem, trainingMode, updateGameState]);
 
   useEffect(() => {
     loadGameState();
   }, [loadGameState]);
 
+  const refreshRef = useRef(refreshGameState);
+  refreshRef.current = refreshGameState;
+
+  useEffect(() => {
+    if (typeof EventSource === 'undefined') {
+      return;
+    }
+    const applyCall = (event: CallEvent) => {
+      const prev = stateRef.current;
+      if (!prev || event.index < prev.biddingHistory.length) {
+        return;
+      }
+      if (event.index > prev.biddingHistory.length) {
+        refreshRef.current();
+        return;
+      }
+      updateGameState(withCall(prev, event));
+    };
+    const applyBidder = (event: BidderEvent) => {
+      const prev = stateRef.current;
+      if (prev) {
+        updateGameState({
+          ...prev,
+          currentBidderIndex: event.currentBidderIndex,
+          legalCalls: event.legalCalls,
+          currentHand: prev.allHands[event.currentBidderIndex] ?? prev.currentHand,
+        });
+      }
+    };
+    const source = BridgeAPI.subscribeToEvents({
+      onDeal: () => refreshRef.current(),
+      onCall: applyCall,
+      onBidder: applyBidder,
+      onFinished: () => {
+        const prev = stateRef.current;
+        if (prev) {
+          updateGameState({ ...prev, biddingFinished: true });
+        }
+      },
+      // Anything missed while disconnected is fetched once
+      onOpen: () => {
+        setLive(true);
+        refreshRef.current();
+      },
+      onError: () => setLive(false),
+    });
+    return () => source.close();
+  }, [updateGameState]);
+
   const handleNewDeal = async () => {
     try {
-      await BridgeAPI.startNewDeal(trainingMode);
-      await loadGameState();
+      await BridgeAPI.startNewDeal(trainingMode, live ? 0 : undefined);
+      if (!live) {
+        await refreshGameState();
+      }
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Failed to start new deal');
     }
@@ -44,9 +172,11 @@ const App: React.FC = () => {
 
   const handleMakeBid = async (bidRequest: BidRequest) => {
     try {
-      const response = await BridgeAPI.makeBid({ ...bidRequest, trainingMode });
+      const response = await BridgeAPI.makeBid({ ...bidRequest, trainingMode, robotWaitMillis: live ? 0 : undefined });
       if (response.success) {
-        await loadGameState();
+        if (!live) {
+          await refreshGameState();
+        }
       } else {
         setError(response.message);
       }
@@ -59,7 +189,7 @@ const App: React.FC = () => {
     setBiddingSystem(newSystem);
     try {
       const state = await BridgeAPI.getGameState(newSystem, trainingMode);
-      setGameState(state);
+      updateGameState(state);
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Failed to update bidding system');
     }
@@ -69,7 +199,7 @@ const App: React.FC = () => {
     setTrainingMode(newMode);
     try {
       const state = await BridgeAPI.getGameState(biddingSystem, newMode);
-      setGameState(state);
+      updateGameState(state);
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Failed to update training mode');
     }
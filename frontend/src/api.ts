@@ -1,4 +1,4 @@
-import { GameState, Deal, BidRequest } from './types';
+import { GameState, GameStateDelta, Deal, BidRequest, GameEventHandlers } from './types';
 
 const API_BASE_URL = '/api';
 
@@ -15,9 +15,34 @@ export class BridgeAPI {
     return response.json();
   }
 
-  static async startNewDeal(trainingMode?: string): Promise<{ success: boolean; message: string }> {
+  // What changed since `since`, the whole state if the deal has changed, or null if nothing has
+  static async getGameStateSince(
+    since: GameState,
+    etag: string | null,
+    biddingSystem?: string,
+    trainingMode?: string
+  ): Promise<{ state: GameState | GameStateDelta; etag: string | null } | null> {
     const params = new URLSearchParams();
+    if (biddingSystem) params.append('biddingSystem', biddingSystem);
     if (trainingMode) params.append('trainingMode', trainingMode);
+    params.append('since', String(since.version));
+
+    const response = await fetch(`${API_BASE_URL}/game-state?${params}`, {
+      headers: etag ? { 'If-None-Match': etag } : {},
+    });
+    if (response.status === 304) {
+      return null;
+    }
+    if (!response.ok) {
+      throw new Error('Failed to fetch game state');
+    }
+    return { state: await response.json(), etag: response.headers.get('ETag') };
+  }
+
+  static async startNewDeal(trainingMode?: string, robotWaitMillis?: number): Promise<{ success: boolean; message: string }> {
+    const params = new URLSearchParams();
+    if (trainingMode) params.append('trainingMode', trainingMode);
+    if (robotWaitMillis !== undefined) params.append('robotWaitMillis', String(robotWaitMillis));
     
     const response = await fetch(`${API_BASE_URL}/new-deal?${params}`, {
       method: 'POST',
@@ -42,6 +67,18 @@ export class BridgeAPI {
     return response.json();
   }
 
+  // Follows this table's events; close the returned source to stop
+  static subscribeToEvents(handlers: GameEventHandlers): EventSource {
+    const source = new EventSource(`${API_BASE_URL}/events`);
+    source.addEventListener('deal', () => handlers.onDeal());
+    source.addEventListener('call', (e) => handlers.onCall(JSON.parse((e as MessageEvent).data)));
+    source.addEventListener('bidder', (e) => handlers.onBidder(JSON.parse((e as MessageEvent).data)));
+    source.addEventListener('finished', (e) => handlers.onFinished(JSON.parse((e as MessageEvent).data)));
+    source.onopen = () => handlers.onOpen();
+    source.onerror = () => handlers.onError();
+    return source;
+  }
+
   static async getPastDeals(): Promise<{ deals: Deal[] }> {
     const response = await fetch(`${API_BASE_URL}/past-deals`);
     if (!response.ok) {
@@ -39,11 +39,14 @@ const BiddingControls: React.FC<BiddingControlsProps> = ({ gameState, onMakeBid
     onMakeBid({ redouble: true });
   };
 
+  // Legality comes from the server; bitwise operators truncate to 32 bits, so test bits arithmetically
+  const isLegal = (bit: number) => Math.floor(gameState.legalCalls / Math.pow(2, bit)) % 2 === 1;
+  const suitIndex = suits.findIndex(s => s.value === selectedSuit);
+
   const isUserTurn = gameState.currentBidderIndex === gameState.userSeatIndex;
-  const canDouble = gameState.biddingHistory.length > 0 && 
-    !gameState.biddingHistory[gameState.biddingHistory.length - 1].isPass;
-  const canRedouble = gameState.biddingHistory.length > 0 && 
-    gameState.biddingHistory[gameState.biddingHistory.length - 1].isDouble;
+  const canBid = isLegal((selectedLevel - 1) * 5 + suitIndex);
+  const canDouble = isLegal(36);
+  const canRedouble = isLegal(37);
 
   if (!isUserTurn) {
     return (
@@ -68,6 +71,7 @@ const BiddingControls: React.FC<BiddingControlsProps> = ({ gameState, onMakeBid
                 key={level}
                 className={`level-btn ${selectedLevel === level ? 'selected' : ''}`}
                 onClick={() => setSelectedLevel(level)}
+                disabled={!suits.some((suit, index) => isLegal((level - 1) * 5 + index))}
               >
                 {level}
               </button>
@@ -97,6 +101,7 @@ const BiddingControls: React.FC<BiddingControlsProps> = ({ gameState, onMakeBid
         <button 
           className="btn btn-primary bid-btn"
           onClick={handleBid}
+          disabled={!canBid}
         >
           Bid {selectedLevel}
           <span style={{ color: suits.find(s => s.value === selectedSuit)?.color }}>
@@ -20,11 +20,12 @@ const GameControls: React.FC<GameControlsProps> = ({
     { value: 'multi', label: 'Multi Hand' }
   ];
 
+  // Values are the server's rule file names
   const biddingSystems = [
-    '2/1 Game Forcing',
-    'Standard American',
-    'Precision',
-    'Acol'
+    { value: 'two-over-one', label: '2/1 Game Forcing' },
+    { value: 'standard-american', label: 'Standard American' },
+    { value: 'precision', label: 'Precision' },
+    { value: 'acol', label: 'Acol' }
   ];
 
   return (
@@ -54,8 +55,8 @@ const GameControls: React.FC<GameControlsProps> = ({
           onChange={(e) => onBiddingSystemChange(e.target.value)}
         >
           {biddingSystems.map(system => (
-            <option key={system} value={system}>
-              {system}
+            <option key={system.value} value={system.value}>
+              {system.label}
             </option>
           ))}
         </select>
@@ -79,6 +79,8 @@ const PastDeals: React.FC = () => {
               <th>Deal #</th>
               <th>Dealer</th>
               <th>Final Contract</th>
+              <th>Result</th>
+              <th>Par</th>
               <th>Bidding System</th>
               <th>Bidding Sequence</th>
             </tr>
@@ -92,6 +94,8 @@ const PastDeals: React.FC = () => {
                   className="final-contract"
                   dangerouslySetInnerHTML={{ __html: getSuitSymbol(deal.finalBid) }}
                 />
+                <td>{deal.score === undefined ? '-' : `${deal.contract ?? 'Passed out'}: ${deal.score}`}</td>
+                <td>{deal.par ?? '-'}</td>
                 <td>{deal.biddingSystem}</td>
                 <td className="bidding-sequence">
                   <div className="bid-sequence">
@@ -27,6 +27,9 @@ export interface Hand {
 }
 
 export interface GameState {
+  // Goes up with every change; send it back as ?since= to get only what changed
+  version: number;
+  delta: false;
   trainingMode: string;
   dealer: string;
   dealerIndex: number;
@@ -35,18 +38,40 @@ export interface GameState {
   currentBidderIndex: number;
   biddingFinished: boolean;
   biddingSystem: string;
+  // Bit (level - 1) * 5 + suit index for contract bids, then 35 Pass, 36 Double, 37 Redouble
+  legalCalls: number;
   currentHand: Hand;
   allHands: Hand[];
   biddingHistory: Bid[];
   biddingTable: string[][];
 }
 
+// What /api/game-state?since= returns while the deal is the same one
+export interface GameStateDelta {
+  version: number;
+  delta: true;
+  trainingMode: string;
+  currentBidderIndex: number;
+  biddingFinished: boolean;
+  biddingSystem: string;
+  legalCalls: number;
+  currentHand: Hand;
+  calls: CallEvent[];
+}
+
 export interface Deal {
+  id: number;
   dealer: string;
-  contract: string;
+  // e.g. "4 H X by S"; null when passed out
+  contract: string | null;
   biddingSystem: string;
   bids: Bid[];
   finalBid: string;
+  // The rest only once the deal has been solved double dummy; scores are North-South's
+  tricks?: number;
+  score?: number;
+  par?: string;
+  parScore?: number;
 }
 
 export interface BidRequest {
@@ -56,4 +81,31 @@ export interface BidRequest {
   double?: boolean;
   redouble?: boolean;
   trainingMode?: string;
+  // How long the server waits for the robots before answering; 0 when their calls are pushed
+  robotWaitMillis?: number;
+}
+
+// Events pushed by /api/events
+export interface CallEvent {
+  // Position of the call in the auction
+  index: number;
+  bid: Bid;
+}
+
+export interface BidderEvent {
+  currentBidderIndex: number;
+  legalCalls: number;
+}
+
+export interface FinishedEvent {
+  contract: string | null;
+}
+
+export interface GameEventHandlers {
+  onDeal: () => void;
+  onCall: (event: CallEvent) => void;
+  onBidder: (event: BidderEvent) => void;
+  onFinished: (event: FinishedEvent) => void;
+  onOpen: () => void;
+  onError: () => void;
 }
@@ -0,0 +1,56 @@
+package com.example.bridge.config;
+
+import com.example.bridge.service.GameSession;
+import com.example.bridge.service.GameSessionStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Makes each request the single writer of its table: takes the {@link GameSession}'s lock before
+ * the controller runs and releases it when the request completes. Requests for other tables
+ * are never held up. A request that goes on asynchronously, such as an event stream, releases
+ * the lock as soon as its handler returns.
+ */
+@Component
+public class GameSessionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String LOCKED_SESSION = GameSessionInterceptor.class.getName() + ".session";
+
+    // Absent in web slice tests, which mock the service
+    @Autowired(required = false)
+    private GameSessionStore sessions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (sessions == null || !(handler instanceof HandlerMethod)) {
+            // Static resources
+            return true;
+        }
+        GameSession session = sessions.current();
+        session.getLock().lock();
+        request.setAttribute(LOCKED_SESSION, session);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        unlock(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        unlock(request);
+    }
+
+    private static void unlock(HttpServletRequest request) {
+        GameSession session = (GameSession) request.getAttribute(LOCKED_SESSION);
+        if (session != null && session.getLock().isHeldByCurrentThread()) {
+            request.removeAttribute(LOCKED_SESSION);
+            session.getLock().unlock();
+        }
+    }
+}
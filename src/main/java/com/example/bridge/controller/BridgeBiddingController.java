@@ -21,7 +21,11 @@ public class BridgeBiddingController {
             @RequestParam(value = "trainingMode", required = false) String trainingMode,
             Model model) {
         if (biddingSystem != null) {
-            biddingService.setBiddingSystem(biddingSystem);
+            try {
+                biddingService.setBiddingSystem(biddingSystem);
+            } catch (IllegalArgumentException e) {
+                model.addAttribute("bidError", e.getMessage());
+            }
         }
         if (trainingMode == null) {
             trainingMode = "single";
@@ -30,14 +34,7 @@ public class BridgeBiddingController {
         Deal deal = biddingService.getCurrentDeal();
         if (deal == null) {
             deal = biddingService.startNewDeal();
-            // --- AUTO BIDDING LOGIC FOR SINGLE HAND MODE ON FIRST DEAL ---
-            if ("single".equals(trainingMode)) {
-                int userSeatIndex = biddingService.getUserSeat().ordinal();
-                while (!biddingService.isBiddingFinished() && biddingService.getCurrentBidderIndex() != userSeatIndex) {
-                    Bid autoBid = biddingService.getSimpleNaturalBid(biddingService.getBiddingHistory());
-                    biddingService.makeBid(autoBid);
-                }
-            }
+            biddingService.playRobots(trainingMode);
         }
         // Debug: print number of cards in each hand
         int handIdx = 0;
@@ -62,28 +59,7 @@ public class BridgeBiddingController {
         model.addAttribute("handIndex", currentBidderIndex);
         model.addAttribute("handBySuit", hand.getSortedCardsBySuitName());
         model.addAttribute("handRanksBySuit", hand.getSortedRankNamesBySuit());
-        int totalPoints = 0;
-        if (hand.getCards() != null) {
-            for (Card card : hand.getCards()) {
-                switch (card.getRank()) {
-                    case ACE:
-                        totalPoints += 4;
-                        break;
-                    case KING:
-                        totalPoints += 3;
-                        break;
-                    case QUEEN:
-                        totalPoints += 2;
-                        break;
-                    case JACK:
-                        totalPoints += 1;
-                        break;
-                    default:
-                        break;
-                }
-            }
-        }
-        model.addAttribute("totalPointsInHand", totalPoints);
+        model.addAttribute("totalPointsInHand", hand.getHighCardPoints());
         model.addAttribute("deal", deal);
         // Precompute biddingRounds for the template
         List<Bid> biddingHistory = biddingService.getBiddingHistory();
@@ -100,8 +76,11 @@ public class BridgeBiddingController {
         model.addAttribute("currentBidder",
                 com.example.bridge.model.Player.values()[biddingService.getCurrentBidderIndex()]);
         model.addAttribute("biddingFinished", biddingService.isBiddingFinished());
-        model.addAttribute("canDouble", biddingService.isBidAllowed(Bid.doubleBid()));
-        model.addAttribute("canRedouble", biddingService.isBidAllowed(Bid.redoubleBid()));
+        // Legality of every call, decided once per render
+        long legalCalls = biddingService.getLegalCalls();
+        model.addAttribute("legalCalls", legalCalls);
+        model.addAttribute("canDouble", (legalCalls & (1L << AuctionState.DOUBLE_BIT)) != 0);
+        model.addAttribute("canRedouble", (legalCalls & (1L << AuctionState.REDOUBLE_BIT)) != 0);
         model.addAttribute("biddingSystem", biddingService.getBiddingSystem());
         model.addAttribute("allDeals", biddingService.getAllDeals());
         model.addAttribute("suitsOrdered", java.util.List.of(
@@ -126,45 +105,10 @@ public class BridgeBiddingController {
         // Calculate total points for each display hand
         List<Integer> displayHandPoints = new ArrayList<>();
         for (Hand h : displayHands) {
-            int points = 0;
-            if (h.getCards() != null) {
-                for (Card card : h.getCards()) {
-                    switch (card.getRank()) {
-                        case ACE:
-                            points += 4;
-                            break;
-                        case KING:
-                            points += 3;
-                            break;
-                        case QUEEN:
-                            points += 2;
-                            break;
-                        case JACK:
-                            points += 1;
-                            break;
-                        default:
-                            break;
-                    }
-                }
-            }
-            displayHandPoints.add(points);
+            displayHandPoints.add(h.getHighCardPoints());
         }
         model.addAttribute("displayHandPoints", displayHandPoints);
         model.addAttribute("displayHands", displayHands);
-        // Find highest non-pass bid for client-side validation
-        Bid highestBid = null;
-        for (Bid b : biddingService.getBiddingHistory()) {
-            if (!b.isPass() && (highestBid == null || b.compareTo(highestBid) > 0)) {
-                highestBid = b;
-            }
-        }
-        if (highestBid != null) {
-            model.addAttribute("highestBidLevel", highestBid.getLevel());
-            model.addAttribute("highestBidSuit", highestBid.getSuit() != null ? highestBid.getSuit().name() : null);
-        } else {
-            model.addAttribute("highestBidLevel", null);
-            model.addAttribute("highestBidSuit", null);
-        }
         return "index";
     }
 
@@ -174,14 +118,7 @@ public class BridgeBiddingController {
             trainingMode = "single";
         }
         biddingService.startNewDeal();
-        // --- AUTO BIDDING LOGIC FOR SINGLE HAND MODE ON NEW DEAL ---
-        if ("single".equals(trainingMode)) {
-            int userSeatIndex = biddingService.getUserSeat().ordinal();
-            while (!biddingService.isBiddingFinished() && biddingService.getCurrentBidderIndex() != userSeatIndex) {
-                Bid autoBid = biddingService.getSimpleNaturalBid(biddingService.getBiddingHistory());
-                biddingService.makeBid(autoBid);
-            }
-        }
+        biddingService.playRobots(trainingMode);
         return "redirect:/";
     }
 
@@ -195,7 +132,12 @@ public class BridgeBiddingController {
             @RequestParam(value = "trainingMode", required = false) String trainingMode,
                     Model model) {
         if (biddingSystem != null) {
-            biddingService.setBiddingSystem(biddingSystem);
+            try {
+                biddingService.setBiddingSystem(biddingSystem);
+            } catch (IllegalArgumentException e) {
+                model.addAttribute("bidError", e.getMessage());
+                return index(null, trainingMode, model);
+            }
         }
         if (biddingService.isBiddingFinished()) {
             model.addAttribute("bidError", "Bidding is finished.");
@@ -219,15 +161,7 @@ public class BridgeBiddingController {
             return index(null, null, model);
         }
         biddingService.makeBid(bid);
-        // --- AUTO BIDDING LOGIC FOR SINGLE HAND MODE ---
-        if ("single".equals(trainingMode)) {
-            int userSeatIndex = biddingService.getUserSeat().ordinal();
-            // After user's bid, let AI bid until it's user's turn again
-            while (!biddingService.isBiddingFinished() && biddingService.getCurrentBidderIndex() != userSeatIndex) {
-                Bid autoBid = biddingService.getSimpleNaturalBid(biddingService.getBiddingHistory());
-                biddingService.makeBid(autoBid);
-            }
-        }
+        biddingService.playRobots(trainingMode);
         biddingService.saveDealIfFinished();
         return "redirect:/";
     }
@@ -289,6 +223,7 @@ public class BridgeBiddingController {
         model.addAttribute("finalBids", finalBids);
         model.addAttribute("dealers", dealers);
         model.addAttribute("playerHands", playerHands);
+        model.addAttribute("scores", biddingService.scoreDeals(allDeals));
         return "past-deals";
     }
 
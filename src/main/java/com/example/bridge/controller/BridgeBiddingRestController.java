@@ -2,122 +2,229 @@ package com.example.bridge.controller;
 
 import com.example.bridge.model.*;
 import com.example.bridge.service.BridgeBiddingService;
+import com.example.bridge.service.GameEventListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000") // Allow React dev server
 public class BridgeBiddingRestController {
 
+    // Clients' EventSource reconnects when a stream times out
+    private static final long EVENT_STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    static final String ADMIN_TOKEN_HEADER = "X-Bridge-Admin-Token";
+
     @Autowired
     private BridgeBiddingService biddingService;
 
+    @Value("${bridge.admin.token:}")
+    private String adminToken;
+
+    /**
+     * The table's state, tagged with its version as an ETag. A client that sends the ETag it
+     * has in {@code If-None-Match} gets 304 while nothing has changed. With {@code since}, the
+     * version it has, it gets only the calls made since and the small fields, flagged
+     * {@code delta}; a version from an earlier deal gets the whole state.
+     */
     @GetMapping("/game-state")
     public ResponseEntity<Map<String, Object>> getGameState(
             @RequestParam(value = "biddingSystem", required = false) String biddingSystem,
-            @RequestParam(value = "trainingMode", required = false, defaultValue = "single") String trainingMode) {
+            @RequestParam(value = "trainingMode", required = false, defaultValue = "single") String trainingMode,
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         if (biddingSystem != null) {
-            biddingService.setBiddingSystem(biddingSystem);
+            try {
+                biddingService.setBiddingSystem(biddingSystem);
+            } catch (IllegalArgumentException e) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
         }
 
         Deal deal = biddingService.getCurrentDeal();
         if (deal == null) {
             deal = biddingService.startNewDeal();
-            // Auto bidding logic for single hand mode on first deal
-            if ("single".equals(trainingMode)) {
-                int userSeatIndex = biddingService.getUserSeat().ordinal();
-                while (!biddingService.isBiddingFinished() && biddingService.getCurrentBidderIndex() != userSeatIndex) {
-                    Bid autoBid = biddingService.getSimpleNaturalBid(biddingService.getBiddingHistory());
-                    biddingService.makeBid(autoBid);
-                }
-            }
+            biddingService.playRobots(trainingMode);
+        }
+
+        // The training mode is echoed back, so it is part of the representation
+        long version = biddingService.getStateVersion();
+        String etag = "\"" + version + "-" + trainingMode + "\"";
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
+        int firstCall = since == null ? -1 : biddingService.getFirstCallAfter(since);
 
         Map<String, Object> gameState = new HashMap<>();
+        gameState.put("version", version);
+        gameState.put("delta", firstCall >= 0);
         
         // Basic game info
         gameState.put("trainingMode", trainingMode);
-        gameState.put("dealer", biddingService.getCurrentDealer());
-        gameState.put("dealerIndex", biddingService.getCurrentDealer().ordinal());
-        gameState.put("userSeat", biddingService.getUserSeat());
-        gameState.put("userSeatIndex", biddingService.getUserSeat().ordinal());
         gameState.put("currentBidderIndex", biddingService.getCurrentBidderIndex());
         gameState.put("biddingFinished", biddingService.isBiddingFinished());
         gameState.put("biddingSystem", biddingService.getBiddingSystem());
+        // Bitmask of the current bidder's legal calls; see AuctionState.legalCalls
+        gameState.put("legalCalls", biddingService.getLegalCalls());
 
         // Current hand info
         int currentBidderIndex = biddingService.getCurrentBidderIndex();
         List<Hand> hands = deal.getHands();
-        Hand currentHand = hands.get(currentBidderIndex);
-        
-        Map<String, Object> handInfo = new HashMap<>();
-        handInfo.put("player", currentHand.getPlayer());
-        handInfo.put("cards", currentHand.getSortedCardsBySuitName());
-        handInfo.put("ranks", currentHand.getSortedRankNamesBySuit());
-        handInfo.put("highCardPoints", currentHand.getHighCardPoints());
-        gameState.put("currentHand", handInfo);
+        gameState.put("currentHand", handData(hands.get(currentBidderIndex)));
+
+        List<Bid> biddingHistory = biddingService.getBiddingHistory();
+        if (firstCall >= 0) {
+            // Just the calls the client lacks; it places them in its own table
+            List<Map<String, Object>> calls = new ArrayList<>();
+            for (int i = firstCall; i < biddingHistory.size(); i++) {
+                Map<String, Object> call = new HashMap<>();
+                call.put("index", i);
+                call.put("bid", bidData(biddingHistory.get(i)));
+                calls.add(call);
+            }
+            gameState.put("calls", calls);
+            return ResponseEntity.ok().eTag(etag).body(gameState);
+        }
+
+        gameState.put("dealer", biddingService.getCurrentDealer());
+        gameState.put("dealerIndex", biddingService.getCurrentDealer().ordinal());
+        gameState.put("userSeat", biddingService.getUserSeat());
+        gameState.put("userSeatIndex", biddingService.getUserSeat().ordinal());
 
         // All hands for popup (when needed)
         List<Map<String, Object>> allHands = new ArrayList<>();
         for (Hand hand : hands) {
-            Map<String, Object> handData = new HashMap<>();
-            handData.put("player", hand.getPlayer());
-            handData.put("cards", hand.getSortedCardsBySuitName());
-            handData.put("ranks", hand.getSortedRankNamesBySuit());
-            handData.put("highCardPoints", hand.getHighCardPoints());
-            allHands.add(handData);
+            allHands.add(handData(hand));
         }
         gameState.put("allHands", allHands);
 
         // Bidding history
-        List<Bid> biddingHistory = biddingService.getBiddingHistory();
         List<Map<String, Object>> bids = new ArrayList<>();
         for (Bid bid : biddingHistory) {
-            Map<String, Object> bidData = new HashMap<>();
-            bidData.put("player", bid.getPlayer());
-            bidData.put("level", bid.getLevel());
-            bidData.put("suit", bid.getSuit());
-            bidData.put("bidType", bid.getBidType());
-            bidData.put("isPass", bid.isPass());
-            bidData.put("isDouble", bid.isDouble());
-            bidData.put("isRedouble", bid.isRedouble());
-            bidData.put("displayText", renderBidText(bid));
-            bids.add(bidData);
+            bids.add(bidData(bid));
         }
         gameState.put("biddingHistory", bids);
 
         // Bidding table structure
         gameState.put("biddingTable", prepareBiddingTable(biddingHistory, biddingService.getCurrentDealer()));
 
-        return ResponseEntity.ok(gameState);
+        return ResponseEntity.ok().eTag(etag).body(gameState);
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Object> handData(Hand hand) {
+        Map<String, Object> handData = new HashMap<>();
+        handData.put("player", hand.getPlayer());
+        handData.put("cards", hand.getSortedCardsBySuitName());
+        handData.put("ranks", hand.getSortedRankNamesBySuit());
+        handData.put("highCardPoints", hand.getHighCardPoints());
+        return handData;
+    }
+
+    /**
+     * Server-sent events for the caller's table: {@code deal} when a deal starts, {@code call}
+     * for each call (robots' as they are made) with its index in the auction, {@code bidder}
+     * with the next bidder and their legal calls, and {@code finished} with the contract. A
+     * client fetches the game state once per deal and applies the rest as it arrives.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        SseEmitter emitter = new SseEmitter(EVENT_STREAM_TIMEOUT_MILLIS);
+        Runnable unsubscribe = biddingService.subscribe(new GameEventListener() {
+            @Override
+            public void dealStarted(Player dealer) {
+                Map<String, Object> data = new HashMap<>();
+                data.put("dealer", dealer);
+                data.put("dealerIndex", dealer.ordinal());
+                send(emitter, "deal", data);
+            }
+
+            @Override
+            public void callMade(int index, Bid bid) {
+                Map<String, Object> data = new HashMap<>();
+                data.put("index", index);
+                data.put("bid", bidData(bid));
+                send(emitter, "call", data);
+            }
+
+            @Override
+            public void bidderChanged(Player bidder, long legalCalls) {
+                Map<String, Object> data = new HashMap<>();
+                data.put("currentBidderIndex", bidder.ordinal());
+                data.put("legalCalls", legalCalls);
+                send(emitter, "bidder", data);
+            }
+
+            @Override
+            public void auctionFinished(String contract) {
+                Map<String, Object> data = new HashMap<>();
+                data.put("contract", contract);
+                send(emitter, "finished", data);
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, String name, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone; completing unsubscribes
+            emitter.completeWithError(e);
+        }
     }
 
     @PostMapping("/new-deal")
     public ResponseEntity<Map<String, Object>> startNewDeal(
-            @RequestParam(value = "trainingMode", required = false, defaultValue = "single") String trainingMode) {
+            @RequestParam(value = "trainingMode", required = false, defaultValue = "single") String trainingMode,
+            @RequestParam(value = "robotWaitMillis", required = false) Long robotWaitMillis) {
         
         biddingService.startNewDeal();
-        
-        // Auto bidding for single hand mode
-        if ("single".equals(trainingMode)) {
-            int userSeatIndex = biddingService.getUserSeat().ordinal();
-            while (!biddingService.isBiddingFinished() && biddingService.getCurrentBidderIndex() != userSeatIndex) {
-                Bid autoBid = biddingService.getSimpleNaturalBid(biddingService.getBiddingHistory());
-                biddingService.makeBid(autoBid);
-            }
-        }
+        boolean robotsPending = playRobots(trainingMode, robotWaitMillis);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("message", "New deal started");
+        response.put("robotsPending", robotsPending);
         return ResponseEntity.ok(response);
     }
 
@@ -144,18 +251,13 @@ public class BridgeBiddingRestController {
             if (biddingService.isBidAllowed(bid)) {
                 biddingService.makeBid(bid);
                 
-                // Auto bidding for other players in single hand mode
                 String trainingMode = (String) bidRequest.getOrDefault("trainingMode", "single");
-                if ("single".equals(trainingMode)) {
-                    int userSeatIndex = biddingService.getUserSeat().ordinal();
-                    while (!biddingService.isBiddingFinished() && biddingService.getCurrentBidderIndex() != userSeatIndex) {
-                        Bid autoBid = biddingService.getSimpleNaturalBid(biddingService.getBiddingHistory());
-                        biddingService.makeBid(autoBid);
-                    }
-                }
+                Number robotWaitMillis = (Number) bidRequest.get("robotWaitMillis");
+                boolean robotsPending = playRobots(trainingMode, robotWaitMillis == null ? null : robotWaitMillis.longValue());
 
                 response.put("success", true);
                 response.put("message", "Bid made successfully");
+                response.put("robotsPending", robotsPending);
                 
                 if (biddingService.isBiddingFinished()) {
                     biddingService.saveDealIfFinished();
@@ -173,16 +275,31 @@ public class BridgeBiddingRestController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Lets the robots call, waiting the configured time or {@code waitMillis} (0 to return at
+     * once), and says whether they are still bidding.
+     */
+    private boolean playRobots(String trainingMode, Long waitMillis) {
+        CompletableFuture<Integer> robots = waitMillis == null
+                ? biddingService.playRobots(trainingMode)
+                : biddingService.playRobots(trainingMode, waitMillis);
+        return robots != null && !robots.isDone();
+    }
+
     @GetMapping("/past-deals")
     public ResponseEntity<Map<String, Object>> getPastDeals() {
         List<Deal> allDeals = biddingService.getAllDeals();
+        List<Map<String, Object>> scores = biddingService.scoreDeals(allDeals);
         
         List<Map<String, Object>> dealData = new ArrayList<>();
-        for (Deal deal : allDeals) {
+        for (int i = 0; i < allDeals.size(); i++) {
+            Deal deal = allDeals.get(i);
             Map<String, Object> dealInfo = new HashMap<>();
+            dealInfo.put("id", deal.getId());
             dealInfo.put("dealer", deal.getDealer());
-            dealInfo.put("contract", deal.getContract());
             dealInfo.put("biddingSystem", deal.getBiddingSystem());
+            // Contract, double-dummy score and par
+            dealInfo.putAll(scores.get(i));
             
             // Get bidding history without trailing passes
             List<Bid> bids = getBiddingWithoutTrailingPasses(deal.getBids());
@@ -210,6 +327,167 @@ public class BridgeBiddingRestController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/executors/stats")
+    public ResponseEntity<Map<String, Object>> getExecutorStats() {
+        return ResponseEntity.ok(biddingService.getExecutorStats());
+    }
+
+    @GetMapping("/sessions/stats")
+    public ResponseEntity<Map<String, Object>> getSessionStats() {
+        return ResponseEntity.ok(biddingService.getSessionStats());
+    }
+
+    @GetMapping("/deal-pool/stats")
+    public ResponseEntity<Map<String, Object>> getDealPoolStats() {
+        return ResponseEntity.ok(biddingService.getDealPoolStats());
+    }
+
+    @GetMapping("/bidding-systems")
+    public ResponseEntity<Map<String, Object>> getBiddingSystems() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("systems", biddingService.getBiddingSystems());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Starts reloading a system's rules and answers 202 at once; the outcome shows as the
+     * system's {@code lastReload} in {@code GET /api/bidding-systems}. Only callers presenting
+     * {@code bridge.admin.token} in {@value #ADMIN_TOKEN_HEADER} may reload, and reloading is off
+     * while no token is configured.
+     */
+    @PostMapping("/bidding-systems/{name}/reload")
+    public ResponseEntity<Map<String, Object>> reloadBiddingSystem(
+            @PathVariable String name,
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        Map<String, Object> response = new HashMap<>();
+        if (!isAdmin(token)) {
+            response.put("success", false);
+            response.put("message", "Reloading bidding systems needs the admin token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+        if (!biddingService.canReloadBiddingSystem(name)) {
+            response.put("success", false);
+            response.put("message", "No bidding system " + name);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        // Failures leave the previous version in place and are recorded as the last reload
+        biddingService.reloadBiddingSystem(name);
+        response.put("success", true);
+        response.put("message", "Reloading " + name);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/bidding-systems")
+                .body(response);
+    }
+
+    private boolean isAdmin(String token) {
+        return !adminToken.isEmpty() && token != null && MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queues a self-play simulation run and answers 202 at once with the job; its report shows in
+     * {@code GET /api/simulations/{id}} when done. Runs take whole processors for up to minutes,
+     * so, as with reloads, only callers presenting the admin token may start or read them.
+     */
+    @PostMapping("/simulations")
+    public ResponseEntity<Map<String, Object>> simulate(
+            @RequestParam(value = "boards", defaultValue = "10000") long boards,
+            @RequestParam(value = "seed", required = false) Long seed,
+            @RequestParam(value = "biddingSystem", required = false) String biddingSystem,
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        Map<String, Object> response = new HashMap<>();
+        if (!isAdmin(token)) {
+            response.put("success", false);
+            response.put("message", "Simulations need the admin token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+        try {
+            long dealSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+            Map<String, Object> job = biddingService.startSimulation(biddingSystem, boards, dealSeed);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/simulations/" + job.get("id"))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
+    }
+
+    @GetMapping("/simulations/{id}")
+    public ResponseEntity<Map<String, Object>> getSimulation(
+            @PathVariable long id,
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        Map<String, Object> response = new HashMap<>();
+        if (!isAdmin(token)) {
+            response.put("success", false);
+            response.put("message", "Simulations need the admin token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+        Map<String, Object> job = biddingService.getSimulation(id);
+        if (job == null) {
+            response.put("success", false);
+            response.put("message", "No simulation " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * The current deal's double-dummy table; 202 with a Retry-After while it is being solved,
+     * so clients ask the same URL again rather than holding the table's lock for the solve.
+     */
+    @GetMapping("/double-dummy")
+    public ResponseEntity<Map<String, Object>> getDoubleDummyTable() {
+        if (biddingService.getCurrentDeal() == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "No current deal");
+            return ResponseEntity.badRequest().body(response);
+        }
+        try {
+            return doubleDummyResponse(biddingService.getDoubleDummyTable(), "/api/double-dummy");
+        } catch (IllegalStateException e) {
+            return doubleDummyFailure(e);
+        }
+    }
+
+    @GetMapping("/deals/{id}/double-dummy")
+    public ResponseEntity<Map<String, Object>> getDoubleDummyTable(@PathVariable Long id) {
+        try {
+            return doubleDummyResponse(biddingService.getDoubleDummyTable(id), "/api/deals/" + id + "/double-dummy");
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IllegalStateException e) {
+            return doubleDummyFailure(e);
+        }
+    }
+
+    @GetMapping("/double-dummy/cache/stats")
+    public ResponseEntity<Map<String, Object>> getDoubleDummyCacheStats() {
+        return ResponseEntity.ok(biddingService.getDoubleDummyCacheStats());
+    }
+
+    @GetMapping("/inferred-hands")
+    public ResponseEntity<Map<String, Object>> getInferredHands() {
+        Map<String, Object> response = new HashMap<>();
+        if (biddingService.getCurrentDeal() == null) {
+            response.put("success", false);
+            response.put("message", "No current deal");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("success", true);
+        response.put("hands", biddingService.getInferredHands());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/advice/{handIndex}")
     public ResponseEntity<Map<String, Object>> getAdvice(@PathVariable int handIndex) {
         Deal deal = biddingService.getCurrentDeal();
@@ -220,14 +498,45 @@ public class BridgeBiddingRestController {
         }
         
         Hand hand = deal.getHands().get(handIndex);
-        String advice = biddingService.getAdvice(hand, biddingService.getBiddingHistory());
-        
+        return ResponseEntity.ok(biddingService.getAdviceReport(hand, biddingService.getBiddingHistory()));
+    }
+
+    // Helper methods
+    private ResponseEntity<Map<String, Object>> doubleDummyResponse(TrickTable table, String location) {
         Map<String, Object> response = new HashMap<>();
-        response.put("advice", advice);
+        if (table == null) {
+            response.put("success", true);
+            response.put("solving", true);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, location)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+        response.put("success", true);
+        response.put("tricks", table.toMap());
         return ResponseEntity.ok(response);
     }
 
-    // Helper methods
+    private ResponseEntity<Map<String, Object>> doubleDummyFailure(IllegalStateException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    private Map<String, Object> bidData(Bid bid) {
+        Map<String, Object> bidData = new HashMap<>();
+        bidData.put("player", bid.getPlayer());
+        bidData.put("level", bid.getLevel());
+        bidData.put("suit", bid.getSuit());
+        bidData.put("bidType", bid.getBidType());
+        bidData.put("isPass", bid.isPass());
+        bidData.put("isDouble", bid.isDouble());
+        bidData.put("isRedouble", bid.isRedouble());
+        bidData.put("displayText", renderBidText(bid));
+        return bidData;
+    }
+
     private String renderBidText(Bid bid) {
         if (bid == null) return "-";
         if (bid.isPass()) return "Pass";
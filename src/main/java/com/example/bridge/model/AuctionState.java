@@ -0,0 +1,232 @@
+package com.example.bridge.model;
+
+import java.util.List;
+
+/**
+ * Running summary of an auction, updated in O(1) per call: the current contract bid and its
+ * bidder, whether it is doubled or redoubled, the number of passes since the last non-pass call,
+ * each seat's last call and last non-pass call, and which seat of each partnership first named
+ * each strain. Legality and completion checks read these fields instead of rescanning the call
+ * list.
+ * <p>
+ * {@link #legalCalls(Player)} reports every legal call at once as a bitmask over the 38 calls,
+ * bit {@link Call#getCode()} for each call.
+ */
+public final class AuctionState {
+
+    public static final int CALL_COUNT = Call.COUNT;
+    public static final int PASS_BIT = Call.PASS_CODE;
+    public static final int DOUBLE_BIT = Call.DOUBLE_CODE;
+    public static final int REDOUBLE_BIT = Call.REDOUBLE_CODE;
+    private static final long CONTRACT_BIDS = (1L << PASS_BIT) - 1;
+    private static final byte NONE = -1;
+
+    // Call codes throughout; NONE when there is no such call
+    private int contract = NONE;
+    private Player contractBidder;
+    private boolean doubled;
+    private boolean redoubled;
+    private int consecutivePasses;
+    private int callCount;
+    private final byte[] lastCalls = {NONE, NONE, NONE, NONE};
+    private final byte[] lastSignificantCalls = {NONE, NONE, NONE, NONE};
+    // Player ordinal, indexed by partnership (North-South 0) * 5 + strain ordinal
+    private final byte[] firstToName = {NONE, NONE, NONE, NONE, NONE, NONE, NONE, NONE, NONE, NONE};
+
+    /**
+     * Replays {@code history}, whose calls must carry their {@link Bid#getPlayer() player}.
+     */
+    public static AuctionState of(List<Bid> history) {
+        AuctionState state = new AuctionState();
+        for (Bid bid : history) {
+            state.add(bid);
+        }
+        return state;
+    }
+
+    /**
+     * An independent state at the same point, for trying out continuations.
+     */
+    public AuctionState copy() {
+        AuctionState copy = new AuctionState();
+        copy.contract = contract;
+        copy.contractBidder = contractBidder;
+        copy.doubled = doubled;
+        copy.redoubled = redoubled;
+        copy.consecutivePasses = consecutivePasses;
+        copy.callCount = callCount;
+        System.arraycopy(lastCalls, 0, copy.lastCalls, 0, 4);
+        System.arraycopy(lastSignificantCalls, 0, copy.lastSignificantCalls, 0, 4);
+        System.arraycopy(firstToName, 0, copy.firstToName, 0, firstToName.length);
+        return copy;
+    }
+
+    /**
+     * Records {@code bid} as made by its {@link Bid#getPlayer() player}. Does not check legality.
+     */
+    public void add(Bid bid) {
+        add(bid.getCall(), bid.getPlayer());
+    }
+
+    /**
+     * Records {@code call} as made by {@code player}. Does not check legality.
+     */
+    public void add(Call call, Player player) {
+        int code = call.getCode();
+        callCount++;
+        if (player != null) {
+            lastCalls[player.ordinal()] = (byte) code;
+        }
+        if (code == Call.PASS_CODE) {
+            consecutivePasses++;
+            return;
+        }
+        consecutivePasses = 0;
+        if (player != null) {
+            lastSignificantCalls[player.ordinal()] = (byte) code;
+        }
+        if (code == Call.DOUBLE_CODE) {
+            doubled = true;
+        } else if (code == Call.REDOUBLE_CODE) {
+            redoubled = true;
+        } else {
+            contract = code;
+            contractBidder = player;
+            if (player != null && firstToName[strainIndex(player, code)] == NONE) {
+                firstToName[strainIndex(player, code)] = (byte) player.ordinal();
+            }
+            doubled = false;
+            redoubled = false;
+        }
+    }
+
+    /**
+     * Whether {@code bidder} may make {@code bid} next.
+     */
+    public boolean isAllowed(Bid bid, Player bidder) {
+        int code = bid.getCode();
+        // Contract bids outside levels 1 to 7 have no code
+        return code >= 0 && isAllowed(code, bidder);
+    }
+
+    /**
+     * Whether {@code bidder} may make {@code call} next.
+     */
+    public boolean isAllowed(Call call, Player bidder) {
+        return isAllowed(call.getCode(), bidder);
+    }
+
+    private boolean isAllowed(int code, Player bidder) {
+        if (code == Call.PASS_CODE) {
+            return true;
+        }
+        if (code == Call.DOUBLE_CODE) {
+            return contract != NONE && !doubled && contractBidder != null && contractBidder.isOpponent(bidder);
+        }
+        if (code == Call.REDOUBLE_CODE) {
+            return doubled && !redoubled && contractBidder != null && !contractBidder.isOpponent(bidder);
+        }
+        return code > contract;
+    }
+
+    /**
+     * All calls {@code bidder} may make next, as a bitmask (see class comment); zero once the
+     * auction is finished.
+     */
+    public long legalCalls(Player bidder) {
+        if (isFinished()) {
+            return 0L;
+        }
+        long calls = 1L << PASS_BIT;
+        if (contract == NONE) {
+            return calls | CONTRACT_BIDS;
+        }
+        // Every contract bid ranked above the current one
+        calls |= CONTRACT_BIDS & -(1L << (contract + 1));
+        if (contractBidder != null) {
+            boolean declaringSide = !contractBidder.isOpponent(bidder);
+            if (!doubled && !declaringSide) {
+                calls |= 1L << DOUBLE_BIT;
+            } else if (doubled && !redoubled && declaringSide) {
+                calls |= 1L << REDOUBLE_BIT;
+            }
+        }
+        return calls;
+    }
+
+    /**
+     * Position of {@code bid} in the {@link #legalCalls(Player)} bitmask.
+     */
+    public static int callBit(Bid bid) {
+        return bid.getCode();
+    }
+
+    /**
+     * Finished after four passes with no bid, or three passes after a bid.
+     */
+    public boolean isFinished() {
+        return consecutivePasses >= (contract == NONE ? 4 : 3);
+    }
+
+    /**
+     * True while nobody has made a non-pass call.
+     */
+    public boolean isOpening() {
+        return contract == NONE;
+    }
+
+    /**
+     * The last contract bid, or null while nobody has bid.
+     */
+    public Call getContract() {
+        return contract == NONE ? null : Call.of(contract);
+    }
+
+    public Player getContractBidder() {
+        return contractBidder;
+    }
+
+    /**
+     * Whoever of the contract bidder's partnership first named the contract's strain, or null
+     * while nobody has bid.
+     */
+    public Player getDeclarer() {
+        if (contract == NONE || contractBidder == null) {
+            return null;
+        }
+        return Player.values()[firstToName[strainIndex(contractBidder, contract)]];
+    }
+
+    private static int strainIndex(Player player, int code) {
+        return player.ordinal() % 2 * 5 + code % 5;
+    }
+
+    public boolean isDoubled() {
+        return doubled;
+    }
+
+    public boolean isRedoubled() {
+        return redoubled;
+    }
+
+    public int getConsecutivePasses() {
+        return consecutivePasses;
+    }
+
+    public int getCallCount() {
+        return callCount;
+    }
+
+    public Call getLastCall(Player player) {
+        byte code = lastCalls[player.ordinal()];
+        return code == NONE ? null : Call.of(code);
+    }
+
+    /**
+     * The player's last call other than a pass, or null.
+     */
+    public Call getLastSignificantCall(Player player) {
+        byte code = lastSignificantCalls[player.ordinal()];
+        return code == NONE ? null : Call.of(code);
+    }
+}
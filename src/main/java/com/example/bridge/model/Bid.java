@@ -2,6 +2,10 @@ package com.example.bridge.model;
 
 import jakarta.persistence.*;
 
+/**
+ * A call made by a player in a particular deal, as persisted with the deal. The call itself is a
+ * {@link Call}; {@link #getCode()} gives its compact code without allocating.
+ */
 @Entity
 public class Bid implements Comparable<Bid> {
 
@@ -64,6 +68,29 @@ public class Bid implements Comparable<Bid> {
         return suit == Card.Suit.NOTRUMP;
     }
 
+    /**
+     * The {@link Call} code of this bid, or -1 for a contract bid outside levels 1 to 7.
+     */
+    public int getCode() {
+        switch (bidType) {
+            case PASS: return Call.PASS_CODE;
+            case DOUBLE: return Call.DOUBLE_CODE;
+            case REDOUBLE: return Call.REDOUBLE_CODE;
+            case STANDARD:
+            default:
+                return level < 1 || level > 7 || suit == null ? -1 : (level - 1) * 5 + suit.ordinal();
+        }
+    }
+
+    /**
+     * The shared {@link Call} for this bid.
+     *
+     * @throws IllegalArgumentException if the bid is outside levels 1 to 7
+     */
+    public Call getCall() {
+        return Call.of(getCode());
+    }
+
     public Player getPlayer() {
         return player;
     }
@@ -105,10 +132,8 @@ public class Bid implements Comparable<Bid> {
             return 0;
         }
 
-        if (this.level != other.level) {
-            return Integer.compare(this.level, other.level);
-        }
-        return Integer.compare(this.suit.ordinal(), other.suit.ordinal());
+        // Contract bid codes are in rank order
+        return Integer.compare(this.level * 5 + this.suit.ordinal(), other.level * 5 + other.suit.ordinal());
     }
 
     @Override
@@ -123,9 +148,7 @@ public class Bid implements Comparable<Bid> {
 
     @Override
     public int hashCode() {
-        if (!isStandard()) {
-            return java.util.Objects.hash(bidType);
-        }
-        return java.util.Objects.hash(bidType, level, suit);
+        int code = getCode();
+        return code >= 0 ? code : Call.COUNT + level * 5 + (suit == null ? 0 : suit.ordinal());
     }
 }
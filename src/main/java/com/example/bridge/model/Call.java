@@ -0,0 +1,153 @@
+package com.example.bridge.model;
+
+import java.util.List;
+
+/**
+ * One of the 38 calls, as a shared immutable value. Each call has a code from 0 to 37: the 35
+ * contract bids in rank order as {@code (level - 1) * 5 + suit} (suits in {@link Card.Suit} order,
+ * no-trump last), then {@link #PASS_CODE}, {@link #DOUBLE_CODE} and {@link #REDOUBLE_CODE}. So
+ * comparing contract bids is comparing codes, and a whole auction fits in a {@code byte[]}.
+ * <p>
+ * {@link Bid} is the persisted record of a call made by a player in a particular deal; this class is
+ * just the call.
+ */
+public final class Call implements Comparable<Call> {
+
+    public static final int COUNT = 38;
+    public static final int PASS_CODE = 35;
+    public static final int DOUBLE_CODE = 36;
+    public static final int REDOUBLE_CODE = 37;
+
+    private static final Call[] CALLS = new Call[COUNT];
+
+    static {
+        for (int code = 0; code < PASS_CODE; code++) {
+            CALLS[code] = new Call(code, code / 5 + 1, Card.Suit.values()[code % 5], Bid.BidType.STANDARD);
+        }
+        CALLS[PASS_CODE] = new Call(PASS_CODE, 0, null, Bid.BidType.PASS);
+        CALLS[DOUBLE_CODE] = new Call(DOUBLE_CODE, 0, null, Bid.BidType.DOUBLE);
+        CALLS[REDOUBLE_CODE] = new Call(REDOUBLE_CODE, 0, null, Bid.BidType.REDOUBLE);
+    }
+
+    public static final Call PASS = CALLS[PASS_CODE];
+    public static final Call DOUBLE = CALLS[DOUBLE_CODE];
+    public static final Call REDOUBLE = CALLS[REDOUBLE_CODE];
+
+    private final int code;
+    private final int level;
+    private final Card.Suit suit;
+    private final Bid.BidType type;
+
+    private Call(int code, int level, Card.Suit suit, Bid.BidType type) {
+        this.code = code;
+        this.level = level;
+        this.suit = suit;
+        this.type = type;
+    }
+
+    public static Call of(int code) {
+        if (code < 0 || code >= COUNT) {
+            throw new IllegalArgumentException("Call code must be between 0 and " + (COUNT - 1) + ": " + code);
+        }
+        return CALLS[code];
+    }
+
+    public static Call bid(int level, Card.Suit suit) {
+        if (level < 1 || level > 7 || suit == null) {
+            throw new IllegalArgumentException("Not a contract bid: " + level + " " + suit);
+        }
+        return CALLS[(level - 1) * 5 + suit.ordinal()];
+    }
+
+    /**
+     * Reads a call in short form: {@code 1C} to {@code 7NT}, {@code P} (or {@code Pass}), {@code X}
+     * or {@code XX}, ignoring case.
+     *
+     * @throws IllegalArgumentException if {@code text} is not a call
+     */
+    public static Call parse(String text) {
+        String call = text.trim().toUpperCase();
+        switch (call) {
+            case "P": case "PASS": return PASS;
+            case "X": return DOUBLE;
+            case "XX": return REDOUBLE;
+            default:
+                break;
+        }
+        if (call.length() >= 2 && call.charAt(0) >= '1' && call.charAt(0) <= '7') {
+            String suit = call.substring(1);
+            for (Card.Suit candidate : Card.Suit.values()) {
+                if (candidate.getShortName().equals(suit)) {
+                    return bid(call.charAt(0) - '0', candidate);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a call: " + text);
+    }
+
+    /**
+     * Codes of the calls in {@code history}, one byte each.
+     *
+     * @throws IllegalArgumentException if a bid is outside levels 1 to 7
+     */
+    public static byte[] encode(List<Bid> history) {
+        byte[] auction = new byte[history.size()];
+        for (int i = 0; i < auction.length; i++) {
+            auction[i] = (byte) of(history.get(i).getCode()).code;
+        }
+        return auction;
+    }
+
+    /**
+     * Fresh {@link Bid}s for an encoded auction, with players assigned in turn from {@code dealer}.
+     */
+    public static List<Bid> decode(byte[] auction, Player dealer) {
+        Bid[] bids = new Bid[auction.length];
+        for (int i = 0; i < auction.length; i++) {
+            bids[i] = of(auction[i]).toBid(Player.values()[(dealer.ordinal() + i) % 4]);
+        }
+        return List.of(bids);
+    }
+
+    public int getCode() { return code; }
+    public int getLevel() { return level; }
+    public Card.Suit getSuit() { return suit; }
+    public Bid.BidType getBidType() { return type; }
+    public boolean isPass() { return code == PASS_CODE; }
+    public boolean isDouble() { return code == DOUBLE_CODE; }
+    public boolean isRedouble() { return code == REDOUBLE_CODE; }
+    public boolean isStandard() { return code < PASS_CODE; }
+    public boolean isNoTrump() { return suit == Card.Suit.NOTRUMP; }
+
+    /**
+     * A new, unattached {@link Bid} for this call made by {@code player}.
+     */
+    public Bid toBid(Player player) {
+        Bid bid = isStandard() ? new Bid(level, suit)
+                : isPass() ? Bid.pass()
+                : isDouble() ? Bid.doubleBid()
+                : Bid.redoubleBid();
+        bid.setPlayer(player);
+        return bid;
+    }
+
+    /**
+     * Rank order of contract bids; pass, double and redouble sort after all of them.
+     */
+    @Override
+    public int compareTo(Call other) {
+        return Integer.compare(code, other.code);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case PASS: return "Pass";
+            case DOUBLE: return "Double";
+            case REDOUBLE: return "Redouble";
+            case STANDARD:
+            default:
+                return level + " " + (suit == Card.Suit.NOTRUMP ? "NT" : suit.getShortName());
+        }
+    }
+}
@@ -30,6 +30,18 @@ public class Card implements Comparable<Card> {
     public Suit getSuit() { return suit; }
     public Rank getRank() { return rank; }
 
+    /**
+     * Position of this card in a 52-bit hand mask: 13 bits per suit, clubs in the
+     * lowest bits and the deuce as the lowest bit of each suit.
+     */
+    public int getIndex() {
+        return suit.ordinal() * 13 + rank.ordinal();
+    }
+
+    public static Card fromIndex(int index) {
+        return new Card(Suit.values()[index / 13], Rank.values()[index % 13]);
+    }
+
     public Hand getHand() {
         return hand;
     }
@@ -38,6 +50,10 @@ public class Card implements Comparable<Card> {
         this.hand = hand;
     }
 
+    /**
+     * A shuffled 52-card deck as entities. Dealing boards should go through {@link DealGenerator},
+     * which works on card masks and never allocates cards it does not hand out.
+     */
     public static List<Card> getShuffledDeck() {
         List<Card> deck = new ArrayList<>();
         for (Suit suit : Suit.values()) {
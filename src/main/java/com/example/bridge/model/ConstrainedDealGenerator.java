@@ -0,0 +1,185 @@
+package com.example.bridge.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rejection sampler for boards matching a {@link DealSpec}. Constrained seats are dealt first
+ * and each hand is checked as soon as its 13 cards are drawn, so most attempts are abandoned
+ * after one hand. If a short sequential run finds nothing, the search fans out over a
+ * {@link ForkJoinPool}, one independent random stream per worker; the first worker to succeed
+ * wins. Every accepted board is a uniform sample from the boards matching the spec.
+ * <p>
+ * Specs whose length constraints are rare are handed to {@link ShapeFirstDealGenerator} instead.
+ * A search is bounded both by attempts and by wall-clock time, so a spec that is rare only in
+ * its HCP bounds fails fast with an {@link IllegalStateException} instead of holding the caller
+ * and the pool for seconds.
+ */
+public final class ConstrainedDealGenerator {
+
+    /** Attempts made on the calling thread before fanning out. */
+    static final int SEQUENTIAL_ATTEMPTS = 20_000;
+    public static final long DEFAULT_MAX_ATTEMPTS = 20_000_000L;
+    public static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+    /** Attempts a parallel worker makes between checks of the shared budget. */
+    private static final int BATCH = 4096;
+
+    /**
+     * Specs whose allowed hand shapes cover less than this fraction of all boards are built
+     * shape-first instead of by rejection.
+     */
+    static final double SHAPE_FIRST_THRESHOLD = 0.25;
+    private static final int MAX_CACHED_PLANS = 1024;
+
+    private final ForkJoinPool pool;
+    private final long maxAttempts;
+    private final long budgetNanos;
+    private final Map<DealSpec, Optional<ShapeFirstDealGenerator>> shapeFirstPlans = new ConcurrentHashMap<>();
+
+    public ConstrainedDealGenerator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public ConstrainedDealGenerator(ForkJoinPool pool) {
+        this(pool, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public ConstrainedDealGenerator(ForkJoinPool pool, long maxAttempts) {
+        this(pool, maxAttempts, DEFAULT_BUDGET_MILLIS);
+    }
+
+    public ConstrainedDealGenerator(ForkJoinPool pool, long maxAttempts, long budgetMillis) {
+        if (maxAttempts < 1 || budgetMillis < 1) {
+            throw new IllegalArgumentException("Attempt cap and time budget must be positive");
+        }
+        this.pool = pool;
+        this.maxAttempts = maxAttempts;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    /**
+     * Deals one board matching {@code spec} as four card masks indexed by {@link Player} ordinal.
+     *
+     * @throws IllegalStateException if no match is found within the attempt cap or time budget
+     */
+    public long[] generate(DealSpec spec) {
+        if (spec.isUnconstrained()) {
+            return DealGenerator.current().deal();
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        ShapeFirstDealGenerator shapeFirst = shapeFirstPlan(spec);
+        if (shapeFirst != null) {
+            return shapeFirst.generate(ThreadLocalRandom.current(), maxAttempts, deadline);
+        }
+        int[] order = dealingOrder(spec);
+        long[] hands = new long[4];
+        DealGenerator generator = DealGenerator.current();
+        long sequential = Math.min(SEQUENTIAL_ATTEMPTS, maxAttempts);
+        for (long attempt = 0; attempt < sequential; attempt++) {
+            if (tryDeal(generator, spec, order, hands)) {
+                return hands;
+            }
+        }
+        long[] found = generateInParallel(spec, order, maxAttempts - sequential, deadline);
+        if (found == null) {
+            throw new IllegalStateException("No deal matching [" + spec + "] within " + maxAttempts + " attempts or "
+                    + TimeUnit.NANOSECONDS.toMillis(budgetNanos) + " ms; the spec is too rare to deal on demand");
+        }
+        return found;
+    }
+
+    private long[] generateInParallel(DealSpec spec, int[] order, long budget, long deadline) {
+        AtomicReference<long[]> result = new AtomicReference<>();
+        AtomicLong remaining = new AtomicLong(budget);
+        SplittableRandom root = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            DealGenerator generator = new DealGenerator(root.split());
+            workers.add(() -> {
+                long[] hands = new long[4];
+                while (result.get() == null && System.nanoTime() < deadline && remaining.getAndAdd(-BATCH) > 0) {
+                    for (int attempt = 0; attempt < BATCH; attempt++) {
+                        if (tryDeal(generator, spec, order, hands)) {
+                            result.compareAndSet(null, hands);
+                            return null;
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(workers);
+        return result.get();
+    }
+
+    /**
+     * The shape-first generator for {@code spec} when its length constraints are rare enough to
+     * make direct construction pay off, otherwise null. Enumeration runs once per spec.
+     */
+    ShapeFirstDealGenerator shapeFirstPlan(DealSpec spec) {
+        Optional<ShapeFirstDealGenerator> plan = shapeFirstPlans.get(spec);
+        if (plan == null) {
+            ShapeFirstDealGenerator generator = ShapeFirstDealGenerator.forSpec(spec);
+            if (generator != null && generator.getShapeProbability() >= SHAPE_FIRST_THRESHOLD) {
+                generator = null;
+            }
+            plan = Optional.ofNullable(generator);
+            if (shapeFirstPlans.size() >= MAX_CACHED_PLANS) {
+                shapeFirstPlans.clear();
+            }
+            shapeFirstPlans.put(spec, plan);
+        }
+        return plan.orElse(null);
+    }
+
+    /**
+     * Deals one board seat by seat in {@code order}, giving up on the first hand that fails.
+     */
+    static boolean tryDeal(DealGenerator generator, DealSpec spec, int[] order, long[] hands) {
+        for (int slot = 0; slot < 4; slot++) {
+            int seat = order[slot];
+            long mask = generator.dealHand(slot);
+            if (!spec.getHand(seat).matches(mask)) {
+                return false;
+            }
+            hands[seat] = mask;
+        }
+        return spec.fitsMatch(hands);
+    }
+
+    /**
+     * Seats ordered so that constrained hands are dealt, and rejected, first.
+     */
+    static int[] dealingOrder(DealSpec spec) {
+        Integer[] seats = {0, 1, 2, 3};
+        Arrays.sort(seats, (a, b) -> Integer.compare(restrictiveness(spec.getHand(b)), restrictiveness(spec.getHand(a))));
+        int[] order = new int[4];
+        for (int i = 0; i < 4; i++) {
+            order[i] = seats[i];
+        }
+        return order;
+    }
+
+    private static int restrictiveness(HandConstraint constraint) {
+        int score = (HandConstraint.MAX_HCP - (constraint.getMaxHcp() - constraint.getMinHcp()));
+        for (Card.Suit suit : new Card.Suit[]{Card.Suit.CLUBS, Card.Suit.DIAMONDS, Card.Suit.HEARTS, Card.Suit.SPADES}) {
+            score += 13 - (constraint.getMaxLength(suit) - constraint.getMinLength(suit));
+        }
+        if (constraint.getBalanced() != null) {
+            score += 5;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bridge.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The final contract of an auction: level, strain, whether it is doubled or redoubled, and the
+ * declarer, who is whoever of the declaring partnership first named the strain. Immutable.
+ */
+public final class Contract {
+
+    private final Call bid;
+    private final boolean doubled;
+    private final boolean redoubled;
+    private final Player declarer;
+
+    public Contract(Call bid, boolean doubled, boolean redoubled, Player declarer) {
+        if (!bid.isStandard() || declarer == null || (redoubled && !doubled)) {
+            throw new IllegalArgumentException("Not a contract: " + bid + (redoubled ? " XX" : doubled ? " X" : "") + " by " + declarer);
+        }
+        this.bid = bid;
+        this.doubled = doubled;
+        this.redoubled = redoubled;
+        this.declarer = declarer;
+    }
+
+    /**
+     * The contract {@code auction} has reached so far, or null while nobody has bid.
+     */
+    public static Contract of(AuctionState auction) {
+        Call bid = auction.getContract();
+        Player declarer = auction.getDeclarer();
+        return bid == null || declarer == null ? null
+                : new Contract(bid, auction.isDoubled(), auction.isRedoubled(), declarer);
+    }
+
+    /**
+     * The contract reached by {@code history}, whose calls must carry their player, or null if
+     * nobody bid.
+     */
+    public static Contract of(List<Bid> history) {
+        return of(AuctionState.of(history));
+    }
+
+    public Call getBid() {
+        return bid;
+    }
+
+    public int getLevel() {
+        return bid.getLevel();
+    }
+
+    public Card.Suit getStrain() {
+        return bid.getSuit();
+    }
+
+    public boolean isDoubled() {
+        return doubled;
+    }
+
+    public boolean isRedoubled() {
+        return redoubled;
+    }
+
+    /**
+     * 0 undoubled, 1 doubled, 2 redoubled.
+     */
+    public int getDoubling() {
+        return redoubled ? 2 : doubled ? 1 : 0;
+    }
+
+    public Player getDeclarer() {
+        return declarer;
+    }
+
+    /**
+     * Tricks declarer needs to make the contract.
+     */
+    public int getTricksNeeded() {
+        return bid.getLevel() + 6;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Contract that = (Contract) o;
+        return bid == that.bid && doubled == that.doubled && redoubled == that.redoubled && declarer == that.declarer;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bid, doubled, redoubled, declarer);
+    }
+
+    /**
+     * For example {@code 4 H X by S}.
+     */
+    @Override
+    public String toString() {
+        return bid + (redoubled ? " XX" : doubled ? " X" : "") + " by " + declarer.getShortName();
+    }
+}
@@ -23,6 +23,12 @@ public class Deal {
 
     private String contract;
 
+    // Seed the hands were dealt from (see DealStream), or null for constrained or legacy deals
+    private Long dealSeed;
+
+    // Double-dummy tricks as TrickTable.encode() gives them, once solved
+    private String doubleDummyTricks;
+
     public Deal() {
         this.bids = new ArrayList<>();
     }
@@ -85,6 +91,22 @@ public class Deal {
         this.contract = contract;
     }
 
+    public Long getDealSeed() {
+        return dealSeed;
+    }
+
+    public void setDealSeed(Long dealSeed) {
+        this.dealSeed = dealSeed;
+    }
+
+    public String getDoubleDummyTricks() {
+        return doubleDummyTricks;
+    }
+
+    public void setDoubleDummyTricks(String doubleDummyTricks) {
+        this.doubleDummyTricks = doubleDummyTricks;
+    }
+
     public void addBid(Bid bid) {
         if (this.bids == null) {
             this.bids = new ArrayList<>();
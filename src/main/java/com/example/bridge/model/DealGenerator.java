@@ -0,0 +1,115 @@
+package com.example.bridge.model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+
+/**
+ * Deals random boards as four 52-bit hand masks (see {@link Card#getIndex()}) by running
+ * Fisher-Yates over a reusable {@code byte[52]}, so no {@link Card} objects are created until a
+ * caller actually needs them. An instance is not thread-safe; use {@link #current()} for a
+ * per-thread generator or {@link #generate(long, long, DealConsumer)} for bulk runs.
+ */
+public final class DealGenerator {
+
+    public static final int DECK_SIZE = 52;
+    public static final int HAND_SIZE = 13;
+    public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+
+    /** Deals per parallel task in bulk mode; each task gets its own random stream. */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final ThreadLocal<DealGenerator> CURRENT =
+            ThreadLocal.withInitial(() -> new DealGenerator(ThreadLocalRandom.current()));
+
+    private final RandomGenerator random;
+    private final byte[] deck = new byte[DECK_SIZE];
+
+    public DealGenerator(RandomGenerator random) {
+        this.random = random;
+        for (int i = 0; i < DECK_SIZE; i++) {
+            deck[i] = (byte) i;
+        }
+    }
+
+    public DealGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Generator for the calling thread, backed by {@link ThreadLocalRandom}.
+     */
+    public static DealGenerator current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Deals one board into {@code hands}, indexed by {@link Player} ordinal.
+     */
+    public void deal(long[] hands) {
+        for (int seat = 0; seat < 4; seat++) {
+            hands[seat] = dealHand(seat);
+        }
+    }
+
+    public long[] deal() {
+        long[] hands = new long[4];
+        deal(hands);
+        return hands;
+    }
+
+    /**
+     * Draws the 13 cards for one seat: a forward Fisher-Yates pass over deck positions
+     * {@code seat * 13 .. seat * 13 + 12}. Seats must be dealt in order 0 to 3 for one board, but
+     * a caller may stop early (for example once a hand fails a constraint) and start the next
+     * board from seat 0; the deck does not need resetting because any permutation is a valid
+     * starting point for a shuffle.
+     */
+    public long dealHand(int seat) {
+        int start = seat * HAND_SIZE;
+        if (seat == 3) {
+            long mask = 0L;
+            for (int i = start; i < DECK_SIZE; i++) {
+                mask |= 1L << deck[i];
+            }
+            return mask;
+        }
+        long mask = 0L;
+        for (int i = start; i < start + HAND_SIZE; i++) {
+            int j = i + random.nextInt(DECK_SIZE - i);
+            byte card = deck[j];
+            deck[j] = deck[i];
+            deck[i] = card;
+            mask |= 1L << card;
+        }
+        return mask;
+    }
+
+    /**
+     * Bulk mode: deals {@code count} boards across the common fork-join pool and passes each to
+     * {@code consumer}, which must be thread-safe. The same seed always produces the same set of
+     * boards, although the consumer sees them in no particular order.
+     */
+    public static void generate(long count, long seed, DealConsumer consumer) {
+        long chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] chunkSeeds = new long[(int) chunks];
+        for (int i = 0; i < chunks; i++) {
+            chunkSeeds[i] = root.nextLong();
+        }
+        LongStream.range(0, chunks).parallel().forEach(chunk -> {
+            DealGenerator generator = new DealGenerator(chunkSeeds[(int) chunk]);
+            long boards = Math.min(CHUNK_SIZE, count - chunk * CHUNK_SIZE);
+            for (long i = 0; i < boards; i++) {
+                consumer.accept(generator.dealHand(0), generator.dealHand(1),
+                        generator.dealHand(2), generator.dealHand(3));
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface DealConsumer {
+        void accept(long north, long east, long south, long west);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bridge.model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * A flat file of {@link DealRecord}s, memory-mapped for random access by index. Opening a file
+ * only maps it, so even libraries of millions of boards open in milliseconds, and reading a
+ * board decodes its 13 bytes straight from the mapping without creating {@link Card} or
+ * {@link Hand} objects. Files over 2 GB are mapped in several segments.
+ * <p>
+ * Reads use absolute buffer access only, so one open library can be shared between threads.
+ */
+public final class DealLibrary implements Closeable {
+
+    /** Records per mapped segment; keeps each mapping well under 2 GB. */
+    private static final int RECORDS_PER_SEGMENT = 1 << 26;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private DealLibrary(FileChannel channel, MappedByteBuffer[] segments, long size) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Maps an existing library file read-only.
+     *
+     * @throws IOException if the file cannot be read or its length is not a whole number of records
+     */
+    public static DealLibrary open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long bytes = channel.size();
+            if (bytes % DealRecord.RECORD_SIZE != 0) {
+                throw new IOException(path + " is not a deal library: " + bytes + " bytes is not a multiple of "
+                        + DealRecord.RECORD_SIZE);
+            }
+            long size = bytes / DealRecord.RECORD_SIZE;
+            int segmentCount = (int) ((size + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        first * DealRecord.RECORD_SIZE, records * DealRecord.RECORD_SIZE);
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new DealLibrary(channel, segments, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code deals}, each four card masks indexed by {@link Player} ordinal, to a new
+     * library file in encounter order, replacing any existing file.
+     *
+     * @return the number of boards written
+     */
+    public static long write(Path path, Stream<long[]> deals) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            byte[] record = new byte[DealRecord.RECORD_SIZE];
+            long count = 0;
+            Iterator<long[]> iterator = deals.iterator();
+            while (iterator.hasNext()) {
+                DealRecord.encode(iterator.next(), record, 0);
+                out.write(record);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Decodes board {@code index} into {@code hands} without allocating.
+     *
+     * @throws IndexOutOfBoundsException if {@code index} is not below {@link #size()}
+     * @throws IllegalArgumentException  if the record is corrupt
+     */
+    public void get(long index, long[] hands) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Deal " + index + " of " + size);
+        }
+        MappedByteBuffer segment = segments[(int) (index / RECORDS_PER_SEGMENT)];
+        int position = (int) (index % RECORDS_PER_SEGMENT) * DealRecord.RECORD_SIZE;
+        long first = segment.getLong(position);
+        long second = (segment.getInt(position + 8) & 0xFFFFFFFFL)
+                | (segment.get(position + 12) & 0xFFL) << 32;
+        DealRecord.decode(first, second, hands);
+    }
+
+    public long[] get(long index) {
+        long[] hands = new long[4];
+        get(index, hands);
+        return hands;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
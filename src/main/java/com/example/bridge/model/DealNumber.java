@@ -0,0 +1,209 @@
+package com.example.bridge.model;
+
+import java.math.BigInteger;
+
+/**
+ * The canonical number of a board, 0 to 52!/(13!)^4 - 1, held in 96 bits as two longs. Boards
+ * and numbers map one to one, so a number can stand in for the whole Deal/Hand/Card graph when
+ * storing, hashing, deduplicating or sending boards.
+ * <p>
+ * The number is {@code ((north * C(39,13)) + east) * C(26,13) + south}, where each hand's rank is
+ * its position in colexicographic order among the 13-card subsets of the cards not yet taken by
+ * the seats before it (the combinatorial number system), computed from a precomputed binomial
+ * table. West holds whatever is left.
+ */
+public final class DealNumber implements Comparable<DealNumber> {
+
+    private static final long[][] BINOMIAL = new long[DealGenerator.DECK_SIZE + 1][DealGenerator.HAND_SIZE + 1];
+
+    static {
+        for (int n = 0; n <= DealGenerator.DECK_SIZE; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, DealGenerator.HAND_SIZE); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private static final long EAST_SOUTH_WAYS = BINOMIAL[39][13] * BINOMIAL[26][13];
+
+    /** Number of distinct boards, 52! / (13!)^4. */
+    public static final BigInteger TOTAL = BigInteger.valueOf(BINOMIAL[52][13])
+            .multiply(BigInteger.valueOf(EAST_SOUTH_WAYS));
+
+    // Top 32 bits of the number; always below 2^32
+    private final long high;
+    private final long low;
+
+    private DealNumber(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the number is not below {@link #TOTAL}
+     */
+    public static DealNumber of(long high, long low) {
+        DealNumber number = new DealNumber(high, low);
+        if (high < 0 || number.toBigInteger().compareTo(TOTAL) >= 0) {
+            throw new IllegalArgumentException("Not a deal number: " + number.toBigInteger());
+        }
+        return number;
+    }
+
+    public static DealNumber parse(String decimal) {
+        BigInteger value = new BigInteger(decimal);
+        if (value.signum() < 0 || value.bitLength() > 96) {
+            throw new IllegalArgumentException("Not a deal number: " + decimal);
+        }
+        return of(value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    /**
+     * Numbers a board given as four card masks indexed by {@link Player} ordinal.
+     *
+     * @throws IllegalArgumentException if the masks are not four disjoint 13-card hands
+     */
+    public static DealNumber encode(long[] hands) {
+        for (int seat = 0; seat < 4; seat++) {
+            if (Long.bitCount(hands[seat]) != DealGenerator.HAND_SIZE) {
+                throw new IllegalArgumentException("Hand " + Player.values()[seat] + " does not hold 13 cards");
+            }
+        }
+        // Four 13-card hands covering 52 cards cannot overlap
+        if ((hands[0] | hands[1] | hands[2] | hands[3]) != DealGenerator.FULL_DECK) {
+            throw new IllegalArgumentException("Hands do not cover the deck");
+        }
+        long remaining = DealGenerator.FULL_DECK;
+        long[] ranks = new long[3];
+        for (int seat = 0; seat < 3; seat++) {
+            ranks[seat] = rank(hands[seat], remaining);
+            remaining &= ~hands[seat];
+        }
+        // north * (C(39,13) * C(26,13)) needs up to 96 bits
+        long north = ranks[0];
+        long productHigh = Math.multiplyHigh(north, EAST_SOUTH_WAYS);
+        long productLow = north * EAST_SOUTH_WAYS;
+        long rest = ranks[1] * BINOMIAL[26][13] + ranks[2];
+        long low = productLow + rest;
+        long high = productHigh + (Long.compareUnsigned(low, productLow) < 0 ? 1 : 0);
+        return new DealNumber(high, low);
+    }
+
+    public static DealNumber encode(Deal deal) {
+        long[] hands = new long[4];
+        for (Hand hand : deal.getHands()) {
+            hands[hand.getPlayer().ordinal()] = hand.getCardMask();
+        }
+        return encode(hands);
+    }
+
+    /**
+     * The board as four card masks indexed by {@link Player} ordinal.
+     */
+    public long[] decode() {
+        // Quotient by C(39,13) * C(26,13) is below 2^40; estimate in floating point, then correct
+        double estimate = (high * 0x1p64 + unsignedToDouble(low)) / EAST_SOUTH_WAYS;
+        long north = (long) estimate;
+        long remainder;
+        while (true) {
+            long productHigh = Math.multiplyHigh(north, EAST_SOUTH_WAYS);
+            long productLow = north * EAST_SOUTH_WAYS;
+            long diffLow = low - productLow;
+            long diffHigh = high - productHigh - (Long.compareUnsigned(low, productLow) < 0 ? 1 : 0);
+            if (diffHigh < 0) {
+                north--;
+            } else if (diffHigh > 0 || Long.compareUnsigned(diffLow, EAST_SOUTH_WAYS) >= 0) {
+                north++;
+            } else {
+                remainder = diffLow;
+                break;
+            }
+        }
+        long[] ranks = {north, remainder / BINOMIAL[26][13], remainder % BINOMIAL[26][13]};
+        long[] hands = new long[4];
+        long remaining = DealGenerator.FULL_DECK;
+        for (int seat = 0; seat < 3; seat++) {
+            hands[seat] = unrank(ranks[seat], remaining);
+            remaining &= ~hands[seat];
+        }
+        hands[3] = remaining;
+        return hands;
+    }
+
+    /**
+     * Colexicographic rank of {@code hand} among the 13-card subsets of {@code remaining}.
+     */
+    static long rank(long hand, long remaining) {
+        long rank = 0;
+        int k = 1;
+        for (long cards = hand; cards != 0; cards &= cards - 1) {
+            long below = Long.lowestOneBit(cards) - 1;
+            rank += BINOMIAL[Long.bitCount(remaining & below)][k++];
+        }
+        return rank;
+    }
+
+    static long unrank(long rank, long remaining) {
+        int available = Long.bitCount(remaining);
+        long hand = 0;
+        int position = available - 1;
+        for (int k = DealGenerator.HAND_SIZE; k >= 1; k--) {
+            while (BINOMIAL[position][k] > rank) {
+                position--;
+            }
+            rank -= BINOMIAL[position][k];
+            hand |= selectBit(remaining, position);
+            position--;
+        }
+        return hand;
+    }
+
+    private static long selectBit(long mask, int index) {
+        for (int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Long.lowestOneBit(mask);
+    }
+
+    private static double unsignedToDouble(long value) {
+        double result = (double) (value >>> 1) * 2.0;
+        return result + (value & 1);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public BigInteger toBigInteger() {
+        return BigInteger.valueOf(high).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(low)));
+    }
+
+    @Override
+    public int compareTo(DealNumber other) {
+        int result = Long.compare(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DealNumber that = (DealNumber) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString();
+    }
+}
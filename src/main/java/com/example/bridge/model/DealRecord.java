@@ -0,0 +1,120 @@
+package com.example.bridge.model;
+
+/**
+ * Fixed-width 13-byte binary form of a board: two bits per card holding the owner's
+ * {@link Player} ordinal, card {@code i} (see {@link Card#getIndex()}) at bits {@code 2i, 2i+1},
+ * little-endian. Conversion to and from the four hand masks is branch-free bit spreading and
+ * compaction, with no per-card loop.
+ */
+public final class DealRecord {
+
+    public static final int RECORD_SIZE = 13;
+
+    private static final long EVEN_BITS = 0x5555555555555555L;
+
+    private DealRecord() {
+    }
+
+    /**
+     * Writes the board given as four card masks indexed by {@link Player} ordinal into
+     * {@code out[offset .. offset + 12]}.
+     *
+     * @throws IllegalArgumentException if the masks are not four disjoint 13-card hands
+     */
+    public static void encode(long[] hands, byte[] out, int offset) {
+        validate(hands);
+        // Bit 0 of the owner is set for East and West, bit 1 for South and West
+        long ownerLow = hands[1] | hands[3];
+        long ownerHigh = hands[2] | hands[3];
+        long first = spread(ownerLow) | spread(ownerHigh) << 1;
+        long second = spread(ownerLow >>> 32) | spread(ownerHigh >>> 32) << 1;
+        for (int i = 0; i < 8; i++) {
+            out[offset + i] = (byte) (first >>> (8 * i));
+        }
+        for (int i = 0; i < 5; i++) {
+            out[offset + 8 + i] = (byte) (second >>> (8 * i));
+        }
+    }
+
+    public static byte[] encode(long[] hands) {
+        byte[] record = new byte[RECORD_SIZE];
+        encode(hands, record, 0);
+        return record;
+    }
+
+    public static long[] decode(byte[] record, int offset) {
+        long first = 0;
+        for (int i = 0; i < 8; i++) {
+            first |= (record[offset + i] & 0xFFL) << (8 * i);
+        }
+        long second = 0;
+        for (int i = 0; i < 5; i++) {
+            second |= (record[offset + 8 + i] & 0xFFL) << (8 * i);
+        }
+        long[] hands = new long[4];
+        decode(first, second, hands);
+        return hands;
+    }
+
+    public static long[] decode(byte[] record) {
+        return decode(record, 0);
+    }
+
+    /**
+     * Decodes a record given as its first 8 bytes ({@code first}, cards 0-31) and last 5 bytes
+     * ({@code second}, cards 32-51), each read little-endian, into {@code hands}.
+     *
+     * @throws IllegalArgumentException if the record does not give every seat 13 cards
+     */
+    public static void decode(long first, long second, long[] hands) {
+        long ownerLow = compact(first) | compact(second) << 32;
+        long ownerHigh = compact(first >>> 1) | compact(second >>> 1) << 32;
+        hands[0] = ~ownerLow & ~ownerHigh & DealGenerator.FULL_DECK;
+        hands[1] = ownerLow & ~ownerHigh;
+        hands[2] = ~ownerLow & ownerHigh;
+        hands[3] = ownerLow & ownerHigh;
+        for (int seat = 0; seat < 4; seat++) {
+            if (Long.bitCount(hands[seat]) != DealGenerator.HAND_SIZE) {
+                throw new IllegalArgumentException("Corrupt deal record: " + Player.values()[seat]
+                        + " holds " + Long.bitCount(hands[seat]) + " cards");
+            }
+        }
+    }
+
+    private static void validate(long[] hands) {
+        for (int seat = 0; seat < 4; seat++) {
+            if (Long.bitCount(hands[seat]) != DealGenerator.HAND_SIZE) {
+                throw new IllegalArgumentException("Hand " + Player.values()[seat] + " does not hold 13 cards");
+            }
+        }
+        if ((hands[0] | hands[1] | hands[2] | hands[3]) != DealGenerator.FULL_DECK) {
+            throw new IllegalArgumentException("Hands do not cover the deck");
+        }
+    }
+
+    /**
+     * Moves the low 32 bits of {@code x} to the even bit positions.
+     */
+    static long spread(long x) {
+        x &= 0xFFFFFFFFL;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        x = (x | x << 4) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | x << 2) & 0x3333333333333333L;
+        x = (x | x << 1) & EVEN_BITS;
+        return x;
+    }
+
+    /**
+     * Gathers the even bits of {@code x} into the low 32 bits; the inverse of {@link #spread}.
+     */
+    static long compact(long x) {
+        x &= EVEN_BITS;
+        x = (x | x >>> 1) & 0x3333333333333333L;
+        x = (x | x >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | x >>> 4) & 0x00FF00FF00FF00FFL;
+        x = (x | x >>> 8) & 0x0000FFFF0000FFFFL;
+        x = (x | x >>> 16) & 0xFFFFFFFFL;
+        return x;
+    }
+}
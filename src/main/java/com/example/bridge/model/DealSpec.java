@@ -0,0 +1,157 @@
+package com.example.bridge.model;
+
+import java.util.Arrays;
+
+/**
+ * Per-seat {@link HandConstraint}s describing the boards wanted for a drill, for example
+ * "South 15-17 balanced" or "North 10+ HCP with a five-card major". Immutable.
+ */
+public final class DealSpec {
+
+    private static final DealSpec RANDOM = new DealSpec(new HandConstraint[]{
+            HandConstraint.any(), HandConstraint.any(), HandConstraint.any(), HandConstraint.any()},
+            new int[2], new Card.Suit[2]);
+
+    // Indexed by Player ordinal
+    private final HandConstraint[] hands;
+    // Indexed by partnership (0 = North-South, 1 = East-West); 0 means no fit required
+    private final int[] minFits;
+    // Suit the fit must be in, or null for any suit
+    private final Card.Suit[] fitSuits;
+
+    private DealSpec(HandConstraint[] hands, int[] minFits, Card.Suit[] fitSuits) {
+        this.hands = hands;
+        this.minFits = minFits;
+        this.fitSuits = fitSuits;
+    }
+
+    public static DealSpec random() {
+        return RANDOM;
+    }
+
+    public DealSpec withHand(Player seat, HandConstraint constraint) {
+        HandConstraint[] newHands = hands.clone();
+        newHands[seat.ordinal()] = constraint;
+        return new DealSpec(newHands, minFits, fitSuits);
+    }
+
+    /**
+     * Requires {@code seat} and partner to hold at least {@code minCombined} cards between them in
+     * {@code suit}, or in some suit when {@code suit} is null.
+     */
+    public DealSpec withFit(Player seat, Card.Suit suit, int minCombined) {
+        int partnership = seat.ordinal() % 2;
+        int[] newMinFits = minFits.clone();
+        Card.Suit[] newFitSuits = fitSuits.clone();
+        newMinFits[partnership] = minCombined;
+        newFitSuits[partnership] = suit;
+        return new DealSpec(hands, newMinFits, newFitSuits);
+    }
+
+    public HandConstraint getHand(Player seat) {
+        return hands[seat.ordinal()];
+    }
+
+    HandConstraint getHand(int seat) {
+        return hands[seat];
+    }
+
+    public int getMinFit(Player seat) {
+        return minFits[seat.ordinal() % 2];
+    }
+
+    public Card.Suit getFitSuit(Player seat) {
+        return fitSuits[seat.ordinal() % 2];
+    }
+
+    public boolean isUnconstrained() {
+        if (minFits[0] > 0 || minFits[1] > 0) {
+            return false;
+        }
+        for (HandConstraint hand : hands) {
+            if (!hand.isUnconstrained()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean matches(long[] cardMasks) {
+        for (int seat = 0; seat < 4; seat++) {
+            if (!hands[seat].matches(cardMasks[seat])) {
+                return false;
+            }
+        }
+        return fitsMatch(cardMasks);
+    }
+
+    /**
+     * Checks only the partnership fit requirements.
+     */
+    public boolean fitsMatch(long[] cardMasks) {
+        for (int partnership = 0; partnership < 2; partnership++) {
+            if (minFits[partnership] > 0) {
+                long combined = cardMasks[partnership] | cardMasks[partnership + 2];
+                if (!hasFit(partnership, combined)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean hasFit(int partnership, long combined) {
+        for (int suit = 0; suit < 4; suit++) {
+            if (fitSuits[partnership] != null && fitSuits[partnership].ordinal() != suit) {
+                continue;
+            }
+            if (Long.bitCount(combined & (0x1FFFL << (suit * 13))) >= minFits[partnership]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DealSpec that = (DealSpec) o;
+        return Arrays.equals(hands, that.hands)
+                && Arrays.equals(minFits, that.minFits)
+                && Arrays.equals(fitSuits, that.fitSuits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(hands) + Arrays.hashCode(minFits)) + Arrays.hashCode(fitSuits);
+    }
+
+    @Override
+    public String toString() {
+        if (isUnconstrained()) {
+            return "random";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Player seat : Player.values()) {
+            if (!hands[seat.ordinal()].isUnconstrained()) {
+                if (sb.length() > 0) {
+                    sb.append("; ");
+                }
+                sb.append(seat.getShortName()).append(": ").append(hands[seat.ordinal()]);
+            }
+        }
+        for (int partnership = 0; partnership < 2; partnership++) {
+            if (minFits[partnership] > 0) {
+                if (sb.length() > 0) {
+                    sb.append("; ");
+                }
+                sb.append(partnership == 0 ? "NS" : "EW").append(" fit ").append(minFits[partnership]).append('+');
+                if (fitSuits[partnership] != null) {
+                    sb.append(' ').append(fitSuits[partnership].getShortName());
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
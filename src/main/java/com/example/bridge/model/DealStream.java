@@ -0,0 +1,111 @@
+package com.example.bridge.model;
+
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A reproducible, index-addressable sequence of boards. Deal {@code k} of a stream depends only on
+ * the stream seed and {@code k}: its deal seed is a SplitMix64 mix of the two, and the board is a
+ * Fisher-Yates shuffle of a fresh deck driven by that seed. Jumping to any deal is therefore
+ * O(1), and any set of index ranges can be dealt independently by separate threads or processes
+ * with identical results.
+ * <p>
+ * A deal seed alone is enough to rebuild its board with {@link #dealFromSeed(long)}, which is
+ * what {@link Deal#getDealSeed()} records. The shuffle uses its own generator and bounded draw
+ * rather than a JDK {@link RandomGenerator}, so archived seeds keep producing the same boards
+ * across JDK versions.
+ */
+public final class DealStream {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public DealStream(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Seed of deal number {@code index}; distinct indices give distinct seeds.
+     */
+    public long dealSeed(long index) {
+        return mix64(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Deal number {@code index} as four card masks indexed by {@link Player} ordinal.
+     */
+    public long[] deal(long index) {
+        return dealFromSeed(dealSeed(index));
+    }
+
+    /**
+     * Deals {@code from} (inclusive) to {@code to} (exclusive) in index order. The stream splits
+     * by index range, so {@code .parallel()} spreads the work without changing any board.
+     */
+    public Stream<long[]> deals(long from, long to) {
+        return LongStream.range(from, to).mapToObj(this::deal);
+    }
+
+    /**
+     * The contiguous share of deals {@code 0 .. total-1} belonging to {@code worker} out of
+     * {@code workers}. Slices are disjoint and together cover every deal exactly once.
+     */
+    public Stream<long[]> slice(int worker, int workers, long total) {
+        if (worker < 0 || worker >= workers) {
+            throw new IllegalArgumentException("Worker " + worker + " out of range for " + workers + " workers");
+        }
+        return deals(sliceStart(worker, workers, total), sliceStart(worker + 1, workers, total));
+    }
+
+    private static long sliceStart(int worker, int workers, long total) {
+        return total / workers * worker + Math.min(worker, total % workers);
+    }
+
+    /**
+     * Rebuilds the board for a deal seed, as recorded by {@link Deal#getDealSeed()}.
+     */
+    public static long[] dealFromSeed(long dealSeed) {
+        return new DealGenerator(new SeededRandom(dealSeed)).deal();
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * SplitMix64 with a fixed bounded draw (Lemire's multiply-shift with rejection).
+     */
+    private static final class SeededRandom implements RandomGenerator {
+        private long state;
+
+        SeededRandom(long seed) {
+            this.state = seed;
+        }
+
+        @Override
+        public long nextLong() {
+            state += GOLDEN_GAMMA;
+            return mix64(state);
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            long product = (nextLong() >>> 32) * bound;
+            if ((product & 0xFFFFFFFFL) < bound) {
+                long threshold = (0x100000000L - bound) % bound;
+                while ((product & 0xFFFFFFFFL) < threshold) {
+                    product = (nextLong() >>> 32) * bound;
+                }
+            }
+            return (int) (product >>> 32);
+        }
+    }
+}
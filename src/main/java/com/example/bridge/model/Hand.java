@@ -1,9 +1,9 @@
 package com.example.bridge.model;
 
 import jakarta.persistence.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Collections;
 import java.util.stream.Collectors;
 
 @Entity
@@ -21,6 +21,9 @@ public class Hand {
     @Enumerated(EnumType.STRING)
     private Player player;
 
+    @Transient
+    private long cardMask = -1L;
+
     public Hand() {
     }
 
@@ -33,6 +36,18 @@ public class Hand {
         this.player = player;
     }
 
+    /**
+     * Builds a hand from a card mask, materialising the card list for persistence and templates.
+     */
+    public Hand(long cardMask, Player player) {
+        this.cards = new ArrayList<>(Long.bitCount(cardMask));
+        for (long remaining = cardMask; remaining != 0; remaining &= remaining - 1) {
+            cards.add(Card.fromIndex(Long.numberOfTrailingZeros(remaining)));
+        }
+        this.player = player;
+        this.cardMask = cardMask;
+    }
+
     public Long getId() {
         return id;
     }
@@ -43,6 +58,7 @@ public class Hand {
 
     public void setCards(List<Card> cards) {
         this.cards = cards;
+        this.cardMask = -1L;
     }
 
     public Deal getDeal() {
@@ -92,42 +108,101 @@ public class Hand {
         this.player = player;
     }
 
-    public int getHighCardPoints() {
-        if (cards == null) {
-            return 0;
-        }
-        int hcp = 0;
-        for (Card card : cards) {
-            switch (card.getRank()) {
-                case ACE:
-                    hcp += 4;
-                    break;
-                case KING:
-                    hcp += 3;
-                    break;
-                case QUEEN:
-                    hcp += 2;
-                    break;
-                case JACK:
-                    hcp += 1;
-                    break;
-                default:
-                    break;
+    /**
+     * The hand as a 52-bit mask (see {@link Card#getIndex()}), derived from the card list on first
+     * use and cached until {@link #setCards(List)} is called again.
+     */
+    public long getCardMask() {
+        if (cardMask < 0) {
+            long mask = 0L;
+            if (cards != null) {
+                for (Card card : cards) {
+                    mask |= 1L << card.getIndex();
+                }
             }
+            cardMask = mask;
         }
-        return hcp;
+        return cardMask;
     }
 
-    public String getSuitDistribution() {
-        if (cards == null) {
-            return "0-0-0-0";
+    /**
+     * The 13-bit holding in one suit, deuce in bit 0 and ace in bit 12.
+     */
+    public int getSuitHolding(Card.Suit suit) {
+        if (suit == Card.Suit.NOTRUMP) {
+            return 0;
         }
-        Map<Card.Suit, List<Card>> bySuit = getCardsBySuit();
+        return holding(getCardMask(), suit.ordinal());
+    }
+
+    public int getSuitLength(Card.Suit suit) {
+        return Integer.bitCount(getSuitHolding(suit));
+    }
+
+    public int getHighCardPoints() {
+        return highCardPoints(getCardMask());
+    }
+
+    public static int highCardPoints(long mask) {
+        return SuitHoldingTables.hcp(holding(mask, 0))
+                + SuitHoldingTables.hcp(holding(mask, 1))
+                + SuitHoldingTables.hcp(holding(mask, 2))
+                + SuitHoldingTables.hcp(holding(mask, 3));
+    }
+
+    public int getHonorCount() {
+        long mask = getCardMask();
+        return SuitHoldingTables.honors(holding(mask, 0))
+                + SuitHoldingTables.honors(holding(mask, 1))
+                + SuitHoldingTables.honors(holding(mask, 2))
+                + SuitHoldingTables.honors(holding(mask, 3));
+    }
+
+    public int getControls() {
+        long mask = getCardMask();
+        return SuitHoldingTables.controls(holding(mask, 0))
+                + SuitHoldingTables.controls(holding(mask, 1))
+                + SuitHoldingTables.controls(holding(mask, 2))
+                + SuitHoldingTables.controls(holding(mask, 3));
+    }
+
+    public double getQuickTricks() {
+        long mask = getCardMask();
+        return (SuitHoldingTables.quickTrickHalves(holding(mask, 0))
+                + SuitHoldingTables.quickTrickHalves(holding(mask, 1))
+                + SuitHoldingTables.quickTrickHalves(holding(mask, 2))
+                + SuitHoldingTables.quickTrickHalves(holding(mask, 3))) / 2.0;
+    }
+
+    public int getLosingTrickCount() {
+        long mask = getCardMask();
+        return SuitHoldingTables.losers(holding(mask, 0))
+                + SuitHoldingTables.losers(holding(mask, 1))
+                + SuitHoldingTables.losers(holding(mask, 2))
+                + SuitHoldingTables.losers(holding(mask, 3));
+    }
+
+    /**
+     * Shortness points (void 3, singleton 2, doubleton 1), to be added to HCP for suit play.
+     */
+    public int getDistributionPoints() {
+        long mask = getCardMask();
+        return SuitHoldingTables.shortnessPoints(holding(mask, 0))
+                + SuitHoldingTables.shortnessPoints(holding(mask, 1))
+                + SuitHoldingTables.shortnessPoints(holding(mask, 2))
+                + SuitHoldingTables.shortnessPoints(holding(mask, 3));
+    }
+
+    public boolean hasStrongSuit(Card.Suit suit) {
+        return SuitHoldingTables.isStrongSuit(getSuitHolding(suit));
+    }
+
+    public String getSuitDistribution() {
         return String.format("%d-%d-%d-%d",
-                bySuit.getOrDefault(Card.Suit.SPADES, Collections.emptyList()).size(),
-                bySuit.getOrDefault(Card.Suit.HEARTS, Collections.emptyList()).size(),
-                bySuit.getOrDefault(Card.Suit.DIAMONDS, Collections.emptyList()).size(),
-                bySuit.getOrDefault(Card.Suit.CLUBS, Collections.emptyList()).size()
+                getSuitLength(Card.Suit.SPADES),
+                getSuitLength(Card.Suit.HEARTS),
+                getSuitLength(Card.Suit.DIAMONDS),
+                getSuitLength(Card.Suit.CLUBS)
         );
     }
 
@@ -135,32 +210,42 @@ public class Hand {
         if (cards == null) {
             return java.util.Collections.emptyMap();
         }
-        Map<Card.Suit, List<Card>> cardsBySuit = getCardsBySuit();
         Map<Card.Suit, Integer> suitLengths = new java.util.EnumMap<>(Card.Suit.class);
         for (Card.Suit suit : Card.Suit.values()) {
             if (suit != Card.Suit.NOTRUMP) {
-                suitLengths.put(suit, cardsBySuit.getOrDefault(suit, java.util.Collections.emptyList()).size());
+                suitLengths.put(suit, getSuitLength(suit));
             }
         }
         return suitLengths;
     }
 
     public boolean isBalanced() {
-        Map<Card.Suit, Integer> suitLengths = getSuitLengths();
-        int doubletons = 0;
-        int singletons = 0;
-        int voids = 0;
-
-        for (Integer length : suitLengths.values()) {
-            if (length == 2) {
-                doubletons++;
-            } else if (length == 1) {
-                singletons++;
-            } else if (length == 0) {
-                voids++;
-            }
+        return isBalanced(getCardMask());
+    }
+
+    public static boolean isBalanced(long mask) {
+        return isBalancedShape(Integer.bitCount(holding(mask, 0)), Integer.bitCount(holding(mask, 1)),
+                Integer.bitCount(holding(mask, 2)), Integer.bitCount(holding(mask, 3)));
+    }
+
+    /**
+     * The balanced-hand rule applied to four suit lengths: no void, at most one singleton and at
+     * most two doubletons.
+     */
+    static boolean isBalancedShape(int clubs, int diamonds, int hearts, int spades) {
+        if (clubs == 0 || diamonds == 0 || hearts == 0 || spades == 0) {
+            return false;
         }
+        int singletons = (clubs == 1 ? 1 : 0) + (diamonds == 1 ? 1 : 0) + (hearts == 1 ? 1 : 0) + (spades == 1 ? 1 : 0);
+        int doubletons = (clubs == 2 ? 1 : 0) + (diamonds == 2 ? 1 : 0) + (hearts == 2 ? 1 : 0) + (spades == 2 ? 1 : 0);
+        return singletons <= 1 && doubletons <= 2;
+    }
+
+    public static int suitLength(long mask, Card.Suit suit) {
+        return Integer.bitCount(holding(mask, suit.ordinal()));
+    }
 
-        return voids == 0 && singletons <= 1 && doubletons <= 2;
+    private static int holding(long mask, int suitOrdinal) {
+        return (int) (mask >>> (suitOrdinal * 13)) & SuitHoldingTables.SUIT_MASK;
     }
 }
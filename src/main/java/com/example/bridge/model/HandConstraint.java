@@ -0,0 +1,271 @@
+package com.example.bridge.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable bounds on a single hand: an HCP range, a length range per suit and optionally a
+ * balanced/unbalanced requirement. {@link #matches(long)} works directly on a card mask and does
+ * not allocate, so it can sit inside deal-generation loops.
+ */
+public final class HandConstraint {
+
+    public static final int MAX_HCP = 37;
+
+    private static final HandConstraint ANY =
+            new HandConstraint(0, MAX_HCP, new int[]{0, 0, 0, 0}, new int[]{13, 13, 13, 13}, null);
+    // Matches no hand
+    private static final HandConstraint NOTHING =
+            new HandConstraint(MAX_HCP, 0, new int[]{0, 0, 0, 0}, new int[]{13, 13, 13, 13}, null);
+
+    private final int minHcp;
+    private final int maxHcp;
+    // Indexed by Card.Suit ordinal, clubs to spades
+    private final int[] minLengths;
+    private final int[] maxLengths;
+    private final Boolean balanced;
+
+    private HandConstraint(int minHcp, int maxHcp, int[] minLengths, int[] maxLengths, Boolean balanced) {
+        this.minHcp = minHcp;
+        this.maxHcp = maxHcp;
+        this.minLengths = minLengths;
+        this.maxLengths = maxLengths;
+        this.balanced = balanced;
+    }
+
+    public static HandConstraint any() {
+        return ANY;
+    }
+
+    public HandConstraint hcp(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Empty HCP range " + min + "-" + max);
+        }
+        return new HandConstraint(Math.max(0, min), Math.min(MAX_HCP, max), minLengths, maxLengths, balanced);
+    }
+
+    public HandConstraint suitLength(Card.Suit suit, int min, int max) {
+        if (suit == Card.Suit.NOTRUMP || min > max) {
+            throw new IllegalArgumentException("Invalid length constraint " + suit + " " + min + "-" + max);
+        }
+        int[] newMin = minLengths.clone();
+        int[] newMax = maxLengths.clone();
+        newMin[suit.ordinal()] = Math.max(0, min);
+        newMax[suit.ordinal()] = Math.min(13, max);
+        return new HandConstraint(minHcp, maxHcp, newMin, newMax, balanced);
+    }
+
+    public HandConstraint balanced(boolean balanced) {
+        return new HandConstraint(minHcp, maxHcp, minLengths, maxLengths, balanced);
+    }
+
+    /**
+     * Narrows this constraint by another; the result matches only hands matching both.
+     */
+    public HandConstraint intersect(HandConstraint other) {
+        int[] newMin = new int[4];
+        int[] newMax = new int[4];
+        for (int i = 0; i < 4; i++) {
+            newMin[i] = Math.max(minLengths[i], other.minLengths[i]);
+            newMax[i] = Math.min(maxLengths[i], other.maxLengths[i]);
+        }
+        if (balanced != null && other.balanced != null && !balanced.equals(other.balanced)) {
+            // No hand is both balanced and unbalanced
+            return NOTHING;
+        }
+        Boolean newBalanced = other.balanced != null ? other.balanced : balanced;
+        return new HandConstraint(Math.max(minHcp, other.minHcp), Math.min(maxHcp, other.maxHcp),
+                newMin, newMax, newBalanced);
+    }
+
+    /**
+     * Widens this constraint to the smallest one that also matches every hand {@code other}
+     * matches.
+     */
+    public HandConstraint span(HandConstraint other) {
+        int[] newMin = new int[4];
+        int[] newMax = new int[4];
+        for (int i = 0; i < 4; i++) {
+            newMin[i] = Math.min(minLengths[i], other.minLengths[i]);
+            newMax[i] = Math.max(maxLengths[i], other.maxLengths[i]);
+        }
+        Boolean newBalanced = java.util.Objects.equals(balanced, other.balanced) ? balanced : null;
+        return new HandConstraint(Math.min(minHcp, other.minHcp), Math.max(maxHcp, other.maxHcp),
+                newMin, newMax, newBalanced);
+    }
+
+    /**
+     * Narrows this constraint to leave out the hands {@code other} matches, as far as bounds can
+     * say so: exactly when {@code other} covers this constraint in all but one respect (HCP, one
+     * suit's length, or balance), and not at all otherwise. The result always matches every hand
+     * this one does that {@code other} does not; it is contradictory if {@code other} covers
+     * this one entirely.
+     */
+    public HandConstraint without(HandConstraint other) {
+        int uncovered = -1;
+        if (other.minHcp > minHcp || other.maxHcp < maxHcp) {
+            uncovered = 4;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (other.minLengths[i] > minLengths[i] || other.maxLengths[i] < maxLengths[i]) {
+                if (uncovered >= 0) {
+                    return this;
+                }
+                uncovered = i;
+            }
+        }
+        if (other.balanced != null && !other.balanced.equals(balanced)) {
+            if (uncovered >= 0 || balanced != null) {
+                return this;
+            }
+            return balanced(!other.balanced);
+        }
+        if (uncovered < 0) {
+            return NOTHING;
+        }
+        if (uncovered == 4) {
+            int[] range = rangeWithout(minHcp, maxHcp, other.minHcp, other.maxHcp);
+            return range == null ? this : new HandConstraint(range[0], range[1], minLengths, maxLengths, balanced);
+        }
+        int[] range = rangeWithout(minLengths[uncovered], maxLengths[uncovered],
+                other.minLengths[uncovered], other.maxLengths[uncovered]);
+        if (range == null) {
+            return this;
+        }
+        int[] newMin = minLengths.clone();
+        int[] newMax = maxLengths.clone();
+        newMin[uncovered] = range[0];
+        newMax[uncovered] = range[1];
+        return new HandConstraint(minHcp, maxHcp, newMin, newMax, balanced);
+    }
+
+    /**
+     * {@code min..max} less {@code cut..cutMax}, or null if that leaves two pieces.
+     */
+    private static int[] rangeWithout(int min, int max, int cutMin, int cutMax) {
+        if (cutMax < min || cutMin > max) {
+            return new int[]{min, max};
+        }
+        if (cutMin <= min) {
+            return new int[]{cutMax + 1, max};
+        }
+        if (cutMax >= max) {
+            return new int[]{min, cutMin - 1};
+        }
+        return null;
+    }
+
+    public boolean matches(long cardMask) {
+        int hcp = Hand.highCardPoints(cardMask);
+        if (hcp < minHcp || hcp > maxHcp) {
+            return false;
+        }
+        for (int suit = 0; suit < 4; suit++) {
+            int length = Long.bitCount(cardMask & (0x1FFFL << (suit * 13)));
+            if (length < minLengths[suit] || length > maxLengths[suit]) {
+                return false;
+            }
+        }
+        return balanced == null || balanced == Hand.isBalanced(cardMask);
+    }
+
+    public boolean matches(Hand hand) {
+        return matches(hand.getCardMask());
+    }
+
+    /**
+     * True when no 13-card hand can satisfy the bounds, balance included.
+     */
+    public boolean isContradictory() {
+        int minTotal = 0;
+        int maxTotal = 0;
+        for (int i = 0; i < 4; i++) {
+            if (minLengths[i] > maxLengths[i]) {
+                return true;
+            }
+            minTotal += minLengths[i];
+            maxTotal += maxLengths[i];
+        }
+        if (minHcp > maxHcp || minTotal > 13 || maxTotal < 13) {
+            return true;
+        }
+        return balanced != null && !allowsShape(balanced);
+    }
+
+    /**
+     * Whether some suit lengths within the bounds are balanced, or unbalanced, as asked.
+     */
+    private boolean allowsShape(boolean wantBalanced) {
+        for (int c = minLengths[0]; c <= maxLengths[0]; c++) {
+            for (int d = minLengths[1]; d <= maxLengths[1] && c + d <= 13; d++) {
+                for (int h = minLengths[2]; h <= maxLengths[2] && c + d + h <= 13; h++) {
+                    int s = 13 - c - d - h;
+                    if (s >= minLengths[3] && s <= maxLengths[3] && Hand.isBalancedShape(c, d, h, s) == wantBalanced) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isUnconstrained() {
+        return equals(ANY);
+    }
+
+    public int getMinHcp() {
+        return minHcp;
+    }
+
+    public int getMaxHcp() {
+        return maxHcp;
+    }
+
+    public int getMinLength(Card.Suit suit) {
+        return minLengths[suit.ordinal()];
+    }
+
+    public int getMaxLength(Card.Suit suit) {
+        return maxLengths[suit.ordinal()];
+    }
+
+    public Boolean getBalanced() {
+        return balanced;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HandConstraint that = (HandConstraint) o;
+        return minHcp == that.minHcp && maxHcp == that.maxHcp
+                && Arrays.equals(minLengths, that.minLengths)
+                && Arrays.equals(maxLengths, that.maxLengths)
+                && java.util.Objects.equals(balanced, that.balanced);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * minHcp + maxHcp;
+        result = 31 * result + Arrays.hashCode(minLengths);
+        result = 31 * result + Arrays.hashCode(maxLengths);
+        return 31 * result + (balanced == null ? 0 : balanced.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(minHcp).append('-').append(maxHcp).append(" HCP");
+        Card.Suit[] suits = {Card.Suit.SPADES, Card.Suit.HEARTS, Card.Suit.DIAMONDS, Card.Suit.CLUBS};
+        for (Card.Suit suit : suits) {
+            int i = suit.ordinal();
+            if (minLengths[i] > 0 || maxLengths[i] < 13) {
+                sb.append(", ").append(suit.getShortName()).append(' ')
+                        .append(minLengths[i]).append('-').append(maxLengths[i]);
+            }
+        }
+        if (balanced != null) {
+            sb.append(balanced ? ", balanced" : ", unbalanced");
+        }
+        return sb.toString();
+    }
+}
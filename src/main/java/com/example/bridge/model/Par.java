@@ -0,0 +1,128 @@
+package com.example.bridge.model;
+
+/**
+ * The par result of a deal: the contract reached when both sides know the double-dummy tricks
+ * and bid as well as they can, each side outbidding the other whenever that scores better and
+ * doubling any contract that goes down. Immutable.
+ * <p>
+ * Found by working back from 7NT: for each contract bid and each side holding it, the value to
+ * North-South is either that contract's score or the best the other side can do by bidding
+ * higher, whichever the other side prefers; a side with nothing to lose bids on. The side of
+ * the dealer gets the first chance to bid.
+ */
+public final class Par {
+
+    private static final int BIDS = Call.PASS_CODE;
+
+    private final Contract contract;
+    private final int northSouthScore;
+
+    private Par(Contract contract, int northSouthScore) {
+        this.contract = contract;
+        this.northSouthScore = northSouthScore;
+    }
+
+    public static Par of(TrickTable tricks, Player dealer, Vulnerability vulnerability) {
+        // For each contract bid and side (0 North-South, 1 East-West): the seat that declares it
+        // best and North-South's score if it is played, doubled when it goes down
+        int[][] declarers = new int[2][BIDS];
+        int[][] scores = new int[2][BIDS];
+        for (int side = 0; side < 2; side++) {
+            boolean vulnerable = vulnerability.isVulnerable(Player.values()[side]);
+            for (int code = 0; code < BIDS; code++) {
+                Call bid = Call.of(code);
+                Player first = Player.values()[side];
+                Player second = first.getPartner();
+                int firstTricks = tricks.getTricks(bid.getSuit(), first);
+                int secondTricks = tricks.getTricks(bid.getSuit(), second);
+                declarers[side][code] = (secondTricks > firstTricks ? second : first).ordinal();
+                int taken = Math.max(firstTricks, secondTricks);
+                int score = ScoreTable.score(bid, taken >= bid.getLevel() + 6 ? 0 : 1, vulnerable, taken);
+                scores[side][code] = side == 0 ? score : -score;
+            }
+        }
+
+        // value[side][code]: North-South's result once side holds the contract, the other side
+        // to decide; outcome[side][code] the final contract as side * BIDS + code.
+        // best[side][code]: side's best result from bidding code or higher, with its outcome.
+        int[][] value = new int[2][BIDS];
+        int[][] outcome = new int[2][BIDS];
+        int[][] best = new int[2][BIDS + 1];
+        int[][] bestOutcome = new int[2][BIDS + 1];
+        for (int side = 0; side < 2; side++) {
+            bestOutcome[side][BIDS] = -1;
+        }
+        for (int code = BIDS - 1; code >= 0; code--) {
+            for (int side = 0; side < 2; side++) {
+                int other = 1 - side;
+                value[side][code] = scores[side][code];
+                outcome[side][code] = side * BIDS + code;
+                // A side that neither gains nor loses by bidding on still does
+                if (bestOutcome[other][code + 1] >= 0 && !prefers(other, value[side][code], best[other][code + 1])) {
+                    value[side][code] = best[other][code + 1];
+                    outcome[side][code] = bestOutcome[other][code + 1];
+                }
+            }
+            for (int side = 0; side < 2; side++) {
+                // Moving down, so a tie goes to the lower contract
+                if (bestOutcome[side][code + 1] < 0 || !prefers(side, best[side][code + 1], value[side][code])) {
+                    best[side][code] = value[side][code];
+                    bestOutcome[side][code] = outcome[side][code];
+                } else {
+                    best[side][code] = best[side][code + 1];
+                    bestOutcome[side][code] = bestOutcome[side][code + 1];
+                }
+            }
+        }
+
+        // The dealer's side bids first; if it passes the other side may, and then it is passed out
+        int first = dealer.ordinal() % 2;
+        int second = 1 - first;
+        int passValue = 0;
+        int passOutcome = -1;
+        if (prefers(second, best[second][0], 0)) {
+            passValue = best[second][0];
+            passOutcome = bestOutcome[second][0];
+        }
+        int result = passOutcome;
+        int northSouth = passValue;
+        if (!prefers(first, passValue, best[first][0])) {
+            result = bestOutcome[first][0];
+            northSouth = best[first][0];
+        }
+        if (result < 0) {
+            return new Par(null, 0);
+        }
+        int side = result / BIDS;
+        int code = result % BIDS;
+        boolean doubled = side == 0 ? scores[side][code] < 0 : scores[side][code] > 0;
+        Contract contract = new Contract(Call.of(code), doubled, false, Player.values()[declarers[side][code]]);
+        return new Par(contract, northSouth);
+    }
+
+    /**
+     * Whether {@code side} would rather have North-South score {@code a} than {@code b}.
+     */
+    private static boolean prefers(int side, int a, int b) {
+        return side == 0 ? a > b : a < b;
+    }
+
+    /**
+     * The par contract, or null if the deal should be passed out.
+     */
+    public Contract getContract() {
+        return contract;
+    }
+
+    public int getNorthSouthScore() {
+        return northSouthScore;
+    }
+
+    /**
+     * For example {@code 4 S X by E, NS +500}, or {@code Passed out}.
+     */
+    @Override
+    public String toString() {
+        return contract == null ? "Passed out" : contract + ", NS " + (northSouthScore > 0 ? "+" : "") + northSouthScore;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bridge.model;
+
+/**
+ * Duplicate scores for every contract bid, doubling, vulnerability and number of tricks taken,
+ * worked out once into a table of 2,940 shorts so that scoring a board is one array read.
+ * Scores are from the declaring side's point of view: positive when the contract makes,
+ * negative for the undertrick penalty.
+ */
+public final class ScoreTable {
+
+    private static final int TRICKS = 14;
+    private static final short[] SCORES = new short[Call.PASS_CODE * 3 * 2 * TRICKS];
+
+    static {
+        for (int code = 0; code < Call.PASS_CODE; code++) {
+            for (int doubling = 0; doubling < 3; doubling++) {
+                for (int vulnerable = 0; vulnerable < 2; vulnerable++) {
+                    for (int tricks = 0; tricks < TRICKS; tricks++) {
+                        SCORES[index(code, doubling, vulnerable == 1, tricks)] =
+                                (short) compute(code / 5 + 1, Card.Suit.values()[code % 5], doubling, vulnerable == 1, tricks);
+                    }
+                }
+            }
+        }
+    }
+
+    private ScoreTable() {
+    }
+
+    private static int index(int code, int doubling, boolean vulnerable, int tricks) {
+        return ((code * 3 + doubling) * 2 + (vulnerable ? 1 : 0)) * TRICKS + tricks;
+    }
+
+    /**
+     * Declaring side's score for {@code contract} taking {@code tricks} tricks.
+     */
+    public static int score(Contract contract, Vulnerability vulnerability, int tricks) {
+        return score(contract.getBid(), contract.getDoubling(), vulnerability.isVulnerable(contract.getDeclarer()), tricks);
+    }
+
+    /**
+     * Declaring side's score for contract bid {@code bid}, {@code doubling} 0 (undoubled), 1
+     * (doubled) or 2 (redoubled), taking {@code tricks} tricks.
+     *
+     * @throws IllegalArgumentException if {@code bid} is not a contract bid or the doubling or
+     *                                  trick count is out of range
+     */
+    public static int score(Call bid, int doubling, boolean vulnerable, int tricks) {
+        if (!bid.isStandard() || doubling < 0 || doubling > 2 || tricks < 0 || tricks >= TRICKS) {
+            throw new IllegalArgumentException("Cannot score " + bid + " doubling " + doubling + " with " + tricks + " tricks");
+        }
+        return SCORES[index(bid.getCode(), doubling, vulnerable, tricks)];
+    }
+
+    /**
+     * North-South's score for {@code contract} if declarer takes the double-dummy tricks.
+     */
+    public static int northSouthScore(Contract contract, Vulnerability vulnerability, TrickTable tricks) {
+        int score = score(contract, vulnerability, tricks.getTricks(contract.getStrain(), contract.getDeclarer()));
+        return contract.getDeclarer().ordinal() % 2 == 0 ? score : -score;
+    }
+
+    private static int compute(int level, Card.Suit strain, int doubling, boolean vulnerable, int tricks) {
+        int needed = level + 6;
+        int multiplier = 1 << doubling;
+        if (tricks < needed) {
+            int down = needed - tricks;
+            if (doubling == 0) {
+                return -down * (vulnerable ? 100 : 50);
+            }
+            // Doubled: 100, 200, 200 then 300 each not vulnerable; 200 then 300 each vulnerable
+            int penalty = vulnerable
+                    ? 200 + 300 * (down - 1)
+                    : 100 + 200 * Math.min(down - 1, 2) + 300 * Math.max(down - 3, 0);
+            return -penalty * multiplier / 2;
+        }
+        boolean minor = strain == Card.Suit.CLUBS || strain == Card.Suit.DIAMONDS;
+        int perTrick = minor ? 20 : 30;
+        int trickScore = (level * perTrick + (strain == Card.Suit.NOTRUMP ? 10 : 0)) * multiplier;
+        int score = trickScore;
+        if (trickScore >= 100) {
+            score += vulnerable ? 500 : 300;
+        } else {
+            score += 50;
+        }
+        if (level == 6) {
+            score += vulnerable ? 750 : 500;
+        } else if (level == 7) {
+            score += vulnerable ? 1500 : 1000;
+        }
+        int overtricks = tricks - needed;
+        if (doubling == 0) {
+            return score + overtricks * perTrick;
+        }
+        // The insult, and overtricks at 100 a trick doubled (200 vulnerable), twice that redoubled
+        return score + 50 * multiplier / 2 + overtricks * (vulnerable ? 200 : 100) * multiplier / 2;
+    }
+}
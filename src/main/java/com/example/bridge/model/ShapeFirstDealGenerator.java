@@ -0,0 +1,415 @@
+package com.example.bridge.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Direct construction of boards for specs that rejection sampling rarely hits, such as a 7-4-1-1
+ * with 20+ HCP or a partnership holding a nine-card fit.
+ * <p>
+ * Seats with no constraint of their own are merged into a single pool. Every length matrix
+ * (constrained seat or pool, by suit) allowed by the spec's length, balance and fit constraints
+ * is enumerated once, weighted by the number of boards with exactly those lengths: the product
+ * over suits of the multinomial {@code 13! / (n! s! ... pool!)}. A board is built by drawing a
+ * matrix by weight, placing the four honors of each suit into the free slots uniformly, checking
+ * the HCP bounds, and only then placing the spot cards and splitting the pool among its seats.
+ * A failed HCP check redraws the matrix too, so the output has exactly the distribution of
+ * random boards filtered by the spec.
+ */
+public final class ShapeFirstDealGenerator {
+
+    /** Specs allowing more length matrices than this are left to rejection sampling. */
+    static final int MAX_SHAPES = 250_000;
+    private static final int MAX_SEARCH_NODES = 4_000_000;
+    /** Attempts between reads of the clock when a deadline is given. */
+    static final int DEADLINE_CHECK_INTERVAL = 4096;
+
+    /** 52! / (13!)^4. */
+    static final double TOTAL_DEALS = 5.3644737765488792839237440e28;
+
+    private static final double[] LOG_FACTORIALS = new double[53];
+    private static final int[] RANK_HCP = new int[13];
+
+    static {
+        for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+            LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
+        }
+        for (int rank = 0; rank < 13; rank++) {
+            RANK_HCP[rank] = SuitHoldingTables.hcp(1 << rank);
+        }
+    }
+
+    private final DealSpec spec;
+    // Seat ordinals of the constrained seats, in enumeration order
+    private final int[] constrainedSeats;
+    // Seat ordinals sharing the pool; empty when every seat is constrained
+    private final int[] poolSeats;
+    // Lengths per matrix, indexed group * 4 + suit, where the pool (if any) is the last group
+    private final byte[] shapes;
+    private final int groups;
+    private final double[] cumulativeWeights;
+    private final int shapeCount;
+    private final double shapeProbability;
+
+    private ShapeFirstDealGenerator(DealSpec spec, int[] constrainedSeats, int[] poolSeats,
+                                    byte[] shapes, double[] cumulativeWeights, int shapeCount) {
+        this.spec = spec;
+        this.constrainedSeats = constrainedSeats;
+        this.poolSeats = poolSeats;
+        this.groups = constrainedSeats.length + (poolSeats.length > 0 ? 1 : 0);
+        this.shapes = shapes;
+        this.cumulativeWeights = cumulativeWeights;
+        this.shapeCount = shapeCount;
+        this.shapeProbability = shapeCount == 0 ? 0 : cumulativeWeights[shapeCount - 1] / TOTAL_DEALS;
+    }
+
+    /**
+     * Enumerates the length matrices allowed by {@code spec}.
+     *
+     * @return the generator, or null if the spec allows too many matrices for direct construction
+     */
+    public static ShapeFirstDealGenerator forSpec(DealSpec spec) {
+        List<Integer> constrained = new ArrayList<>();
+        List<Integer> pool = new ArrayList<>();
+        for (Player seat : Player.values()) {
+            if (spec.getHand(seat).isUnconstrained() && spec.getMinFit(seat) == 0) {
+                pool.add(seat.ordinal());
+            } else {
+                constrained.add(seat.ordinal());
+            }
+        }
+        int[] constrainedSeats = constrained.stream().mapToInt(Integer::intValue).toArray();
+        int[] poolSeats = pool.stream().mapToInt(Integer::intValue).toArray();
+        ShapeEnumerator enumerator = new ShapeEnumerator(spec, constrainedSeats, poolSeats.length);
+        if (!enumerator.run()) {
+            return null;
+        }
+        return new ShapeFirstDealGenerator(spec, constrainedSeats, poolSeats,
+                Arrays.copyOf(enumerator.shapes, enumerator.count * enumerator.groups * 4),
+                Arrays.copyOf(enumerator.weights, enumerator.count), enumerator.count);
+    }
+
+    /** Fraction of all boards whose lengths satisfy the spec, before any HCP bound. */
+    public double getShapeProbability() {
+        return shapeProbability;
+    }
+
+    public int getShapeCount() {
+        return shapeCount;
+    }
+
+    /**
+     * Builds one board matching the spec as four card masks indexed by {@link Player} ordinal.
+     *
+     * @throws IllegalStateException if no length matrix is allowed, or the HCP bounds are not met
+     *                               within {@code maxAttempts}
+     */
+    public long[] generate(RandomGenerator random, long maxAttempts) {
+        return generate(random, maxAttempts, false, 0);
+    }
+
+    /**
+     * As {@link #generate(RandomGenerator, long)}, also giving up once {@link System#nanoTime()}
+     * passes {@code deadlineNanos}. The clock is read every {@value #DEADLINE_CHECK_INTERVAL}
+     * attempts.
+     *
+     * @throws IllegalStateException if no length matrix is allowed, or the HCP bounds are not met
+     *                               within {@code maxAttempts} or by the deadline
+     */
+    public long[] generate(RandomGenerator random, long maxAttempts, long deadlineNanos) {
+        return generate(random, maxAttempts, true, deadlineNanos);
+    }
+
+    private long[] generate(RandomGenerator random, long maxAttempts, boolean timed, long deadlineNanos) {
+        if (shapeCount == 0) {
+            throw new IllegalStateException("No hand shapes satisfy [" + spec + "]");
+        }
+        int cells = groups * 4;
+        int[] remaining = new int[cells];
+        int[] hcp = new int[groups];
+        long[] groupMasks = new long[groups];
+        double totalWeight = cumulativeWeights[shapeCount - 1];
+        for (long attempt = 0; attempt < maxAttempts; attempt++) {
+            if (timed && attempt % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+                throw new IllegalStateException("No deal matching [" + spec + "] after " + attempt
+                        + " attempts; out of time");
+            }
+            int shape = pickShape(random.nextDouble() * totalWeight);
+            for (int i = 0; i < cells; i++) {
+                remaining[i] = shapes[shape * cells + i];
+            }
+            Arrays.fill(groupMasks, 0L);
+            Arrays.fill(hcp, 0);
+            for (int suit = 0; suit < 4; suit++) {
+                int left = 13;
+                for (int rank = 12; rank >= Card.Rank.JACK.ordinal(); rank--) {
+                    int group = placeCard(remaining, suit, random.nextInt(left--));
+                    groupMasks[group] |= 1L << (suit * 13 + rank);
+                    hcp[group] += RANK_HCP[rank];
+                }
+            }
+            if (!hcpInRange(hcp)) {
+                continue;
+            }
+            for (int suit = 0; suit < 4; suit++) {
+                int left = Card.Rank.JACK.ordinal();
+                for (int rank = Card.Rank.TEN.ordinal(); rank >= 0; rank--) {
+                    int group = placeCard(remaining, suit, random.nextInt(left--));
+                    groupMasks[group] |= 1L << (suit * 13 + rank);
+                }
+            }
+            long[] hands = new long[4];
+            for (int i = 0; i < constrainedSeats.length; i++) {
+                hands[constrainedSeats[i]] = groupMasks[i];
+            }
+            if (poolSeats.length > 0) {
+                splitPool(groupMasks[groups - 1], hands, random);
+            }
+            return hands;
+        }
+        throw new IllegalStateException("No deal matching [" + spec + "] after " + maxAttempts + " attempts");
+    }
+
+    private boolean hcpInRange(int[] hcp) {
+        for (int i = 0; i < constrainedSeats.length; i++) {
+            HandConstraint constraint = spec.getHand(Player.values()[constrainedSeats[i]]);
+            if (hcp[i] < constraint.getMinHcp() || hcp[i] > constraint.getMaxHcp()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuffles the pool's cards and deals 13 to each pool seat.
+     */
+    private void splitPool(long poolMask, long[] hands, RandomGenerator random) {
+        byte[] cards = new byte[Long.bitCount(poolMask)];
+        int n = 0;
+        for (long rest = poolMask; rest != 0; rest &= rest - 1) {
+            cards[n++] = (byte) Long.numberOfTrailingZeros(rest);
+        }
+        for (int i = 0; i < n - 1; i++) {
+            int j = i + random.nextInt(n - i);
+            byte card = cards[j];
+            cards[j] = cards[i];
+            cards[i] = card;
+        }
+        for (int i = 0; i < n; i++) {
+            hands[poolSeats[i / 13]] |= 1L << cards[i];
+        }
+    }
+
+    /**
+     * Picks the group owning free slot number {@code slot} of a suit and uses that slot up.
+     * Drawing a uniform free slot per card deals the suit uniformly among the groups' lengths.
+     */
+    private int placeCard(int[] remaining, int suit, int slot) {
+        for (int group = 0; group < groups - 1; group++) {
+            slot -= remaining[group * 4 + suit];
+            if (slot < 0) {
+                remaining[group * 4 + suit]--;
+                return group;
+            }
+        }
+        remaining[(groups - 1) * 4 + suit]--;
+        return groups - 1;
+    }
+
+    private int pickShape(double target) {
+        int index = Arrays.binarySearch(cumulativeWeights, 0, shapeCount, target);
+        index = index < 0 ? -index - 1 : index + 1;
+        return Math.min(index, shapeCount - 1);
+    }
+
+    /**
+     * Depth-first search over the constrained seats, choosing each seat's suit lengths from the
+     * patterns its constraint allows while keeping every suit's remaining length feasible for the
+     * seats after it. The last group (the pool, or the last constrained seat when there is no
+     * pool) takes whatever is left.
+     */
+    private static final class ShapeEnumerator {
+        private final DealSpec spec;
+        private final int[] constrainedSeats;
+        private final int poolSize;
+        private final int groups;
+        // Number of groups chosen by search; the final group takes the remainder
+        private final int searched;
+        private final int[][][] patterns;
+        private final int[][] laterMin;
+        private final int[][] laterMax;
+        private final int[] matrix;
+        private final double logScale;
+        private byte[] shapes;
+        private double[] weights = new double[1024];
+        private double totalWeight;
+        private int count;
+        private int nodes;
+
+        ShapeEnumerator(DealSpec spec, int[] constrainedSeats, int poolSize) {
+            this.spec = spec;
+            this.constrainedSeats = constrainedSeats;
+            this.poolSize = poolSize;
+            this.groups = constrainedSeats.length + (poolSize > 0 ? 1 : 0);
+            this.searched = groups - 1;
+            this.matrix = new int[groups * 4];
+            this.shapes = new byte[groups * 4 * 1024];
+            this.patterns = new int[searched][][];
+            for (int i = 0; i < searched; i++) {
+                patterns[i] = allowedPatterns(constraintOf(i));
+            }
+            this.laterMin = new int[groups][4];
+            this.laterMax = new int[groups][4];
+            for (int i = groups - 2; i >= 0; i--) {
+                for (int suit = 0; suit < 4; suit++) {
+                    Card.Suit cardSuit = Card.Suit.values()[suit];
+                    int nextMin = isPool(i + 1) ? 0 : constraintOf(i + 1).getMinLength(cardSuit);
+                    int nextMax = isPool(i + 1) ? 13 * poolSize : constraintOf(i + 1).getMaxLength(cardSuit);
+                    laterMin[i][suit] = laterMin[i + 1][suit] + nextMin;
+                    laterMax[i][suit] = laterMax[i + 1][suit] + nextMax;
+                }
+            }
+            // Ways to split the pool among its seats, (13p)! / (13!)^p, are the same for every
+            // matrix; multiplying them in (adding their log) makes each weight a count of whole
+            // boards, so the weights sum to the matching boards and divide by TOTAL_DEALS.
+            this.logScale = LOG_FACTORIALS[13 * poolSize] - poolSize * LOG_FACTORIALS[13];
+        }
+
+        private boolean isPool(int group) {
+            return poolSize > 0 && group == groups - 1;
+        }
+
+        private HandConstraint constraintOf(int group) {
+            return spec.getHand(Player.values()[constrainedSeats[group]]);
+        }
+
+        boolean run() {
+            return search(0, new int[]{13, 13, 13, 13});
+        }
+
+        private boolean search(int group, int[] suitRemaining) {
+            if (++nodes > MAX_SEARCH_NODES) {
+                return false;
+            }
+            if (group == searched) {
+                if (!isPool(group)) {
+                    Boolean balanced = constraintOf(group).getBalanced();
+                    if (balanced != null && balanced != Hand.isBalancedShape(
+                            suitRemaining[0], suitRemaining[1], suitRemaining[2], suitRemaining[3])) {
+                        return true;
+                    }
+                }
+                System.arraycopy(suitRemaining, 0, matrix, group * 4, 4);
+                return record();
+            }
+            for (int[] pattern : patterns[group]) {
+                boolean feasible = true;
+                for (int suit = 0; suit < 4 && feasible; suit++) {
+                    int left = suitRemaining[suit] - pattern[suit];
+                    feasible = left >= laterMin[group][suit] && left <= laterMax[group][suit];
+                }
+                if (!feasible) {
+                    continue;
+                }
+                System.arraycopy(pattern, 0, matrix, group * 4, 4);
+                int[] next = new int[4];
+                for (int suit = 0; suit < 4; suit++) {
+                    next[suit] = suitRemaining[suit] - pattern[suit];
+                }
+                if (!search(group + 1, next)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean record() {
+            if (!fitsMatch()) {
+                return true;
+            }
+            if (count == MAX_SHAPES) {
+                return false;
+            }
+            int cells = groups * 4;
+            if (count == weights.length) {
+                weights = Arrays.copyOf(weights, count * 2);
+                shapes = Arrays.copyOf(shapes, count * 2 * cells);
+            }
+            double logWeight = logScale;
+            for (int suit = 0; suit < 4; suit++) {
+                logWeight += LOG_FACTORIALS[13];
+                for (int group = 0; group < groups; group++) {
+                    logWeight -= LOG_FACTORIALS[matrix[group * 4 + suit]];
+                }
+            }
+            for (int i = 0; i < cells; i++) {
+                shapes[count * cells + i] = (byte) matrix[i];
+            }
+            totalWeight += Math.exp(logWeight);
+            weights[count++] = totalWeight;
+            return true;
+        }
+
+        private boolean fitsMatch() {
+            for (Player seat : new Player[]{Player.NORTH, Player.EAST}) {
+                int minFit = spec.getMinFit(seat);
+                if (minFit == 0) {
+                    continue;
+                }
+                int first = groupOf(seat.ordinal());
+                int second = groupOf(seat.getPartner().ordinal());
+                Card.Suit fitSuit = spec.getFitSuit(seat);
+                boolean found = false;
+                for (int suit = 0; suit < 4 && !found; suit++) {
+                    if (fitSuit == null || fitSuit.ordinal() == suit) {
+                        found = matrix[first * 4 + suit] + matrix[second * 4 + suit] >= minFit;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int groupOf(int seat) {
+            for (int i = 0; i < constrainedSeats.length; i++) {
+                if (constrainedSeats[i] == seat) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Seat " + seat + " is in the pool");
+        }
+
+        /**
+         * All clubs-to-spades length patterns summing to 13 within the constraint's bounds.
+         */
+        private static int[][] allowedPatterns(HandConstraint constraint) {
+            int[] min = new int[4];
+            int[] max = new int[4];
+            for (int suit = 0; suit < 4; suit++) {
+                min[suit] = constraint.getMinLength(Card.Suit.values()[suit]);
+                max[suit] = constraint.getMaxLength(Card.Suit.values()[suit]);
+            }
+            List<int[]> result = new ArrayList<>();
+            for (int c = min[0]; c <= max[0]; c++) {
+                for (int d = min[1]; d <= max[1] && c + d <= 13; d++) {
+                    for (int h = min[2]; h <= max[2] && c + d + h <= 13; h++) {
+                        int s = 13 - c - d - h;
+                        if (s < min[3] || s > max[3]) {
+                            continue;
+                        }
+                        if (constraint.getBalanced() != null
+                                && constraint.getBalanced() != Hand.isBalancedShape(c, d, h, s)) {
+                            continue;
+                        }
+                        result.add(new int[]{c, d, h, s});
+                    }
+                }
+            }
+            return result.toArray(new int[0][]);
+        }
+    }
+}
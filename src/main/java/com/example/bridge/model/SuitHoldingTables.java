@@ -0,0 +1,115 @@
+package com.example.bridge.model;
+
+/**
+ * Lookup tables indexed by a 13-bit suit holding (deuce in bit 0, ace in bit 12, see
+ * {@link Hand#getSuitHolding(Card.Suit)}). Every table has 8192 entries and is built once when
+ * the class is loaded, so evaluating a hand is four array reads per feature.
+ */
+public final class SuitHoldingTables {
+
+    public static final int HOLDINGS = 1 << 13;
+    public static final int SUIT_MASK = HOLDINGS - 1;
+
+    private static final int ACE = 1 << Card.Rank.ACE.ordinal();
+    private static final int KING = 1 << Card.Rank.KING.ordinal();
+    private static final int QUEEN = 1 << Card.Rank.QUEEN.ordinal();
+    private static final int JACK = 1 << Card.Rank.JACK.ordinal();
+    private static final int TEN = 1 << Card.Rank.TEN.ordinal();
+
+    private static final byte[] HCP = new byte[HOLDINGS];
+    private static final byte[] HONORS = new byte[HOLDINGS];
+    private static final byte[] CONTROLS = new byte[HOLDINGS];
+    private static final byte[] QUICK_TRICK_HALVES = new byte[HOLDINGS];
+    private static final byte[] LOSERS = new byte[HOLDINGS];
+    private static final byte[] SHORTNESS_POINTS = new byte[HOLDINGS];
+    private static final boolean[] STRONG_SUIT = new boolean[HOLDINGS];
+
+    static {
+        for (int holding = 0; holding < HOLDINGS; holding++) {
+            int length = Integer.bitCount(holding);
+            boolean ace = (holding & ACE) != 0;
+            boolean king = (holding & KING) != 0;
+            boolean queen = (holding & QUEEN) != 0;
+            int topThree = Integer.bitCount(holding & (ACE | KING | QUEEN));
+
+            HCP[holding] = (byte) ((ace ? 4 : 0) + (king ? 3 : 0) + (queen ? 2 : 0) + ((holding & JACK) != 0 ? 1 : 0));
+            HONORS[holding] = (byte) Integer.bitCount(holding & (ACE | KING | QUEEN | JACK | TEN));
+            CONTROLS[holding] = (byte) ((ace ? 2 : 0) + (king ? 1 : 0));
+            QUICK_TRICK_HALVES[holding] = (byte) quickTrickHalves(ace, king, queen, length);
+            LOSERS[holding] = (byte) losers(holding, length);
+            SHORTNESS_POINTS[holding] = (byte) (length >= 3 ? 0 : 3 - length);
+            STRONG_SUIT[holding] = length >= 4 && topThree >= 2;
+        }
+    }
+
+    private SuitHoldingTables() {
+    }
+
+    public static int hcp(int holding) {
+        return HCP[holding];
+    }
+
+    /** Number of A, K, Q, J and 10 held. */
+    public static int honors(int holding) {
+        return HONORS[holding];
+    }
+
+    /** Aces count two controls, kings one. */
+    public static int controls(int holding) {
+        return CONTROLS[holding];
+    }
+
+    /** Quick tricks in half-trick units: AK = 4, AQ = 3, A or KQ = 2, Kx = 1. */
+    public static int quickTrickHalves(int holding) {
+        return QUICK_TRICK_HALVES[holding];
+    }
+
+    /** Losing-trick count: missing A, K, Q among the first min(length, 3) cards. */
+    public static int losers(int holding) {
+        return LOSERS[holding];
+    }
+
+    /** Shortness points: void 3, singleton 2, doubleton 1. */
+    public static int shortnessPoints(int holding) {
+        return SHORTNESS_POINTS[holding];
+    }
+
+    /** Four or more cards headed by two of the top three honors. */
+    public static boolean isStrongSuit(int holding) {
+        return STRONG_SUIT[holding];
+    }
+
+    private static int quickTrickHalves(boolean ace, boolean king, boolean queen, int length) {
+        if (ace && king) {
+            return 4;
+        }
+        if (ace && queen) {
+            return 3;
+        }
+        if (ace || (king && queen)) {
+            return 2;
+        }
+        if (king && length >= 2) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int losers(int holding, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int counted = Math.min(length, 3);
+        int winners = 0;
+        if ((holding & ACE) != 0) {
+            winners++;
+        }
+        if (counted >= 2 && (holding & KING) != 0) {
+            winners++;
+        }
+        if (counted >= 3 && (holding & QUEEN) != 0) {
+            winners++;
+        }
+        return counted - winners;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bridge.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tricks each seat takes as declarer in each strain with all four hands in view, for judging
+ * whether an auction found the right contract. Immutable.
+ */
+public final class TrickTable {
+
+    private static final int STRAINS = Card.Suit.values().length;
+
+    // Indexed by strain ordinal * 4 + declarer ordinal
+    private final byte[] tricks;
+
+    /**
+     * @param tricks tricks indexed by {@link Card.Suit} ordinal (no-trump last), then declarer's
+     *               {@link Player} ordinal
+     */
+    public TrickTable(int[][] tricks) {
+        if (tricks.length != STRAINS) {
+            throw new IllegalArgumentException("Expected " + STRAINS + " strains, got " + tricks.length);
+        }
+        this.tricks = new byte[STRAINS * 4];
+        for (int strain = 0; strain < STRAINS; strain++) {
+            for (int declarer = 0; declarer < 4; declarer++) {
+                int count = tricks[strain][declarer];
+                if (count < 0 || count > 13) {
+                    throw new IllegalArgumentException("Trick count out of range: " + count);
+                }
+                this.tricks[strain * 4 + declarer] = (byte) count;
+            }
+        }
+    }
+
+    /**
+     * Reads a table written by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if {@code code} is not 20 hex digits of 0 to 13
+     */
+    public static TrickTable decode(String code) {
+        if (code == null || code.length() != STRAINS * 4) {
+            throw new IllegalArgumentException("Not a trick table: " + code);
+        }
+        int[][] tricks = new int[STRAINS][4];
+        for (int i = 0; i < STRAINS * 4; i++) {
+            tricks[i / 4][i % 4] = Character.digit(code.charAt(i), 16);
+        }
+        return new TrickTable(tricks);
+    }
+
+    /**
+     * The table as 20 hex digits, strain by strain, for storing with a deal.
+     */
+    public String encode() {
+        StringBuilder code = new StringBuilder(tricks.length);
+        for (byte count : tricks) {
+            code.append(Character.forDigit(count, 16));
+        }
+        return code.toString();
+    }
+
+    public int getTricks(Card.Suit strain, Player declarer) {
+        return tricks[strain.ordinal() * 4 + declarer.ordinal()];
+    }
+
+    /**
+     * The table as strain short name to seat short name to tricks, e.g. {@code NT -> N -> 9}.
+     */
+    public Map<String, Map<String, Integer>> toMap() {
+        Map<String, Map<String, Integer>> map = new LinkedHashMap<>();
+        for (Card.Suit strain : Card.Suit.values()) {
+            Map<String, Integer> bySeat = new LinkedHashMap<>();
+            for (Player declarer : Player.values()) {
+                bySeat.put(declarer.getShortName(), getTricks(strain, declarer));
+            }
+            map.put(strain.getShortName(), bySeat);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TrickTable && Arrays.equals(tricks, ((TrickTable) o).tricks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(tricks);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
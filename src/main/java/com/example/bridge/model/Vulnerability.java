@@ -0,0 +1,36 @@
+package com.example.bridge.model;
+
+/**
+ * Which partnerships are vulnerable on a board.
+ */
+public enum Vulnerability {
+    NONE, NORTH_SOUTH, EAST_WEST, BOTH;
+
+    // Boards 1 to 16; the cycle then repeats
+    private static final Vulnerability[] BOARD_CYCLE = {
+            NONE, NORTH_SOUTH, EAST_WEST, BOTH,
+            NORTH_SOUTH, EAST_WEST, BOTH, NONE,
+            EAST_WEST, BOTH, NONE, NORTH_SOUTH,
+            BOTH, NONE, NORTH_SOUTH, EAST_WEST};
+
+    /**
+     * The standard duplicate vulnerability of board {@code board}, numbered from 1.
+     */
+    public static Vulnerability forBoard(int board) {
+        if (board < 1) {
+            throw new IllegalArgumentException("Boards are numbered from 1: " + board);
+        }
+        return BOARD_CYCLE[(board - 1) % 16];
+    }
+
+    public boolean isVulnerable(Player player) {
+        switch (this) {
+            case NORTH_SOUTH: return player == Player.NORTH || player == Player.SOUTH;
+            case EAST_WEST: return player == Player.EAST || player == Player.WEST;
+            case BOTH: return true;
+            case NONE:
+            default:
+                return false;
+        }
+    }
+}
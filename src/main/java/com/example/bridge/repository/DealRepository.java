@@ -2,6 +2,21 @@ package com.example.bridge.repository;
 
 import com.example.bridge.model.Deal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface DealRepository extends JpaRepository<Deal, Long> {
+
+    /**
+     * Stores a saved deal's double-dummy tricks by id, leaving its other columns, and any deal
+     * object a table still holds, as they are.
+     *
+     * @return the number of deals updated: 0 if there is no deal with that id
+     */
+    @Transactional
+    @Modifying
+    @Query("update Deal d set d.doubleDummyTricks = :tricks where d.id = :id")
+    int updateDoubleDummyTricks(@Param("id") Long id, @Param("tricks") String tricks);
 }
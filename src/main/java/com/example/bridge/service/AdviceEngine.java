@@ -0,0 +1,462 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.Contract;
+import com.example.bridge.model.DealGenerator;
+import com.example.bridge.model.DealSpec;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+import com.example.bridge.model.ScoreTable;
+import com.example.bridge.model.Vulnerability;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bidding advice by simulation. Deals the three hidden hands at random, keeping only layouts on
+ * which the robots would have made the calls already made, then for each candidate call lets the
+ * robots finish the auction and scores the contract reached from the bidder's side. Each hidden
+ * hand is first checked against its {@link AuctionInference} bounds, which throws out most
+ * misfits before any robot decision is replayed.
+ * <p>
+ * The search is anytime: workers on a small bounded pool sample until the deadline and the
+ * answer is whatever they have gathered by then, so a request waits at most its budget. When the
+ * pool is busy with other requests the caller samples on its own thread instead, within the same
+ * budget. Tricks are estimated from the declaring side's high cards and trump fit, since solving
+ * each layout double dummy takes far longer than the budget; they are scored from the
+ * {@link ScoreTable} with neither side vulnerable.
+ */
+@Component
+public class AdviceEngine {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 250;
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final long budgetMillis;
+
+    @Autowired
+    public AdviceEngine(@Value("${bridge.advice.budget-millis:250}") long budgetMillis,
+                        @Value("${bridge.advice.workers:0}") int workers) {
+        this(pool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors()),
+                workers > 0 ? workers : Runtime.getRuntime().availableProcessors(), budgetMillis);
+    }
+
+    AdviceEngine(ExecutorService executor, int workers, long budgetMillis) {
+        if (budgetMillis < 1) {
+            throw new IllegalArgumentException("Advice budget must be positive: " + budgetMillis);
+        }
+        this.executor = executor;
+        this.workers = workers;
+        this.budgetMillis = budgetMillis;
+    }
+
+    private static ExecutorService pool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        // A short queue: a request that cannot get workers samples on its own thread instead
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads), runnable -> {
+                    Thread thread = new Thread(runnable, "advice-worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * Advice for {@code hand}'s player, whose turn it is after {@code history}, within the
+     * configured budget.
+     */
+    public Map<String, Object> advise(BiddingSystem system, Hand hand, List<Bid> history) {
+        return advise(system, hand, history, budgetMillis);
+    }
+
+    /**
+     * Ranks candidate calls for {@code hand}'s player by their average score over sampled
+     * layouts. The report has the ranked {@code calls} (call, averageScore, stdError), the
+     * {@code recommended} call with the {@code confidence} that it beats the runner-up, how many
+     * layouts were scored and tried, whether they all {@code fitAuction}, and an {@code advice}
+     * sentence.
+     */
+    public Map<String, Object> advise(BiddingSystem system, Hand hand, List<Bid> history, long budgetMillis) {
+        long start = System.nanoTime();
+        Player bidder = hand.getPlayer();
+        AuctionState auction = AuctionState.of(history);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("bidder", bidder);
+        if (auction.isFinished()) {
+            report.put("advice", "The auction is over.");
+            return report;
+        }
+        Call robotCall = system.chooseCall(hand, bidder, auction);
+        if (!auction.isAllowed(robotCall, bidder)) {
+            robotCall = Call.PASS;
+        }
+        Sampling sampling = new Sampling(system, hand.getCardMask(), bidder, history, auction,
+                candidates(auction, bidder, robotCall), start, start + budgetMillis * 1_000_000);
+
+        int submitted = 0;
+        CountDownLatch done = new CountDownLatch(workers);
+        try {
+            for (; submitted < workers; submitted++) {
+                long seed = ThreadLocalRandom.current().nextLong();
+                executor.execute(() -> {
+                    try {
+                        sampling.run(seed);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            for (int i = submitted; i < workers; i++) {
+                done.countDown();
+            }
+        }
+        if (submitted == 0) {
+            sampling.run(ThreadLocalRandom.current().nextLong());
+        } else {
+            try {
+                done.await(Math.max(0, sampling.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sampling.stopped = true;
+        report.putAll(sampling.report(robotCall, budgetMillis, submitted));
+        return report;
+    }
+
+    /**
+     * The robot's own call, pass, any double or redouble, and the two cheapest levels of each
+     * strain.
+     */
+    static Call[] candidates(AuctionState auction, Player bidder, Call robotCall) {
+        long legal = auction.legalCalls(bidder);
+        long chosen = 1L << robotCall.getCode() | 1L << Call.PASS_CODE
+                | legal & (1L << Call.DOUBLE_CODE | 1L << Call.REDOUBLE_CODE);
+        for (Card.Suit strain : Card.Suit.values()) {
+            int found = 0;
+            for (int level = 1; level <= 7 && found < 2; level++) {
+                int code = Call.bid(level, strain).getCode();
+                if ((legal & (1L << code)) != 0) {
+                    chosen |= 1L << code;
+                    found++;
+                }
+            }
+        }
+        chosen &= legal;
+        List<Call> calls = new ArrayList<>();
+        calls.add(robotCall);
+        for (long rest = chosen & ~(1L << robotCall.getCode()); rest != 0; rest &= rest - 1) {
+            calls.add(Call.of(Long.numberOfTrailingZeros(rest)));
+        }
+        return calls.toArray(new Call[0]);
+    }
+
+    /**
+     * Rough double-dummy tricks for a partnership in {@code strain}: from its combined high
+     * cards, plus its trump fit and the ruffs of the hand shorter in trumps in a suit contract.
+     */
+    static int estimateTricks(long declarer, long dummy, Card.Suit strain) {
+        double tricks = 6.5 + (Hand.highCardPoints(declarer | dummy) - 20) * 0.45;
+        if (strain != Card.Suit.NOTRUMP) {
+            int declarerTrumps = length(declarer, strain.ordinal());
+            int dummyTrumps = length(dummy, strain.ordinal());
+            tricks += (declarerTrumps + dummyTrumps - 8) * 0.75;
+            long shortHand = declarerTrumps >= dummyTrumps ? dummy : declarer;
+            int shortTrumps = Math.min(declarerTrumps, dummyTrumps);
+            if (declarerTrumps + dummyTrumps >= 8 && shortTrumps > 0) {
+                int ruffs = 0;
+                for (int suit = 0; suit < 4; suit++) {
+                    if (suit != strain.ordinal()) {
+                        ruffs += Math.max(0, 3 - length(shortHand, suit));
+                    }
+                }
+                tricks += 0.5 * Math.min(ruffs, shortTrumps);
+            }
+        }
+        return (int) Math.max(0, Math.min(13, Math.round(tricks)));
+    }
+
+    private static int length(long hand, int suit) {
+        return Long.bitCount(hand & (0x1FFFL << (suit * 13)));
+    }
+
+    /**
+     * Standard normal distribution function, after Abramowitz and Stegun 7.1.26.
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    /**
+     * One request's sampling: what is known, the candidates and their running totals. Workers
+     * share it; totals are updated a whole layout at a time under its lock.
+     */
+    private static final class Sampling {
+        final BiddingSystem system;
+        final long known;
+        final Player bidder;
+        final AuctionState auction;
+        final Call[] candidates;
+        final long start;
+        final long deadline;
+        // The calls the hidden seats have made, with the auction as it stood before each
+        final Player[] callers;
+        final Call[] calls;
+        final AuctionState[] before;
+        final Player[] hiddenSeats = new Player[3];
+        // Bounds from the auction, indexed by Player ordinal
+        final HandConstraint[] bounds = new HandConstraint[4];
+
+        final double[] sums;
+        final double[] squares;
+        long samples;
+        long attempts;
+        // Set once no layout fitting the auction has turned up in half the budget
+        volatile boolean relaxed;
+        volatile boolean stopped;
+
+        Sampling(BiddingSystem system, long known, Player bidder, List<Bid> history, AuctionState auction,
+                 Call[] candidates, long start, long deadline) {
+            this.system = system;
+            this.known = known;
+            this.bidder = bidder;
+            this.auction = auction;
+            this.candidates = candidates;
+            this.start = start;
+            this.deadline = deadline;
+            this.sums = new double[candidates.length];
+            this.squares = new double[candidates.length];
+            for (int i = 0; i < 3; i++) {
+                hiddenSeats[i] = Player.values()[(bidder.ordinal() + 1 + i) % 4];
+            }
+            DealSpec inferred = AuctionInference.of(system, history).getSpec();
+            for (Player seat : Player.values()) {
+                bounds[seat.ordinal()] = inferred.getHand(seat);
+            }
+            List<Player> callers = new ArrayList<>();
+            List<Call> calls = new ArrayList<>();
+            List<AuctionState> before = new ArrayList<>();
+            AuctionState replay = new AuctionState();
+            for (Bid bid : history) {
+                if (bid.getPlayer() != bidder) {
+                    callers.add(bid.getPlayer());
+                    calls.add(bid.getCall());
+                    before.add(replay.copy());
+                }
+                replay.add(bid);
+            }
+            this.callers = callers.toArray(new Player[0]);
+            this.calls = calls.toArray(new Call[0]);
+            this.before = before.toArray(new AuctionState[0]);
+        }
+
+        void run(long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            byte[] deck = new byte[DealGenerator.DECK_SIZE - DealGenerator.HAND_SIZE];
+            int size = 0;
+            for (int card = 0; card < DealGenerator.DECK_SIZE; card++) {
+                if ((known & (1L << card)) == 0) {
+                    deck[size++] = (byte) card;
+                }
+            }
+            long[] masks = new long[4];
+            masks[bidder.ordinal()] = known;
+            Hand[] hands = new Hand[4];
+            double[] scores = new double[candidates.length];
+            long tried = 0;
+            while (!stopped && System.nanoTime() < deadline) {
+                tried++;
+                if (!relaxed && tried % 256 == 0 && samples() == 0 && System.nanoTime() - start > (deadline - start) / 2) {
+                    relaxed = true;
+                }
+                if (!deal(random, deck, masks, hands)) {
+                    continue;
+                }
+                hands[bidder.ordinal()] = new Hand(known, bidder);
+                for (int i = 0; i < candidates.length; i++) {
+                    scores[i] = play(candidates[i], hands, masks);
+                }
+                record(scores, tried);
+                tried = 0;
+            }
+            record(null, tried);
+        }
+
+        /**
+         * Deals the hidden hands into {@code masks}, seat by seat, giving up as soon as a seat's
+         * hand would not have made its calls.
+         */
+        private boolean deal(SplittableRandom random, byte[] deck, long[] masks, Hand[] hands) {
+            boolean check = !relaxed;
+            int next = 0;
+            for (int h = 0; h < 3; h++) {
+                Player seat = hiddenSeats[h];
+                long mask = 0;
+                int end = h == 2 ? deck.length : next + DealGenerator.HAND_SIZE;
+                for (int i = next; i < end; i++) {
+                    int j = i + random.nextInt(deck.length - i);
+                    byte card = deck[j];
+                    deck[j] = deck[i];
+                    deck[i] = card;
+                    mask |= 1L << card;
+                }
+                next = end;
+                if (check && !bounds[seat.ordinal()].matches(mask)) {
+                    return false;
+                }
+                masks[seat.ordinal()] = mask;
+                hands[seat.ordinal()] = new Hand(mask, seat);
+                if (check && !madeItsCalls(hands[seat.ordinal()], seat)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean madeItsCalls(Hand hand, Player seat) {
+            for (int i = 0; i < calls.length; i++) {
+                if (callers[i] == seat && system.chooseCall(hand, seat, before[i]) != calls[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The bidder's side's score after {@code candidate} and the robots' continuation.
+         */
+        private int play(Call candidate, Hand[] hands, long[] masks) {
+            AuctionState continuation = auction.copy();
+            continuation.add(candidate, bidder);
+            Player caller = bidder;
+            while (!continuation.isFinished()) {
+                caller = Player.values()[(caller.ordinal() + 1) % 4];
+                Call call = system.chooseCall(hands[caller.ordinal()], caller, continuation);
+                continuation.add(continuation.isAllowed(call, caller) ? call : Call.PASS, caller);
+            }
+            Contract contract = Contract.of(continuation);
+            if (contract == null) {
+                return 0;
+            }
+            Player declarer = contract.getDeclarer();
+            int tricks = estimateTricks(masks[declarer.ordinal()], masks[declarer.getPartner().ordinal()], contract.getStrain());
+            int score = ScoreTable.score(contract, Vulnerability.NONE, tricks);
+            return declarer.isOpponent(bidder) ? -score : score;
+        }
+
+        private synchronized long samples() {
+            return samples;
+        }
+
+        private synchronized void record(double[] scores, long tried) {
+            attempts += tried;
+            if (scores == null || stopped) {
+                return;
+            }
+            samples++;
+            for (int i = 0; i < scores.length; i++) {
+                sums[i] += scores[i];
+                squares[i] += scores[i] * scores[i];
+            }
+        }
+
+        synchronized Map<String, Object> report(Call robotCall, long budgetMillis, int workers) {
+            List<Map<String, Object>> ranked = new ArrayList<>();
+            double[] means = new double[candidates.length];
+            double[] errors = new double[candidates.length];
+            for (int i = 0; i < candidates.length && samples > 0; i++) {
+                means[i] = sums[i] / samples;
+                double variance = samples > 1 ? Math.max(0, (squares[i] - samples * means[i] * means[i]) / (samples - 1)) : 0;
+                errors[i] = Math.sqrt(variance / samples);
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("call", candidates[i].toString());
+                row.put("averageScore", Math.round(means[i] * 10) / 10.0);
+                row.put("stdError", Math.round(errors[i] * 10) / 10.0);
+                ranked.add(row);
+            }
+            // Stable, so the robot's call (first) wins ties
+            Integer[] order = new Integer[ranked.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(means[b], means[a]));
+            List<Map<String, Object>> calls = new ArrayList<>();
+            for (int i : order) {
+                calls.add(ranked.get(i));
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            Call best = order.length == 0 ? robotCall : candidates[order[0]];
+            double confidence = 0;
+            if (order.length > 1) {
+                double spread = Math.hypot(errors[order[0]], errors[order[1]]);
+                double gap = means[order[0]] - means[order[1]];
+                confidence = spread == 0 ? (gap > 0 ? 1 : 0.5) : normalCdf(gap / spread);
+            }
+            report.put("recommended", best.toString());
+            report.put("confidence", Math.round(confidence * 100) / 100.0);
+            report.put("calls", calls);
+            report.put("samples", samples);
+            report.put("layoutsTried", attempts);
+            report.put("fitAuction", !relaxed);
+            report.put("workers", workers);
+            report.put("budgetMillis", budgetMillis);
+            report.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+            report.put("advice", advice(best, calls, confidence));
+            return report;
+        }
+
+        private String advice(Call best, List<Map<String, Object>> calls, double confidence) {
+            if (samples == 0) {
+                return "Suggested call: " + best + " (no layouts simulated in time).";
+            }
+            StringBuilder advice = new StringBuilder("Suggested call: ").append(best)
+                    .append(String.format(" (average %+.0f over %d layouts", (Double) calls.get(0).get("averageScore"), samples));
+            for (int i = 1; i < Math.min(3, calls.size()); i++) {
+                advice.append(String.format("; %s %+.0f", calls.get(i).get("call"), (Double) calls.get(i).get("averageScore")));
+            }
+            advice.append(String.format("), %.0f%% confident it is best.", confidence * 100));
+            if (relaxed) {
+                advice.append(" No layouts matching the auction turned up in time, so hidden hands were dealt freely.");
+            }
+            return advice.toString();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.DealSpec;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the auction so far says about each seat's hand, on the assumption that every seat bids by
+ * {@link BiddingSystem#impliedConstraint the system}: per-seat HCP and suit-length bounds,
+ * narrowed call by call as calls are applied. The bounds are kept as a {@link DealSpec}, so a
+ * sampler can throw out a dealt hand on a mask check before replaying any robot decisions. Not
+ * thread-safe; the spec itself is immutable and can be handed to other threads.
+ */
+public final class AuctionInference {
+
+    private final BiddingSystem system;
+    private final AuctionState auction = new AuctionState();
+    private DealSpec spec = DealSpec.random();
+
+    public AuctionInference(BiddingSystem system) {
+        this.system = system;
+    }
+
+    /**
+     * Inference after replaying {@code history}, whose calls must carry their player.
+     */
+    public static AuctionInference of(BiddingSystem system, List<Bid> history) {
+        AuctionInference inference = new AuctionInference(system);
+        for (Bid bid : history) {
+            inference.apply(bid);
+        }
+        return inference;
+    }
+
+    public void apply(Bid bid) {
+        apply(bid.getCall(), bid.getPlayer());
+    }
+
+    /**
+     * Narrows {@code bidder}'s bounds by what {@code call} shows, then records the call.
+     */
+    public void apply(Call call, Player bidder) {
+        HandConstraint implied = system.impliedConstraint(call, bidder, auction);
+        HandConstraint narrowed = spec.getHand(bidder).intersect(implied);
+        if (narrowed.isContradictory()) {
+            // The seat has strayed from the system; its latest call is the better guide
+            narrowed = implied;
+        }
+        spec = spec.withHand(bidder, narrowed);
+        auction.add(call, bidder);
+    }
+
+    /**
+     * The bounds on all four hands so far.
+     */
+    public DealSpec getSpec() {
+        return spec;
+    }
+
+    public HandConstraint getConstraint(Player seat) {
+        return spec.getHand(seat);
+    }
+
+    /**
+     * Each seat's bounds in words, keyed by short name, e.g. {@code "N": "15-17 HCP, balanced"}.
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (Player seat : Player.values()) {
+            map.put(seat.getShortName(), spec.getHand(seat).toString());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,439 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A bidding system compiled from a rule file; {@code bidding/natural.rules} describes the format.
+ * Each rule is filed under every auction context its pattern covers, where a context is "nobody
+ * has bid yet" or a pair of partner's and the bidder's last non-pass calls. Choosing a call is
+ * then one array lookup plus the hand checks of the few rules filed there, in file order.
+ */
+public final class BiddingRules {
+
+    /** Context value for "no call yet" on one side of the partnership. */
+    private static final int NONE = Call.COUNT;
+    private static final int SIDE_VALUES = Call.COUNT + 1;
+    private static final int OPENING = 0;
+    private static final int CONTEXTS = 1 + SIDE_VALUES * SIDE_VALUES;
+    private static final long ANY_CALLS = (1L << SIDE_VALUES) - 1;
+    private static final long CONTRACT_BIDS = (1L << Call.PASS_CODE) - 1;
+
+    private final String name;
+    private final Rule[][] index;
+    // In file order; a rule's position here is its id
+    private final Rule[] rules;
+
+    private BiddingRules(String name, Rule[][] index, Rule[] rules) {
+        this.name = name;
+        this.index = index;
+        this.rules = rules;
+    }
+
+    /**
+     * Compiles the rule file at {@code resource} on the classpath.
+     *
+     * @throws IllegalArgumentException if the file is missing or has a malformed rule
+     */
+    public static BiddingRules load(String resource) {
+        InputStream in = BiddingRules.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("No bidding rules at " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return parse(resource, reader.lines().collect(Collectors.toList()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compiles rule lines; {@code name} only appears in error messages.
+     *
+     * @throws IllegalArgumentException naming the line of the first malformed rule
+     */
+    public static BiddingRules parse(String name, List<String> lines) {
+        List<List<Rule>> contexts = new ArrayList<>(CONTEXTS);
+        for (int i = 0; i < CONTEXTS; i++) {
+            contexts.add(new ArrayList<>());
+        }
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                String[] fields = line.split("\\|", -1);
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("expected <auction> | <hand> | <call>");
+                }
+                Rule rule = parseRule(rules.size(), name + ":" + (i + 1) + " " + line.trim(), fields[1], fields[2]);
+                fileRule(rule, fields[0], contexts);
+                rules.add(rule);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(name + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        Rule[][] index = new Rule[CONTEXTS][];
+        for (int i = 0; i < CONTEXTS; i++) {
+            index[i] = contexts.get(i).toArray(new Rule[0]);
+        }
+        return new BiddingRules(name, index, rules.toArray(new Rule[0]));
+    }
+
+    /**
+     * The call given by the first rule matching the auction and hand, or a pass if none does.
+     * The call may not be legal in the auction; that is the caller's check.
+     */
+    public Call choose(Hand hand, Player bidder, AuctionState auction) {
+        int id = match(hand, bidder, auction);
+        return id < 0 ? Call.PASS : rules[id].call(hand, auction.getLastSignificantCall(bidder.getPartner()));
+    }
+
+    /**
+     * The id of the first rule matching the auction and hand, from 0 to {@code getRuleCount() - 1}
+     * in file order, or -1 if none does.
+     */
+    public int match(Hand hand, Player bidder, AuctionState auction) {
+        Call partnerCall = auction.getLastSignificantCall(bidder.getPartner());
+        for (Rule rule : index[context(auction, bidder)]) {
+            if (rule.matches(hand, partnerCall)) {
+                return rule.id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Bounds on the hand of a {@code bidder} who made {@code call} at this point in
+     * {@code auction} by these rules: the span of the rules that give the call here, each less
+     * the earlier rules filed with it. The bounds hold for every hand that makes the call but may
+     * admit some that do not, since a strong-major term and most exclusions cannot be put as
+     * bounds. A call the rules never give here says nothing, so gives {@link HandConstraint#any()}.
+     */
+    public HandConstraint implied(Call call, Player bidder, AuctionState auction) {
+        Call partnerCall = auction.getLastSignificantCall(bidder.getPartner());
+        HandConstraint implied = null;
+        List<HandConstraint> earlier = new ArrayList<>();
+        for (Rule rule : index[context(auction, bidder)]) {
+            HandConstraint bounds = rule.bounds(partnerCall);
+            if (bounds == null) {
+                continue;
+            }
+            for (Call given : rule.possibleCalls(partnerCall)) {
+                if ((auction.isAllowed(given, bidder) ? given : Call.PASS) == call) {
+                    implied = span(implied, without(rule.boundsGiving(bounds, given), earlier));
+                }
+            }
+            if (!rule.strongMajor) {
+                earlier.add(bounds);
+            }
+        }
+        if (call == Call.PASS) {
+            // No rule matched
+            implied = span(implied, without(HandConstraint.any(), earlier));
+        }
+        return implied == null ? HandConstraint.any() : implied;
+    }
+
+    private static HandConstraint without(HandConstraint bounds, List<HandConstraint> excluded) {
+        for (HandConstraint other : excluded) {
+            bounds = bounds.without(other);
+        }
+        return bounds;
+    }
+
+    private static HandConstraint span(HandConstraint implied, HandConstraint piece) {
+        if (piece.isContradictory()) {
+            return implied;
+        }
+        return implied == null ? piece : implied.span(piece);
+    }
+
+    /**
+     * Where rule {@code id} came from and its text, e.g. {@code bidding/natural.rules:31 partner=bid | hcp=6-9 | 1NT}.
+     */
+    public String getRuleSource(int id) {
+        return rules[id].source;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRuleCount() {
+        return rules.length;
+    }
+
+    private static int context(AuctionState auction, Player bidder) {
+        if (auction.isOpening()) {
+            return OPENING;
+        }
+        return 1 + code(auction.getLastSignificantCall(bidder.getPartner())) * SIDE_VALUES
+                + code(auction.getLastSignificantCall(bidder));
+    }
+
+    private static int code(Call call) {
+        return call == null ? NONE : call.getCode();
+    }
+
+    private static void fileRule(Rule rule, String auction, List<List<Rule>> contexts) {
+        String[] terms = auction.trim().split("\\s+");
+        if (terms.length == 1 && terms[0].equals("opening")) {
+            contexts.get(OPENING).add(rule);
+            return;
+        }
+        long partner = ANY_CALLS;
+        long me = ANY_CALLS;
+        for (String term : terms) {
+            if (term.startsWith("partner=")) {
+                partner = parseCalls(term.substring("partner=".length()));
+            } else if (term.startsWith("me=")) {
+                me = parseCalls(term.substring("me=".length()));
+            } else {
+                throw new IllegalArgumentException("unknown auction term '" + term + "'");
+            }
+        }
+        for (int p = 0; p < SIDE_VALUES; p++) {
+            for (int m = 0; m < SIDE_VALUES; m++) {
+                if ((partner & (1L << p)) != 0 && (me & (1L << m)) != 0) {
+                    contexts.get(1 + p * SIDE_VALUES + m).add(rule);
+                }
+            }
+        }
+    }
+
+    /**
+     * A set of context values as a bitmask, {@link #NONE} included.
+     */
+    private static long parseCalls(String calls) {
+        long mask = 0;
+        for (String call : calls.split(",")) {
+            switch (call) {
+                case "any": mask |= ANY_CALLS; break;
+                case "bid": mask |= CONTRACT_BIDS; break;
+                case "none": mask |= 1L << NONE; break;
+                default: mask |= 1L << Call.parse(call).getCode();
+            }
+        }
+        return mask;
+    }
+
+    // DecisionCache keys on exactly the hand features these terms read; extend its key with any new term
+    private static Rule parseRule(int id, String source, String handField, String callField) {
+        HandConstraint constraint = HandConstraint.any();
+        boolean support = false;
+        boolean strongMajor = false;
+        String hand = handField.trim();
+        if (!hand.equals("-")) {
+            for (String term : hand.split("\\s+")) {
+                int equals = term.indexOf('=');
+                String key = equals < 0 ? term : term.substring(0, equals);
+                String value = equals < 0 ? null : term.substring(equals + 1);
+                switch (key) {
+                    case "balanced": constraint = constraint.balanced(true); break;
+                    case "unbalanced": constraint = constraint.balanced(false); break;
+                    case "support": support = true; break;
+                    case "strong-major": strongMajor = true; break;
+                    case "hcp": {
+                        int[] range = parseRange(term, value, HandConstraint.MAX_HCP);
+                        constraint = constraint.hcp(range[0], range[1]);
+                        break;
+                    }
+                    default: {
+                        Card.Suit suit = parseSuit(key);
+                        int[] range = parseRange(term, value, 13);
+                        constraint = constraint.suitLength(suit, range[0], range[1]);
+                    }
+                }
+            }
+        }
+        String call = callField.trim();
+        Action action = call.equals("raise") ? Action.RAISE
+                : call.equals("longest") ? Action.LONGEST
+                : Action.CALL;
+        return new Rule(id, source, constraint, support, strongMajor, action,
+                action == Action.CALL ? Call.parse(call) : null);
+    }
+
+    private static Card.Suit parseSuit(String name) {
+        switch (name) {
+            case "clubs": return Card.Suit.CLUBS;
+            case "diamonds": return Card.Suit.DIAMONDS;
+            case "hearts": return Card.Suit.HEARTS;
+            case "spades": return Card.Suit.SPADES;
+            default: throw new IllegalArgumentException("unknown hand term '" + name + "'");
+        }
+    }
+
+    /**
+     * Reads {@code 8}, {@code 8-9} or {@code 8+} (up to {@code max}).
+     */
+    private static int[] parseRange(String term, String value, int max) {
+        try {
+            if (value == null) {
+                throw new NumberFormatException();
+            }
+            if (value.endsWith("+")) {
+                return new int[]{Integer.parseInt(value.substring(0, value.length() - 1)), max};
+            }
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                int exact = Integer.parseInt(value);
+                return new int[]{exact, exact};
+            }
+            return new int[]{Integer.parseInt(value.substring(0, dash)), Integer.parseInt(value.substring(dash + 1))};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad range in '" + term + "'");
+        }
+    }
+
+    private enum Action { CALL, RAISE, LONGEST }
+
+    private static final class Rule {
+        final int id;
+        final String source;
+        final HandConstraint constraint;
+        final boolean support;
+        final boolean strongMajor;
+        final Action action;
+        final Call call;
+
+        Rule(int id, String source, HandConstraint constraint, boolean support, boolean strongMajor, Action action, Call call) {
+            this.id = id;
+            this.source = source;
+            this.constraint = constraint;
+            this.support = support;
+            this.strongMajor = strongMajor;
+            this.action = action;
+            this.call = call;
+        }
+
+        boolean matches(Hand hand, Call partnerCall) {
+            if (!constraint.matches(hand)) {
+                return false;
+            }
+            if (strongMajor && !hand.hasStrongSuit(Card.Suit.HEARTS) && !hand.hasStrongSuit(Card.Suit.SPADES)) {
+                return false;
+            }
+            return !support || hasSupport(hand, partnerCall);
+        }
+
+        /**
+         * The hands this rule matches, as bounds; exact unless it has a strong-major term. Null
+         * if it cannot match with {@code partnerCall}.
+         */
+        HandConstraint bounds(Call partnerCall) {
+            if (!support) {
+                return constraint;
+            }
+            if (partnerCall == null || !partnerCall.isStandard() || partnerCall.isNoTrump()) {
+                return null;
+            }
+            Card.Suit suit = partnerCall.getSuit();
+            boolean major = suit == Card.Suit.HEARTS || suit == Card.Suit.SPADES;
+            return constraint.intersect(HandConstraint.any().suitLength(suit, major ? 3 : 4, 13));
+        }
+
+        /**
+         * Every call this rule can give with {@code partnerCall}, before the legality check.
+         */
+        Call[] possibleCalls(Call partnerCall) {
+            switch (action) {
+                case RAISE:
+                    return new Call[]{call(null, partnerCall)};
+                case LONGEST:
+                    return new Call[]{Call.bid(1, Card.Suit.CLUBS), Call.bid(1, Card.Suit.DIAMONDS),
+                            Call.bid(1, Card.Suit.HEARTS), Call.bid(1, Card.Suit.SPADES)};
+                case CALL:
+                default:
+                    return new Call[]{call};
+            }
+        }
+
+        /**
+         * {@code bounds} narrowed to the hands for which this rule gives {@code given}.
+         */
+        HandConstraint boundsGiving(HandConstraint bounds, Call given) {
+            if (action != Action.LONGEST) {
+                return bounds;
+            }
+            // A major is only ever opened with five; a minor needs at least one card
+            Card.Suit suit = given.getSuit();
+            boolean major = suit == Card.Suit.HEARTS || suit == Card.Suit.SPADES;
+            return bounds.intersect(HandConstraint.any().suitLength(suit, major ? 5 : 1, 13));
+        }
+
+        Call call(Hand hand, Call partnerCall) {
+            switch (action) {
+                case RAISE:
+                    return partnerCall != null && partnerCall.isStandard() && partnerCall.getLevel() < 7
+                            ? Call.bid(partnerCall.getLevel() + 1, partnerCall.getSuit())
+                            : Call.PASS;
+                case LONGEST:
+                    return longestSuit(hand);
+                case CALL:
+                default:
+                    return call;
+            }
+        }
+    }
+
+    /**
+     * Three cards in partner's major or four in partner's minor.
+     */
+    private static boolean hasSupport(Hand hand, Call partnerCall) {
+        if (partnerCall == null || !partnerCall.isStandard() || partnerCall.isNoTrump()) {
+            return false;
+        }
+        Card.Suit suit = partnerCall.getSuit();
+        boolean major = suit == Card.Suit.HEARTS || suit == Card.Suit.SPADES;
+        return hand.getSuitLength(suit) >= (major ? 3 : 4);
+    }
+
+    /**
+     * The longest suit at the one level if it has five cards (ties go to the lower-ranking suit),
+     * otherwise the longer minor, diamonds when equal.
+     */
+    private static Call longestSuit(Hand hand) {
+        Card.Suit longestSuit = Card.Suit.CLUBS;
+        int longestLength = hand.getSuitLength(Card.Suit.CLUBS);
+        for (Card.Suit suit : new Card.Suit[]{Card.Suit.DIAMONDS, Card.Suit.HEARTS, Card.Suit.SPADES}) {
+            int length = hand.getSuitLength(suit);
+            if (length > longestLength) {
+                longestSuit = suit;
+                longestLength = length;
+            }
+        }
+        if (longestLength >= 5) {
+            return Call.bid(1, longestSuit);
+        }
+        int diamondLength = hand.getSuitLength(Card.Suit.DIAMONDS);
+        int clubLength = hand.getSuitLength(Card.Suit.CLUBS);
+        if (diamondLength >= clubLength && diamondLength > 0) {
+            return Call.bid(1, Card.Suit.DIAMONDS);
+        } else if (clubLength > 0) {
+            return Call.bid(1, Card.Suit.CLUBS);
+        }
+        return Call.PASS;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+
+/**
+ * A bidding system the robots can play: one immutable version of it, looked up by name in the
+ * {@link BiddingSystemRegistry}. Implementations must be thread-safe; the request threads and
+ * the {@link DealPool} producer share them.
+ */
+public interface BiddingSystem {
+
+    String getName();
+
+    /**
+     * Starts at 1 and goes up each time the registry swaps in a reloaded system.
+     */
+    int getVersion();
+
+    /**
+     * The call for {@code hand}, which must be legal for {@code bidder} in {@code auction}.
+     */
+    Call chooseCall(Hand hand, Player bidder, AuctionState auction);
+
+    /**
+     * The call as a new {@link Bid} for {@code bidder}, ready to add to a deal.
+     */
+    default Bid chooseBid(Hand hand, Player bidder, AuctionState auction) {
+        return chooseCall(hand, bidder, auction).toBid(bidder);
+    }
+
+    /**
+     * Bounds covering every hand with which {@code bidder} would make {@code call} in
+     * {@code auction}, the auction before the call. The default knows nothing.
+     */
+    default HandConstraint impliedConstraint(Call call, Player bidder, AuctionState auction) {
+        return HandConstraint.any();
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The bidding systems the robots can play, by the name {@code setBiddingSystem} accepts: the
+ * {@link #BUILT_IN_SYSTEMS} plus any other rule file in the rules directory. Each
+ * name holds its current {@link BiddingSystem} in an {@link AtomicReference}; {@link #reload}
+ * compiles and validates a new version off the caller's thread and then swaps it in, so robots
+ * never wait on a reload. The outcome of each system's latest reload is kept for
+ * {@link #getSystems}, so callers need not wait for it either. Deals hold on to the version they
+ * started with.
+ * <p>
+ * Rules come from {@code <name>.rules} in {@code bridge.bidding.rules-dir} if set and present,
+ * otherwise from {@code bidding/<name>.rules} on the classpath. Unknown names are rejected rather
+ * than played as some other system.
+ */
+@Component
+public class BiddingSystemRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BiddingSystemRegistry.class);
+
+    public static final String DEFAULT_SYSTEM = "natural";
+    /** The systems with rules on the classpath, in the order the views offer them. */
+    public static final List<String> BUILT_IN_SYSTEMS = List.of(DEFAULT_SYSTEM, "two-over-one",
+            "standard-american", "acol", "precision", "polish");
+    private static final Pattern SYSTEM_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    /** Boards a new version must bid through without error before it is swapped in. */
+    static final int VALIDATION_DEALS = 64;
+    private static final long VALIDATION_SEED = 0x5EEDL;
+    // The longest possible auction: 35 bids, each followed by double, redouble and passes
+    private static final int MAX_AUCTION_LENGTH = 319;
+
+    public static final int DEFAULT_DECISION_CACHE_CAPACITY = 1 << 16;
+    static final long RELOAD_TIMEOUT_SECONDS = 30;
+
+    private final Path rulesDir;
+    private final int decisionCacheCapacity;
+    private final Map<String, AtomicReference<BiddingSystem>> systems = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> lastReloads = new ConcurrentHashMap<>();
+
+    public BiddingSystemRegistry() {
+        this("");
+    }
+
+    public BiddingSystemRegistry(String rulesDir) {
+        this(rulesDir, DEFAULT_DECISION_CACHE_CAPACITY);
+    }
+
+    @Autowired
+    public BiddingSystemRegistry(@Value("${bridge.bidding.rules-dir:}") String rulesDir,
+                                 @Value("${bridge.bidding.decision-cache.capacity:65536}") int decisionCacheCapacity) {
+        this.rulesDir = rulesDir.isBlank() ? null : Paths.get(rulesDir);
+        this.decisionCacheCapacity = decisionCacheCapacity;
+        for (String name : BUILT_IN_SYSTEMS) {
+            install(name, validate(name, compile(name)));
+        }
+        if (this.rulesDir != null && Files.isDirectory(this.rulesDir)) {
+            try (Stream<Path> files = Files.list(this.rulesDir)) {
+                files.map(file -> file.getFileName().toString())
+                        .filter(file -> file.endsWith(".rules"))
+                        .map(file -> file.substring(0, file.length() - ".rules".length()))
+                        .filter(name -> !BUILT_IN_SYSTEMS.contains(name) && SYSTEM_NAME.matcher(name).matches())
+                        .forEach(name -> install(name, validate(name, compile(name))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * The current version of the named system.
+     *
+     * @throws IllegalArgumentException if there is no system by that name
+     */
+    public BiddingSystem get(String name) {
+        AtomicReference<BiddingSystem> ref = name == null ? null : systems.get(name);
+        BiddingSystem system = ref == null ? null : ref.get();
+        if (system == null) {
+            throw new IllegalArgumentException("Unknown bidding system: " + name);
+        }
+        return system;
+    }
+
+    public boolean contains(String name) {
+        AtomicReference<BiddingSystem> ref = name == null ? null : systems.get(name);
+        return ref != null && ref.get() != null;
+    }
+
+    /**
+     * Whether {@code name} is installed or has a rule file in the rules directory, so that a
+     * reload could find its rules.
+     */
+    public boolean canReload(String name) {
+        if (contains(name)) {
+            return true;
+        }
+        return rulesDir != null && name != null && SYSTEM_NAME.matcher(name).matches()
+                && Files.isRegularFile(rulesDir.resolve(name + ".rules"));
+    }
+
+    public CompletableFuture<BiddingSystem> reload(String name) {
+        return reload(name, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compiles and validates the named system's rules on {@code executor}, then swaps the new
+     * version in. The future fails, leaving the current version in place, if the rules are
+     * missing, malformed or fail validation, or if that takes over
+     * {@value #RELOAD_TIMEOUT_SECONDS} seconds; rules that are ready only after the timeout are
+     * discarded. The outcome is also recorded as the system's last reload when the name can be
+     * reloaded at all.
+     */
+    public CompletableFuture<BiddingSystem> reload(String name, Executor executor) {
+        return reload(name, executor, TimeUnit.SECONDS.toMillis(RELOAD_TIMEOUT_SECONDS));
+    }
+
+    CompletableFuture<BiddingSystem> reload(String name, Executor executor, long timeoutMillis) {
+        boolean tracked = canReload(name);
+        if (tracked) {
+            lastReloads.put(name, reloadStatus("running", null));
+        }
+        CompletableFuture<BiddingSystem> result = new CompletableFuture<>();
+        // Installing and timing out both settle the future under its lock, so exactly one wins
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            synchronized (result) {
+                result.completeExceptionally(new TimeoutException());
+            }
+        });
+        try {
+            executor.execute(() -> {
+                try {
+                    BiddingRules rules = validate(name, compile(name));
+                    synchronized (result) {
+                        if (result.isDone()) {
+                            logger.warn("Discarding bidding system {}: ready after the reload timed out", name);
+                            return;
+                        }
+                        result.complete(install(name, rules));
+                    }
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result.whenComplete((system, e) -> {
+            if (!tracked) {
+                return;
+            }
+            if (e == null) {
+                lastReloads.put(name, reloadStatus("installed", "version " + system.getVersion()));
+            } else {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                String message = cause instanceof TimeoutException
+                        ? "timed out after " + timeoutMillis + " ms" : cause.getMessage();
+                logger.warn("Reloading bidding system {} failed: {}", name, message);
+                lastReloads.put(name, reloadStatus("failed", message));
+            }
+        });
+    }
+
+    private static Map<String, Object> reloadStatus(String state, String message) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("message", message);
+        status.put("at", Instant.now().toString());
+        return status;
+    }
+
+    /**
+     * Makes {@code rules} the current version of {@code name}.
+     */
+    private BiddingSystem install(String name, BiddingRules rules) {
+        BiddingSystem installed = systems.computeIfAbsent(name, n -> new AtomicReference<>())
+                .updateAndGet(current -> new RuleBasedBiddingSystem(name,
+                        current == null ? 1 : current.getVersion() + 1, rules, decisionCacheCapacity));
+        logger.info("Installed bidding system {} ({} rules)", installed, rules.getRuleCount());
+        return installed;
+    }
+
+    private BiddingRules compile(String name) {
+        if (name == null || !SYSTEM_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid bidding system name: " + name);
+        }
+        Path file = rulesDir == null ? null : rulesDir.resolve(name + ".rules");
+        BiddingRules rules;
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                rules = BiddingRules.parse(file.toString(), Files.readAllLines(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            rules = BiddingRules.load("bidding/" + name + ".rules");
+        }
+        return rules;
+    }
+
+    /**
+     * Bids {@link #VALIDATION_DEALS} fixed boards from each dealer to the end of the auction,
+     * checking the call each rule gives. The rules are asked directly, since a
+     * {@link RuleBasedBiddingSystem} would pass in place of any illegal call and hide it. A bid
+     * that is too low is not an error: rules are written for the auction their side expects, and
+     * the rule format has the robot pass when someone has bid higher. A double or redouble that is
+     * not allowed is, since no auction the rule matches can make it legal.
+     *
+     * @throws IllegalStateException if the rules give an illegal double or redouble, or an
+     *                               auction never ends
+     */
+    static BiddingRules validate(String name, BiddingRules rules) {
+        DealStream deals = new DealStream(VALIDATION_SEED);
+        for (int k = 0; k < VALIDATION_DEALS; k++) {
+            long[] masks = deals.deal(k);
+            Player bidder = Player.values()[k % 4];
+            AuctionState auction = new AuctionState();
+            while (!auction.isFinished()) {
+                if (auction.getCallCount() >= MAX_AUCTION_LENGTH) {
+                    throw new IllegalStateException(name + ": auction on validation deal " + k + " never ends");
+                }
+                Call call = rules.choose(new Hand(masks[bidder.ordinal()], bidder), bidder, auction);
+                if (call == null || !call.isStandard() && !auction.isAllowed(call, bidder)) {
+                    throw new IllegalStateException(name + ": illegal call " + call + " on validation deal " + k);
+                }
+                if (!auction.isAllowed(call, bidder)) {
+                    call = Call.PASS;
+                }
+                auction.add(call, bidder);
+                bidder = Player.values()[(bidder.ordinal() + 1) % 4];
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Name, current version, decision cache statistics and last reload of every installed system.
+     */
+    public List<Map<String, Object>> getSystems() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, AtomicReference<BiddingSystem>> entry : new TreeMap<>(systems).entrySet()) {
+            BiddingSystem system = entry.getValue().get();
+            if (system != null) {
+                Map<String, Object> info = new LinkedHashMap<>();
+                info.put("name", system.getName());
+                info.put("version", system.getVersion());
+                info.put("default", DEFAULT_SYSTEM.equals(system.getName()));
+                if (system instanceof RuleBasedBiddingSystem) {
+                    info.put("decisionCache", ((RuleBasedBiddingSystem) system).getDecisionCacheStats());
+                }
+                info.put("lastReload", lastReloads.get(entry.getKey()));
+                result.add(info);
+            }
+        }
+        return result;
+    }
+}
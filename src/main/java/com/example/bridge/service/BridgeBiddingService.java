@@ -1,411 +1,495 @@
 package com.example.bridge.service;
 
+import com.example.bridge.model.AuctionState;
 import com.example.bridge.model.Bid;
-import com.example.bridge.model.Card;
+import com.example.bridge.model.Contract;
+import com.example.bridge.model.ConstrainedDealGenerator;
 import com.example.bridge.model.Deal;
+import com.example.bridge.model.DealSpec;
+import com.example.bridge.model.DealStream;
 import com.example.bridge.model.Hand;
+import com.example.bridge.model.Par;
 import com.example.bridge.model.Player;
+import com.example.bridge.model.ScoreTable;
+import com.example.bridge.model.TrickTable;
+import com.example.bridge.model.Vulnerability;
 import com.example.bridge.repository.DealRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class BridgeBiddingService {
 
     private static final Logger logger = LoggerFactory.getLogger(BridgeBiddingService.class);
 
-    private Deal currentDeal;
-    private int currentBidderIndex = 0;
-    private int currentDealerIndex = 0;
-    private List<Bid> biddingHistory = new ArrayList<>();
-    private String biddingSystem = "2/1 Game Forcing";
+    private final DealRepository dealRepository;
+    private final BiddingSystemRegistry biddingSystems;
+    private final GameSessionStore sessions;
+    private final BridgeExecutors executors;
+    private final RobotSeatScheduler robotSeats;
+    private final AdviceEngine adviceEngine;
+    private final DealPool dealPool;
+    private final SimulationJobs simulations;
+    private final ConstrainedDealGenerator constrainedDealGenerator;
+    private final DoubleDummySolver doubleDummySolver;
+
+    public BridgeBiddingService(BiddingSystemRegistry biddingSystems, GameSessionStore sessions,
+                                BridgeExecutors executors, RobotSeatScheduler robotSeats,
+                                AdviceEngine adviceEngine, DealPool dealPool, SimulationJobs simulations,
+                                DealRepository dealRepository) {
+        this.dealRepository = Objects.requireNonNull(dealRepository);
+        this.biddingSystems = Objects.requireNonNull(biddingSystems);
+        this.sessions = Objects.requireNonNull(sessions);
+        this.executors = Objects.requireNonNull(executors);
+        this.robotSeats = Objects.requireNonNull(robotSeats);
+        this.adviceEngine = Objects.requireNonNull(adviceEngine);
+        this.dealPool = Objects.requireNonNull(dealPool);
+        this.simulations = Objects.requireNonNull(simulations);
+        // Dealing and solving fork onto the engine pool, never the common pool
+        this.constrainedDealGenerator = new ConstrainedDealGenerator(executors.getEnginePool());
+        this.doubleDummySolver = new DoubleDummySolver(executors.getEnginePool(), DoubleDummySolver.DEFAULT_CACHE_CAPACITY);
+    }
 
-    @Autowired
-    private DealRepository dealRepository;
+    /**
+     * The game of the table the current request is for, or the default table outside a request.
+     */
+    public GameSession getSession() {
+        return sessions.current();
+    }
 
     public Deal startNewDeal() {
+        GameSession session = getSession();
         // Cycle to next dealer
-        currentDealerIndex = (currentDealerIndex + 1) % 4;
-        return startNewDeal(Player.values()[currentDealerIndex]);
+        session.currentDealerIndex = (session.currentDealerIndex + 1) % 4;
+        return startNewDeal(Player.values()[session.currentDealerIndex]);
     }
 
     public Deal startNewDeal(Player dealer) {
-        this.currentDeal = new Deal(dealer);
-        this.biddingHistory.clear();
-        this.currentBidderIndex = dealer.ordinal();
-        this.currentDealerIndex = dealer.ordinal();
+        return startNewDeal(dealer, DealSpec.random());
+    }
+
+    /**
+     * Starts a deal whose hands satisfy the per-seat constraints in {@code spec}, for targeted
+     * drills such as "South 15-17 balanced".
+     *
+     * @throws IllegalStateException if the spec is too rare to satisfy within the attempt budget
+     */
+    public Deal startNewDeal(Player dealer, DealSpec spec) {
+        GameSession session = getSession();
+        PreparedDeal prepared = dealPool.take(session.biddingSystem, dealer, spec, getUserSeat());
+        if (prepared != null) {
+            Deal deal = startDeal(session, dealer, prepared.getCardMasks(), prepared.getDealSeed());
+            session.preparedDeal = prepared;
+            session.dealBiddingSystem = prepared.getBiddingSystem();
+            session.inference = new AuctionInference(session.dealBiddingSystem);
+            return deal;
+        }
+        if (spec.isUnconstrained()) {
+            return startNewDeal(dealer, ThreadLocalRandom.current().nextLong());
+        }
+        return startDeal(session, dealer, constrainedDealGenerator.generate(spec), null);
+    }
 
-        List<Card> deck = Card.getShuffledDeck();
-        List<Hand> hands = new ArrayList<>();
+    /**
+     * Starts the deal for a {@link DealStream} deal seed, for replaying an archived deal or a
+     * shared practice set.
+     */
+    public Deal startNewDeal(Player dealer, long dealSeed) {
+        return startDeal(getSession(), dealer, DealStream.dealFromSeed(dealSeed), dealSeed);
+    }
+
+    private Deal startDeal(GameSession session, Player dealer, long[] cardMasks, Long dealSeed) {
+        Deal deal = new Deal(dealer);
+        deal.setDealSeed(dealSeed);
+        session.currentDeal = deal;
+        session.preparedDeal = null;
+        session.dealBiddingSystem = biddingSystems.get(session.biddingSystem);
+        session.biddingHistory.clear();
+        session.auction = new AuctionState();
+        session.inference = new AuctionInference(session.dealBiddingSystem);
+        session.currentBidderIndex = dealer.ordinal();
+        session.currentDealerIndex = dealer.ordinal();
+
+        List<Hand> hands = new ArrayList<>(4);
         for (int i = 0; i < 4; i++) {
-            Hand hand = new Hand(new ArrayList<>(deck.subList(i * 13, (i + 1) * 13)), Player.values()[i]);
-            hands.add(hand);
+            hands.add(new Hand(cardMasks[i], Player.values()[i]));
         }
 
-        currentDeal.setHands(hands);
-        currentDeal.setBiddingSystem(biddingSystem);
+        deal.setHands(hands);
+        deal.setBiddingSystem(session.biddingSystem);
         for (Hand hand : hands) {
-            hand.setDeal(currentDeal);
+            hand.setDeal(deal);
         }
-        return currentDeal;
+        session.dealStarted();
+        return deal;
     }
 
     public void saveDeal() {
-        if (currentDeal != null) {
-            dealRepository.save(currentDeal);
+        saveDeal(getSession().currentDeal);
+    }
+
+    private void saveDeal(Deal deal) {
+        if (deal != null) {
+            Deal saved = dealRepository.save(deal);
+            if (saved.getDoubleDummyTricks() == null) {
+                solveInBackground(saved);
+            }
         }
     }
 
+    /**
+     * Solves a saved deal off the request thread and stores its trick table, so the archive can
+     * be scored without solving anything. The hands are read here, under the table's lock; the
+     * solve and the update go by card masks and id alone, never touching the deal the table may
+     * still be playing.
+     */
+    private void solveInBackground(Deal deal) {
+        Long id = deal.getId();
+        doubleDummySolver.solveAsync(DoubleDummySolver.masks(deal))
+                .thenAccept(table -> dealRepository.updateDoubleDummyTricks(id, table.encode()))
+                .exceptionally(e -> {
+                    logger.warn("Could not solve deal {} double dummy", id, e);
+                    return null;
+                });
+    }
+
     public List<Deal> getAllDeals() {
         return dealRepository.findAll();
     }
 
     public Hand getHandForPlayer(Player player) {
-        if (currentDeal == null || currentDeal.getHands() == null) {
-            return null;
-        }
-        return currentDeal.getHands().stream()
-                .filter(h -> h.getPlayer() == player)
-                .findFirst()
-                .orElse(null);
+        return getSession().getHand(player);
     }
 
     public Player getCurrentBidder() {
-        return Player.values()[currentBidderIndex];
+        return Player.values()[getSession().currentBidderIndex];
     }
 
     public void makeBid(Bid bid) {
-        if (isBiddingFinished()) {
-            logger.warn("Bidding is already finished. No more bids allowed.");
-            return;
-        }
+        getSession().play(bid);
+    }
 
-        if (isBidAllowed(bid)) {
-            bid.setPlayer(getCurrentBidder());
-            biddingHistory.add(bid);
-            currentDeal.addBid(bid);
-            if (!bid.isPass()) {
-                currentDeal.setContract(bid.toString());
-            }
-            logger.info("Bid made: {} by {}", bid, bid.getPlayer());
-            advanceToNextBidder();
-        } else {
-            logger.warn("Bid {} is not allowed.", bid);
-        }
+    public boolean isBidAllowed(Bid bid) {
+        GameSession session = getSession();
+        return session.auction.isAllowed(bid, Player.values()[session.currentBidderIndex]);
     }
 
-    private void advanceToNextBidder() {
-        currentBidderIndex = (currentBidderIndex + 1) % 4;
+    /**
+     * Every call the current bidder may make, as an {@link AuctionState#legalCalls(Player)}
+     * bitmask, so views can decide all 38 buttons from one value.
+     */
+    public long getLegalCalls() {
+        GameSession session = getSession();
+        return session.auction.legalCalls(Player.values()[session.currentBidderIndex]);
     }
 
-    public boolean isBidAllowed(Bid bid) {
-        if (bid.isPass()) {
-            return true;
-        }
+    public boolean isBiddingFinished() {
+        return getSession().auction.isFinished();
+    }
 
-        // Validate that standard bids have levels between 1 and 7
-        if (bid.isStandard() && (bid.getLevel() < 1 || bid.getLevel() > 7)) {
-            return false;
-        }
+    public Bid getSimpleNaturalBid(List<Bid> biddingHistory) {
+        GameSession session = getSession();
+        return session.robotCall(session.getBidder(), biddingHistory);
+    }
 
-        Optional<Bid> lastStandardBidOpt = biddingHistory.stream()
-                .filter(b -> !b.isPass())
-                .reduce((first, second) -> second);
+    public int getCurrentBidderIndex() {
+        return getSession().currentBidderIndex;
+    }
 
-        if (lastStandardBidOpt.isEmpty()) {
-            return true;
-        }
+    public void setCurrentBidderIndex(int currentBidderIndex) {
+        GameSession session = getSession();
+        session.currentBidderIndex = currentBidderIndex;
+        session.changed();
+    }
 
-        Bid lastStandardBid = lastStandardBidOpt.get();
+    /**
+     * The current table's state version; see {@link GameSession#getVersion()}.
+     */
+    public long getStateVersion() {
+        return getSession().getVersion();
+    }
 
-        if (bid.isDouble()) {
-            return canDouble(lastStandardBid);
-        }
+    /**
+     * How many of the current deal's calls a client at state {@code sinceVersion} already has,
+     * or -1 if it needs the whole state.
+     */
+    public int getFirstCallAfter(long sinceVersion) {
+        return getSession().firstCallAfter(sinceVersion);
+    }
 
-        if (bid.isRedouble()) {
-            return canRedouble(lastStandardBid);
-        }
+    public int getCurrentDealerIndex() {
+        return getSession().currentDealerIndex;
+    }
 
-        return bid.getLevel() > lastStandardBid.getLevel() ||
-                (bid.getLevel() == lastStandardBid.getLevel() && bid.getSuit().ordinal() > lastStandardBid.getSuit().ordinal());
+    public List<Bid> getBiddingHistory() {
+        return getSession().biddingHistory;
     }
 
-    private boolean canDouble(Bid lastStandardBid) {
-        if (lastStandardBid.isDouble() || lastStandardBid.isRedouble()) {
-            return false;
-        }
-        Player lastBidder = lastStandardBid.getPlayer();
-        Player currentBidder = getCurrentBidder();
-        return lastBidder.isOpponent(currentBidder);
+    public String getBiddingSystem() {
+        return getSession().biddingSystem;
     }
 
-    private boolean canRedouble(Bid lastStandardBid) {
-        if (!lastStandardBid.isDouble()) {
-            return false;
-        }
-        
-        // Find the original bid that was doubled (the bid before the double)
-        Bid originalBid = null;
-        for (int i = biddingHistory.size() - 2; i >= 0; i--) {
-            Bid bid = biddingHistory.get(i);
-            if (!bid.isPass()) {
-                originalBid = bid;
-                break;
-            }
+    /**
+     * @throws IllegalArgumentException if {@code biddingSystem} is not a registered system
+     */
+    public void setBiddingSystem(String biddingSystem) {
+        if (!biddingSystems.contains(biddingSystem)) {
+            throw new IllegalArgumentException("Unknown bidding system: " + biddingSystem);
         }
-        
-        if (originalBid == null || originalBid.isDouble() || originalBid.isRedouble()) {
-            return false;
+        GameSession session = getSession();
+        if (!biddingSystem.equals(session.biddingSystem)) {
+            session.biddingSystem = biddingSystem;
+            session.changed();
         }
-        
-        // Only the partner of the original bidder can redouble
-        Player originalBidder = originalBid.getPlayer();
-        Player currentBidder = getCurrentBidder();
-        return originalBidder.getPartner() == currentBidder;
     }
 
-    public boolean isBiddingFinished() {
-        if (biddingHistory.size() < 4) return false;
-
-        boolean hasBeenStandardBid = biddingHistory.stream().anyMatch(Bid::isStandard);
-        
-        int passCount = 0;
-        for (int i = biddingHistory.size() - 1; i >= 0; i--) {
-            if (biddingHistory.get(i).isPass()) {
-                passCount++;
-            } else {
-                break;
-            }
-        }
-        
-        // Bidding is finished if:
-        // 1. 4 consecutive passes (no standard bids made), OR
-        // 2. 3 consecutive passes after at least one standard bid
-        return (!hasBeenStandardBid && passCount >= 4) || (hasBeenStandardBid && passCount >= 3);
+    public Deal getCurrentDeal() {
+        return getSession().currentDeal;
     }
 
-    public Bid getSimpleNaturalBid(List<Bid> biddingHistory) {
-        Player currentBidder = getCurrentBidder();
-        Hand hand = getHandForPlayer(currentBidder);
-        if (hand == null) {
-            logger.error("Hand is null for player {}", currentBidder);
-            return Bid.pass();
+    public Player getCurrentDealer() {
+        GameSession session = getSession();
+        if (session.currentDeal != null) {
+            return session.currentDeal.getDealer();
         }
+        return Player.values()[session.currentDealerIndex];
+    }
 
-        int hcp = hand.getHighCardPoints();
-        Map<Card.Suit, Integer> suitLengths = hand.getSuitLengths();
-        boolean isOpening = isOpeningBid(biddingHistory);
-
-        Bid finalBid = Bid.pass();
+    public Player getUserSeat() {
+        // For now, we'll assume the user is always SOUTH.
+        // This can be made configurable later.
+        return Player.SOUTH;
+    }
 
-        if (isOpening) {
-            if (hcp >= 15 && hcp <= 17 && hand.isBalanced()) {
-                finalBid = new Bid(1, Card.Suit.NOTRUMP);
-            } else if (hcp >= 13) {
-                finalBid = openLongestSuit(hand, suitLengths);
-            }
-        } else { // Responding or rebidding
-        Bid myLastBid = getLastSignificantBidByPlayer(currentBidder, biddingHistory);
-        Bid partnerLastBid = getLastSignificantBidByPlayer(currentBidder.getPartner(), biddingHistory);
-
-        // Opener's rebid to Stayman
-        if (myLastBid != null && myLastBid.isNoTrump() && myLastBid.getLevel() == 1 &&
-                partnerLastBid != null && partnerLastBid.getLevel() == 2 && partnerLastBid.getSuit() == Card.Suit.CLUBS) {
-            if (suitLengths.getOrDefault(Card.Suit.HEARTS, 0) >= 4) {
-                return new Bid(2, Card.Suit.HEARTS);
-            } else if (suitLengths.getOrDefault(Card.Suit.SPADES, 0) >= 4) {
-                return new Bid(2, Card.Suit.SPADES);
-            } else {
-                return new Bid(2, Card.Suit.DIAMONDS);
-            }
+    public void saveDealIfFinished() {
+        if (isBiddingFinished()) {
+            saveDeal();
         }
+    }
+
+    /**
+     * Lets the robot seats of {@code trainingMode} call until a human seat is to call, waiting
+     * for them as long as the scheduler's configured wait.
+     */
+    public CompletableFuture<Integer> playRobots(String trainingMode) {
+        return playRobots(trainingMode, robotSeats.getWaitMillis());
+    }
 
-            Bid partnerBid = getLastSignificantBidByPlayer(currentBidder.getPartner(), biddingHistory);
-            if (partnerBid != null) {
-                if (partnerBid.isNoTrump() && partnerBid.getLevel() == 1) {
-                    if (hcp <= 7) {
-                        finalBid = Bid.pass(); // Weak hands pass
-                    } else if (hcp >= 10) { // Game-forcing points
-                        finalBid = new Bid(3, Card.Suit.NOTRUMP);
-                    } else { // Invitational hands (8-9 points)
-                        Bid staymanBid = getStaymanResponse(hand, partnerBid, biddingHistory, currentBidder);
-                        if (staymanBid != null) {
-                            finalBid = staymanBid;
-                        } else if (hand.isBalanced()) {
-                            finalBid = new Bid(2, Card.Suit.NOTRUMP); // Invitational 2NT
-                        } else {
-                            finalBid = openLongestSuit(hand, suitLengths); // Unbalanced, bid longest suit
-                        }
-                    }
-                } else if (partnerBid.isStandard()) {
-                    Card.Suit partnerSuit = partnerBid.getSuit();
-                    int partnerSuitLength = suitLengths.getOrDefault(partnerSuit, 0);
-                    logger.info("Partner bid: {} {}, HCP: {}, Partner suit length: {}", partnerBid.getLevel(), partnerSuit, hcp, partnerSuitLength);
-                    
-                    // For major suits, need 3+ cards; for minor suits, need 4+ cards to raise
-                    boolean hasGoodSupport = (partnerSuit == Card.Suit.HEARTS || partnerSuit == Card.Suit.SPADES) 
-                        ? partnerSuitLength >= 3 : partnerSuitLength >= 4;
-                    
-                    if (hasGoodSupport && hcp >= 5) { // Support partner with good fit
-                        logger.info("Supporting partner's suit with {} cards", partnerSuitLength);
-                        finalBid = new Bid(partnerBid.getLevel() + 1, partnerSuit);
-                    } else if (hcp >= 6 && hcp <= 9) { // 6-9 HCP with no fit, respond 1NT
-                        logger.info("Responding 1NT with {} HCP and no fit", hcp);
-                        finalBid = new Bid(1, Card.Suit.NOTRUMP);
-                    } else if (hcp >= 10 && hcp <= 12) { // 10-12 HCP with no fit, respond 2NT
-                        logger.info("Responding 2NT with {} HCP and no fit", hcp);
-                        finalBid = new Bid(2, Card.Suit.NOTRUMP);
-                    } else if (hcp < 6) { // Weak hands should pass
-                        logger.info("Passing with weak hand ({} HCP) when responding to partner bid", hcp);
-                        finalBid = Bid.pass();
-                    } else {
-                        logger.info("Opening longest suit with {} HCP", hcp);
-                        finalBid = openLongestSuit(hand, suitLengths);
-                    }
+    /**
+     * Lets the robot seats of {@code trainingMode} call until a human seat is to call, waiting up
+     * to {@code waitMillis} (0 to return at once). Robots still bidding after that carry on in the
+     * background and the deal is saved if they finish the auction.
+     *
+     * @return completes with the number of robot calls made
+     */
+    public CompletableFuture<Integer> playRobots(String trainingMode, long waitMillis) {
+        GameSession session = getSession();
+        CompletableFuture<Integer> robots = robotSeats.play(session,
+                RobotSeatScheduler.robotSeats(trainingMode, getUserSeat()), waitMillis);
+        if (!robots.isDone()) {
+            Deal deal = session.currentDeal;
+            robots.thenRun(() -> {
+                boolean finished;
+                session.getLock().lock();
+                try {
+                    finished = session.currentDeal == deal && session.auction.isFinished();
+                } finally {
+                    session.getLock().unlock();
                 }
-            } else { // No partner bid, treat as opening
-                if (hcp >= 13) {
-                    finalBid = openLongestSuit(hand, suitLengths);
+                if (finished) {
+                    saveDeal(deal);
                 }
-            }
+            });
         }
+        return robots;
+    }
 
-        if (!isBidAllowed(finalBid)) {
-            logger.warn("Proposed bid {} is not allowed. Passing instead.", finalBid);
-            finalBid = Bid.pass();
-        }
+    public List<Map<String, Object>> getBiddingSystems() {
+        return biddingSystems.getSystems();
+    }
 
-        return finalBid;
+    public boolean canReloadBiddingSystem(String name) {
+        return biddingSystems.canReload(name);
     }
 
-    private Bid openLongestSuit(Hand hand, Map<Card.Suit, Integer> suitLengths) {
-        if (hand.getHighCardPoints() < 13) {
-            return Bid.pass();
+    /**
+     * Reloads the named system's rules in the background on the engine pool; deals already
+     * started keep the version they started with. The outcome shows in
+     * {@link #getBiddingSystems}.
+     */
+    public CompletableFuture<BiddingSystem> reloadBiddingSystem(String name) {
+        return biddingSystems.reload(name, executors.getEnginePool());
+    }
+
+    /**
+     * Queues a run in which the robots bid {@code boards} boards from {@code seed} in all four
+     * seats with the named system (the current one if null); the current deal is untouched. The
+     * report shows in {@link #getSimulation} once the run is done.
+     *
+     * @throws IllegalArgumentException if the system is unknown or the number of boards is out of range
+     * @throws IllegalStateException    if too many runs are already pending
+     */
+    public Map<String, Object> startSimulation(String systemName, long boards, long seed) {
+        return simulations.submit(biddingSystems.get(systemName == null ? getSession().biddingSystem : systemName), seed, boards);
+    }
+
+    /**
+     * A simulation run's state and, once done, its report; null if there is no such run.
+     */
+    public Map<String, Object> getSimulation(long id) {
+        return simulations.get(id);
+    }
+
+    /**
+     * Double-dummy tricks for every strain and declarer on the current deal, or null while they
+     * are still being worked out: the solve runs on the engine pool, not under the table lock, so
+     * ask again later.
+     *
+     * @throws IllegalStateException if no deal has been started, or the solve ran out of time
+     */
+    public TrickTable getDoubleDummyTable() {
+        Deal deal = getSession().currentDeal;
+        if (deal == null) {
+            throw new IllegalStateException("No current deal");
         }
+        return solvedOrNull(doubleDummySolver.solveAsync(DoubleDummySolver.masks(deal)));
+    }
 
-        Optional<Map.Entry<Card.Suit, Integer>> longestSuit = suitLengths.entrySet().stream()
-                .filter(entry -> entry.getKey() != Card.Suit.NOTRUMP)
-                .max(Comparator.comparing(Map.Entry::getValue));
-
-        if (longestSuit.isPresent() && longestSuit.get().getValue() >= 5) {
-            return new Bid(1, longestSuit.get().getKey());
-        } else {
-            // No 5-card suit, bid longest minor
-            int diamondLength = suitLengths.getOrDefault(Card.Suit.DIAMONDS, 0);
-            int clubLength = suitLengths.getOrDefault(Card.Suit.CLUBS, 0);
-            if (diamondLength >= clubLength && diamondLength > 0) {
-                return new Bid(1, Card.Suit.DIAMONDS);
-            } else if (clubLength > 0) {
-                return new Bid(1, Card.Suit.CLUBS);
-            }
-            return Bid.pass(); // Should not be reached with a valid hand
+    /**
+     * Double-dummy tricks for every strain and declarer on a saved deal, or null while they are
+     * still being worked out, as for the current deal.
+     *
+     * @throws IllegalArgumentException if there is no deal with that id
+     * @throws IllegalStateException    if the solve ran out of time
+     */
+    public TrickTable getDoubleDummyTable(Long dealId) {
+        Deal deal = dealRepository.findById(dealId)
+                .orElseThrow(() -> new IllegalArgumentException("No deal with id " + dealId));
+        if (deal.getDoubleDummyTricks() != null) {
+            return TrickTable.decode(deal.getDoubleDummyTricks());
+        }
+        TrickTable table = solvedOrNull(doubleDummySolver.solveAsync(DoubleDummySolver.masks(deal)));
+        if (table != null) {
+            dealRepository.updateDoubleDummyTricks(dealId, table.encode());
         }
+        return table;
     }
 
-    private Bid getStaymanResponse(Hand hand, Bid partnerBid, List<Bid> biddingHistory, Player currentBidder) {
-        if (partnerBid.getLevel() == 1 && partnerBid.getSuit() == Card.Suit.NOTRUMP) {
-            int hcp = hand.getHighCardPoints();
-            Map<Card.Suit, Integer> suitLengths = hand.getSuitLengths();
-            boolean hasFourCardMajor = suitLengths.getOrDefault(Card.Suit.HEARTS, 0) >= 4 || suitLengths.getOrDefault(Card.Suit.SPADES, 0) >= 4;
-            
-            if (hasFourCardMajor) {
-                // Use Stayman with 9+ HCP, or 8 HCP with unbalanced hand, or 8 HCP with strong major suit honors
-                if (hcp >= 9 || (hcp == 8 && !hand.isBalanced()) || (hcp == 8 && hasStrongMajorSuit(hand))) {
-                    return new Bid(2, Card.Suit.CLUBS); // Stayman bid
-                }
+    private static TrickTable solvedOrNull(CompletableFuture<TrickTable> solving) {
+        if (!solving.isDone()) {
+            return null;
+        }
+        try {
+            return solving.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
         }
-        return null;
     }
 
-    private boolean hasStrongMajorSuit(Hand hand) {
-        Map<Card.Suit, Integer> suitLengths = hand.getSuitLengths();
-        List<Card> allCards = hand.getCards();
-
-        for (Card.Suit suit : new Card.Suit[]{Card.Suit.HEARTS, Card.Suit.SPADES}) {
-            if (suitLengths.getOrDefault(suit, 0) >= 4) {
-                int strongCards = 0;
-                for (Card card : allCards) {
-                    if (card.getSuit() == suit && (card.getRank() == Card.Rank.ACE || card.getRank() == Card.Rank.KING || card.getRank() == Card.Rank.QUEEN)) {
-                        strongCards++;
-                    }
-                }
-                if (strongCards >= 2) {
-                    return true;
+    /**
+     * Contract, double-dummy result and par for each deal, read from its bids and stored trick
+     * table with table lookups only, so the whole archive can be scored on every view. Deals
+     * record no vulnerability, so none is assumed; deals not yet solved get their contract only.
+     * Each map has {@code contract} (null if passed out), and once solved {@code tricks},
+     * {@code score} and {@code parScore} for North-South, and {@code par}.
+     */
+    public List<Map<String, Object>> scoreDeals(List<Deal> deals) {
+        List<Map<String, Object>> scores = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            Map<String, Object> score = new LinkedHashMap<>();
+            Contract contract = deal.getBids() == null ? null : Contract.of(deal.getBids());
+            score.put("contract", contract == null ? null : contract.toString());
+            if (deal.getDoubleDummyTricks() != null) {
+                TrickTable tricks = TrickTable.decode(deal.getDoubleDummyTricks());
+                if (contract != null) {
+                    score.put("tricks", tricks.getTricks(contract.getStrain(), contract.getDeclarer()));
+                    score.put("score", ScoreTable.northSouthScore(contract, Vulnerability.NONE, tricks));
+                } else {
+                    score.put("score", 0);
                 }
+                Par par = Par.of(tricks, deal.getDealer() == null ? Player.NORTH : deal.getDealer(), Vulnerability.NONE);
+                score.put("par", par.toString());
+                score.put("parScore", par.getNorthSouthScore());
             }
+            scores.add(score);
         }
-        return false;
+        return scores;
     }
 
-    private boolean isOpeningBid(List<Bid> biddingHistory) {
-        return biddingHistory.stream().allMatch(Bid::isPass);
+    public Map<String, Object> getDoubleDummyCacheStats() {
+        return doubleDummySolver.getCacheStats();
     }
 
-    private Bid getLastSignificantBidByPlayer(Player player, List<Bid> biddingHistory) {
-        return biddingHistory.stream()
-                .filter(b -> b.getPlayer() == player && !b.isPass())
-                .reduce((first, second) -> second)
-                .orElse(null);
-    }
-
-    public int getCurrentBidderIndex() {
-        return currentBidderIndex;
-    }
-
-    public void setCurrentBidderIndex(int currentBidderIndex) {
-        this.currentBidderIndex = currentBidderIndex;
+    /**
+     * Bounds on each hand of the current deal from the calls made so far, keyed by seat.
+     *
+     * @throws IllegalStateException if no deal has been started
+     */
+    public Map<String, String> getInferredHands() {
+        GameSession session = getSession();
+        if (session.currentDeal == null) {
+            throw new IllegalStateException("No current deal");
+        }
+        return session.inference.toMap();
     }
 
-    public int getCurrentDealerIndex() {
-        return currentDealerIndex;
+    /**
+     * Sends the current table's events to {@code listener} as they happen, in order and off the
+     * thread making them.
+     *
+     * @return unsubscribes the listener
+     */
+    public Runnable subscribe(GameEventListener listener) {
+        GameSession session = getSession();
+        GameEventListener ordered = new OrderedGameEventListener(listener, executors.getEventExecutor());
+        session.addListener(ordered);
+        return () -> session.removeListener(ordered);
     }
 
-    public List<Bid> getBiddingHistory() {
-        return biddingHistory;
+    public Map<String, Object> getExecutorStats() {
+        return executors.getStats();
     }
 
-    public String getBiddingSystem() {
-        return biddingSystem;
+    public Map<String, Object> getSessionStats() {
+        return sessions.getStats();
     }
 
-    public void setBiddingSystem(String biddingSystem) {
-        this.biddingSystem = biddingSystem;
+    public Map<String, Object> getDealPoolStats() {
+        return dealPool.getStats();
     }
 
-    public Deal getCurrentDeal() {
-        return currentDeal;
+    public String getAdvice(Hand hand, List<Bid> biddingHistory) {
+        return (String) getAdviceReport(hand, biddingHistory).get("advice");
     }
 
-    public Player getCurrentDealer() {
-        if (currentDeal != null) {
-            return currentDeal.getDealer();
+    /**
+     * Simulated advice for {@code hand}'s next call (see {@link AdviceEngine}), using the current
+     * deal's system. Only the current bidder's hand gets a ranking; otherwise the report just
+     * says why not.
+     */
+    public Map<String, Object> getAdviceReport(Hand hand, List<Bid> biddingHistory) {
+        if (AuctionState.of(biddingHistory).isFinished()) {
+            return Map.of("advice", "The auction is over.");
         }
-        return Player.values()[currentDealerIndex];
-    }
-
-    public Player getUserSeat() {
-        // For now, we'll assume the user is always SOUTH.
-        // This can be made configurable later.
-        return Player.SOUTH;
-    }
-
-    public void saveDealIfFinished() {
-        if (isBiddingFinished()) {
-            saveDeal();
+        GameSession session = getSession();
+        if (session.currentDeal != null && hand.getPlayer() != getCurrentBidder()) {
+            return Map.of("advice", "It is " + getCurrentBidder() + "'s turn to bid.");
         }
-    }
-
-    public String getAdvice(Hand hand, List<Bid> biddingHistory) {
-        // TODO: Implement actual bidding advice logic
-        return "No advice available yet.";
+        BiddingSystem system = session.dealBiddingSystem != null
+                ? session.dealBiddingSystem : biddingSystems.get(session.biddingSystem);
+        return adviceEngine.advise(system, hand, biddingHistory);
     }
 }
@@ -0,0 +1,164 @@
+package com.example.bridge.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads the game runs its work on, split by kind of work:
+ * <ul>
+ * <li>the engine pool, a bounded pool of platform threads for CPU-heavy work (double-dummy
+ * solving of saved deals, self-play simulation), so that however many tables are open the
+ * engine never runs more threads than there are workers;</li>
+ * <li>the robot executor for robot seats' calls, which mostly wait on the session they bid in:
+ * a virtual thread per task when virtual threads are on, otherwise a pool of platform threads,
+ * two per processor, that stop when idle;</li>
+ * <li>the event executor for handing game events to subscribers such as event streams, which
+ * may block on slow clients: virtual threads or a pool of its own like the robots', so that
+ * clients never hold up robot seats;</li>
+ * <li>the simulation pool, a bounded pool of platform threads for self-play simulation runs,
+ * by default half the processors, so that a long run never takes the engine's workers.</li>
+ * </ul>
+ * Virtual threads are opt-in through {@code spring.threads.virtual.enabled}, the same switch that
+ * moves Tomcat's request handling onto virtual threads. They need Java 21 at runtime; on an older
+ * JVM the switch is ignored (Spring Boot ignores it too) and everything runs as before. The
+ * virtual-thread executor is looked up reflectively so the code still builds for Java 17.
+ */
+@Component
+public class BridgeExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(BridgeExecutors.class);
+
+    private final ForkJoinPool engine;
+    private final ExecutorService virtualThreads;
+    private final ExecutorService robots;
+    private final ExecutorService events;
+    private final ForkJoinPool simulation;
+
+    public BridgeExecutors(boolean virtualThreadsEnabled, int engineWorkers) {
+        this(virtualThreadsEnabled, engineWorkers, 0);
+    }
+
+    @Autowired
+    public BridgeExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+                           @Value("${bridge.engine.workers:0}") int engineWorkers,
+                           @Value("${bridge.simulation.workers:0}") int simulationWorkers) {
+        if (engineWorkers < 0 || simulationWorkers < 0) {
+            throw new IllegalArgumentException("Workers must not be negative: " + engineWorkers + ", " + simulationWorkers);
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.engine = workerPool("engine-worker-", engineWorkers > 0 ? engineWorkers : processors);
+        this.simulation = workerPool("simulation-worker-", simulationWorkers > 0 ? simulationWorkers : Math.max(1, processors / 2));
+        this.virtualThreads = virtualThreadsEnabled ? newVirtualThreadPerTaskExecutor() : null;
+        int threads = 2 * processors;
+        this.robots = virtualThreads != null ? virtualThreads : platformPool("robot-", threads);
+        this.events = virtualThreads != null ? virtualThreads : platformPool("event-", threads);
+    }
+
+    private static ForkJoinPool workerPool(String prefix, int workers) {
+        AtomicInteger count = new AtomicInteger();
+        return new ForkJoinPool(workers, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    private static ExecutorService platformPool(String prefix, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * A new virtual-thread-per-task executor, or null if this JVM has no virtual threads.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads need Java 21 or later; running on platform threads (Java {})",
+                    Runtime.version().feature());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        engine.shutdownNow();
+        simulation.shutdownNow();
+        robots.shutdownNow();
+        events.shutdownNow();
+    }
+
+    /**
+     * The bounded platform-thread pool for CPU-heavy engine work.
+     */
+    public ForkJoinPool getEnginePool() {
+        return engine;
+    }
+
+    /**
+     * The bounded platform-thread pool for self-play simulation runs.
+     */
+    public ForkJoinPool getSimulationPool() {
+        return simulation;
+    }
+
+    /**
+     * Where robot seats' calls run: a virtual thread each, or the robot pool.
+     */
+    public Executor getRobotExecutor() {
+        return robots;
+    }
+
+    /**
+     * Where game events are handed to subscribers: a virtual thread each, or the event pool.
+     */
+    public Executor getEventExecutor() {
+        return events;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads != null;
+    }
+
+    /**
+     * Whether virtual threads are in use, and the engine and simulation pools' sizes and how busy
+     * they are.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", isVirtualThreads());
+        stats.put("engineWorkers", engine.getParallelism());
+        stats.put("engineActive", engine.getActiveThreadCount());
+        stats.put("engineQueued", engine.getQueuedSubmissionCount() + engine.getQueuedTaskCount());
+        stats.put("simulationWorkers", simulation.getParallelism());
+        stats.put("simulationActive", simulation.getActiveThreadCount());
+        return stats;
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.ConstrainedDealGenerator;
+import com.example.bridge.model.DealSpec;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Boards dealt ahead of time, with the robots' calls up to the user's seat already worked out, so
+ * starting a deal is a queue poll. There is one bounded queue per profile (bidding system,
+ * dealer, {@link DealSpec}, user seat); a single background thread tops queues up after each
+ * take, searching for constrained boards on the engine pool. Taking never blocks: an empty
+ * queue is a miss and the caller deals on demand. Boards bid by a system version that has since
+ * been reloaded are dropped on take. A capacity of 0 turns the pool off, so every board is
+ * dealt on demand. A profile whose refill fails, typically for a spec too rare to deal within
+ * the generator's budget, backs off before it is tried again.
+ */
+@Component
+public class DealPool {
+
+    static final long MIN_BACKOFF_MILLIS = 1000;
+    static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(DealPool.class);
+
+    private final int capacity;
+    private final int maxProfiles;
+    private final Map<Profile, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong failedRefills = new AtomicLong();
+    private final LongSupplier clock;
+    private final BiddingSystemRegistry biddingSystems;
+    private final ConstrainedDealGenerator constrainedDealGenerator;
+    private final ExecutorService producer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deal-pool-producer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public DealPool(BiddingSystemRegistry biddingSystems, BridgeExecutors executors,
+                    @Value("${bridge.deal-pool.capacity:16}") int capacity,
+                    @Value("${bridge.deal-pool.max-profiles:64}") int maxProfiles) {
+        this(biddingSystems, executors, capacity, maxProfiles, System::currentTimeMillis);
+    }
+
+    DealPool(BiddingSystemRegistry biddingSystems, BridgeExecutors executors, int capacity, int maxProfiles,
+             LongSupplier clock) {
+        if (capacity < 0 || maxProfiles < 1) {
+            throw new IllegalArgumentException("Deal pool capacity must not be negative and profiles must be positive");
+        }
+        this.biddingSystems = Objects.requireNonNull(biddingSystems);
+        this.constrainedDealGenerator = new ConstrainedDealGenerator(executors.getEnginePool());
+        this.capacity = capacity;
+        this.maxProfiles = maxProfiles;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a prepared board for the profile, or returns null if none is ready. Either way the
+     * profile's queue is scheduled for refilling; the first request for a profile also starts
+     * filling the queues for the other three dealers, since new deals rotate the dealer.
+     */
+    public PreparedDeal take(String biddingSystem, Player dealer, DealSpec spec, Player userSeat) {
+        if (capacity == 0) {
+            return null;
+        }
+        Profile profile = new Profile(biddingSystem, dealer, spec, userSeat);
+        Slot slot = slots.get(profile);
+        if (slot == null) {
+            for (Player otherDealer : Player.values()) {
+                Profile other = new Profile(biddingSystem, otherDealer, spec, userSeat);
+                Slot created = slotFor(other);
+                if (created != null && otherDealer != dealer) {
+                    refill(other, created);
+                }
+            }
+            slot = slots.get(profile);
+        }
+        PreparedDeal prepared = slot == null ? null : slot.deals.poll();
+        BiddingSystem current = biddingSystems.get(biddingSystem);
+        while (prepared != null && prepared.getBiddingSystem() != current) {
+            slot.depth.decrementAndGet();
+            prepared = slot.deals.poll();
+        }
+        if (prepared != null) {
+            slot.depth.decrementAndGet();
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        if (slot != null) {
+            refill(profile, slot);
+        }
+        return prepared;
+    }
+
+    private Slot slotFor(Profile profile) {
+        Slot slot = slots.get(profile);
+        if (slot == null && slots.size() < maxProfiles) {
+            slot = slots.computeIfAbsent(profile, p -> new Slot());
+        }
+        return slot;
+    }
+
+    private void refill(Profile profile, Slot slot) {
+        if (slot.depth.get() >= capacity || clock.getAsLong() < slot.retryAtMillis
+                || !slot.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            producer.execute(() -> fill(profile, slot));
+        } catch (RejectedExecutionException e) {
+            // Shut down; callers deal on demand
+            slot.refilling.set(false);
+        }
+    }
+
+    private void fill(Profile profile, Slot slot) {
+        try {
+            while (slot.depth.get() < capacity) {
+                slot.deals.offer(prepare(profile.biddingSystem, profile.dealer, profile.spec, profile.userSeat));
+                slot.depth.incrementAndGet();
+            }
+            slot.failures = 0;
+        } catch (RuntimeException e) {
+            // Typically a spec too rare to deal within the budget; callers deal on demand meanwhile
+            failedRefills.incrementAndGet();
+            int failures = ++slot.failures;
+            long backoff = Math.min(MAX_BACKOFF_MILLIS, MIN_BACKOFF_MILLIS << Math.min(failures - 1, 20));
+            slot.retryAtMillis = clock.getAsLong() + backoff;
+            logger.warn("Deal pool refill for {} failed ({} in a row); retrying in {} ms", profile, failures, backoff, e);
+        } finally {
+            slot.refilling.set(false);
+        }
+        // A take that came after the loop ended but before the flag was cleared left the refill to us
+        refill(profile, slot);
+    }
+
+    /**
+     * Deals one board for the profile and runs the robots' auction from the dealer up to the
+     * user's seat.
+     */
+    PreparedDeal prepare(String biddingSystem, Player dealer, DealSpec spec, Player userSeat) {
+        Long dealSeed = spec.isUnconstrained() ? ThreadLocalRandom.current().nextLong() : null;
+        long[] cardMasks = dealSeed != null
+                ? DealStream.dealFromSeed(dealSeed)
+                : constrainedDealGenerator.generate(spec);
+        BiddingSystem system = biddingSystems.get(biddingSystem);
+        // At most three robots call before the user's first turn
+        byte[] calls = new byte[3];
+        int callCount = 0;
+        AuctionState auction = new AuctionState();
+        Player bidder = dealer;
+        while (bidder != userSeat && !auction.isFinished()) {
+            Hand hand = new Hand(cardMasks[bidder.ordinal()], bidder);
+            Call call = system.chooseCall(hand, bidder, auction);
+            calls[callCount++] = (byte) call.getCode();
+            auction.add(call, bidder);
+            bidder = Player.values()[(bidder.ordinal() + 1) % 4];
+        }
+        return new PreparedDeal(cardMasks, dealSeed, system, dealer, Arrays.copyOf(calls, callCount));
+    }
+
+    public int getDepth() {
+        int depth = 0;
+        for (Slot slot : slots.values()) {
+            depth += slot.depth.get();
+        }
+        return depth;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", capacity > 0);
+        stats.put("profiles", slots.size());
+        stats.put("capacityPerProfile", capacity);
+        stats.put("depth", getDepth());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("missRate", total == 0 ? 0.0 : (double) missCount / total);
+        stats.put("failedRefills", failedRefills.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        producer.shutdownNow();
+    }
+
+    private static final class Slot {
+        final ConcurrentLinkedQueue<PreparedDeal> deals = new ConcurrentLinkedQueue<>();
+        // ConcurrentLinkedQueue.size() is O(n), so depth is tracked alongside
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicBoolean refilling = new AtomicBoolean();
+        // Written by the producer thread only
+        volatile int failures;
+        volatile long retryAtMillis;
+    }
+
+    private static final class Profile {
+        final String biddingSystem;
+        final Player dealer;
+        final DealSpec spec;
+        final Player userSeat;
+
+        Profile(String biddingSystem, Player dealer, DealSpec spec, Player userSeat) {
+            this.biddingSystem = biddingSystem;
+            this.dealer = dealer;
+            this.spec = spec;
+            this.userSeat = userSeat;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Profile that = (Profile) o;
+            return Objects.equals(biddingSystem, that.biddingSystem) && dealer == that.dealer
+                    && spec.equals(that.spec) && userSeat == that.userSeat;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(biddingSystem, dealer, spec, userSeat);
+        }
+
+        @Override
+        public String toString() {
+            return biddingSystem + ", dealer " + dealer + ", " + spec + ", user " + userSeat;
+        }
+    }
+}
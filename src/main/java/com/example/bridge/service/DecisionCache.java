@@ -0,0 +1,145 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the robots' calls by situation, for a {@link RuleBasedBiddingSystem}. A situation is
+ * a 47-bit key: the parts of the auction the rules and the legality check read (partner's and
+ * the bidder's last non-pass calls, the contract, double/redouble, which side holds the
+ * contract) plus the hand features the rules read (HCP, suit lengths, balanced, strong majors).
+ * <p>
+ * Entries live in a fixed two-way set-associative table of longs, key and call packed together,
+ * so the cache never grows and lookups take no locks and allocate nothing. A new entry for a full
+ * set evicts one of the two residents.
+ */
+final class DecisionCache {
+
+    private static final int NO_CALL = Call.COUNT;
+    private static final Card.Suit[] SUITS = {Card.Suit.CLUBS, Card.Suit.DIAMONDS, Card.Suit.HEARTS, Card.Suit.SPADES};
+    private static final long VALID = 1L << 6;
+    private static final long CALL_MASK = VALID - 1;
+
+    private final AtomicLongArray entries;
+    private final int setMask;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity entries to hold, rounded up to a power of two (at least 2)
+     */
+    DecisionCache(int capacity) {
+        int entryCount = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.entries = new AtomicLongArray(entryCount);
+        this.setMask = entryCount / 2 - 1;
+    }
+
+    /**
+     * The cached call for {@code key}, or null on a miss.
+     */
+    Call get(long key) {
+        int set = set(key);
+        long wanted = (key << 7) | VALID;
+        for (int way = 0; way < 2; way++) {
+            long entry = entries.get(set + way);
+            if ((entry & ~CALL_MASK) == wanted) {
+                hits.increment();
+                return Call.of((int) (entry & CALL_MASK));
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(long key, Call call) {
+        int set = set(key);
+        long entry = (key << 7) | VALID | call.getCode();
+        long first = entries.get(set);
+        int way;
+        if ((first & VALID) == 0 || (first & ~CALL_MASK) == (entry & ~CALL_MASK)) {
+            way = 0;
+        } else {
+            long second = entries.get(set + 1);
+            // With both ways taken, the key picks a victim so hot pairs do not keep evicting each other
+            way = (second & VALID) == 0 || (second & ~CALL_MASK) == (entry & ~CALL_MASK) ? 1 : (int) (key & 1);
+        }
+        long previous = entries.getAndSet(set + way, entry);
+        if ((previous & VALID) == 0) {
+            size.incrementAndGet();
+        } else if ((previous & ~CALL_MASK) != (entry & ~CALL_MASK)) {
+            evictions.increment();
+        }
+    }
+
+    private int set(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) ((h ^ (h >>> 32)) & setMask) << 1;
+    }
+
+    /**
+     * The auction half of the key, from {@code bidder}'s side of the table.
+     */
+    static long auctionKey(AuctionState auction, Player bidder) {
+        Call partner = auction.getLastSignificantCall(bidder.getPartner());
+        Call mine = auction.getLastSignificantCall(bidder);
+        Call contract = auction.getContract();
+        Player contractBidder = auction.getContractBidder();
+        int side = contractBidder == null ? 0 : contractBidder.isOpponent(bidder) ? 2 : 1;
+        return code(partner)
+                | (long) code(mine) << 6
+                | (long) code(contract) << 12
+                | (auction.isDoubled() ? 1L : 0L) << 18
+                | (auction.isRedoubled() ? 1L : 0L) << 19
+                | (long) side << 20;
+    }
+
+    /**
+     * The hand half of the key, to be shifted above the 22 auction bits.
+     */
+    static long handKey(Hand hand) {
+        long mask = hand.getCardMask();
+        long key = Hand.highCardPoints(mask);
+        int shift = 6;
+        for (Card.Suit suit : SUITS) {
+            key |= (long) Hand.suitLength(mask, suit) << shift;
+            shift += 4;
+        }
+        key |= (Hand.isBalanced(mask) ? 1L : 0L) << 22;
+        key |= (hand.hasStrongSuit(Card.Suit.HEARTS) ? 1L : 0L) << 23;
+        key |= (hand.hasStrongSuit(Card.Suit.SPADES) ? 1L : 0L) << 24;
+        return key;
+    }
+
+    static long key(Hand hand, Player bidder, AuctionState auction) {
+        return auctionKey(auction, bidder) | handKey(hand) << 22;
+    }
+
+    private static int code(Call call) {
+        return call == null ? NO_CALL : call.getCode();
+    }
+
+    Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", entries.length());
+        stats.put("size", size.get());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+}
@@ -0,0 +1,846 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Card;
+import com.example.bridge.model.Deal;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import com.example.bridge.model.TrickTable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Works out how many tricks each seat takes as declarer in each strain when everyone can see all
+ * four hands and plays perfectly. The five strains are solved in parallel. Within a strain, each
+ * opening leader (and so each declarer) is settled by a few zero-window alpha-beta searches ("can
+ * North-South take n more tricks?"), all four leaders sharing one transposition table since most
+ * positions after the first trick recur between them.
+ * <p>
+ * Positions at the start of a trick are stored by relative rank: for each suit, who holds the
+ * remaining cards from the top down. Positions that differ only in which small cards have gone
+ * are then one entry. For the same reason touching cards in one hand (touching once played cards
+ * are ignored) are searched as a single move. Tables are cached by deal, with the seats rotated
+ * so the hand holding the highest card is North.
+ * <p>
+ * A solve that runs past its budget fails rather than holding a worker indefinitely. The
+ * transposition tables, some 13 MB each, are kept between solves, at most one per pool worker.
+ */
+public final class DoubleDummySolver {
+
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+    public static final long DEFAULT_BUDGET_MILLIS = 60_000;
+
+    private static final int NO_TRUMP = -1;
+
+    private final ForkJoinPool pool;
+    private final int cacheCapacity;
+    private final long budgetNanos;
+    // Solves finished, failed or under way, so callers asking for the same deal share one
+    private final Map<DealKey, CompletableFuture<int[][]>> cache;
+    private final BlockingQueue<Table> tables;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DoubleDummySolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CACHE_CAPACITY);
+    }
+
+    public DoubleDummySolver(ForkJoinPool pool, int cacheCapacity) {
+        this(pool, cacheCapacity, DEFAULT_BUDGET_MILLIS);
+    }
+
+    DoubleDummySolver(ForkJoinPool pool, int cacheCapacity, long budgetMillis) {
+        this.pool = pool;
+        this.cacheCapacity = cacheCapacity;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.tables = new ArrayBlockingQueue<>(Math.max(1, pool.getParallelism()));
+        this.cache = new LinkedHashMap<DealKey, CompletableFuture<int[][]>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DealKey, CompletableFuture<int[][]>> eldest) {
+                return size() > DoubleDummySolver.this.cacheCapacity;
+            }
+        };
+    }
+
+    /**
+     * The four hands of a live or stored deal as card masks indexed by {@link Player} ordinal;
+     * hands are placed by their player, or by position if unset.
+     *
+     * @throws IllegalArgumentException if the deal does not have four hands
+     */
+    public static long[] masks(Deal deal) {
+        List<Hand> hands = deal.getHands();
+        if (hands == null || hands.size() != 4) {
+            throw new IllegalArgumentException("A deal needs four hands to solve");
+        }
+        long[] masks = new long[4];
+        for (int i = 0; i < 4; i++) {
+            Hand hand = hands.get(i);
+            masks[hand.getPlayer() == null ? i : hand.getPlayer().ordinal()] = hand.getCardMask();
+        }
+        return masks;
+    }
+
+    /**
+     * Solves a live or stored deal, waiting for the result.
+     *
+     * @throws IllegalArgumentException if the deal does not have four hands of equal size
+     * @throws IllegalStateException    if the solve runs out of time
+     */
+    public TrickTable solve(Deal deal) {
+        return solve(masks(deal));
+    }
+
+    /**
+     * Solves four card masks indexed by {@link Player} ordinal, waiting for the result. Hands may
+     * hold fewer than 13 cards (an ending) as long as all four are the same size.
+     *
+     * @throws IllegalArgumentException if the hands overlap or differ in size
+     * @throws IllegalStateException    if the solve runs out of time
+     */
+    public TrickTable solve(long[] masks) {
+        try {
+            return solveAsync(masks).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Solves four card masks on the pool, or answers at once from the cache. Callers asking for
+     * a deal already being solved share that solve; one that failed stays failed while cached,
+     * as it would only run out of time again.
+     *
+     * @throws IllegalArgumentException   if the hands overlap or differ in size
+     * @throws RejectedExecutionException if the pool no longer takes work
+     */
+    public CompletableFuture<TrickTable> solveAsync(long[] masks) {
+        int size = Long.bitCount(masks[0]);
+        long seen = 0;
+        for (long mask : masks) {
+            if (Long.bitCount(mask) != size || (seen & mask) != 0 || size == 0) {
+                throw new IllegalArgumentException("Hands must be disjoint, non-empty and the same size");
+            }
+            seen |= mask;
+        }
+        // Rotate so the holder of the highest card is North; rotations of one deal share an entry
+        long top = Long.highestOneBit(seen);
+        int start = 0;
+        while ((masks[start] & top) == 0) {
+            start++;
+        }
+        int rotation = start;
+        long[] canonical = new long[4];
+        for (int seat = 0; seat < 4; seat++) {
+            canonical[seat] = masks[(seat + rotation) & 3];
+        }
+        DealKey key = new DealKey(canonical);
+        CompletableFuture<int[][]> solving;
+        boolean solveNow;
+        synchronized (cache) {
+            solving = cache.get(key);
+            solveNow = solving == null;
+            if (solveNow) {
+                solving = new CompletableFuture<>();
+                cache.put(key, solving);
+            }
+        }
+        if (solveNow) {
+            misses.increment();
+            CompletableFuture<int[][]> result = solving;
+            try {
+                pool.execute(() -> {
+                    try {
+                        result.complete(solveCanonical(canonical));
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                synchronized (cache) {
+                    cache.remove(key, result);
+                }
+                result.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            hits.increment();
+        }
+        return solving.thenApply(solved -> {
+            int[][] tricks = new int[5][4];
+            for (int strain = 0; strain < 5; strain++) {
+                for (int declarer = 0; declarer < 4; declarer++) {
+                    tricks[strain][declarer] = solved[strain][(declarer - rotation) & 3];
+                }
+            }
+            return new TrickTable(tricks);
+        });
+    }
+
+    private int[][] solveCanonical(long[] masks) {
+        int size = Long.bitCount(masks[0]);
+        long deadline = System.nanoTime() + budgetNanos;
+        // Rough first guess at North-South's tricks, from their share of the high cards
+        int guess = Math.round(size * Hand.highCardPoints(masks[0] | masks[2]) / 40f);
+        int[][] tricks = new int[5][];
+        // Runs on the pool, so the strains fork onto its workers too
+        IntStream.range(0, 5).parallel().forEach(strain -> {
+            Table table = tables.poll();
+            if (table == null) {
+                table = new Table();
+            } else {
+                table.clear();
+            }
+            try {
+                Search search = new Search(masks, strain == 4 ? NO_TRUMP : strain, table, deadline);
+                int[] byDeclarer = new int[4];
+                int northSouth = guess;
+                for (int leader = 0; leader < 4; leader++) {
+                    northSouth = search.northSouthTricks(leader, northSouth);
+                    // The opening leader sits on declarer's left
+                    int declarer = (leader + 3) & 3;
+                    byDeclarer[declarer] = (declarer & 1) == 0 ? northSouth : size - northSouth;
+                }
+                tricks[strain] = byDeclarer;
+            } finally {
+                tables.offer(table);
+            }
+        });
+        return tricks;
+    }
+
+    public Map<String, Object> getCacheStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", cacheCapacity);
+        synchronized (cache) {
+            stats.put("size", cache.size());
+        }
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("budgetMillis", TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+        stats.put("tablesKept", tables.size());
+        return stats;
+    }
+
+    private static final class DealKey {
+        final long[] masks;
+
+        DealKey(long[] masks) {
+            this.masks = masks;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DealKey && Arrays.equals(masks, ((DealKey) o).masks);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(masks);
+        }
+    }
+
+    /**
+     * A strain search's transposition table of bounds on North-South's tricks from a trick-start
+     * position; an entry is the hand lengths with the leader and per suit a pattern (see suitKey)
+     * of the top cards. Wide buckets, as every pattern stored for one set of lengths lands in the
+     * same one. Cleared between searches: no entry matches lengths of zero, as at least one trick
+     * is always left.
+     */
+    static final class Table {
+
+        private static final int BUCKET_BITS = 13;
+        private static final int WAYS = 64;
+        private static final int BEST_LEAD_BITS = 16;
+
+        private final long[] entryLengths = new long[WAYS << BUCKET_BITS];
+        private final long[] entryPatterns01 = new long[WAYS << BUCKET_BITS];
+        private final long[] entryPatterns23 = new long[WAYS << BUCKET_BITS];
+        private final byte[] entryLower = new byte[WAYS << BUCKET_BITS];
+        private final byte[] entryUpper = new byte[WAYS << BUCKET_BITS];
+        private final byte[] nextVictim = new byte[1 << BUCKET_BITS];
+
+        // The lead that last settled a position, by a hash of the exact position; only used to
+        // try that lead first next time. Stored as 1 + suit * 16 + cards above it in the suit.
+        private final long[] bestLeadPositions = new long[1 << BEST_LEAD_BITS];
+        private final byte[] bestLeads = new byte[1 << BEST_LEAD_BITS];
+
+        void clear() {
+            Arrays.fill(entryLengths, 0);
+            Arrays.fill(nextVictim, (byte) 0);
+            Arrays.fill(bestLeadPositions, 0);
+        }
+    }
+
+    /**
+     * One strain's search state, reused for each opening leader so later searches find the
+     * positions earlier ones stored. Seats are {@link Player} ordinals, so North-South are the
+     * even ones; a card is its suit times 16 plus its rank, deuce 0 to ace 12.
+     * <p>
+     * Every result comes with the ranks that decided it: a card whose rank won a trick, or the
+     * top cards behind a quick-trick cut. Below the lowest deciding rank in a suit, which small
+     * cards a hand holds does not matter, only how many. So a trick-start position is stored
+     * under the suit lengths of every hand plus, per suit, who holds the cards down to that rank,
+     * and it answers for every position that agrees on those.
+     */
+    static final class Search {
+
+        private static final int BUCKET_BITS = Table.BUCKET_BITS;
+        private static final int WAYS = Table.WAYS;
+        private static final int BEST_LEAD_BITS = Table.BEST_LEAD_BITS;
+        private static final int DEADLINE_CHECK_INTERVAL = 4096;
+
+        private final int trump;
+        // Holdings indexed by seat * 4 + suit, deuce in bit 0
+        private final int[] holdings = new int[16];
+        // Cards of each suit not yet in a completed trick
+        private final int[] remaining = new int[4];
+        private int tricksLeft;
+        // Rank bits per suit that decided the last canTake or play result
+        private final int[] deciding = new int[4];
+        private final int[] partnerDeciding = new int[4];
+
+        // The table's arrays, see Table
+        private final long[] entryLengths;
+        private final long[] entryPatterns01;
+        private final long[] entryPatterns23;
+        private final byte[] entryLower;
+        private final byte[] entryUpper;
+        private final byte[] nextVictim;
+        private final long[] bestLeadPositions;
+        private final byte[] bestLeads;
+        private int preferredLead = -1;
+        // The lead that settled the last play(..., 0, ...), or -1 if every lead had to be tried
+        private int settlingLead;
+
+        // Per card played: candidate moves and their ordering scores
+        private final int[][] moves = new int[52][13];
+        private final int[][] scores = new int[52][13];
+        private final int[] trick = new int[4];
+        private int depth;
+
+        private final long deadlineNanos;
+        private int nodes;
+
+        Search(long[] masks, int trump, Table table, long deadlineNanos) {
+            this.trump = trump;
+            this.entryLengths = table.entryLengths;
+            this.entryPatterns01 = table.entryPatterns01;
+            this.entryPatterns23 = table.entryPatterns23;
+            this.entryLower = table.entryLower;
+            this.entryUpper = table.entryUpper;
+            this.nextVictim = table.nextVictim;
+            this.bestLeadPositions = table.bestLeadPositions;
+            this.bestLeads = table.bestLeads;
+            this.deadlineNanos = deadlineNanos;
+            for (int seat = 0; seat < 4; seat++) {
+                for (int suit = 0; suit < 4; suit++) {
+                    int holding = (int) (masks[seat] >>> (suit * 13)) & 0x1FFF;
+                    holdings[seat * 4 + suit] = holding;
+                    remaining[suit] |= holding;
+                }
+            }
+            this.tricksLeft = Long.bitCount(masks[0]);
+        }
+
+        /**
+         * Tricks North-South take with {@code leader} on lead. Steps from {@code guess} one trick at
+         * a time, so a good guess settles it in two searches.
+         */
+        int northSouthTricks(int leader, int guess) {
+            int low = 0;
+            int high = tricksLeft;
+            int target = Math.max(1, Math.min(guess, high));
+            while (low < high) {
+                if (canTake(leader, target)) {
+                    low = target;
+                    target++;
+                } else {
+                    high = target - 1;
+                    target--;
+                }
+                target = Math.max(low + 1, Math.min(target, high));
+            }
+            return low;
+        }
+
+        /**
+         * Whether North-South can take {@code needed} of the remaining tricks, {@code leader} to lead.
+         */
+        boolean canTake(int leader, int needed) {
+            if (needed <= 0 || needed > tricksLeft) {
+                deciding[0] = deciding[1] = deciding[2] = deciding[3] = 0;
+                return needed <= 0;
+            }
+            // Each hand's spade length follows from the others and the tricks left
+            long lengths = (long) leader << 52 | (long) tricksLeft << 48;
+            for (int seat = 0; seat < 4; seat++) {
+                lengths |= (long) (Integer.bitCount(holdings[seat * 4]) | Integer.bitCount(holdings[seat * 4 + 1]) << 4
+                        | Integer.bitCount(holdings[seat * 4 + 2]) << 8) << (seat * 12);
+            }
+            int key0 = suitKey(0);
+            int key1 = suitKey(1);
+            int key2 = suitKey(2);
+            int key3 = suitKey(3);
+            long h = lengths * 0x9E3779B97F4A7C15L;
+            int bucket = (int) (h >>> (64 - BUCKET_BITS));
+            int first = bucket * WAYS;
+            for (int entry = first; entry < first + WAYS; entry++) {
+                if (entryLengths[entry] == lengths
+                        && matches(entryPatterns01[entry], key0, key1) && matches(entryPatterns23[entry], key2, key3)) {
+                    if (entryLower[entry] >= needed || entryUpper[entry] < needed) {
+                        decidingFromPatterns(entryPatterns01[entry], entryPatterns23[entry]);
+                        return entryLower[entry] >= needed;
+                    }
+                }
+            }
+            // Sure tricks for each side bound North-South's from below and above
+            int quick = Math.max(quickTricks(leader), sureTrumpTricks(leader & 1));
+            int defence = sureTrumpTricks((leader & 1) ^ 1);
+            int northSouthLow = (leader & 1) == 0 ? quick : defence;
+            int northSouthHigh = tricksLeft - ((leader & 1) == 0 ? defence : quick);
+            if (northSouthLow >= needed || northSouthHigh < needed) {
+                return northSouthLow >= needed;
+            }
+
+            long position = (key0 | (long) key1 << 27 | (long) leader << 54) * 0xC2B2AE3D27D4EB4FL
+                    ^ (key2 | (long) key3 << 27) * 0x9E3779B97F4A7C15L;
+            int bestLeadSlot = (int) (position >>> (64 - BEST_LEAD_BITS));
+            preferredLead = bestLeadPositions[bestLeadSlot] == position ? card(bestLeads[bestLeadSlot] - 1) : -1;
+            boolean result = play(leader, 0, needed, -1, -1);
+            if (settlingLead >= 0) {
+                bestLeadPositions[bestLeadSlot] = position;
+                bestLeads[bestLeadSlot] = (byte) (1 + relative(settlingLead));
+            }
+
+            long patterns01 = pattern(0, key0) | (long) pattern(1, key1) << 32;
+            long patterns23 = pattern(2, key2) | (long) pattern(3, key3) << 32;
+            int entry = -1;
+            for (int way = first; way < first + WAYS; way++) {
+                if (entryLengths[way] == lengths
+                        && entryPatterns01[way] == patterns01 && entryPatterns23[way] == patterns23) {
+                    entry = way;
+                    break;
+                }
+            }
+            if (entry < 0) {
+                entry = first + (nextVictim[bucket]++ & (WAYS - 1));
+                entryLengths[entry] = lengths;
+                entryPatterns01[entry] = patterns01;
+                entryPatterns23[entry] = patterns23;
+                entryLower[entry] = 0;
+                entryUpper[entry] = (byte) tricksLeft;
+            }
+            if (result) {
+                entryLower[entry] = (byte) Math.max(entryLower[entry], needed);
+            } else {
+                entryUpper[entry] = (byte) Math.min(entryUpper[entry], needed - 1);
+            }
+            return result;
+        }
+
+        /**
+         * Whether the two suit patterns packed in {@code patterns} are the tops of full suit keys.
+         */
+        private static boolean matches(long patterns, int key, int otherKey) {
+            int pattern = (int) patterns;
+            int otherPattern = (int) (patterns >>> 32);
+            return key >>> (Integer.numberOfLeadingZeros(pattern) - Integer.numberOfLeadingZeros(key)) == pattern
+                    && otherKey >>> (Integer.numberOfLeadingZeros(otherPattern) - Integer.numberOfLeadingZeros(otherKey)) == otherPattern;
+        }
+
+        /**
+         * The top of {@code suit}'s key down to the lowest deciding rank.
+         */
+        private int pattern(int suit, int key) {
+            int lowest = deciding[suit] & -deciding[suit];
+            int kept = lowest == 0 ? 0 : Integer.bitCount(remaining[suit] & -lowest);
+            return key >>> (2 * (Integer.bitCount(remaining[suit]) - kept));
+        }
+
+        private void decidingFromPatterns(long patterns01, long patterns23) {
+            decidingFromPattern(0, (int) patterns01);
+            decidingFromPattern(1, (int) (patterns01 >>> 32));
+            decidingFromPattern(2, (int) patterns23);
+            decidingFromPattern(3, (int) (patterns23 >>> 32));
+        }
+
+        private void decidingFromPattern(int suit, int pattern) {
+            deciding[suit] = runLowest(suit, (31 - Integer.numberOfLeadingZeros(pattern)) / 2);
+        }
+
+        /**
+         * Tries each card {@code seat} can play as card {@code n} of the trick; {@code winner} is
+         * the seat currently winning it and {@code trick[winner]} its card.
+         */
+        private boolean play(int seat, int n, int needed, int led, int winner) {
+            if ((++nodes & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - deadlineNanos > 0) {
+                // Bounds are stored only once proven, so the table stays fit to reuse
+                throw new IllegalStateException("No double-dummy result within the time budget");
+            }
+            boolean northSouth = (seat & 1) == 0;
+            int count = generate(seat, n, led, winner);
+            int[] candidates = moves[depth];
+            int deciding0 = 0;
+            int deciding1 = 0;
+            int deciding2 = 0;
+            int deciding3 = 0;
+            depth++;
+            try {
+                for (int i = 0; i < count; i++) {
+                    int card = candidates[i];
+                    int suit = card >>> 4;
+                    int bit = 1 << (card & 15);
+                    holdings[seat * 4 + suit] ^= bit;
+                    trick[seat] = card;
+                    int newWinner = n == 0 || beats(card, trick[winner]) ? seat : winner;
+                    boolean result;
+                    if (n < 3) {
+                        result = play((seat + 1) & 3, n + 1, needed, n == 0 ? suit : led, newWinner);
+                    } else {
+                        result = completeTrick(needed, newWinner);
+                    }
+                    holdings[seat * 4 + suit] ^= bit;
+                    if (result == northSouth) {
+                        // This card alone settles it, for the reasons it did
+                        if (n == 0) {
+                            settlingLead = card;
+                        }
+                        return result;
+                    }
+                    deciding0 |= deciding[0];
+                    deciding1 |= deciding[1];
+                    deciding2 |= deciding[2];
+                    deciding3 |= deciding[3];
+                }
+                deciding[0] = deciding0;
+                deciding[1] = deciding1;
+                deciding[2] = deciding2;
+                deciding[3] = deciding3;
+                for (int i = 0; i < count; i++) {
+                    // A card standing for touching cards up past the lowest deciding rank: keep
+                    // who holds it too, or a position differing below could split the run into
+                    // moves not tried here. Earlier cards may need checking again after.
+                    int card = candidates[i];
+                    int suit = card >>> 4;
+                    int bit = 1 << (card & 15);
+                    int lowest = deciding[suit] & -deciding[suit];
+                    if (lowest > bit) {
+                        int others = remaining[suit] & ~holdings[seat * 4 + suit] & -(bit << 1);
+                        int runTop = (others & -others) - 1;
+                        if ((holdings[seat * 4 + suit] & -lowest & runTop) != 0) {
+                            deciding[suit] |= bit;
+                            i = -1;
+                        }
+                    }
+                }
+                if (n == 0) {
+                    settlingLead = -1;
+                }
+                return !northSouth;
+            } finally {
+                depth--;
+            }
+        }
+
+        private boolean completeTrick(int needed, int winner) {
+            int c0 = trick[0];
+            int c1 = trick[1];
+            int c2 = trick[2];
+            int c3 = trick[3];
+            remaining[c0 >>> 4] ^= 1 << (c0 & 15);
+            remaining[c1 >>> 4] ^= 1 << (c1 & 15);
+            remaining[c2 >>> 4] ^= 1 << (c2 & 15);
+            remaining[c3 >>> 4] ^= 1 << (c3 & 15);
+            tricksLeft--;
+            boolean result = canTake(winner, (winner & 1) == 0 ? needed - 1 : needed);
+            tricksLeft++;
+            remaining[c0 >>> 4] ^= 1 << (c0 & 15);
+            remaining[c1 >>> 4] ^= 1 << (c1 & 15);
+            remaining[c2 >>> 4] ^= 1 << (c2 & 15);
+            remaining[c3 >>> 4] ^= 1 << (c3 & 15);
+            // Later tricks reuse trick[]; put this one back for the cards still to try
+            trick[0] = c0;
+            trick[1] = c1;
+            trick[2] = c2;
+            trick[3] = c3;
+            int winning = trick[winner];
+            int winningSuit = winning >>> 4;
+            int sameSuit = (c0 >>> 4 == winningSuit ? 1 : 0) + (c1 >>> 4 == winningSuit ? 1 : 0)
+                    + (c2 >>> 4 == winningSuit ? 1 : 0) + (c3 >>> 4 == winningSuit ? 1 : 0);
+            if (sameSuit > 1) {
+                // The trick was won on rank
+                deciding[winningSuit] |= 1 << (winning & 15);
+            }
+            return result;
+        }
+
+        /**
+         * A card as its suit times 16 plus the number of remaining cards above it in the suit.
+         */
+        private int relative(int card) {
+            int suit = card >>> 4;
+            return suit << 4 | Integer.bitCount(remaining[suit] >>> (card & 15) >>> 1);
+        }
+
+        private int card(int relative) {
+            int suit = relative >>> 4;
+            int rest = remaining[suit];
+            for (int above = relative & 15; above > 0 && rest != 0; above--) {
+                rest ^= Integer.highestOneBit(rest);
+            }
+            return rest == 0 ? -1 : suit << 4 | (31 - Integer.numberOfLeadingZeros(rest));
+        }
+
+        private boolean beats(int card, int winning) {
+            int suit = card >>> 4;
+            int winningSuit = winning >>> 4;
+            if (suit == winningSuit) {
+                return (card & 15) > (winning & 15);
+            }
+            return suit == trump;
+        }
+
+        /**
+         * Fills {@code moves[depth]} with one card from each run of touching cards {@code seat}
+         * may play, best-looking first, and returns how many there are.
+         */
+        private int generate(int seat, int n, int led, int winner) {
+            int count = 0;
+            if (n > 0 && holdings[seat * 4 + led] != 0) {
+                count = addSuit(seat, led, n, led, winner, count);
+            } else {
+                for (int suit = 0; suit < 4; suit++) {
+                    count = addSuit(seat, suit, n, led, winner, count);
+                }
+            }
+            // Insertion sort, highest score first
+            int[] m = moves[depth];
+            int[] s = scores[depth];
+            for (int i = 1; i < count; i++) {
+                int move = m[i];
+                int score = s[i];
+                int j = i - 1;
+                while (j >= 0 && s[j] < score) {
+                    m[j + 1] = m[j];
+                    s[j + 1] = s[j];
+                    j--;
+                }
+                m[j + 1] = move;
+                s[j + 1] = score;
+            }
+            return count;
+        }
+
+        private int addSuit(int seat, int suit, int n, int led, int winner, int count) {
+            int holding = holdings[seat * 4 + suit];
+            int rest = remaining[suit];
+            while (holding != 0) {
+                int rank = 31 - Integer.numberOfLeadingZeros(holding);
+                holding ^= 1 << rank;
+                // Play the lowest of the cards touching this one. They play the same, but only the
+                // lowest may become a deciding rank: a trick won by the top one was won by all.
+                int below = rest & ((1 << rank) - 1);
+                while (below != 0) {
+                    int next = 31 - Integer.numberOfLeadingZeros(below);
+                    if ((holding & (1 << next)) == 0) {
+                        break;
+                    }
+                    holding ^= 1 << next;
+                    below ^= 1 << next;
+                    rank = next;
+                }
+                int card = suit << 4 | rank;
+                moves[depth][count] = card;
+                scores[depth][count] = score(seat, card, n, led, winner);
+                count++;
+            }
+            return count;
+        }
+
+        private int score(int seat, int card, int n, int led, int winner) {
+            int suit = card >>> 4;
+            int rank = card & 15;
+            if (n == 0) {
+                if (card == preferredLead) {
+                    return 100;
+                }
+                int partner = (seat + 2) & 3;
+                int above = remaining[suit] >>> rank >>> 1;
+                int top = 1 << (31 - Integer.numberOfLeadingZeros(remaining[suit]));
+                int sideLength = Integer.bitCount(holdings[seat * 4 + suit]) + Integer.bitCount(holdings[partner * 4 + suit]);
+                boolean ruffable = trump != NO_TRUMP && suit != trump && opponentsCanRuff(seat, suit);
+                int score;
+                if ((above & ~(holdings[seat * 4 + suit] >>> rank >>> 1)) == 0) {
+                    // Cash a winner
+                    score = ruffable ? 20 : 80;
+                } else if ((holdings[partner * 4 + suit] & top) != 0) {
+                    // Low towards partner's winner
+                    score = ruffable ? 15 : 60 - rank;
+                } else if ((holdings[((seat + 1) & 3) * 4 + suit] & top) != 0) {
+                    // Through the second hand's top card
+                    score = 40 - rank;
+                } else {
+                    // Into the fourth hand's top card
+                    score = 20 - rank;
+                }
+                return trump == NO_TRUMP ? score + sideLength : score;
+            }
+            boolean partnerWinning = ((winner ^ seat) & 1) == 0;
+            boolean wins = beats(card, trick[winner]);
+            if (suit == led) {
+                if (!partnerWinning && wins && n > 1) {
+                    return 50 - rank;
+                }
+                return 30 - rank;
+            }
+            if (suit == trump) {
+                return !partnerWinning && wins ? 45 - rank : -rank;
+            }
+            return 15 - rank;
+        }
+
+        private boolean opponentsCanRuff(int seat, int suit) {
+            int left = (seat + 1) & 3;
+            int right = (seat + 3) & 3;
+            return (holdings[left * 4 + suit] == 0 && holdings[left * 4 + trump] != 0)
+                    || (holdings[right * 4 + suit] == 0 && holdings[right * 4 + trump] != 0);
+        }
+
+
+        /**
+         * Tricks the leader's side can cash from the top without giving up the lead: the runs of
+         * top cards the leader holds, or, given a card to lead to one of them, partner's runs. In
+         * side suits a run is cut to the length of any opponent who could otherwise ruff, unless
+         * the hand's top trumps draw all of the opponents' first. A lower bound on the leader's
+         * side's tricks; the lowest card of each run counted becomes a deciding rank.
+         */
+        private int quickTricks(int leader) {
+            int partner = (leader + 2) & 3;
+            boolean ownDraws = drawsTrumps(leader);
+            boolean partnerDraws = drawsTrumps(partner);
+            boolean entry = false;
+            int own = 0;
+            int viaPartner = 0;
+            for (int suit = 0; suit < 4; suit++) {
+                int ownRun = run(leader, suit, ownDraws);
+                int partnerRun = run(partner, suit, partnerDraws);
+                entry |= holdings[leader * 4 + suit] != 0 && (partnerDraws ? run(partner, suit, false) : partnerRun) > 0;
+                own += ownRun;
+                viaPartner += partnerRun;
+                deciding[suit] = runLowest(suit, ownRun);
+                partnerDeciding[suit] = runLowest(suit, partnerRun);
+            }
+            if (entry && viaPartner > own) {
+                for (int suit = 0; suit < 4; suit++) {
+                    deciding[suit] = partnerDeciding[suit];
+                }
+                return Math.min(viaPartner, tricksLeft);
+            }
+            return Math.min(own, tricksLeft);
+        }
+
+        /**
+         * Tricks the side holding the top trump is sure of whoever leads: the hand holding it
+         * wins a trick with each trump of its unbroken run from the top, since each beats
+         * anything played with it. Adds the run to the deciding ranks.
+         */
+        private int sureTrumpTricks(int side) {
+            if (trump == NO_TRUMP || remaining[trump] == 0) {
+                return 0;
+            }
+            int top = Integer.highestOneBit(remaining[trump]);
+            for (int seat = side; seat < 4; seat += 2) {
+                if ((holdings[seat * 4 + trump] & top) != 0) {
+                    int run = run(seat, trump, true);
+                    deciding[trump] |= runLowest(trump, run);
+                    return run;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Whether {@code seat}'s run of top trumps is at least as long as either opponent's trumps.
+         */
+        private boolean drawsTrumps(int seat) {
+            if (trump == NO_TRUMP) {
+                return false;
+            }
+            int run = run(seat, trump, true);
+            return run > 0 && run >= Integer.bitCount(holdings[((seat + 1) & 3) * 4 + trump])
+                    && run >= Integer.bitCount(holdings[((seat + 3) & 3) * 4 + trump]);
+        }
+
+        /**
+         * How many of the top cards of {@code suit} {@code seat} holds in a row, capped as above
+         * unless {@code trumpsDrawn}.
+         */
+        private int run(int seat, int suit, boolean trumpsDrawn) {
+            int rest = remaining[suit];
+            int others = rest & ~holdings[seat * 4 + suit];
+            int run = Integer.bitCount(others == 0 ? rest : rest & -(Integer.highestOneBit(others) << 1));
+            if (run > 0 && !trumpsDrawn && trump != NO_TRUMP && suit != trump) {
+                int left = (seat + 1) & 3;
+                int right = (seat + 3) & 3;
+                if (holdings[left * 4 + trump] != 0) {
+                    run = Math.min(run, Integer.bitCount(holdings[left * 4 + suit]));
+                }
+                if (holdings[right * 4 + trump] != 0) {
+                    run = Math.min(run, Integer.bitCount(holdings[right * 4 + suit]));
+                }
+            }
+            return run;
+        }
+
+        /**
+         * The rank bit of the lowest of the top {@code run} cards of {@code suit}, or 0.
+         */
+        private int runLowest(int suit, int run) {
+            int rest = remaining[suit];
+            int lowest = 0;
+            for (int i = 0; i < run; i++) {
+                lowest = Integer.highestOneBit(rest);
+                rest ^= lowest;
+            }
+            return lowest;
+        }
+
+        /**
+         * Who holds each remaining card of {@code suit}, top down, two bits a card behind a
+         * leading 1; under 2^27.
+         */
+        private int suitKey(int suit) {
+            int rest = remaining[suit];
+            int key = 1;
+            while (rest != 0) {
+                int top = Integer.highestOneBit(rest);
+                rest ^= top;
+                int owner = (holdings[suit] & top) != 0 ? 0
+                        : (holdings[4 + suit] & top) != 0 ? 1
+                        : (holdings[8 + suit] & top) != 0 ? 2
+                        : 3;
+                key = key << 2 | owner;
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Player;
+
+/**
+ * Hears what happens at one table, for pushing it to clients as it happens. Subscribe through
+ * {@link BridgeBiddingService#subscribe}; events then arrive in order, off the thread that
+ * changed the table.
+ */
+public interface GameEventListener {
+
+    default void dealStarted(Player dealer) {
+    }
+
+    /**
+     * {@code bid}, with its player set, was made as call number {@code index} of the auction.
+     */
+    default void callMade(int index, Bid bid) {
+    }
+
+    /**
+     * {@code bidder} is to call next and may make the calls in the {@code legalCalls} bitmask.
+     */
+    default void bidderChanged(Player bidder, long legalCalls) {
+    }
+
+    /**
+     * The auction is over, with {@code contract} such as {@code "4 H X by S"}, or null if it was
+     * passed out.
+     */
+    default void auctionFinished(String contract) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Contract;
+import com.example.bridge.model.Deal;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One table's game: the current deal, its auction and the settings it is played with. Each
+ * browser session (or named table within it) gets its own from the {@link GameSessionStore}.
+ * <p>
+ * Single writer: a request holds {@link #getLock()} for as long as it works on the session, so
+ * requests for one table run one at a time while different tables never wait on each other. The
+ * fields are only touched by {@link BridgeBiddingService} under that lock.
+ */
+public final class GameSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSession.class);
+
+    // State versions are drawn from one counter, seeded from the clock, so a version a client
+    // kept from an evicted session or an earlier run never matches a newer state
+    private static final AtomicLong VERSIONS = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final String id;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccessMillis;
+    private final List<GameEventListener> listeners = new CopyOnWriteArrayList<>();
+    private long version = VERSIONS.incrementAndGet();
+    // The version the current deal started at, and the version each of its calls made
+    private long dealVersion = version;
+    private long[] callVersions = new long[16];
+
+    Deal currentDeal;
+    int currentBidderIndex = 0;
+    int currentDealerIndex = 0;
+    final List<Bid> biddingHistory = new ArrayList<>();
+    // Kept in step with biddingHistory so checks never rescan it
+    AuctionState auction = new AuctionState();
+    // What the calls so far show about each hand, also kept in step
+    AuctionInference inference;
+    String biddingSystem = BiddingSystemRegistry.DEFAULT_SYSTEM;
+    // The system version the current deal started with; a reload only affects later deals
+    BiddingSystem dealBiddingSystem;
+    // Robots' calls worked out ahead of time for the current deal, if it came from the pool
+    PreparedDeal preparedDeal;
+
+    GameSession(String id, long nowMillis) {
+        this.id = id;
+        this.lastAccessMillis = nowMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch(long nowMillis) {
+        lastAccessMillis = nowMillis;
+    }
+
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Whether a client is following this table, so it is in use even when no request comes.
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Goes up whenever anything a client shows changes: a deal, a call, a setting.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The index of the first call made after state {@code sinceVersion}, which is the number of
+     * calls the client already has, or -1 if that version is from before the current deal or is
+     * not one this session has reached.
+     */
+    public int firstCallAfter(long sinceVersion) {
+        if (sinceVersion < dealVersion || sinceVersion > version) {
+            return -1;
+        }
+        int calls = biddingHistory.size();
+        int first = calls;
+        while (first > 0 && callVersions[first - 1] > sinceVersion) {
+            first--;
+        }
+        return first;
+    }
+
+    void changed() {
+        version = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Marks a new deal, once its auction is set up, and tells the listeners.
+     */
+    void dealStarted() {
+        changed();
+        dealVersion = version;
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Player dealer = currentDeal.getDealer();
+        long legalCalls = auction.legalCalls(getBidder());
+        for (GameEventListener listener : listeners) {
+            listener.dealStarted(dealer);
+            listener.bidderChanged(getBidder(), legalCalls);
+        }
+    }
+
+    private void publishCall(Bid bid) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        int index = biddingHistory.size() - 1;
+        boolean finished = auction.isFinished();
+        long legalCalls = finished ? 0 : auction.legalCalls(getBidder());
+        for (GameEventListener listener : listeners) {
+            listener.callMade(index, bid);
+            if (finished) {
+                listener.auctionFinished(currentDeal.getContract());
+            } else {
+                listener.bidderChanged(getBidder(), legalCalls);
+            }
+        }
+    }
+
+    Player getBidder() {
+        return Player.values()[currentBidderIndex];
+    }
+
+    Hand getHand(Player player) {
+        if (currentDeal == null || currentDeal.getHands() == null) {
+            return null;
+        }
+        return currentDeal.getHands().stream()
+                .filter(h -> h.getPlayer() == player)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Makes {@code bid} for the seat to call, if the auction is still open and the call is legal
+     * there.
+     *
+     * @return whether the call was made
+     */
+    boolean play(Bid bid) {
+        if (auction.isFinished()) {
+            logger.warn("Bidding is already finished. No more bids allowed.");
+            return false;
+        }
+        Player bidder = getBidder();
+        if (!auction.isAllowed(bid, bidder)) {
+            logger.warn("Bid {} is not allowed.", bid);
+            return false;
+        }
+        bid.setPlayer(bidder);
+        biddingHistory.add(bid);
+        inference.apply(bid);
+        auction.add(bid);
+        currentDeal.addBid(bid);
+        if (!bid.isPass()) {
+            currentDeal.setContract(Contract.of(auction).toString());
+        }
+        logger.info("Bid made: {} by {}", bid, bid.getPlayer());
+        currentBidderIndex = (currentBidderIndex + 1) % 4;
+        changed();
+        int index = biddingHistory.size() - 1;
+        if (index == callVersions.length) {
+            callVersions = Arrays.copyOf(callVersions, index * 2);
+        }
+        callVersions[index] = version;
+        publishCall(bid);
+        return true;
+    }
+
+    /**
+     * The robot's call for {@code seat} after {@code history}: the prepared call if the deal
+     * came from the pool and the auction has followed it, otherwise the deal's bidding system's
+     * choice, or Pass if that is not legal. Only reads the session when {@code history} is a
+     * copy, so it may run on another thread while the session is locked by its caller.
+     */
+    Bid robotCall(Player seat, List<Bid> history) {
+        if (preparedDeal != null) {
+            Bid prepared = preparedDeal.nextRobotCall(history);
+            if (prepared != null) {
+                return prepared;
+            }
+        }
+        Hand hand = getHand(seat);
+        if (hand == null) {
+            logger.error("Hand is null for player {}", seat);
+            return Bid.pass();
+        }
+        // Callers normally pass the live history; anything else is replayed once
+        AuctionState state = history == biddingHistory ? auction : AuctionState.of(history);
+        Bid bid = dealBiddingSystem.chooseBid(hand, seat, state);
+        if (!state.isAllowed(bid, seat)) {
+            logger.warn("Proposed bid {} is not allowed. Passing instead.", bid);
+            bid = Bid.pass();
+        }
+        return bid;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.bridge.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * The {@link GameSession}s of all open tables, keyed by the HTTP session and, for a client that
+ * plays several tables at once, the {@value #TABLE_HEADER} request header within it. A table
+ * name only picks among the caller's own tables, so no client can reach another's by guessing
+ * it. Calls outside any request (tests, background work) share one default session.
+ * <p>
+ * Sessions are kept in access order. Those idle for longer than the timeout are dropped by a
+ * sweep that the lookups themselves run at most every quarter timeout, so there is no sweeper
+ * thread; it stops at the first session used within the timeout. Each session holds one deal
+ * and its auction, a few kilobytes; past the session cap the longest-idle tenth is dropped to
+ * make room, again from the idle end without sorting. Sessions a request is working on or a
+ * client is following are never dropped. Lookups hold the store's lock only for the map access.
+ */
+@Component
+public class GameSessionStore {
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    public static final String DEFAULT_SESSION_ID = "default";
+    public static final String TABLE_HEADER = "X-Bridge-Table";
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    // The request's session, so a request keeps the one it started with even if it is evicted
+    private static final String REQUEST_ATTRIBUTE = GameSession.class.getName();
+
+    // Access-ordered, least recently used first; guarded by itself
+    private final LinkedHashMap<String, GameSession> sessions = new LinkedHashMap<>(256, 0.75f, true);
+    private final long idleTimeoutMillis;
+    private final int maxSessions;
+    private final LongSupplier clock;
+    // Guarded by sessions
+    private long nextSweepMillis;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder capEvictions = new LongAdder();
+
+    @Autowired
+    public GameSessionStore(@Value("${bridge.sessions.idle-timeout-minutes:30}") long idleTimeoutMinutes,
+                            @Value("${bridge.sessions.max-sessions:10000}") int maxSessions) {
+        this(TimeUnit.MINUTES.toMillis(idleTimeoutMinutes), maxSessions, System::currentTimeMillis);
+    }
+
+    GameSessionStore(long idleTimeoutMillis, int maxSessions, LongSupplier clock) {
+        if (idleTimeoutMillis < 1 || maxSessions < 1) {
+            throw new IllegalArgumentException("Session timeout and cap must be positive");
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+        this.nextSweepMillis = clock.getAsLong() + sweepInterval();
+    }
+
+    /**
+     * The session of the current request, or the default session outside a request.
+     */
+    public GameSession current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return get(DEFAULT_SESSION_ID);
+        }
+        GameSession session = (GameSession) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (session == null) {
+            session = get(sessionId(attributes));
+            attributes.setAttribute(REQUEST_ATTRIBUTE, session, RequestAttributes.SCOPE_REQUEST);
+        }
+        return session;
+    }
+
+    private static String sessionId(RequestAttributes attributes) {
+        String id = "http:" + attributes.getSessionId();
+        if (attributes instanceof ServletRequestAttributes) {
+            String table = ((ServletRequestAttributes) attributes).getRequest().getHeader(TABLE_HEADER);
+            if (table != null && TABLE_NAME.matcher(table).matches()) {
+                return id + "/table:" + table;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * The session with this id, started afresh if there is none (or it was evicted).
+     */
+    public GameSession get(String id) {
+        long now = clock.getAsLong();
+        synchronized (sessions) {
+            sweepIfDue(now);
+            // Moves the session to the recently used end
+            GameSession session = sessions.get(id);
+            if (session == null) {
+                if (sessions.size() >= maxSessions) {
+                    evictIdlest();
+                }
+                session = new GameSession(id, now);
+                sessions.put(id, session);
+                created.increment();
+            }
+            session.touch(now);
+            return session;
+        }
+    }
+
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    private long sweepInterval() {
+        return Math.max(1, idleTimeoutMillis / 4);
+    }
+
+    private void sweepIfDue(long now) {
+        if (now < nextSweepMillis) {
+            return;
+        }
+        nextSweepMillis = now + sweepInterval();
+        for (Iterator<GameSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            GameSession session = it.next();
+            if (now - session.getLastAccessMillis() <= idleTimeoutMillis) {
+                // Everything after it was used more recently
+                break;
+            }
+            if (!inUse(session)) {
+                it.remove();
+                idleEvictions.increment();
+            }
+        }
+    }
+
+    private static boolean inUse(GameSession session) {
+        return session.getLock().isLocked() || session.hasListeners();
+    }
+
+    private void evictIdlest() {
+        int target = Math.max(1, maxSessions / 10);
+        for (Iterator<GameSession> it = sessions.values().iterator(); it.hasNext() && target > 0; ) {
+            if (!inUse(it.next())) {
+                it.remove();
+                capEvictions.increment();
+                target--;
+            }
+        }
+    }
+
+    /**
+     * Open sessions, the cap and timeout, sessions started, and evictions for idleness and for
+     * room.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("idleTimeoutMillis", idleTimeoutMillis);
+        stats.put("created", created.sum());
+        stats.put("idleEvictions", idleEvictions.sum());
+        stats.put("capEvictions", capEvictions.sum());
+        return stats;
+    }
+}
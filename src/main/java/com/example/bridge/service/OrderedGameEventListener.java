@@ -0,0 +1,64 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Hands each event on to a listener on an executor, one after another in the order they
+ * happened, so that a listener writing to a slow client never holds up the table's lock. An
+ * event that fails, or that the executor rejects, is logged and skipped; later events are still
+ * delivered.
+ */
+final class OrderedGameEventListener implements GameEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderedGameEventListener.class);
+
+    private final GameEventListener delegate;
+    private final Executor executor;
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+    OrderedGameEventListener(GameEventListener delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    private synchronized void deliver(Runnable event) {
+        tail = tail.handleAsync((ignored, failure) -> {
+            if (failure != null) {
+                // Only a rejected or errored delivery gets here; listener exceptions are caught below
+                logger.warn("Game event was not delivered", failure);
+            }
+            try {
+                event.run();
+            } catch (RuntimeException e) {
+                logger.warn("Game event listener failed", e);
+            }
+            return null;
+        }, executor);
+    }
+
+    @Override
+    public void dealStarted(Player dealer) {
+        deliver(() -> delegate.dealStarted(dealer));
+    }
+
+    @Override
+    public void callMade(int index, Bid bid) {
+        deliver(() -> delegate.callMade(index, bid));
+    }
+
+    @Override
+    public void bidderChanged(Player bidder, long legalCalls) {
+        deliver(() -> delegate.bidderChanged(bidder, legalCalls));
+    }
+
+    @Override
+    public void auctionFinished(String contract) {
+        deliver(() -> delegate.auctionFinished(contract));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Player;
+
+import java.util.List;
+
+/**
+ * A board dealt ahead of time by the {@link DealPool}, together with the robots' calls from the
+ * dealer up to the user's seat, kept as {@link Call} codes. Immutable; {@link #getRobotCall(int)}
+ * hands out new {@link Bid}s so each live auction gets its own entities.
+ */
+public final class PreparedDeal {
+
+    private final long[] cardMasks;
+    private final Long dealSeed;
+    private final BiddingSystem biddingSystem;
+    private final Player dealer;
+    private final byte[] robotCalls;
+
+    PreparedDeal(long[] cardMasks, Long dealSeed, BiddingSystem biddingSystem, Player dealer, byte[] robotCalls) {
+        this.cardMasks = cardMasks.clone();
+        this.dealSeed = dealSeed;
+        this.biddingSystem = biddingSystem;
+        this.dealer = dealer;
+        this.robotCalls = robotCalls.clone();
+    }
+
+    public long[] getCardMasks() {
+        return cardMasks.clone();
+    }
+
+    /**
+     * The {@link com.example.bridge.model.DealStream} seed of the board, or null if it was dealt
+     * under constraints.
+     */
+    public Long getDealSeed() {
+        return dealSeed;
+    }
+
+    /**
+     * The system version that made the robots' calls; the deal keeps bidding with it.
+     */
+    public BiddingSystem getBiddingSystem() {
+        return biddingSystem;
+    }
+
+    public int getRobotCallCount() {
+        return robotCalls.length;
+    }
+
+    public Bid getRobotCall(int index) {
+        return Call.of(robotCalls[index]).toBid(bidder(index));
+    }
+
+    private Player bidder(int index) {
+        return Player.values()[(dealer.ordinal() + index) % 4];
+    }
+
+    /**
+     * The prepared call following {@code history}, or null if the history has left the prepared
+     * sequence or reached its end.
+     */
+    Bid nextRobotCall(List<Bid> history) {
+        if (history.size() >= robotCalls.length) {
+            return null;
+        }
+        for (int i = 0; i < history.size(); i++) {
+            Bid actual = history.get(i);
+            if (actual.getCode() != robotCalls[i] || actual.getPlayer() != bidder(i)) {
+                return null;
+            }
+        }
+        return getRobotCall(history.size());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Deal;
+import com.example.bridge.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Makes the robot seats' calls at a table until a human seat is to call or the auction is over.
+ * Which seats are robots follows the training mode: in "single" every seat but the user's, in
+ * "pair" the other side, in "all" none.
+ * <p>
+ * Each decision runs on the engine pool with a per-call budget, counted from when it starts: a
+ * robot that has not decided that long after starting passes. A decision still queued behind
+ * other engine work when the budget is spent is withdrawn and made on the caller's thread
+ * instead, as a busy engine says nothing about the robot. The caller, normally a request holding
+ * the session's lock, drives the calls itself for as long as it chooses to wait; whatever is left
+ * then carries on on the robot executor, taking the session's lock for each call, so the request
+ * can return at once and the session still has a single writer. Background calls stop if a new
+ * deal is started meanwhile.
+ */
+@Component
+public class RobotSeatScheduler {
+
+    public static final long DEFAULT_CALL_BUDGET_MILLIS = 500;
+    public static final long DEFAULT_WAIT_MILLIS = 2000;
+
+    private static final Logger logger = LoggerFactory.getLogger(RobotSeatScheduler.class);
+
+    private final Executor robotExecutor;
+    private final Executor engineExecutor;
+    private final long callBudgetMillis;
+    private final long waitMillis;
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final LongAdder onCaller = new LongAdder();
+
+    @Autowired
+    public RobotSeatScheduler(BridgeExecutors executors,
+                              @Value("${bridge.robots.call-budget-millis:500}") long callBudgetMillis,
+                              @Value("${bridge.robots.wait-millis:2000}") long waitMillis) {
+        this(executors.getRobotExecutor(), executors.getEnginePool(), callBudgetMillis, waitMillis);
+    }
+
+    RobotSeatScheduler(Executor robotExecutor, Executor engineExecutor, long callBudgetMillis, long waitMillis) {
+        if (callBudgetMillis < 1 || waitMillis < 0) {
+            throw new IllegalArgumentException("Robot call budget must be positive and wait not negative");
+        }
+        this.robotExecutor = robotExecutor;
+        this.engineExecutor = engineExecutor;
+        this.callBudgetMillis = callBudgetMillis;
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * The robot seats in {@code trainingMode} for a user sitting in {@code userSeat}; an unknown
+     * or missing mode counts as "single", as in the views.
+     */
+    public static Set<Player> robotSeats(String trainingMode, Player userSeat) {
+        if ("all".equals(trainingMode)) {
+            return EnumSet.noneOf(Player.class);
+        }
+        Set<Player> robots = EnumSet.allOf(Player.class);
+        robots.remove(userSeat);
+        if ("pair".equals(trainingMode)) {
+            robots.remove(userSeat.getPartner());
+        }
+        return robots;
+    }
+
+    /**
+     * How long requests wait for the robots by default.
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+    public long getCallBudgetMillis() {
+        return callBudgetMillis;
+    }
+
+    /**
+     * Makes the calls of {@code robots} at {@code session} until a human is to call or the
+     * auction is over, waiting up to {@code waitMillis} (0 to return at once) before leaving the
+     * rest to the robot executor.
+     *
+     * @return completes with the number of robot calls made
+     */
+    public CompletableFuture<Integer> play(GameSession session, Set<Player> robots, long waitMillis) {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        Deal deal = session.currentDeal;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        int calls = 0;
+        session.getLock().lock();
+        try {
+            while (waitMillis > 0 && System.nanoTime() < deadline) {
+                if (!robotToCall(session, robots, deal)) {
+                    done.complete(calls);
+                    return done;
+                }
+                playOne(session);
+                calls++;
+            }
+            if (!robotToCall(session, robots, deal)) {
+                done.complete(calls);
+                return done;
+            }
+        } finally {
+            session.getLock().unlock();
+        }
+        int before = calls;
+        robotExecutor.execute(() -> playInBackground(session, robots, deal, before, done));
+        return done;
+    }
+
+    private void playInBackground(GameSession session, Set<Player> robots, Deal deal, int calls, CompletableFuture<Integer> done) {
+        try {
+            while (true) {
+                // A call at a time, so the table's requests are held up for one decision at most
+                session.getLock().lock();
+                try {
+                    if (!robotToCall(session, robots, deal)) {
+                        break;
+                    }
+                    playOne(session);
+                    calls++;
+                } finally {
+                    session.getLock().unlock();
+                }
+            }
+            done.complete(calls);
+        } catch (RuntimeException e) {
+            logger.warn("Robot calls stopped at session {}", session.getId(), e);
+            done.completeExceptionally(e);
+        }
+    }
+
+    private static boolean robotToCall(GameSession session, Set<Player> robots, Deal deal) {
+        return session.currentDeal == deal && deal != null && !session.auction.isFinished()
+                && robots.contains(session.getBidder());
+    }
+
+    /**
+     * Decides and makes the call of the robot to call, within the budget. The decision works on
+     * a copy of the history so that one abandoned for the budget cannot see later calls.
+     */
+    private void playOne(GameSession session) {
+        Player seat = session.getBidder();
+        ArrayList<Bid> history = new ArrayList<>(session.biddingHistory);
+        // Completed by the engine with the time the decision started, or by the caller with null
+        // to take the decision back if it has not started by the end of the budget
+        CompletableFuture<Long> started = new CompletableFuture<>();
+        CompletableFuture<Bid> decision = CompletableFuture.supplyAsync(() -> {
+            if (!started.complete(System.nanoTime())) {
+                return null;
+            }
+            decisions.increment();
+            return session.robotCall(seat, history);
+        }, engineExecutor);
+        Bid bid;
+        try {
+            Long startedAt;
+            try {
+                startedAt = started.get(callBudgetMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                startedAt = started.complete(null) ? null : started.join();
+            }
+            if (startedAt == null) {
+                // Queued behind other engine work all this time: make the call here instead
+                decision.cancel(false);
+                onCaller.increment();
+                decisions.increment();
+                bid = session.robotCall(seat, history);
+            } else {
+                long left = startedAt + TimeUnit.MILLISECONDS.toNanos(callBudgetMillis) - System.nanoTime();
+                bid = decision.get(Math.max(0, left), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            // The decision runs on unseen
+            overBudget.increment();
+            logger.warn("{} did not decide within {} ms; passing", seat, callBudgetMillis);
+            bid = Bid.pass();
+        } catch (InterruptedException e) {
+            started.complete(null);
+            decision.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+        session.play(bid);
+    }
+
+    /**
+     * How many robot decisions have run, how many calls were passed for the budget and how many
+     * decisions were made on the caller's thread as the engine was busy.
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("decisions", decisions.sum());
+        stats.put("overBudget", overBudget.sum());
+        stats.put("onCaller", onCaller.sum());
+        return stats;
+    }
+}
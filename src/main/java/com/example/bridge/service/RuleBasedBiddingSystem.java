@@ -0,0 +1,80 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * A {@link BiddingSystem} backed by a compiled {@link BiddingRules} table: looks the call up and
+ * passes instead if the rules give an illegal one. Decisions are memoized in a
+ * {@link DecisionCache}; each version has its own, so a reload starts cold. Otherwise immutable.
+ */
+public class RuleBasedBiddingSystem implements BiddingSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleBasedBiddingSystem.class);
+
+    private final String name;
+    private final int version;
+    private final BiddingRules rules;
+    private final DecisionCache decisions;
+
+    public RuleBasedBiddingSystem(String name, int version, BiddingRules rules, int decisionCacheCapacity) {
+        this.name = name;
+        this.version = version;
+        this.rules = rules;
+        this.decisions = new DecisionCache(decisionCacheCapacity);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    public BiddingRules getRules() {
+        return rules;
+    }
+
+    @Override
+    public Call chooseCall(Hand hand, Player bidder, AuctionState auction) {
+        long key = DecisionCache.key(hand, bidder, auction);
+        Call call = decisions.get(key);
+        if (call != null) {
+            return call;
+        }
+        call = rules.choose(hand, bidder, auction);
+        if (!auction.isAllowed(call, bidder)) {
+            logger.warn("Proposed bid {} is not allowed. Passing instead.", call);
+            call = Call.PASS;
+        }
+        decisions.put(key, call);
+        return call;
+    }
+
+    @Override
+    public HandConstraint impliedConstraint(Call call, Player bidder, AuctionState auction) {
+        return rules.implied(call, bidder, auction);
+    }
+
+    /**
+     * Size, hits, misses, evictions and hit rate of the decision cache.
+     */
+    public Map<String, Object> getDecisionCacheStats() {
+        return decisions.getStats();
+    }
+
+    @Override
+    public String toString() {
+        return name + " v" + version;
+    }
+}
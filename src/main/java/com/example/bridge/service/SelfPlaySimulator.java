@@ -0,0 +1,223 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+/**
+ * Bids whole boards with robots in all four seats and tallies the results, for judging a bidding
+ * system over many deals. Board {@code k} is deal {@code k} of a {@link DealStream} with the
+ * dealer rotating as on real boards, so a run is reproducible from its seed at any parallelism.
+ * Each worker bids with its own {@link AuctionState}s and tally, merged at the end; only the
+ * thread-safe {@link BiddingSystem} is shared. The live game in {@link BridgeBiddingService} is
+ * never touched.
+ */
+public final class SelfPlaySimulator {
+
+    public static final long MAX_BOARDS = 10_000_000L;
+
+    private static final int PARTSCORE = 0;
+    private static final int GAME = 1;
+    private static final int SMALL_SLAM = 2;
+    private static final int GRAND_SLAM = 3;
+    private static final String[] CATEGORIES = {"partscore", "game", "smallSlam", "grandSlam"};
+    private static final int MAX_COMBINED_HCP = 40;
+
+    private final ForkJoinPool pool;
+
+    public SelfPlaySimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SelfPlaySimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Bids {@code boards} boards from {@code seed} with {@code system} and reports contracts,
+     * strains, game and slam frequencies, contract level by the declaring side's combined HCP and,
+     * for rule-based systems, how often each rule fired.
+     */
+    public Map<String, Object> run(BiddingSystem system, long seed, long boards) {
+        checkBoards(boards);
+        DealStream deals = new DealStream(seed);
+        BiddingRules rules = system instanceof RuleBasedBiddingSystem ? ((RuleBasedBiddingSystem) system).getRules() : null;
+        long start = System.nanoTime();
+        Tally tally = pool.submit(() -> LongStream.range(0, boards).parallel()
+                .collect(() -> new Tally(rules),
+                        (t, k) -> t.play(system, deals.deal(k), Player.values()[(int) (k % 4)]),
+                        Tally::merge))
+                .join();
+        return tally.report(system, seed, boards, System.nanoTime() - start);
+    }
+
+    /**
+     * @throws IllegalArgumentException unless {@code boards} is from 1 to {@link #MAX_BOARDS}
+     */
+    static void checkBoards(long boards) {
+        if (boards < 1 || boards > MAX_BOARDS) {
+            throw new IllegalArgumentException("Boards must be between 1 and " + MAX_BOARDS + ": " + boards);
+        }
+    }
+
+    static int category(Call contract) {
+        int level = contract.getLevel();
+        if (level == 7) {
+            return GRAND_SLAM;
+        }
+        if (level == 6) {
+            return SMALL_SLAM;
+        }
+        switch (contract.getSuit()) {
+            case NOTRUMP: return level >= 3 ? GAME : PARTSCORE;
+            case HEARTS:
+            case SPADES: return level >= 4 ? GAME : PARTSCORE;
+            default: return level >= 5 ? GAME : PARTSCORE;
+        }
+    }
+
+    private static String contractName(Call contract) {
+        return contract.getLevel() + contract.getSuit().getShortName();
+    }
+
+    /**
+     * One worker's running totals.
+     */
+    private static final class Tally {
+        final BiddingRules rules;
+        final long[] contracts = new long[Call.PASS_CODE];
+        final long[][] byCombinedHcp = new long[MAX_COMBINED_HCP + 1][CATEGORIES.length];
+        final long[] ruleFirings;
+        long noRule;
+        long passedOut;
+        long calls;
+
+        Tally(BiddingRules rules) {
+            this.rules = rules;
+            this.ruleFirings = new long[rules == null ? 0 : rules.getRuleCount()];
+        }
+
+        void play(BiddingSystem system, long[] masks, Player dealer) {
+            Hand[] hands = new Hand[4];
+            for (Player player : Player.values()) {
+                hands[player.ordinal()] = new Hand(masks[player.ordinal()], player);
+            }
+            AuctionState auction = new AuctionState();
+            Player bidder = dealer;
+            while (!auction.isFinished()) {
+                Hand hand = hands[bidder.ordinal()];
+                if (rules != null) {
+                    int rule = rules.match(hand, bidder, auction);
+                    if (rule < 0) {
+                        noRule++;
+                    } else {
+                        ruleFirings[rule]++;
+                    }
+                }
+                auction.add(system.chooseCall(hand, bidder, auction), bidder);
+                calls++;
+                bidder = Player.values()[(bidder.ordinal() + 1) % 4];
+            }
+            Call contract = auction.getContract();
+            if (contract == null) {
+                passedOut++;
+                return;
+            }
+            contracts[contract.getCode()]++;
+            Player declarer = auction.getContractBidder();
+            int hcp = Hand.highCardPoints(masks[declarer.ordinal()] | masks[declarer.getPartner().ordinal()]);
+            byCombinedHcp[hcp][category(contract)]++;
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < contracts.length; i++) {
+                contracts[i] += other.contracts[i];
+            }
+            for (int hcp = 0; hcp <= MAX_COMBINED_HCP; hcp++) {
+                for (int c = 0; c < CATEGORIES.length; c++) {
+                    byCombinedHcp[hcp][c] += other.byCombinedHcp[hcp][c];
+                }
+            }
+            for (int i = 0; i < ruleFirings.length; i++) {
+                ruleFirings[i] += other.ruleFirings[i];
+            }
+            noRule += other.noRule;
+            passedOut += other.passedOut;
+            calls += other.calls;
+        }
+
+        Map<String, Object> report(BiddingSystem system, long seed, long boards, long elapsedNanos) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("biddingSystem", system.getName());
+            report.put("version", system.getVersion());
+            report.put("seed", seed);
+            report.put("boards", boards);
+            report.put("calls", calls);
+            report.put("elapsedMillis", elapsedNanos / 1_000_000);
+            report.put("boardsPerMinute", elapsedNanos == 0 ? 0 : (long) (boards * 60e9 / elapsedNanos));
+            report.put("passedOut", passedOut);
+
+            Map<String, Long> contractCounts = new LinkedHashMap<>();
+            Map<String, Long> strains = new LinkedHashMap<>();
+            for (Card.Suit suit : Card.Suit.values()) {
+                strains.put(suit.getShortName(), 0L);
+            }
+            long[] categories = new long[CATEGORIES.length];
+            for (int code = 0; code < contracts.length; code++) {
+                if (contracts[code] > 0) {
+                    Call contract = Call.of(code);
+                    contractCounts.put(contractName(contract), contracts[code]);
+                    strains.merge(contract.getSuit().getShortName(), contracts[code], Long::sum);
+                    categories[category(contract)] += contracts[code];
+                }
+            }
+            report.put("contracts", contractCounts);
+            report.put("strains", strains);
+            Map<String, Double> frequencies = new LinkedHashMap<>();
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                frequencies.put(CATEGORIES[c], (double) categories[c] / boards);
+            }
+            report.put("frequencies", frequencies);
+
+            List<Map<String, Object>> byHcp = new ArrayList<>();
+            for (int hcp = 0; hcp <= MAX_COMBINED_HCP; hcp++) {
+                long total = 0;
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("combinedHcp", hcp);
+                for (int c = 0; c < CATEGORIES.length; c++) {
+                    row.put(CATEGORIES[c], byCombinedHcp[hcp][c]);
+                    total += byCombinedHcp[hcp][c];
+                }
+                if (total > 0) {
+                    byHcp.add(row);
+                }
+            }
+            report.put("byCombinedHcp", byHcp);
+
+            if (rules != null) {
+                List<Map<String, Object>> firings = new ArrayList<>();
+                for (int id = 0; id < ruleFirings.length; id++) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("rule", rules.getRuleSource(id));
+                    row.put("fired", ruleFirings[id]);
+                    firings.add(row);
+                }
+                firings.sort(Comparator.comparingLong((Map<String, Object> row) -> (Long) row.get("fired")).reversed());
+                report.put("ruleFirings", firings);
+                report.put("noRuleMatched", noRule);
+            }
+            return report;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.bridge.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Self-play simulation runs as background jobs: one at a time, in the order submitted, on the
+ * simulation pool, so a run neither holds up the request that asked for it nor takes the
+ * engine's workers from the tables. At most {@value #MAX_PENDING_JOBS} jobs wait or run at
+ * once; the last {@value #MAX_KEPT_JOBS} jobs are kept so their reports can be fetched.
+ */
+@Component
+public class SimulationJobs {
+
+    static final int MAX_PENDING_JOBS = 4;
+    static final int MAX_KEPT_JOBS = 32;
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulationJobs.class);
+
+    private final ForkJoinPool pool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simulation-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    // Guarded by itself; insertion order, so the oldest job is dropped first
+    private final Map<Long, Job> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public SimulationJobs(BridgeExecutors executors) {
+        this(executors.getSimulationPool());
+    }
+
+    SimulationJobs(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Queues a run of {@code boards} boards from {@code seed} with {@code system}.
+     *
+     * @return the new job, as {@link #get} gives it
+     * @throws IllegalArgumentException if the number of boards is out of range
+     * @throws IllegalStateException    if {@value #MAX_PENDING_JOBS} jobs are already pending
+     */
+    public Map<String, Object> submit(BiddingSystem system, long seed, long boards) {
+        SelfPlaySimulator.checkBoards(boards);
+        if (pending.incrementAndGet() > MAX_PENDING_JOBS) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("Too many simulations pending; try again later");
+        }
+        Job job = new Job(ids.incrementAndGet(), system, seed, boards);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<Job> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_KEPT_JOBS && oldest.hasNext()) {
+                if (oldest.next().isFinished()) {
+                    oldest.remove();
+                }
+            }
+        }
+        runner.execute(() -> run(job));
+        return job.toMap();
+    }
+
+    private void run(Job job) {
+        job.state = "running";
+        try {
+            job.report = new SelfPlaySimulator(pool).run(job.system, job.seed, job.boards);
+            job.state = "done";
+        } catch (RuntimeException e) {
+            logger.warn("Simulation {} failed", job.id, e);
+            job.message = e.getMessage();
+            job.state = "failed";
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * The job's id, state ("queued", "running", "done" or "failed"), settings and, once done, its
+     * report; or null if there is no such job or it has been dropped.
+     */
+    public Map<String, Object> get(long id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        return job == null ? null : job.toMap();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private static final class Job {
+        final long id;
+        final BiddingSystem system;
+        final long seed;
+        final long boards;
+        volatile String state = "queued";
+        volatile Map<String, Object> report;
+        volatile String message;
+
+        Job(long id, BiddingSystem system, long seed, long boards) {
+            this.id = id;
+            this.system = system;
+            this.seed = seed;
+            this.boards = boards;
+        }
+
+        boolean isFinished() {
+            return "done".equals(state) || "failed".equals(state);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            // Read the state first: the report and message are set before it changes
+            String current = state;
+            map.put("id", id);
+            map.put("state", current);
+            map.put("biddingSystem", system.getName());
+            map.put("seed", seed);
+            map.put("boards", boards);
+            if ("done".equals(current)) {
+                map.put("report", report);
+            } else if ("failed".equals(current)) {
+                map.put("message", message);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionStateTest {
+
+    private static Bid call(Bid bid, Player player) {
+        bid.setPlayer(player);
+        return bid;
+    }
+
+    @Test
+    void testTracksContractAndPasses() {
+        AuctionState auction = new AuctionState();
+        assertTrue(auction.isOpening());
+        auction.add(call(Bid.pass(), Player.NORTH));
+        auction.add(call(new Bid(1, Card.Suit.HEARTS), Player.EAST));
+        auction.add(call(Bid.doubleBid(), Player.SOUTH));
+        auction.add(call(Bid.pass(), Player.WEST));
+
+        assertFalse(auction.isOpening());
+        assertSame(Call.bid(1, Card.Suit.HEARTS), auction.getContract());
+        assertEquals(Player.EAST, auction.getContractBidder());
+        assertTrue(auction.isDoubled());
+        assertFalse(auction.isRedoubled());
+        assertEquals(1, auction.getConsecutivePasses());
+        assertEquals(4, auction.getCallCount());
+        assertTrue(auction.getLastCall(Player.WEST).isPass());
+        assertNull(auction.getLastSignificantCall(Player.WEST));
+        assertTrue(auction.getLastSignificantCall(Player.SOUTH).isDouble());
+
+        // A new bid clears the double
+        auction.add(call(new Bid(1, Card.Suit.SPADES), Player.NORTH));
+        assertFalse(auction.isDoubled());
+        assertEquals(Player.NORTH, auction.getContractBidder());
+    }
+
+    @Test
+    void testLegality() {
+        AuctionState auction = new AuctionState();
+        assertFalse(auction.isAllowed(Bid.doubleBid(), Player.NORTH));
+        assertFalse(auction.isAllowed(new Bid(8, Card.Suit.CLUBS), Player.NORTH));
+        auction.add(call(new Bid(1, Card.Suit.HEARTS), Player.NORTH));
+        auction.add(call(Bid.doubleBid(), Player.EAST));
+
+        // The double does not lower the bar for the next bid
+        assertFalse(auction.isAllowed(new Bid(1, Card.Suit.CLUBS), Player.SOUTH));
+        assertTrue(auction.isAllowed(new Bid(1, Card.Suit.SPADES), Player.SOUTH));
+        assertFalse(auction.isAllowed(Bid.doubleBid(), Player.SOUTH));
+        assertTrue(auction.isAllowed(Bid.redoubleBid(), Player.SOUTH));
+
+        // The declaring side may still redouble after passes
+        auction.add(call(Bid.pass(), Player.SOUTH));
+        auction.add(call(Bid.pass(), Player.WEST));
+        assertTrue(auction.isAllowed(Bid.redoubleBid(), Player.NORTH));
+        assertFalse(auction.isAllowed(Bid.redoubleBid(), Player.EAST));
+        auction.add(call(Bid.redoubleBid(), Player.NORTH));
+        assertFalse(auction.isAllowed(Bid.redoubleBid(), Player.SOUTH));
+        assertFalse(auction.isAllowed(Bid.doubleBid(), Player.EAST));
+    }
+
+    @Test
+    void testFinished() {
+        AuctionState passedOut = new AuctionState();
+        for (Player player : Player.values()) {
+            assertFalse(passedOut.isFinished());
+            passedOut.add(call(Bid.pass(), player));
+        }
+        assertTrue(passedOut.isFinished());
+
+        List<Bid> history = new ArrayList<>();
+        history.add(call(new Bid(1, Card.Suit.CLUBS), Player.NORTH));
+        history.add(call(Bid.pass(), Player.EAST));
+        history.add(call(Bid.pass(), Player.SOUTH));
+        assertFalse(AuctionState.of(history).isFinished());
+        history.add(call(Bid.pass(), Player.WEST));
+        assertTrue(AuctionState.of(history).isFinished());
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        AuctionState auction = new AuctionState();
+        auction.add(call(new Bid(1, Card.Suit.HEARTS), Player.NORTH));
+        auction.add(call(Bid.doubleBid(), Player.EAST));
+        AuctionState copy = auction.copy();
+        copy.add(call(new Bid(2, Card.Suit.HEARTS), Player.SOUTH));
+
+        assertSame(Call.bid(1, Card.Suit.HEARTS), auction.getContract());
+        assertTrue(auction.isDoubled());
+        assertNull(auction.getLastCall(Player.SOUTH));
+        assertSame(Call.bid(2, Card.Suit.HEARTS), copy.getContract());
+        assertFalse(copy.isDoubled());
+        assertEquals(3, copy.getCallCount());
+        assertTrue(copy.getLastSignificantCall(Player.EAST).isDouble());
+    }
+
+    @Test
+    void testLegalCalls() {
+        AuctionState auction = new AuctionState();
+        long opening = auction.legalCalls(Player.NORTH);
+        assertEquals((1L << 36) - 1, opening);
+        assertEquals(0, opening & (1L << AuctionState.DOUBLE_BIT));
+
+        auction.add(call(new Bid(1, Card.Suit.HEARTS), Player.NORTH));
+        long overcalls = auction.legalCalls(Player.EAST);
+        assertEquals(0, overcalls & (1L << AuctionState.callBit(new Bid(1, Card.Suit.HEARTS))));
+        assertNotEquals(0, overcalls & (1L << AuctionState.callBit(new Bid(1, Card.Suit.SPADES))));
+        assertNotEquals(0, overcalls & (1L << AuctionState.DOUBLE_BIT));
+        assertEquals(0, auction.legalCalls(Player.SOUTH) & (1L << AuctionState.DOUBLE_BIT));
+
+        // The bitmask agrees with isAllowed for every call
+        auction.add(call(Bid.doubleBid(), Player.EAST));
+        for (Player bidder : Player.values()) {
+            long calls = auction.legalCalls(bidder);
+            assertEquals(auction.isAllowed(Bid.pass(), bidder), (calls & (1L << AuctionState.PASS_BIT)) != 0);
+            assertEquals(auction.isAllowed(Bid.doubleBid(), bidder), (calls & (1L << AuctionState.DOUBLE_BIT)) != 0);
+            assertEquals(auction.isAllowed(Bid.redoubleBid(), bidder), (calls & (1L << AuctionState.REDOUBLE_BIT)) != 0);
+            for (int level = 1; level <= 7; level++) {
+                for (Card.Suit suit : Card.Suit.values()) {
+                    Bid bid = new Bid(level, suit);
+                    assertEquals(auction.isAllowed(bid, bidder), (calls & (1L << AuctionState.callBit(bid))) != 0);
+                }
+            }
+        }
+
+        auction.add(call(new Bid(7, Card.Suit.NOTRUMP), Player.SOUTH));
+        assertEquals((1L << AuctionState.PASS_BIT) | (1L << AuctionState.DOUBLE_BIT), auction.legalCalls(Player.WEST));
+
+        auction.add(call(Bid.pass(), Player.WEST));
+        auction.add(call(Bid.pass(), Player.NORTH));
+        auction.add(call(Bid.pass(), Player.EAST));
+        assertEquals(0, auction.legalCalls(Player.SOUTH));
+    }
+}
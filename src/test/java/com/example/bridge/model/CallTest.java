@@ -0,0 +1,71 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallTest {
+
+    @Test
+    void testCodesAreInRankOrder() {
+        Call previous = null;
+        for (int level = 1; level <= 7; level++) {
+            for (Card.Suit suit : Card.Suit.values()) {
+                Call call = Call.bid(level, suit);
+                assertSame(call, Call.of(call.getCode()));
+                assertEquals(level, call.getLevel());
+                assertEquals(suit, call.getSuit());
+                if (previous != null) {
+                    assertEquals(previous.getCode() + 1, call.getCode());
+                    assertTrue(previous.compareTo(call) < 0);
+                }
+                previous = call;
+            }
+        }
+        assertEquals(34, previous.getCode());
+        assertTrue(Call.of(Call.PASS_CODE).isPass());
+        assertTrue(Call.of(Call.DOUBLE_CODE).isDouble());
+        assertTrue(Call.of(Call.REDOUBLE_CODE).isRedouble());
+        assertThrows(IllegalArgumentException.class, () -> Call.of(Call.COUNT));
+        assertThrows(IllegalArgumentException.class, () -> Call.bid(8, Card.Suit.CLUBS));
+    }
+
+    @Test
+    void testBidCodeMatchesCall() {
+        assertEquals(Call.bid(3, Card.Suit.NOTRUMP).getCode(), new Bid(3, Card.Suit.NOTRUMP).getCode());
+        assertSame(Call.PASS, Bid.pass().getCall());
+        assertSame(Call.DOUBLE, Bid.doubleBid().getCall());
+        assertSame(Call.REDOUBLE, Bid.redoubleBid().getCall());
+        assertEquals(-1, new Bid(8, Card.Suit.CLUBS).getCode());
+        assertEquals(-1, new Bid(0, Card.Suit.CLUBS).getCode());
+
+        // Equal bids hash alike, whatever their player
+        Bid north = Call.bid(2, Card.Suit.HEARTS).toBid(Player.NORTH);
+        Bid south = new Bid(2, Card.Suit.HEARTS);
+        assertEquals(north, south);
+        assertEquals(north.hashCode(), south.hashCode());
+        assertEquals(Player.NORTH, north.getPlayer());
+        assertNotEquals(new Bid(8, Card.Suit.CLUBS).hashCode(), new Bid(8, Card.Suit.DIAMONDS).hashCode());
+    }
+
+    @Test
+    void testEncodeAndDecodeAuction() {
+        List<Bid> history = new ArrayList<>();
+        history.add(Call.bid(1, Card.Suit.SPADES).toBid(Player.EAST));
+        history.add(Call.DOUBLE.toBid(Player.SOUTH));
+        history.add(Call.REDOUBLE.toBid(Player.WEST));
+        history.add(Call.PASS.toBid(Player.NORTH));
+
+        byte[] auction = Call.encode(history);
+        assertArrayEquals(new byte[]{3, 36, 37, 35}, auction);
+
+        List<Bid> decoded = Call.decode(auction, Player.EAST);
+        assertEquals(history, decoded);
+        for (int i = 0; i < history.size(); i++) {
+            assertEquals(history.get(i).getPlayer(), decoded.get(i).getPlayer());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstrainedDealGeneratorTest {
+
+    @Test
+    void testDealsMatchSpec() {
+        DealSpec spec = DealSpec.random()
+                .withHand(Player.SOUTH, HandConstraint.any().hcp(15, 17).balanced(true))
+                .withHand(Player.NORTH, HandConstraint.any().hcp(10, 37).suitLength(Card.Suit.SPADES, 5, 13));
+        ConstrainedDealGenerator generator = new ConstrainedDealGenerator();
+        for (int i = 0; i < 50; i++) {
+            long[] hands = generator.generate(spec);
+            int south = Hand.highCardPoints(hands[Player.SOUTH.ordinal()]);
+            assertTrue(south >= 15 && south <= 17);
+            assertTrue(Hand.isBalanced(hands[Player.SOUTH.ordinal()]));
+            assertTrue(Hand.highCardPoints(hands[Player.NORTH.ordinal()]) >= 10);
+            assertTrue(Hand.suitLength(hands[Player.NORTH.ordinal()], Card.Suit.SPADES) >= 5);
+            assertEquals(DealGenerator.FULL_DECK, hands[0] | hands[1] | hands[2] | hands[3]);
+        }
+    }
+
+    @Test
+    void testConstrainedSeatsAreDealtFirst() {
+        DealSpec spec = DealSpec.random().withHand(Player.WEST, HandConstraint.any().hcp(20, 37));
+        assertEquals(Player.WEST.ordinal(), ConstrainedDealGenerator.dealingOrder(spec)[0]);
+    }
+
+    @Test
+    void testImpossibleSpecGivesUp() {
+        DealSpec spec = DealSpec.random()
+                .withHand(Player.EAST, HandConstraint.any().hcp(37, 37).suitLength(Card.Suit.CLUBS, 13, 13));
+        ConstrainedDealGenerator generator = new ConstrainedDealGenerator(ForkJoinPool.commonPool(), 100_000);
+        assertThrows(IllegalStateException.class, () -> generator.generate(spec));
+    }
+
+    @Test
+    void testRareHcpSpecFailsFastWithinBudget() {
+        // Rare only in its HCP bounds, so shape-first does not take it
+        DealSpec spec = DealSpec.random()
+                .withHand(Player.NORTH, HandConstraint.any().hcp(30, 37))
+                .withHand(Player.SOUTH, HandConstraint.any().hcp(7, 10));
+        ConstrainedDealGenerator generator = new ConstrainedDealGenerator(ForkJoinPool.commonPool(), Long.MAX_VALUE, 100);
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> generator.generate(spec));
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    @Test
+    void testRareShapeAndHcpSpecFailsFastWithinBudget() {
+        // A 7-4-1-1 shape, so shape-first takes it, with HCP bounds almost no such hand meets
+        DealSpec spec = DealSpec.random().withHand(Player.SOUTH, HandConstraint.any().hcp(30, 37)
+                .suitLength(Card.Suit.SPADES, 7, 7).suitLength(Card.Suit.HEARTS, 4, 4)
+                .suitLength(Card.Suit.DIAMONDS, 1, 1).suitLength(Card.Suit.CLUBS, 1, 1));
+        ConstrainedDealGenerator generator = new ConstrainedDealGenerator(ForkJoinPool.commonPool(), Long.MAX_VALUE, 100);
+        assertNotNull(generator.shapeFirstPlan(spec));
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> generator.generate(spec));
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    @Test
+    void testHandConstraintMatches() {
+        HandConstraint constraint = HandConstraint.any().hcp(12, 14).suitLength(Card.Suit.HEARTS, 5, 13).balanced(false);
+        long hand = 0L;
+        // H: A K Q 5 4 3 2, S: A 2, D: 3 2, C: 3 2 -> 13 HCP, 7 hearts
+        for (Card.Rank rank : new Card.Rank[]{Card.Rank.ACE, Card.Rank.KING, Card.Rank.QUEEN, Card.Rank.FIVE,
+                Card.Rank.FOUR, Card.Rank.THREE, Card.Rank.TWO}) {
+            hand |= 1L << new Card(Card.Suit.HEARTS, rank).getIndex();
+        }
+        hand |= 1L << new Card(Card.Suit.SPADES, Card.Rank.ACE).getIndex();
+        hand |= 1L << new Card(Card.Suit.SPADES, Card.Rank.TWO).getIndex();
+        hand |= 1L << new Card(Card.Suit.DIAMONDS, Card.Rank.THREE).getIndex();
+        hand |= 1L << new Card(Card.Suit.DIAMONDS, Card.Rank.TWO).getIndex();
+        hand |= 1L << new Card(Card.Suit.CLUBS, Card.Rank.THREE).getIndex();
+        hand |= 1L << new Card(Card.Suit.CLUBS, Card.Rank.TWO).getIndex();
+        assertTrue(constraint.matches(hand));
+        assertFalse(constraint.balanced(true).matches(hand));
+        assertFalse(constraint.hcp(15, 17).matches(hand));
+        assertTrue(HandConstraint.any().isUnconstrained());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractTest {
+
+    private static List<Bid> history(Player dealer, String... calls) {
+        List<Bid> history = new ArrayList<>();
+        for (int i = 0; i < calls.length; i++) {
+            history.add(Call.parse(calls[i]).toBid(Player.values()[(dealer.ordinal() + i) % 4]));
+        }
+        return history;
+    }
+
+    @Test
+    void testDeclarerFirstNamedStrain() {
+        Contract contract = Contract.of(history(Player.NORTH, "1C", "P", "1H", "P", "2H", "P", "4H", "P", "P", "P"));
+        assertEquals(Call.bid(4, Card.Suit.HEARTS), contract.getBid());
+        assertEquals(Player.SOUTH, contract.getDeclarer());
+        assertEquals(0, contract.getDoubling());
+        assertEquals(10, contract.getTricksNeeded());
+        assertEquals("4 H by S", contract.toString());
+
+        // East naming spades first does not make North-South's spade contract East's
+        contract = Contract.of(history(Player.NORTH, "1S", "2S", "3S", "P", "P", "P"));
+        assertEquals(Player.NORTH, contract.getDeclarer());
+    }
+
+    @Test
+    void testDoubledAndRedoubled() {
+        Contract doubled = Contract.of(history(Player.EAST, "1NT", "X", "P", "P", "P"));
+        assertEquals(Player.EAST, doubled.getDeclarer());
+        assertTrue(doubled.isDoubled());
+        assertFalse(doubled.isRedoubled());
+        assertEquals("1 NT X by E", doubled.toString());
+
+        Contract redoubled = Contract.of(history(Player.EAST, "1NT", "X", "XX", "P", "P", "P"));
+        assertEquals(2, redoubled.getDoubling());
+        assertEquals("1 NT XX by E", redoubled.toString());
+        // A new bid clears the double
+        assertEquals(0, Contract.of(history(Player.EAST, "1NT", "X", "2C")).getDoubling());
+    }
+
+    @Test
+    void testPassedOut() {
+        assertNull(Contract.of(history(Player.SOUTH, "P", "P", "P", "P")));
+        assertNull(Contract.of(new AuctionState()));
+    }
+
+    @Test
+    void testInvalidContract() {
+        assertThrows(IllegalArgumentException.class, () -> new Contract(Call.PASS, false, false, Player.NORTH));
+        assertThrows(IllegalArgumentException.class, () -> new Contract(Call.bid(1, Card.Suit.CLUBS), false, true, Player.NORTH));
+        assertThrows(IllegalArgumentException.class, () -> new Contract(Call.bid(1, Card.Suit.CLUBS), false, false, null));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealGeneratorTest {
+
+    @Test
+    void testDealPartitionsTheDeck() {
+        DealGenerator generator = new DealGenerator(42L);
+        long[] hands = new long[4];
+        for (int i = 0; i < 1000; i++) {
+            generator.deal(hands);
+            long all = 0L;
+            for (long hand : hands) {
+                assertEquals(13, Long.bitCount(hand));
+                assertEquals(0L, all & hand, "Hands must not share cards");
+                all |= hand;
+            }
+            assertEquals(DealGenerator.FULL_DECK, all);
+        }
+    }
+
+    @Test
+    void testSameSeedSameDeals() {
+        long[] first = new DealGenerator(7L).deal();
+        long[] second = new DealGenerator(7L).deal();
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void testHandFromMask() {
+        long[] masks = new DealGenerator(3L).deal();
+        Hand hand = new Hand(masks[2], Player.SOUTH);
+        assertEquals(13, hand.getCards().size());
+        assertEquals(masks[2], hand.getCardMask());
+        long rebuilt = 0L;
+        for (Card card : hand.getCards()) {
+            rebuilt |= 1L << card.getIndex();
+        }
+        assertEquals(masks[2], rebuilt);
+    }
+
+    @Test
+    void testBulkGenerationIsReproducible() {
+        int count = 200_000;
+        LongAdder boards = new LongAdder();
+        AtomicLong checksum = new AtomicLong();
+        DealGenerator.generate(count, 11L, (north, east, south, west) -> {
+            assertEquals(DealGenerator.FULL_DECK, north | east | south | west);
+            boards.increment();
+            checksum.addAndGet(north * 31 + south);
+        });
+        assertEquals(count, boards.sum());
+
+        AtomicLong again = new AtomicLong();
+        DealGenerator.generate(count, 11L, (north, east, south, west) -> again.addAndGet(north * 31 + south));
+        assertEquals(checksum.get(), again.get());
+    }
+}
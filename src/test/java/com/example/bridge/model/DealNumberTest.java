@@ -0,0 +1,81 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealNumberTest {
+
+    private static long suit(Card.Suit suit) {
+        return 0x1FFFL << (suit.ordinal() * 13);
+    }
+
+    @Test
+    void testTotalMatchesKnownCount() {
+        assertEquals(new BigInteger("53644737765488792839237440000"), DealNumber.TOTAL);
+        assertTrue(DealNumber.TOTAL.bitLength() <= 96);
+    }
+
+    @Test
+    void testRoundTripRandomBoards() {
+        DealGenerator generator = new DealGenerator(17L);
+        for (int i = 0; i < 10_000; i++) {
+            long[] hands = generator.deal();
+            DealNumber number = DealNumber.encode(hands);
+            assertTrue(number.toBigInteger().compareTo(DealNumber.TOTAL) < 0);
+            assertArrayEquals(hands, number.decode());
+            assertEquals(number, DealNumber.parse(number.toString()));
+            assertEquals(number, DealNumber.of(number.getHigh(), number.getLow()));
+        }
+    }
+
+    @Test
+    void testExtremes() {
+        // Clubs are the lowest cards, so North holding them ranks first
+        long[] first = {suit(Card.Suit.CLUBS), suit(Card.Suit.DIAMONDS), suit(Card.Suit.HEARTS), suit(Card.Suit.SPADES)};
+        assertEquals(BigInteger.ZERO, DealNumber.encode(first).toBigInteger());
+        assertArrayEquals(first, DealNumber.parse("0").decode());
+
+        long[] last = {suit(Card.Suit.SPADES), suit(Card.Suit.HEARTS), suit(Card.Suit.DIAMONDS), suit(Card.Suit.CLUBS)};
+        DealNumber max = DealNumber.encode(last);
+        assertEquals(DealNumber.TOTAL.subtract(BigInteger.ONE), max.toBigInteger());
+        assertArrayEquals(last, max.decode());
+    }
+
+    @Test
+    void testDistinctBoardsHaveDistinctNumbers() {
+        DealGenerator generator = new DealGenerator(23L);
+        Set<DealNumber> numbers = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(DealNumber.encode(generator.deal()));
+        }
+        assertEquals(10_000, numbers.size());
+    }
+
+    @Test
+    void testEncodeDeal() {
+        long[] hands = new DealStream(5L).deal(0);
+        Deal deal = new Deal(Player.NORTH);
+        for (int i = 0; i < 4; i++) {
+            deal.getHands().set(i, new Hand(hands[i], Player.values()[i]));
+        }
+        assertArrayEquals(hands, DealNumber.encode(deal).decode());
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        long[] hands = new DealGenerator(1L).deal();
+        long[] overlapping = hands.clone();
+        overlapping[0] = hands[0] & (hands[0] - 1) | Long.lowestOneBit(hands[1]);
+        assertThrows(IllegalArgumentException.class, () -> DealNumber.encode(overlapping));
+        long[] shortHand = hands.clone();
+        shortHand[3] = hands[3] & (hands[3] - 1);
+        assertThrows(IllegalArgumentException.class, () -> DealNumber.encode(shortHand));
+        assertThrows(IllegalArgumentException.class, () -> DealNumber.parse(DealNumber.TOTAL.toString()));
+        assertThrows(IllegalArgumentException.class, () -> DealNumber.parse("-1"));
+    }
+}
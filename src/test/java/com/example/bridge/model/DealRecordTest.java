@@ -0,0 +1,82 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealRecordTest {
+
+    @Test
+    void testRoundTrip() {
+        DealGenerator generator = new DealGenerator(31L);
+        for (int i = 0; i < 10_000; i++) {
+            long[] hands = generator.deal();
+            byte[] record = DealRecord.encode(hands);
+            assertEquals(DealRecord.RECORD_SIZE, record.length);
+            assertArrayEquals(hands, DealRecord.decode(record));
+        }
+    }
+
+    @Test
+    void testLayout() {
+        // North holds clubs, East diamonds, South hearts, West spades
+        long[] hands = {0x1FFFL, 0x1FFFL << 13, 0x1FFFL << 26, 0x1FFFL << 39};
+        byte[] record = DealRecord.encode(hands);
+        assertEquals(0, record[0]);
+        // Card 13 (two of diamonds) is East's: owner 01 at bits 26-27, byte 3
+        assertEquals(0b0101_0100, record[3] & 0xFF);
+        assertEquals((byte) 0xFF, record[12]);
+    }
+
+    @Test
+    void testSpreadAndCompactAreInverse() {
+        long value = 0x8F3A_C001L;
+        assertEquals(value, DealRecord.compact(DealRecord.spread(value)));
+        assertEquals(0x5555555555555555L, DealRecord.spread(0xFFFFFFFFL));
+    }
+
+    @Test
+    void testRejectsInvalidBoards() {
+        long[] hands = new DealGenerator(2L).deal();
+        long[] overlapping = hands.clone();
+        overlapping[1] = hands[1] & (hands[1] - 1) | Long.lowestOneBit(hands[0]);
+        assertThrows(IllegalArgumentException.class, () -> DealRecord.encode(overlapping));
+        assertThrows(IllegalArgumentException.class, () -> DealRecord.decode(new byte[DealRecord.RECORD_SIZE]));
+    }
+
+    @Test
+    void testLibraryRandomAccess() throws IOException {
+        Path file = Files.createTempFile("deals", ".bdl");
+        try {
+            DealStream stream = new DealStream(77L);
+            assertEquals(5000, DealLibrary.write(file, stream.deals(0, 5000)));
+            assertEquals(5000L * DealRecord.RECORD_SIZE, Files.size(file));
+            try (DealLibrary library = DealLibrary.open(file)) {
+                assertEquals(5000, library.size());
+                long[] hands = new long[4];
+                for (long index : new long[]{0, 1, 2499, 4999}) {
+                    library.get(index, hands);
+                    assertArrayEquals(stream.deal(index), hands);
+                }
+                assertThrows(IndexOutOfBoundsException.class, () -> library.get(5000));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testOpenRejectsTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("deals", ".bdl");
+        try {
+            Files.write(file, new byte[DealRecord.RECORD_SIZE + 1]);
+            assertThrows(IOException.class, () -> DealLibrary.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
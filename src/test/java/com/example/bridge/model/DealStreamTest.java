@@ -0,0 +1,88 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealStreamTest {
+
+    @Test
+    void testDealsAreValidBoards() {
+        DealStream stream = new DealStream(42L);
+        stream.deals(0, 200).forEach(hands -> {
+            assertEquals(DealGenerator.FULL_DECK, hands[0] | hands[1] | hands[2] | hands[3]);
+            for (long hand : hands) {
+                assertEquals(13, Long.bitCount(hand));
+            }
+        });
+    }
+
+    @Test
+    void testSameSeedSameDeals() {
+        List<long[]> first = new DealStream(7L).deals(0, 50).collect(Collectors.toList());
+        List<long[]> second = new DealStream(7L).deals(0, 50).collect(Collectors.toList());
+        for (int i = 0; i < 50; i++) {
+            assertArrayEquals(first.get(i), second.get(i));
+        }
+        assertFalse(Arrays.equals(new DealStream(7L).deal(0), new DealStream(8L).deal(0)));
+    }
+
+    @Test
+    void testJumpMatchesSequentialDeal() {
+        DealStream stream = new DealStream(99L);
+        List<long[]> sequential = stream.deals(0, 1000).collect(Collectors.toList());
+        assertArrayEquals(sequential.get(737), stream.deal(737));
+        assertArrayEquals(sequential.get(999), DealStream.dealFromSeed(stream.dealSeed(999)));
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        DealStream stream = new DealStream(3L);
+        List<long[]> sequential = stream.deals(0, 5000).collect(Collectors.toList());
+        List<long[]> parallel = stream.deals(0, 5000).parallel().collect(Collectors.toList());
+        for (int i = 0; i < 5000; i++) {
+            assertArrayEquals(sequential.get(i), parallel.get(i));
+        }
+    }
+
+    @Test
+    void testSlicesAreDisjointAndComplete() {
+        DealStream stream = new DealStream(11L);
+        int workers = 3;
+        long total = 1000;
+        List<long[]> all = stream.deals(0, total).collect(Collectors.toList());
+        List<long[]> sliced = IntStream.range(0, workers)
+                .mapToObj(worker -> stream.slice(worker, workers, total))
+                .flatMap(s -> s)
+                .collect(Collectors.toList());
+        assertEquals(all.size(), sliced.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertArrayEquals(all.get(i), sliced.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> stream.slice(3, 3, total));
+    }
+
+    @Test
+    void testDealSeedsAreDistinct() {
+        DealStream stream = new DealStream(0L);
+        Set<Long> seeds = new HashSet<>();
+        for (long i = 0; i < 100_000; i++) {
+            seeds.add(stream.dealSeed(i));
+        }
+        assertEquals(100_000, seeds.size());
+    }
+
+    @Test
+    void testSeedsAreStable() {
+        // Archived seeds must keep producing the same boards
+        long[] hands = DealStream.dealFromSeed(12345L);
+        assertArrayEquals(new long[]{0x4400341208CEL, 0x4B004C9200510L, 0x309330000B201L, 0x802C802CD4020L}, hands);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandConstraintTest {
+
+    @Test
+    void testBalanceConflictIsContradictory() {
+        HandConstraint notrump = HandConstraint.any().hcp(15, 17).balanced(true);
+        HandConstraint unbalanced = HandConstraint.any().hcp(8, 37).balanced(false);
+        assertTrue(notrump.intersect(unbalanced).isContradictory());
+        assertTrue(unbalanced.intersect(notrump).isContradictory());
+        assertFalse(notrump.intersect(HandConstraint.any().hcp(16, 20)).isContradictory());
+        // Bounds that allow no shape of the asked balance
+        assertTrue(HandConstraint.any().suitLength(Card.Suit.SPADES, 0, 0).balanced(true).isContradictory());
+        assertTrue(HandConstraint.any().suitLength(Card.Suit.SPADES, 3, 4).suitLength(Card.Suit.HEARTS, 3, 4)
+                .suitLength(Card.Suit.DIAMONDS, 3, 4).suitLength(Card.Suit.CLUBS, 3, 4).balanced(false).isContradictory());
+        assertFalse(HandConstraint.any().suitLength(Card.Suit.SPADES, 5, 13).balanced(true).isContradictory());
+    }
+}
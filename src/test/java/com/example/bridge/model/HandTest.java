@@ -32,4 +32,42 @@ class HandTest {
         assertEquals(2, bySuit.get(Card.Suit.HEARTS).size());
         assertEquals(1, bySuit.get(Card.Suit.SPADES).size());
     }
+
+    @Test
+    void testCardMaskEvaluation() {
+        // S: A K 5 2, H: A K 2, D: Q 3 2, C: J 3 2
+        Hand hand = new Hand(List.of(
+                new Card(Card.Suit.SPADES, Card.Rank.ACE), new Card(Card.Suit.SPADES, Card.Rank.KING),
+                new Card(Card.Suit.SPADES, Card.Rank.FIVE), new Card(Card.Suit.SPADES, Card.Rank.TWO),
+                new Card(Card.Suit.HEARTS, Card.Rank.ACE), new Card(Card.Suit.HEARTS, Card.Rank.KING),
+                new Card(Card.Suit.HEARTS, Card.Rank.TWO),
+                new Card(Card.Suit.DIAMONDS, Card.Rank.QUEEN), new Card(Card.Suit.DIAMONDS, Card.Rank.THREE),
+                new Card(Card.Suit.DIAMONDS, Card.Rank.TWO),
+                new Card(Card.Suit.CLUBS, Card.Rank.JACK), new Card(Card.Suit.CLUBS, Card.Rank.THREE),
+                new Card(Card.Suit.CLUBS, Card.Rank.TWO)));
+        assertEquals(13, Long.bitCount(hand.getCardMask()));
+        assertEquals(17, hand.getHighCardPoints());
+        assertEquals(4, hand.getSuitLength(Card.Suit.SPADES));
+        assertEquals(3, hand.getSuitLength(Card.Suit.CLUBS));
+        assertEquals("4-3-3-3", hand.getSuitDistribution());
+        assertEquals(4, hand.getSuitLengths().get(Card.Suit.SPADES));
+        assertTrue(hand.isBalanced());
+        assertEquals(7, hand.getLosingTrickCount());
+        assertEquals(6, hand.getControls());
+        assertEquals(4.0, hand.getQuickTricks(), 0.001);
+        assertEquals(0, hand.getDistributionPoints());
+        assertTrue(hand.hasStrongSuit(Card.Suit.SPADES));
+        assertFalse(hand.hasStrongSuit(Card.Suit.HEARTS));
+    }
+
+    @Test
+    void testCardMaskFollowsSetCards() {
+        Hand hand = new Hand(List.of(new Card(Card.Suit.HEARTS, Card.Rank.ACE)));
+        assertEquals(4, hand.getHighCardPoints());
+        hand.setCards(List.of(new Card(Card.Suit.CLUBS, Card.Rank.KING), new Card(Card.Suit.CLUBS, Card.Rank.TWO)));
+        assertEquals(3, hand.getHighCardPoints());
+        assertEquals(2, hand.getSuitLength(Card.Suit.CLUBS));
+        assertEquals(0, hand.getSuitLength(Card.Suit.HEARTS));
+        assertFalse(hand.isBalanced());
+    }
 }
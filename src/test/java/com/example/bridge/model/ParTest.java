@@ -0,0 +1,61 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParTest {
+
+    /**
+     * North and South each take {@code northSouth[strain]} tricks as declarer, East and West
+     * the rest.
+     */
+    private static TrickTable table(int... northSouth) {
+        int[][] tricks = new int[5][4];
+        for (int strain = 0; strain < 5; strain++) {
+            for (int seat = 0; seat < 4; seat++) {
+                tricks[strain][seat] = seat % 2 == 0 ? northSouth[strain] : 13 - northSouth[strain];
+            }
+        }
+        return new TrickTable(tricks);
+    }
+
+    @Test
+    void testBestMakingContract() {
+        // Clubs, diamonds, hearts, spades, no-trump
+        Par par = Par.of(table(7, 7, 10, 8, 9), Player.NORTH, Vulnerability.NONE);
+        assertEquals(new Contract(Call.bid(4, Card.Suit.HEARTS), false, false, Player.NORTH), par.getContract());
+        assertEquals(420, par.getNorthSouthScore());
+        assertEquals("4 H by N, NS +420", par.toString());
+    }
+
+    @Test
+    void testSacrifice() {
+        // Both sides make game; North-South save in 5H over 4S
+        TrickTable tricks = table(4, 4, 10, 3, 8);
+        Par par = Par.of(tricks, Player.NORTH, Vulnerability.NONE);
+        assertEquals(new Contract(Call.bid(5, Card.Suit.HEARTS), true, false, Player.NORTH), par.getContract());
+        assertEquals(-100, par.getNorthSouthScore());
+        // Vulnerable, one down doubled costs 200, still less than the 420 for 4S
+        assertEquals(-200, Par.of(tricks, Player.NORTH, Vulnerability.NORTH_SOUTH).getNorthSouthScore());
+    }
+
+    @Test
+    void testPassedOut() {
+        int[][] tricks = new int[5][4];
+        for (int[] strain : tricks) {
+            java.util.Arrays.fill(strain, 6);
+        }
+        Par par = Par.of(new TrickTable(tricks), Player.EAST, Vulnerability.BOTH);
+        assertNull(par.getContract());
+        assertEquals(0, par.getNorthSouthScore());
+        assertEquals("Passed out", par.toString());
+    }
+
+    @Test
+    void testEastWestPar() {
+        Par par = Par.of(table(6, 6, 6, 6, 6), Player.SOUTH, Vulnerability.NONE);
+        assertEquals(new Contract(Call.bid(1, Card.Suit.NOTRUMP), false, false, Player.EAST), par.getContract());
+        assertEquals(-90, par.getNorthSouthScore());
+    }
+}
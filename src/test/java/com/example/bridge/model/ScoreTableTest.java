@@ -0,0 +1,55 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreTableTest {
+
+    private static int score(int level, Card.Suit strain, int doubling, boolean vulnerable, int tricks) {
+        return ScoreTable.score(Call.bid(level, strain), doubling, vulnerable, tricks);
+    }
+
+    @Test
+    void testMadeContracts() {
+        assertEquals(420, score(4, Card.Suit.HEARTS, 0, false, 10));
+        assertEquals(620, score(4, Card.Suit.HEARTS, 0, true, 10));
+        assertEquals(430, score(3, Card.Suit.NOTRUMP, 0, false, 10));
+        assertEquals(110, score(2, Card.Suit.SPADES, 0, false, 8));
+        assertEquals(990, score(6, Card.Suit.NOTRUMP, 0, false, 12));
+        assertEquals(2220, score(7, Card.Suit.NOTRUMP, 0, true, 13));
+        // 2C doubled is still a part score; redoubled it is game, here with an overtrick
+        assertEquals(180, score(2, Card.Suit.CLUBS, 1, false, 8));
+        assertEquals(760, score(2, Card.Suit.CLUBS, 2, false, 9));
+        assertEquals(230, score(1, Card.Suit.CLUBS, 2, false, 7));
+        assertEquals(870, score(3, Card.Suit.DIAMONDS, 1, true, 10));
+    }
+
+    @Test
+    void testUndertricks() {
+        assertEquals(-100, score(3, Card.Suit.CLUBS, 0, false, 7));
+        assertEquals(-200, score(3, Card.Suit.CLUBS, 0, true, 7));
+        assertEquals(-300, score(1, Card.Suit.NOTRUMP, 1, false, 5));
+        assertEquals(-800, score(4, Card.Suit.SPADES, 1, true, 7));
+        assertEquals(-1100, score(5, Card.Suit.HEARTS, 1, false, 6));
+        assertEquals(-7600, score(7, Card.Suit.CLUBS, 2, true, 0));
+    }
+
+    @Test
+    void testContractAndVulnerability() {
+        Contract fourSpades = new Contract(Call.bid(4, Card.Suit.SPADES), false, false, Player.EAST);
+        assertEquals(420, ScoreTable.score(fourSpades, Vulnerability.NORTH_SOUTH, 10));
+        assertEquals(620, ScoreTable.score(fourSpades, Vulnerability.EAST_WEST, 10));
+
+        int[][] tricks = new int[5][4];
+        tricks[Card.Suit.SPADES.ordinal()][Player.EAST.ordinal()] = 9;
+        assertEquals(50, ScoreTable.northSouthScore(fourSpades, Vulnerability.NONE, new TrickTable(tricks)));
+    }
+
+    @Test
+    void testInvalidScores() {
+        assertThrows(IllegalArgumentException.class, () -> ScoreTable.score(Call.PASS, 0, false, 7));
+        assertThrows(IllegalArgumentException.class, () -> score(1, Card.Suit.CLUBS, 3, false, 7));
+        assertThrows(IllegalArgumentException.class, () -> score(1, Card.Suit.CLUBS, 0, false, 14));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeFirstDealGeneratorTest {
+
+    private static final DealSpec ROCK_SOLID_SEVEN_FOUR = DealSpec.random()
+            .withHand(Player.NORTH, HandConstraint.any().hcp(20, 37)
+                    .suitLength(Card.Suit.SPADES, 7, 7)
+                    .suitLength(Card.Suit.HEARTS, 4, 4)
+                    .suitLength(Card.Suit.DIAMONDS, 1, 1)
+                    .suitLength(Card.Suit.CLUBS, 1, 1));
+
+    @Test
+    void testShapeProbabilityIsExact() {
+        // North holding all thirteen spades: 1 / C(52, 13)
+        DealSpec spec = DealSpec.random().withHand(Player.NORTH, HandConstraint.any().suitLength(Card.Suit.SPADES, 13, 13));
+        ShapeFirstDealGenerator generator = ShapeFirstDealGenerator.forSpec(spec);
+        assertNotNull(generator);
+        assertEquals(1 / 635013559600.0, generator.getShapeProbability(), 1e-20);
+    }
+
+    @Test
+    void testGeneratedDealsMatchSpec() {
+        ShapeFirstDealGenerator generator = ShapeFirstDealGenerator.forSpec(ROCK_SOLID_SEVEN_FOUR);
+        assertNotNull(generator);
+        SplittableRandom random = new SplittableRandom(5L);
+        for (int i = 0; i < 500; i++) {
+            long[] hands = generator.generate(random, 1_000_000);
+            assertEquals(DealGenerator.FULL_DECK, hands[0] | hands[1] | hands[2] | hands[3]);
+            assertEquals(52, Long.bitCount(hands[0]) + Long.bitCount(hands[1]) + Long.bitCount(hands[2]) + Long.bitCount(hands[3]));
+            assertTrue(ROCK_SOLID_SEVEN_FOUR.matches(hands));
+        }
+    }
+
+    @Test
+    void testFitSpec() {
+        DealSpec spec = DealSpec.random().withFit(Player.NORTH, Card.Suit.HEARTS, 10);
+        ShapeFirstDealGenerator generator = ShapeFirstDealGenerator.forSpec(spec);
+        assertNotNull(generator);
+        long[] hands = generator.generate(new SplittableRandom(9L), 1000);
+        assertTrue(Long.bitCount((hands[0] | hands[2]) & (0x1FFFL << 26)) >= 10);
+    }
+
+    @Test
+    void testLooseSpecIsLeftToRejection() {
+        DealSpec spec = DealSpec.random().withHand(Player.SOUTH, HandConstraint.any().hcp(15, 17).balanced(true));
+        assertNull(new ConstrainedDealGenerator().shapeFirstPlan(spec));
+        assertNotNull(new ConstrainedDealGenerator().shapeFirstPlan(ROCK_SOLID_SEVEN_FOUR));
+    }
+
+    @Test
+    void testDistributionMatchesRejectionSampling() {
+        // Common enough for plain rejection, so both samplers can be compared directly
+        DealSpec spec = DealSpec.random()
+                .withHand(Player.NORTH, HandConstraint.any().hcp(10, 15).suitLength(Card.Suit.SPADES, 6, 13));
+        ShapeFirstDealGenerator shapeFirst = ShapeFirstDealGenerator.forSpec(spec);
+        assertNotNull(shapeFirst);
+        DealGenerator dealer = new DealGenerator(1L);
+        SplittableRandom random = new SplittableRandom(2L);
+        int samples = 20_000;
+        double rejectionHcp = 0;
+        double shapeFirstHcp = 0;
+        int rejectionLongSpades = 0;
+        int shapeFirstLongSpades = 0;
+        double rejectionEastSpades = 0;
+        double shapeFirstEastSpades = 0;
+        for (int i = 0; i < samples; i++) {
+            long[] hands;
+            do {
+                hands = dealer.deal();
+            } while (!spec.matches(hands));
+            rejectionHcp += Hand.highCardPoints(hands[0]);
+            rejectionLongSpades += Hand.suitLength(hands[0], Card.Suit.SPADES) >= 7 ? 1 : 0;
+            rejectionEastSpades += Hand.suitLength(hands[1], Card.Suit.SPADES);
+
+            hands = shapeFirst.generate(random, 1_000_000);
+            shapeFirstHcp += Hand.highCardPoints(hands[0]);
+            shapeFirstLongSpades += Hand.suitLength(hands[0], Card.Suit.SPADES) >= 7 ? 1 : 0;
+            shapeFirstEastSpades += Hand.suitLength(hands[1], Card.Suit.SPADES);
+        }
+        assertEquals(rejectionHcp / samples, shapeFirstHcp / samples, 0.1);
+        assertEquals((double) rejectionLongSpades / samples, (double) shapeFirstLongSpades / samples, 0.025);
+        // Unconstrained seats share a pool that is split uniformly
+        assertEquals(rejectionEastSpades / samples, shapeFirstEastSpades / samples, 0.05);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "BRIDGE_BENCHMARKS", matches = "true")
+    void benchmarkAgainstNaiveRejection() {
+        long nanos = 2_000_000_000L;
+        DealGenerator dealer = new DealGenerator(3L);
+        long[] hands = new long[4];
+        long naive = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < nanos) {
+            dealer.deal(hands);
+            if (ROCK_SOLID_SEVEN_FOUR.matches(hands)) {
+                naive++;
+            }
+        }
+
+        ShapeFirstDealGenerator generator = ShapeFirstDealGenerator.forSpec(ROCK_SOLID_SEVEN_FOUR);
+        SplittableRandom random = new SplittableRandom(4L);
+        long direct = 0;
+        start = System.nanoTime();
+        while (System.nanoTime() - start < nanos) {
+            generator.generate(random, Long.MAX_VALUE);
+            direct++;
+        }
+        System.out.printf("7-4-1-1 20+ HCP: naive rejection %d deals/s, shape-first %d deals/s%n",
+                naive * 1_000_000_000L / nanos, direct * 1_000_000_000L / nanos);
+        assertTrue(direct >= 100 * Math.max(naive, 1));
+    }
+}
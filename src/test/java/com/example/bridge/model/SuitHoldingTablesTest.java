@@ -0,0 +1,53 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuitHoldingTablesTest {
+
+    private static int holding(Card.Rank... ranks) {
+        int holding = 0;
+        for (Card.Rank rank : ranks) {
+            holding |= 1 << rank.ordinal();
+        }
+        return holding;
+    }
+
+    @Test
+    void testHighCardPointsAndHonors() {
+        assertEquals(10, SuitHoldingTables.hcp(holding(Card.Rank.ACE, Card.Rank.KING, Card.Rank.QUEEN, Card.Rank.JACK)));
+        assertEquals(0, SuitHoldingTables.hcp(holding(Card.Rank.TEN, Card.Rank.NINE)));
+        assertEquals(2, SuitHoldingTables.honors(holding(Card.Rank.TEN, Card.Rank.JACK, Card.Rank.NINE)));
+        assertEquals(3, SuitHoldingTables.controls(holding(Card.Rank.ACE, Card.Rank.KING)));
+    }
+
+    @Test
+    void testQuickTricks() {
+        assertEquals(4, SuitHoldingTables.quickTrickHalves(holding(Card.Rank.ACE, Card.Rank.KING, Card.Rank.TWO)));
+        assertEquals(3, SuitHoldingTables.quickTrickHalves(holding(Card.Rank.ACE, Card.Rank.QUEEN)));
+        assertEquals(2, SuitHoldingTables.quickTrickHalves(holding(Card.Rank.KING, Card.Rank.QUEEN)));
+        assertEquals(1, SuitHoldingTables.quickTrickHalves(holding(Card.Rank.KING, Card.Rank.TWO)));
+        assertEquals(0, SuitHoldingTables.quickTrickHalves(holding(Card.Rank.KING)));
+    }
+
+    @Test
+    void testLosingTrickCount() {
+        assertEquals(0, SuitHoldingTables.losers(0));
+        assertEquals(0, SuitHoldingTables.losers(holding(Card.Rank.ACE)));
+        assertEquals(1, SuitHoldingTables.losers(holding(Card.Rank.KING)));
+        assertEquals(1, SuitHoldingTables.losers(holding(Card.Rank.KING, Card.Rank.FIVE)));
+        assertEquals(2, SuitHoldingTables.losers(holding(Card.Rank.QUEEN, Card.Rank.FIVE)));
+        assertEquals(1, SuitHoldingTables.losers(holding(Card.Rank.ACE, Card.Rank.QUEEN, Card.Rank.FIVE, Card.Rank.TWO)));
+        assertEquals(3, SuitHoldingTables.losers(holding(Card.Rank.JACK, Card.Rank.TEN, Card.Rank.NINE, Card.Rank.TWO)));
+    }
+
+    @Test
+    void testShortnessAndStrongSuit() {
+        assertEquals(3, SuitHoldingTables.shortnessPoints(0));
+        assertEquals(1, SuitHoldingTables.shortnessPoints(holding(Card.Rank.ACE, Card.Rank.TWO)));
+        assertEquals(0, SuitHoldingTables.shortnessPoints(holding(Card.Rank.ACE, Card.Rank.THREE, Card.Rank.TWO)));
+        assertTrue(SuitHoldingTables.isStrongSuit(holding(Card.Rank.KING, Card.Rank.QUEEN, Card.Rank.THREE, Card.Rank.TWO)));
+        assertFalse(SuitHoldingTables.isStrongSuit(holding(Card.Rank.KING, Card.Rank.QUEEN, Card.Rank.TWO)));
+        assertFalse(SuitHoldingTables.isStrongSuit(holding(Card.Rank.ACE, Card.Rank.JACK, Card.Rank.THREE, Card.Rank.TWO)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.bridge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrickTableTest {
+
+    private static int[][] tricks() {
+        int[][] tricks = new int[5][4];
+        for (int strain = 0; strain < 5; strain++) {
+            for (int declarer = 0; declarer < 4; declarer++) {
+                tricks[strain][declarer] = declarer % 2 == 0 ? 6 + strain % 3 : 7 - strain % 3;
+            }
+        }
+        return tricks;
+    }
+
+    @Test
+    void testGetTricksAndMap() {
+        TrickTable table = new TrickTable(tricks());
+        assertEquals(6, table.getTricks(Card.Suit.CLUBS, Player.NORTH));
+        assertEquals(7, table.getTricks(Card.Suit.SPADES, Player.EAST));
+        assertEquals(7, table.getTricks(Card.Suit.NOTRUMP, Player.SOUTH));
+
+        Map<String, Map<String, Integer>> map = table.toMap();
+        assertEquals(5, map.size());
+        assertEquals(7, map.get("NT").get("S"));
+        assertEquals(7, map.get("C").get("W"));
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        TrickTable table = new TrickTable(tricks());
+        TrickTable same = new TrickTable(tricks());
+        assertEquals(table, same);
+        assertEquals(table.hashCode(), same.hashCode());
+        int[][] other = tricks();
+        other[4][0] = 13;
+        assertNotEquals(table, new TrickTable(other));
+    }
+
+    @Test
+    void testEncodeAndDecode() {
+        TrickTable table = new TrickTable(tricks());
+        String code = table.encode();
+        assertEquals(20, code.length());
+        assertEquals(table, TrickTable.decode(code));
+        assertThrows(IllegalArgumentException.class, () -> TrickTable.decode("0123"));
+        assertThrows(IllegalArgumentException.class, () -> TrickTable.decode("ffffffffffffffffffff"));
+    }
+
+    @Test
+    void testInvalidTricks() {
+        assertThrows(IllegalArgumentException.class, () -> new TrickTable(new int[4][4]));
+        int[][] tooMany = tricks();
+        tooMany[0][0] = 14;
+        assertThrows(IllegalArgumentException.class, () -> new TrickTable(tooMany));
+    }
+}
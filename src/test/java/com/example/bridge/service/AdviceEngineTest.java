@@ -0,0 +1,86 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdviceEngineTest {
+
+    private final BiddingSystem natural = new BiddingSystemRegistry().get(BiddingSystemRegistry.DEFAULT_SYSTEM);
+
+    @Test
+    void testAnswersWithinBudget() {
+        AdviceEngine engine = new AdviceEngine(200, 2);
+        try {
+            Hand south = new Hand(new DealStream(3).deal(0)[2], Player.SOUTH);
+            List<Bid> history = List.of(Call.bid(1, Card.Suit.NOTRUMP).toBid(Player.NORTH), Call.PASS.toBid(Player.EAST));
+
+            long start = System.nanoTime();
+            Map<String, Object> report = engine.advise(natural, south, history);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(elapsed < 200 + 150, "took " + elapsed + " ms");
+            assertTrue((Long) report.get("samples") > 0);
+            assertEquals(true, report.get("fitAuction"));
+            Call recommended = call((String) report.get("recommended"));
+            assertTrue(AuctionState.of(history).isAllowed(recommended, Player.SOUTH));
+            List<?> calls = (List<?>) report.get("calls");
+            assertTrue(calls.size() >= 2);
+            assertTrue(((String) report.get("advice")).startsWith("Suggested call: " + recommended));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testBusyPoolSamplesOnCallerThread() {
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        AdviceEngine engine = new AdviceEngine(stopped, 2, 100);
+        Hand west = new Hand(new DealStream(4).deal(1)[3], Player.WEST);
+
+        Map<String, Object> report = engine.advise(natural, west, List.of());
+
+        assertTrue((Long) report.get("samples") > 0);
+        assertEquals(0, report.get("workers"));
+    }
+
+    @Test
+    void testFinishedAuction() {
+        AdviceEngine engine = new AdviceEngine(Executors.newSingleThreadExecutor(), 1, 50);
+        try {
+            List<Bid> passedOut = List.of(Call.PASS.toBid(Player.NORTH), Call.PASS.toBid(Player.EAST),
+                    Call.PASS.toBid(Player.SOUTH), Call.PASS.toBid(Player.WEST));
+            Map<String, Object> report = engine.advise(natural, new Hand(new DealStream(1).deal(0)[0], Player.NORTH), passedOut);
+            assertEquals("The auction is over.", report.get("advice"));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new AdviceEngine(0, 1));
+    }
+
+    private static Call call(String text) {
+        for (int code = 0; code < Call.COUNT; code++) {
+            if (Call.of(code).toString().equals(text)) {
+                return Call.of(code);
+            }
+        }
+        throw new AssertionError("Not a call: " + text);
+    }
+}
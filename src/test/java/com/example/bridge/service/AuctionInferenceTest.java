@@ -0,0 +1,58 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionInferenceTest {
+
+    private final BiddingSystem natural = new BiddingSystemRegistry().get(BiddingSystemRegistry.DEFAULT_SYSTEM);
+
+    @Test
+    void testBoundsNarrowCallByCall() {
+        AuctionInference inference = new AuctionInference(natural);
+        assertTrue(inference.getSpec().isUnconstrained());
+
+        inference.apply(Call.bid(1, Card.Suit.NOTRUMP), Player.NORTH);
+        inference.apply(Call.PASS, Player.EAST);
+        inference.apply(Call.bid(2, Card.Suit.CLUBS), Player.SOUTH);
+        inference.apply(Call.PASS, Player.WEST);
+        inference.apply(Call.bid(2, Card.Suit.HEARTS), Player.NORTH);
+
+        HandConstraint north = inference.getConstraint(Player.NORTH);
+        assertEquals(15, north.getMinHcp());
+        assertEquals(17, north.getMaxHcp());
+        assertEquals(Boolean.TRUE, north.getBalanced());
+        assertEquals(4, north.getMinLength(Card.Suit.HEARTS));
+        assertEquals(HandConstraint.any().hcp(8, 9), inference.getConstraint(Player.SOUTH));
+        // East's one-level overcalls are all illegal over 1NT, so the pass shows nothing
+        assertTrue(inference.getConstraint(Player.EAST).isUnconstrained());
+
+        Map<String, String> map = inference.toMap();
+        assertEquals("15-17 HCP, H 4-13, balanced", map.get("N"));
+    }
+
+    @Test
+    void testStrayingFromTheSystemKeepsLatestCall() {
+        // North passes as dealer, then responds to partner's opening with an opening hand
+        List<Bid> history = List.of(Call.PASS.toBid(Player.NORTH), Call.PASS.toBid(Player.EAST),
+                Call.bid(1, Card.Suit.CLUBS).toBid(Player.SOUTH), Call.PASS.toBid(Player.WEST));
+        AuctionInference inference = AuctionInference.of(natural, history);
+        assertEquals(12, inference.getConstraint(Player.NORTH).getMaxHcp());
+        assertEquals(13, inference.getConstraint(Player.SOUTH).getMinHcp());
+
+        inference.apply(Call.bid(1, Card.Suit.SPADES), Player.NORTH);
+        HandConstraint north = inference.getConstraint(Player.NORTH);
+        assertFalse(north.isContradictory());
+        assertEquals(13, north.getMinHcp());
+        assertEquals(5, north.getMinLength(Card.Suit.SPADES));
+    }
+}
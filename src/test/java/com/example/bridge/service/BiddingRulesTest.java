@@ -0,0 +1,130 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BiddingRulesTest {
+
+    private static final String RANKS = "23456789TJQKA";
+
+    /** A hand from its spade, heart, diamond and club holdings, e.g. "AKQ2". */
+    private static Hand hand(Player player, String spades, String hearts, String diamonds, String clubs) {
+        String[] holdings = {clubs, diamonds, hearts, spades};
+        long mask = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            for (char rank : holdings[suit].toCharArray()) {
+                mask |= 1L << (suit * 13 + RANKS.indexOf(rank));
+            }
+        }
+        return new Hand(mask, player);
+    }
+
+    private static AuctionState auction(Player dealer, String... calls) {
+        AuctionState auction = new AuctionState();
+        for (int i = 0; i < calls.length; i++) {
+            auction.add(Call.parse(calls[i]), Player.values()[(dealer.ordinal() + i) % 4]);
+        }
+        return auction;
+    }
+
+    @Test
+    void testNaturalRulesLoad() {
+        BiddingRules rules = BiddingRules.load("bidding/natural.rules");
+        assertEquals("bidding/natural.rules", rules.getName());
+        assertTrue(rules.getRuleCount() > 0);
+
+        // 16 HCP, 4-3-3-3
+        Hand balanced = hand(Player.NORTH, "AKQ2", "K32", "Q32", "J32");
+        assertSame(Call.bid(1, Card.Suit.NOTRUMP), rules.choose(balanced, Player.NORTH, new AuctionState()));
+        // Opponents opened, so no 1NT opening; the longer minor instead
+        assertSame(Call.bid(1, Card.Suit.DIAMONDS),
+                rules.choose(balanced, Player.NORTH, auction(Player.EAST, "1C", "P", "P")));
+    }
+
+    @Test
+    void testFirstMatchingRuleInContextWins() {
+        BiddingRules rules = BiddingRules.parse("test", List.of(
+                "# comment",
+                "opening          | hcp=12+          | longest",
+                "partner=1H,1S    | hcp=6+ support   | raise   # trailing comment",
+                "partner=bid me=none | hcp=6+        | 1NT",
+                "partner=X        | -                | XX",
+                ""));
+        assertEquals(4, rules.getRuleCount());
+
+        Hand south = hand(Player.SOUTH, "32", "K432", "Q32", "Q432");
+        assertSame(Call.bid(2, Card.Suit.HEARTS), rules.choose(south, Player.SOUTH, auction(Player.NORTH, "1H", "P")));
+        // No heart support over 1S, so the next rule filed under partner=1S applies
+        assertSame(Call.bid(1, Card.Suit.NOTRUMP), rules.choose(south, Player.SOUTH, auction(Player.NORTH, "1S", "P")));
+        // Opponents' calls do not change the context
+        assertSame(Call.bid(2, Card.Suit.HEARTS), rules.choose(south, Player.SOUTH, auction(Player.NORTH, "1H", "1S")));
+        assertSame(Call.REDOUBLE, rules.choose(south, Player.SOUTH, auction(Player.WEST, "1C", "X", "P")));
+        // Nothing filed under this context
+        assertSame(Call.PASS, rules.choose(south, Player.SOUTH, auction(Player.EAST, "1C", "P", "P")));
+        assertEquals(-1, rules.match(south, Player.SOUTH, auction(Player.EAST, "1C", "P", "P")));
+        assertEquals(2, rules.match(south, Player.SOUTH, auction(Player.NORTH, "1S", "P")));
+        assertEquals("test:4 partner=bid me=none | hcp=6+        | 1NT", rules.getRuleSource(2));
+        assertSame(Call.bid(1, Card.Suit.HEARTS), rules.choose(hand(Player.NORTH, "A32", "AK432", "Q32", "32"),
+                Player.NORTH, new AuctionState()));
+    }
+
+    @Test
+    void testImpliedBounds() {
+        BiddingRules rules = BiddingRules.load("bidding/natural.rules");
+        HandConstraint opening = rules.implied(Call.bid(1, Card.Suit.NOTRUMP), Player.NORTH, new AuctionState());
+        assertEquals(HandConstraint.any().hcp(15, 17).balanced(true), opening);
+        assertEquals(5, rules.implied(Call.bid(1, Card.Suit.SPADES), Player.NORTH, new AuctionState())
+                .getMinLength(Card.Suit.SPADES));
+
+        AuctionState overNoTrump = auction(Player.NORTH, "1NT", "P");
+        // Stayman: 8-9 with a major, which bounds cannot say
+        assertEquals(HandConstraint.any().hcp(8, 9), rules.implied(Call.bid(2, Card.Suit.CLUBS), Player.SOUTH, overNoTrump));
+        assertEquals(HandConstraint.any().hcp(10, HandConstraint.MAX_HCP),
+                rules.implied(Call.bid(3, Card.Suit.NOTRUMP), Player.SOUTH, overNoTrump));
+        // 0-7, or 8-9 unbalanced without a major
+        assertEquals(HandConstraint.any().hcp(0, 9), rules.implied(Call.PASS, Player.SOUTH, overNoTrump));
+        // Never given here
+        assertTrue(rules.implied(Call.bid(7, Card.Suit.CLUBS), Player.SOUTH, overNoTrump).isUnconstrained());
+    }
+
+    @Test
+    void testImpliedBoundsHoldForEveryHand() {
+        BiddingRules rules = BiddingRules.load("bidding/natural.rules");
+        DealStream deals = new DealStream(19);
+        String[][] auctions = {{}, {"P"}, {"1NT", "P"}, {"1H", "P"}, {"1D", "1S"}, {"1C", "P", "1NT", "P"},
+                {"1NT", "P", "2C", "P"}, {"1S", "X"}, {"P", "P", "P"}};
+        for (int k = 0; k < 2000; k++) {
+            long[] deal = deals.deal(k);
+            for (String[] calls : auctions) {
+                AuctionState auction = auction(Player.NORTH, calls);
+                Player bidder = Player.values()[calls.length % 4];
+                Hand hand = new Hand(deal[bidder.ordinal()], bidder);
+                Call call = rules.choose(hand, bidder, auction);
+                call = auction.isAllowed(call, bidder) ? call : Call.PASS;
+                HandConstraint implied = rules.implied(call, bidder, auction);
+                assertTrue(implied.matches(hand), String.join(" ", calls) + " " + call + ": " + implied + " " + hand);
+            }
+        }
+    }
+
+    @Test
+    void testMalformedRuleNamesItsLine() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BiddingRules.parse("broken", List.of("opening | hcp=13+ | 1NT", "opening | hcp=lots | 1NT")));
+        assertTrue(e.getMessage().startsWith("broken:2:"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> BiddingRules.parse("broken", List.of("opening | - | 8NT")));
+        assertThrows(IllegalArgumentException.class, () -> BiddingRules.parse("broken", List.of("lefty=1C | - | P")));
+        assertThrows(IllegalArgumentException.class, () -> BiddingRules.parse("broken", List.of("opening | - ")));
+        assertThrows(IllegalArgumentException.class, () -> BiddingRules.load("bidding/missing.rules"));
+    }
+}
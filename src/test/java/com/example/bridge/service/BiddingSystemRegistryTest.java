@@ -0,0 +1,195 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BiddingSystemRegistryTest {
+
+    private Path rulesDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rulesDir = Files.createTempDirectory("rules");
+        writeRules("natural", "opening | - | 1NT");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(rulesDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(rulesDir);
+    }
+
+    private void writeRules(String system, String... rules) throws IOException {
+        Files.write(rulesDir.resolve(system + ".rules"), List.of(rules));
+    }
+
+    @Test
+    void testBuiltInSystemsAndUnknownNames() {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry();
+        BiddingSystem natural = registry.get(BiddingSystemRegistry.DEFAULT_SYSTEM);
+        assertEquals(1, natural.getVersion());
+        for (String name : BiddingSystemRegistry.BUILT_IN_SYSTEMS) {
+            assertEquals(name, registry.get(name).getName());
+        }
+        assertEquals(BiddingSystemRegistry.BUILT_IN_SYSTEMS.size(), registry.getSystems().size());
+        assertFalse(registry.contains("2/1 Game Forcing"));
+        assertThrows(IllegalArgumentException.class, () -> registry.get("2/1 Game Forcing"));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(null));
+    }
+
+    @Test
+    void testBuiltInSystemsOpenDifferently() {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry();
+        // S: A K 3 2, H: K 5 4, D: Q 5 4, C: 5 4 3 -> 12 HCP, 4-3-3-3
+        long mask = 0L;
+        mask |= card(Card.Suit.SPADES, Card.Rank.ACE) | card(Card.Suit.SPADES, Card.Rank.KING)
+                | card(Card.Suit.SPADES, Card.Rank.THREE) | card(Card.Suit.SPADES, Card.Rank.TWO);
+        mask |= card(Card.Suit.HEARTS, Card.Rank.KING) | card(Card.Suit.HEARTS, Card.Rank.FIVE)
+                | card(Card.Suit.HEARTS, Card.Rank.FOUR);
+        mask |= card(Card.Suit.DIAMONDS, Card.Rank.QUEEN) | card(Card.Suit.DIAMONDS, Card.Rank.FIVE)
+                | card(Card.Suit.DIAMONDS, Card.Rank.FOUR);
+        mask |= card(Card.Suit.CLUBS, Card.Rank.FIVE) | card(Card.Suit.CLUBS, Card.Rank.FOUR)
+                | card(Card.Suit.CLUBS, Card.Rank.THREE);
+        Hand hand = new Hand(mask, Player.NORTH);
+        assertEquals(Call.parse("1NT"), registry.get("acol").chooseCall(hand, Player.NORTH, new AuctionState()));
+        assertEquals(Call.parse("1C"), registry.get("polish").chooseCall(hand, Player.NORTH, new AuctionState()));
+        assertEquals(Call.PASS, registry.get("two-over-one").chooseCall(hand, Player.NORTH, new AuctionState()));
+    }
+
+    private static long card(Card.Suit suit, Card.Rank rank) {
+        return 1L << new Card(suit, rank).getIndex();
+    }
+
+    @Test
+    void testRulesDirOverridesAndAddsSystems() throws IOException {
+        writeRules("acol", "opening | hcp=12+ | 1C");
+        BiddingSystemRegistry registry = new BiddingSystemRegistry(rulesDir.toString());
+        assertEquals("natural", registry.get("natural").getName());
+        assertEquals("acol", registry.get("acol").getName());
+        assertEquals(1, registry.get("acol").getVersion());
+        writeRules("custom", "opening | hcp=12+ | 1D");
+        BiddingSystemRegistry withCustom = new BiddingSystemRegistry(rulesDir.toString());
+        assertEquals("custom", withCustom.get("custom").getName());
+        assertEquals(BiddingSystemRegistry.BUILT_IN_SYSTEMS.size() + 1, withCustom.getSystems().size());
+    }
+
+    @Test
+    void testReloadSwapsVersionAndKeepsInFlightDeal() throws IOException {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry(rulesDir.toString());
+        BridgeBiddingService service = new TestServices().biddingSystems(registry).build();
+        service.setBiddingSystem("natural");
+        service.startNewDeal(Player.NORTH);
+
+        writeRules("natural", "opening | - | 1C");
+        BiddingSystem reloaded = registry.reload("natural").join();
+        assertEquals(2, reloaded.getVersion());
+        assertSame(reloaded, registry.get("natural"));
+
+        // The deal in progress finishes on the version it started with
+        Bid opening = service.getSimpleNaturalBid(service.getBiddingHistory());
+        assertEquals(new Bid(1, Card.Suit.NOTRUMP), opening);
+
+        service.startNewDeal(Player.NORTH);
+        assertEquals(new Bid(1, Card.Suit.CLUBS), service.getSimpleNaturalBid(service.getBiddingHistory()));
+    }
+
+    @Test
+    void testFailedReloadKeepsCurrentVersion() throws IOException {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry(rulesDir.toString());
+        BiddingSystem current = registry.get("natural");
+
+        writeRules("natural", "opening | - | 9C");
+        CompletionException e = assertThrows(CompletionException.class, () -> registry.reload("natural").join());
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        assertThrows(CompletionException.class, () -> registry.reload("../natural").join());
+        assertThrows(CompletionException.class, () -> registry.reload("missing").join());
+        assertSame(current, registry.get("natural"));
+    }
+
+    @Test
+    void testReloadRunsOnGivenExecutorAndRecordsOutcome() throws IOException {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry(rulesDir.toString());
+        List<Runnable> queued = new ArrayList<>();
+        CompletableFuture<BiddingSystem> reload = registry.reload("natural", queued::add);
+        assertEquals("running", lastReload(registry, "natural").get("state"));
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        assertEquals(2, reload.join().getVersion());
+        assertEquals("installed", lastReload(registry, "natural").get("state"));
+
+        writeRules("natural", "opening | - | 9C");
+        assertThrows(CompletionException.class, () -> registry.reload("natural", Runnable::run).join());
+        assertEquals("failed", lastReload(registry, "natural").get("state"));
+
+        assertFalse(registry.canReload("missing"));
+        assertFalse(registry.canReload("../natural"));
+        writeRules("custom", "opening | - | 1D");
+        assertTrue(registry.canReload("custom"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> lastReload(BiddingSystemRegistry registry, String name) {
+        return registry.getSystems().stream()
+                .filter(system -> name.equals(system.get("name")))
+                .map(system -> (Map<String, Object>) system.get("lastReload"))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    void testValidationRejectsIllegalCalls() {
+        // A system would pass in place of the double; the rules themselves must be caught
+        BiddingRules doubler = BiddingRules.parse("doubler", List.of("opening | - | X"));
+        assertThrows(IllegalStateException.class, () -> BiddingSystemRegistry.validate("doubler", doubler));
+        // A bid too low for the auction is the rules' documented pass
+        BiddingRules repeater = BiddingRules.parse("repeater", List.of("opening | - | 1C", "partner=bid | - | 1C"));
+        assertSame(repeater, BiddingSystemRegistry.validate("repeater", repeater));
+    }
+
+    @Test
+    void testReloadWithIllegalCallLeavesCurrentVersion() throws IOException {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry(rulesDir.toString());
+        writeRules("natural", "opening | - | X");
+        CompletionException failed = assertThrows(CompletionException.class,
+                () -> registry.reload("natural", Runnable::run).join());
+        assertInstanceOf(IllegalStateException.class, failed.getCause());
+        assertEquals(1, registry.get("natural").getVersion());
+    }
+
+    @Test
+    void testReloadReadyAfterTimeoutIsDiscarded() throws Exception {
+        BiddingSystemRegistry registry = new BiddingSystemRegistry(rulesDir.toString());
+        List<Runnable> queued = new ArrayList<>();
+        CompletableFuture<BiddingSystem> reload = registry.reload("natural", queued::add, 10);
+        CompletionException failed = assertThrows(CompletionException.class, reload::join);
+        assertInstanceOf(TimeoutException.class, failed.getCause());
+        assertEquals("failed", lastReload(registry, "natural").get("state"));
+
+        // The compile finishes late; the timed-out reload must not install it
+        queued.get(0).run();
+        assertEquals(1, registry.get("natural").getVersion());
+        assertEquals("failed", lastReload(registry, "natural").get("state"));
+    }
+}
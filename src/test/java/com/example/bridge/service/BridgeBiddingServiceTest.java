@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,7 +17,7 @@ class BridgeBiddingServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new BridgeBiddingService();
+        service = TestServices.service();
         service.startNewDeal(Player.NORTH);
     }
 
@@ -63,6 +65,16 @@ class BridgeBiddingServiceTest {
         assertFalse(service.isBidAllowed(Bid.redoubleBid()));
     }
 
+    @Test
+    void testLegalCalls() {
+        service.makeBid(new Bid(1, Card.Suit.HEARTS)); // NORTH
+        long calls = service.getLegalCalls(); // EAST to call
+        assertEquals(0, calls & (1L << AuctionState.callBit(new Bid(1, Card.Suit.DIAMONDS))));
+        assertNotEquals(0, calls & (1L << AuctionState.callBit(new Bid(1, Card.Suit.NOTRUMP))));
+        assertNotEquals(0, calls & (1L << AuctionState.DOUBLE_BIT));
+        assertEquals(0, calls & (1L << AuctionState.REDOUBLE_BIT));
+    }
+
     @Test
     void testBiddingFinished() {
         service.makeBid(Bid.pass()); // Pass
@@ -139,6 +151,30 @@ class BridgeBiddingServiceTest {
         assertEquals(Player.NORTH, service.getCurrentDealer());
     }
     
+    @Test
+    void testStartNewDealWithSpec() {
+        DealSpec spec = DealSpec.random()
+                .withHand(Player.SOUTH, HandConstraint.any().hcp(15, 17).balanced(true));
+        Deal deal = service.startNewDeal(Player.EAST, spec);
+        assertEquals(Player.EAST, service.getCurrentDealer());
+        Hand south = service.getHandForPlayer(Player.SOUTH);
+        assertEquals(13, south.getCards().size());
+        assertTrue(south.getHighCardPoints() >= 15 && south.getHighCardPoints() <= 17);
+        assertTrue(south.isBalanced());
+        assertEquals(4, deal.getHands().size());
+    }
+
+    @Test
+    void testSeededDealIsReproducible() {
+        Deal deal = service.startNewDeal(Player.EAST, 2024L);
+        assertEquals(Long.valueOf(2024L), deal.getDealSeed());
+        long[] expected = DealStream.dealFromSeed(2024L);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], deal.getHands().get(i).getCardMask());
+        }
+        assertNotNull(service.startNewDeal(Player.NORTH).getDealSeed());
+    }
+
     @Test
     void testGetHandForPlayerReturnsCorrectHand() {
         service.startNewDeal(Player.NORTH);
@@ -642,4 +678,169 @@ void testOpenerRebidToStayman_With4Spades() {
     assertEquals(2, rebid.getLevel());
     assertEquals(Card.Suit.SPADES, rebid.getSuit(), "Should rebid 2S with 4 spades");
 }
+
+@Test
+void testContractRecordsDeclarerAndDoubling() {
+    service.makeBid(new Bid(1, Card.Suit.HEARTS)); // North
+    service.makeBid(Bid.pass());
+    service.makeBid(new Bid(2, Card.Suit.HEARTS)); // South raises
+    assertEquals("2 H by N", service.getCurrentDeal().getContract());
+    service.makeBid(Bid.doubleBid());
+    assertEquals("2 H X by N", service.getCurrentDeal().getContract());
+}
+
+@Test
+void testScoreDeals() {
+    Deal deal = new Deal(Player.NORTH);
+    for (String call : new String[]{"1NT", "P", "3NT", "P", "P", "P"}) {
+        deal.addBid(Call.parse(call).toBid(Player.values()[deal.getBids().size() % 4]));
+    }
+    Deal unsolved = new Deal(Player.EAST);
+    Deal passedOut = new Deal(Player.SOUTH);
+    for (int i = 0; i < 4; i++) {
+        passedOut.addBid(Call.PASS.toBid(Player.values()[(2 + i) % 4]));
+    }
+    // North-South take 9 tricks in no-trump and 6 in each suit
+    int[][] tricks = new int[5][4];
+    for (int strain = 0; strain < 5; strain++) {
+        for (int seat = 0; seat < 4; seat++) {
+            int northSouth = strain == 4 ? 9 : 6;
+            tricks[strain][seat] = seat % 2 == 0 ? northSouth : 13 - northSouth;
+        }
+    }
+    deal.setDoubleDummyTricks(new TrickTable(tricks).encode());
+    passedOut.setDoubleDummyTricks(new TrickTable(tricks).encode());
+
+    List<Map<String, Object>> scores = service.scoreDeals(List.of(deal, unsolved, passedOut));
+    assertEquals("3 NT by N", scores.get(0).get("contract"));
+    assertEquals(9, scores.get(0).get("tricks"));
+    assertEquals(400, scores.get(0).get("score"));
+    assertEquals("3 NT by N, NS +400", scores.get(0).get("par"));
+    assertEquals(400, scores.get(0).get("parScore"));
+    assertNull(scores.get(1).get("contract"));
+    assertFalse(scores.get(1).containsKey("score"));
+    assertNull(scores.get(2).get("contract"));
+    assertEquals(0, scores.get(2).get("score"));
+    assertEquals(400, scores.get(2).get("parScore"));
+}
+
+@Test
+void testSubscribersHearCallsInOrder() throws Exception {
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    java.util.concurrent.CountDownLatch finished = new java.util.concurrent.CountDownLatch(1);
+    Runnable unsubscribe = service.subscribe(new GameEventListener() {
+        @Override
+        public void dealStarted(Player dealer) {
+            events.add("deal " + dealer.getShortName());
+        }
+
+        @Override
+        public void callMade(int index, Bid bid) {
+            events.add("call " + index + " " + bid.getPlayer().getShortName());
+        }
+
+        @Override
+        public void bidderChanged(Player bidder, long legalCalls) {
+            events.add("bidder " + bidder.getShortName());
+        }
+
+        @Override
+        public void auctionFinished(String contract) {
+            events.add("finished");
+            finished.countDown();
+        }
+    });
+    service.startNewDeal(Player.NORTH);
+    for (int i = 0; i < 4; i++) {
+        service.makeBid(Bid.pass());
+    }
+    assertTrue(finished.await(10, java.util.concurrent.TimeUnit.SECONDS));
+    assertEquals(List.of("deal N", "bidder N", "call 0 N", "bidder E", "call 1 E", "bidder S",
+            "call 2 S", "bidder W", "call 3 W", "finished"), events);
+
+    unsubscribe.run();
+    assertFalse(service.getSession().hasListeners());
+}
+
+@Test
+void testSolverRunsOnEnginePool() {
+    BridgeExecutors executors = new BridgeExecutors(false, 1);
+    BridgeBiddingService onEngine = new TestServices().executors(executors).build();
+    onEngine.startNewDeal(Player.NORTH);
+    // Once the engine pool is gone the solver has nowhere to run, common pool or not
+    executors.shutdown();
+    assertThrows(RejectedExecutionException.class, onEngine::getDoubleDummyTable);
+}
+
+@Test
+void testDoubleDummyTableIsSolvedInBackground() throws InterruptedException {
+    // A deal that solves in about a second even on one processor
+    service.startNewDeal(Player.NORTH, 4);
+    TrickTable table = service.getDoubleDummyTable();
+    for (int i = 0; table == null && i < 600; i++) {
+        Thread.sleep(50);
+        table = service.getDoubleDummyTable();
+    }
+    assertNotNull(table);
+    assertEquals(new DoubleDummySolver().solve(service.getCurrentDeal()), table);
+}
+
+@Test
+void testSavedDealsAreListedAndSolvedById() throws InterruptedException {
+    service.startNewDeal(Player.NORTH, 4);
+    service.saveDeal();
+    Deal saved = service.getCurrentDeal();
+    assertNotNull(saved.getId());
+    assertEquals(List.of(saved), service.getAllDeals());
+    TrickTable table = service.getDoubleDummyTable(saved.getId());
+    for (int i = 0; table == null && i < 600; i++) {
+        Thread.sleep(50);
+        table = service.getDoubleDummyTable(saved.getId());
+    }
+    assertEquals(new DoubleDummySolver().solve(saved), table);
+    assertThrows(IllegalArgumentException.class, () -> service.getDoubleDummyTable(saved.getId() + 1));
+}
+
+@Test
+void testBackgroundSolveStoresTricksById() throws InterruptedException {
+    InMemoryDeals deals = new InMemoryDeals();
+    BridgeBiddingService archived = new TestServices().deals(deals.repository()).build();
+    Deal saved = archived.startNewDeal(Player.NORTH, 4);
+    archived.saveDeal();
+    for (int i = 0; deals.doubleDummyTricks(saved.getId()) == null && i < 600; i++) {
+        Thread.sleep(50);
+    }
+    assertEquals(new DoubleDummySolver().solve(saved).encode(), deals.doubleDummyTricks(saved.getId()));
+    // The deal the table holds is left alone
+    assertNull(archived.getCurrentDeal().getDoubleDummyTricks());
+}
+
+@Test
+void testStateVersionsAndCallsSince() {
+    long dealt = service.getStateVersion();
+    assertEquals(0, service.getFirstCallAfter(dealt));
+
+    service.makeBid(new Bid(1, Card.Suit.CLUBS));
+    long afterOne = service.getStateVersion();
+    assertTrue(afterOne > dealt);
+    service.makeBid(Bid.pass());
+    assertEquals(0, service.getFirstCallAfter(dealt));
+    assertEquals(1, service.getFirstCallAfter(afterOne));
+    assertEquals(2, service.getFirstCallAfter(service.getStateVersion()));
+
+    // A rejected call and an unchanged setting leave the version alone
+    long before = service.getStateVersion();
+    service.makeBid(new Bid(1, Card.Suit.CLUBS));
+    service.setBiddingSystem(service.getBiddingSystem());
+    assertEquals(before, service.getStateVersion());
+    service.setBiddingSystem("acol");
+    assertTrue(service.getStateVersion() > before);
+    assertEquals(2, service.getFirstCallAfter(before));
+
+    // Versions from another deal, or not reached yet, need the whole state
+    service.startNewDeal(Player.EAST);
+    assertEquals(-1, service.getFirstCallAfter(afterOne));
+    assertEquals(-1, service.getFirstCallAfter(service.getStateVersion() + 1));
+    assertEquals(0, service.getFirstCallAfter(service.getStateVersion()));
+}
 }
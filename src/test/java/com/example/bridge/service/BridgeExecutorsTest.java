@@ -0,0 +1,154 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BridgeExecutorsTest {
+
+    @Test
+    void testEnginePoolIsBounded() throws Exception {
+        BridgeExecutors executors = new BridgeExecutors(false, 2);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executors.getEnginePool().submit(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return Thread.currentThread().getName();
+                }));
+            }
+            for (Future<String> future : futures) {
+                assertTrue(future.get(10, TimeUnit.SECONDS).startsWith("engine-worker-"));
+            }
+            assertTrue(peak.get() <= 2, "peak " + peak.get());
+            assertEquals(2, executors.getStats().get("engineWorkers"));
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    void testRobotsRunOnRobotPoolByDefault() throws Exception {
+        BridgeExecutors executors = new BridgeExecutors(false, 1);
+        CompletableFuture<String> ran = CompletableFuture.supplyAsync(
+                () -> Thread.currentThread().getName(), executors.getRobotExecutor());
+        assertTrue(ran.get(10, TimeUnit.SECONDS).startsWith("robot-"));
+        assertFalse(executors.isVirtualThreads());
+        executors.shutdown();
+    }
+
+    @Test
+    void testEventsRunOnTheirOwnPool() throws Exception {
+        BridgeExecutors executors = new BridgeExecutors(false, 1);
+        CompletableFuture<String> ran = CompletableFuture.supplyAsync(
+                () -> Thread.currentThread().getName(), executors.getEventExecutor());
+        assertTrue(ran.get(10, TimeUnit.SECONDS).startsWith("event-"));
+        assertNotSame(executors.getRobotExecutor(), executors.getEventExecutor());
+        executors.shutdown();
+    }
+
+    @Test
+    void testVirtualThreadsOnlyWhereTheJvmHasThem() {
+        BridgeExecutors executors = new BridgeExecutors(true, 1);
+        assertEquals(Runtime.version().feature() >= 21, executors.isVirtualThreads());
+        assertEquals(executors.isVirtualThreads(), executors.getStats().get("virtualThreads"));
+        executors.shutdown();
+    }
+
+    @Test
+    void testRejectsNegativeWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> new BridgeExecutors(false, -1));
+    }
+
+    /**
+     * Thousands of tables each asking for new deals, the robots bidding up to South and a short
+     * wait standing in for the database and network, on Tomcat's default 200 request threads
+     * against a virtual thread per request. Reports throughput and p99 latency, queueing included.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "BRIDGE_BENCHMARKS", matches = "true")
+    void benchmarkThousandsOfTables() throws Exception {
+        int tables = 4000;
+        int requestsPerTable = 5;
+        ExecutorService tomcat = Executors.newFixedThreadPool(200);
+        runTables("platform, 200 threads", tomcat, tables, requestsPerTable);
+        tomcat.shutdown();
+
+        ExecutorService virtual = BridgeExecutors.newVirtualThreadPerTaskExecutor();
+        if (virtual == null) {
+            System.out.println("Virtual threads: not available on Java " + Runtime.version().feature());
+            return;
+        }
+        runTables("virtual", virtual, tables, requestsPerTable);
+        virtual.shutdown();
+    }
+
+    private static void runTables(String label, ExecutorService requestThreads, int tables, int requestsPerTable)
+            throws Exception {
+        GameSessionStore store = new GameSessionStore(600_000, tables * 2, System::currentTimeMillis);
+        BridgeBiddingService service = new TestServices().sessions(store).build();
+        long[] latencies = new long[tables * requestsPerTable];
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int r = 0; r < requestsPerTable; r++) {
+            for (int t = 0; t < tables; t++) {
+                int table = t;
+                int slot = r * tables + t;
+                long submitted = System.nanoTime();
+                futures.add(requestThreads.submit(() -> {
+                    newDealRequest(service, store, table);
+                    latencies[slot] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) (latencies.length * 0.99)] / 1_000_000;
+        System.out.printf("%s: %.0f requests/s, p99 %d ms%n", label, latencies.length / seconds, p99);
+        assertEquals(tables, store.size());
+    }
+
+    private static void newDealRequest(BridgeBiddingService service, GameSessionStore store, int table) throws Exception {
+        // A browser per table
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(new MockHttpSession(null, "browser-" + table));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        ReentrantLock lock = store.current().getLock();
+        lock.lock();
+        try {
+            service.startNewDeal(Player.values()[table % 4]);
+            while (!service.isBiddingFinished() && service.getCurrentBidderIndex() != Player.SOUTH.ordinal()) {
+                service.makeBid(service.getSimpleNaturalBid(service.getBiddingHistory()));
+            }
+            Thread.sleep(5);
+        } finally {
+            lock.unlock();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.DealGenerator;
+import com.example.bridge.model.DealSpec;
+import com.example.bridge.model.HandConstraint;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealPoolTest {
+
+    private final DealPool pool = new DealPool(TestServices.BIDDING_SYSTEMS, TestServices.EXECUTORS, 4, 16);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testPreparedDealRunsRobotsUpToUserSeat() {
+        PreparedDeal prepared = pool.prepare(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, DealSpec.random(), Player.SOUTH);
+        long[] masks = prepared.getCardMasks();
+        assertEquals(DealGenerator.FULL_DECK, masks[0] | masks[1] | masks[2] | masks[3]);
+        assertEquals(2, prepared.getRobotCallCount());
+        AuctionState auction = new AuctionState();
+        for (int i = 0; i < prepared.getRobotCallCount(); i++) {
+            Bid call = prepared.getRobotCall(i);
+            assertEquals(Player.values()[i], call.getPlayer());
+            assertTrue(auction.isAllowed(call, call.getPlayer()));
+            auction.add(call);
+        }
+
+        PreparedDeal userDeals = pool.prepare(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.SOUTH, DealSpec.random(), Player.SOUTH);
+        assertEquals(0, userDeals.getRobotCallCount());
+    }
+
+    @Test
+    void testPreparedDealRespectsSpec() {
+        DealSpec spec = DealSpec.random().withHand(Player.SOUTH, HandConstraint.any().hcp(15, 17).balanced(true));
+        PreparedDeal prepared = pool.prepare(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.WEST, spec, Player.SOUTH);
+        assertTrue(spec.matches(prepared.getCardMasks()));
+        assertEquals(3, prepared.getRobotCallCount());
+    }
+
+    @Test
+    void testTakeMissesThenHitsOnceFilled() throws InterruptedException {
+        assertNull(pool.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.EAST, DealSpec.random(), Player.SOUTH));
+        waitForDepth(16);
+
+        assertNotNull(pool.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.EAST, DealSpec.random(), Player.SOUTH));
+        Map<String, Object> stats = pool.getStats();
+        assertEquals(4, stats.get("profiles"));
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(0.5, (Double) stats.get("missRate"), 1e-9);
+    }
+
+    @Test
+    void testFailedRefillBacksOffThenRetries() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        DealPool backoff = new DealPool(TestServices.BIDDING_SYSTEMS, TestServices.EXECUTORS, 4, 16, clock::get);
+        try {
+            // No balanced hand is void in spades, so every refill of these profiles fails
+            DealSpec impossible = DealSpec.random()
+                    .withHand(Player.SOUTH, HandConstraint.any().suitLength(Card.Suit.SPADES, 0, 0).balanced(true));
+            assertNull(backoff.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, impossible, Player.SOUTH));
+            waitFor(() -> backoff.getStats().get("failedRefills").equals(4L));
+
+            // Within the backoff nothing is retried; the producer runs jobs in order, so once a
+            // later profile has filled, any retry would have run already
+            assertNull(backoff.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, impossible, Player.SOUTH));
+            backoff.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, DealSpec.random(), Player.SOUTH);
+            waitFor(() -> backoff.getDepth() == 16);
+            assertEquals(4L, backoff.getStats().get("failedRefills"));
+
+            clock.addAndGet(DealPool.MIN_BACKOFF_MILLIS);
+            assertNull(backoff.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, impossible, Player.SOUTH));
+            waitFor(() -> backoff.getStats().get("failedRefills").equals(5L));
+        } finally {
+            backoff.shutdown();
+        }
+    }
+
+    @Test
+    void testProfileLimit() {
+        DealPool small = new DealPool(TestServices.BIDDING_SYSTEMS, TestServices.EXECUTORS, 1, 4);
+        try {
+            small.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, DealSpec.random(), Player.SOUTH);
+            small.take("acol", Player.NORTH, DealSpec.random(), Player.SOUTH);
+            assertEquals(4, small.getStats().get("profiles"));
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testServiceReplaysPreparedCalls() throws InterruptedException {
+        BridgeBiddingService service = new TestServices().dealPool(pool).build();
+        service.startNewDeal(Player.WEST);
+        waitForDepth(16);
+
+        service.startNewDeal(Player.WEST);
+        assertEquals(1L, service.getDealPoolStats().get("hits"));
+        // Replay the robots' calls and check each matches what the engine would bid live
+        BiddingSystem engine = new BiddingSystemRegistry().get(BiddingSystemRegistry.DEFAULT_SYSTEM);
+        while (service.getCurrentBidder() != Player.SOUTH) {
+            Player bidder = service.getCurrentBidder();
+            Bid expected = engine.chooseBid(service.getHandForPlayer(bidder), bidder,
+                    AuctionState.of(service.getBiddingHistory()));
+            Bid bid = service.getSimpleNaturalBid(service.getBiddingHistory());
+            assertEquals(expected, bid);
+            service.makeBid(bid);
+        }
+        assertEquals(3, service.getBiddingHistory().size());
+    }
+
+    @Test
+    void testZeroCapacityTurnsPoolOff() {
+        DealPool off = new DealPool(TestServices.BIDDING_SYSTEMS, TestServices.EXECUTORS, 0, 4);
+        assertNull(off.take(BiddingSystemRegistry.DEFAULT_SYSTEM, Player.NORTH, DealSpec.random(), Player.SOUTH));
+        assertEquals(0, off.getStats().get("profiles"));
+        assertEquals(Boolean.FALSE, TestServices.service().getDealPoolStats().get("enabled"));
+        assertThrows(IllegalArgumentException.class, () -> new DealPool(TestServices.BIDDING_SYSTEMS, TestServices.EXECUTORS, -1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new DealPool(TestServices.BIDDING_SYSTEMS, TestServices.EXECUTORS, 4, 0));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private void waitForDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.getDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, pool.getDepth());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionCacheTest {
+
+    @Test
+    void testGetAfterPutAndStats() {
+        DecisionCache cache = new DecisionCache(16);
+        assertNull(cache.get(42L));
+        cache.put(42L, Call.bid(1, Card.Suit.NOTRUMP));
+        assertSame(Call.bid(1, Card.Suit.NOTRUMP), cache.get(42L));
+        cache.put(42L, Call.PASS);
+        assertSame(Call.PASS, cache.get(42L));
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(16, stats.get("capacity"));
+        assertEquals(1, stats.get("size"));
+        assertEquals(2L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(0L, stats.get("evictions"));
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        DecisionCache cache = new DecisionCache(8);
+        for (long key = 0; key < 1000; key++) {
+            cache.put(key, Call.of((int) (key % Call.COUNT)));
+        }
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(8, stats.get("size"));
+        assertEquals(992L, stats.get("evictions"));
+        // Whatever survived maps to its own call
+        for (long key = 0; key < 1000; key++) {
+            Call call = cache.get(key);
+            assertTrue(call == null || call.getCode() == key % Call.COUNT);
+        }
+    }
+
+    @Test
+    void testCachedSystemMatchesRules() {
+        BiddingRules rules = BiddingRules.load("bidding/natural.rules");
+        RuleBasedBiddingSystem cached = new RuleBasedBiddingSystem("natural", 1, rules, 1 << 12);
+        DealStream deals = new DealStream(2024L);
+        for (int k = 0; k < 2000; k++) {
+            long[] masks = deals.deal(k);
+            AuctionState auction = new AuctionState();
+            Player bidder = Player.values()[k % 4];
+            while (!auction.isFinished()) {
+                Hand hand = new Hand(masks[bidder.ordinal()], bidder);
+                Call expected = rules.choose(hand, bidder, auction);
+                if (!auction.isAllowed(expected, bidder)) {
+                    expected = Call.PASS;
+                }
+                Call call = cached.chooseCall(hand, bidder, auction);
+                assertSame(expected, call);
+                auction.add(call, bidder);
+                bidder = Player.values()[(bidder.ordinal() + 1) % 4];
+            }
+        }
+        Map<String, Object> stats = cached.getDecisionCacheStats();
+        assertTrue((Long) stats.get("hits") > 0);
+    }
+
+    @Test
+    void testKeySeparatesSeatsAndHands() {
+        Hand hand = new Hand(new DealStream(7L).deal(0)[0], Player.NORTH);
+        AuctionState auction = new AuctionState();
+        auction.add(Call.bid(1, Card.Suit.HEARTS), Player.NORTH);
+        auction.add(Call.PASS, Player.EAST);
+        // South responds to partner; West would be overcalling
+        assertNotEquals(DecisionCache.key(hand, Player.SOUTH, auction), DecisionCache.key(hand, Player.WEST, auction));
+        Hand other = new Hand(new DealStream(7L).deal(0)[1], Player.EAST);
+        assertNotEquals(DecisionCache.handKey(hand), DecisionCache.handKey(other));
+        assertTrue(DecisionCache.key(hand, Player.SOUTH, auction) < 1L << 47);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Card;
+import com.example.bridge.model.DealStream;
+import com.example.bridge.model.Player;
+import com.example.bridge.model.TrickTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoubleDummySolverTest {
+
+    private static final long SUIT = 0x1FFFL;
+
+    private final DoubleDummySolver solver = new DoubleDummySolver();
+
+    @Test
+    void testEachHandHoldsOneSuit() {
+        // North spades, East hearts, South diamonds, West clubs
+        long[] masks = {SUIT << 39, SUIT << 26, SUIT << 13, SUIT};
+        TrickTable table = solver.solve(masks);
+        for (Player declarer : Player.values()) {
+            // The opening leader runs their suit
+            assertEquals(0, table.getTricks(Card.Suit.NOTRUMP, declarer));
+        }
+        assertEquals(13, table.getTricks(Card.Suit.SPADES, Player.NORTH));
+        assertEquals(13, table.getTricks(Card.Suit.SPADES, Player.SOUTH));
+        assertEquals(0, table.getTricks(Card.Suit.SPADES, Player.EAST));
+        assertEquals(13, table.getTricks(Card.Suit.CLUBS, Player.EAST));
+        assertEquals(0, table.getTricks(Card.Suit.CLUBS, Player.SOUTH));
+    }
+
+    @Test
+    void testEndingsMatchFullSearch() {
+        Random random = new Random(5);
+        DealStream deals = new DealStream(5);
+        for (int k = 0; k < 40; k++) {
+            long[] masks = ending(deals.deal(k), 1 + k % 4, random);
+            TrickTable table = solver.solve(masks);
+            for (Card.Suit strain : Card.Suit.values()) {
+                int trump = strain == Card.Suit.NOTRUMP ? -1 : strain.ordinal();
+                for (Player declarer : Player.values()) {
+                    int leader = (declarer.ordinal() + 1) % 4;
+                    int northSouth = bruteForce(masks.clone(), trump, leader);
+                    int expected = declarer.ordinal() % 2 == 0 ? northSouth : Long.bitCount(masks[0]) - northSouth;
+                    assertEquals(expected, table.getTricks(strain, declarer), "ending " + k + " " + strain + " " + declarer);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRotatedDealSharesCacheEntry() {
+        long[] masks = ending(new DealStream(8).deal(0), 5, new Random(8));
+        long[] rotated = {masks[3], masks[0], masks[1], masks[2]};
+        DoubleDummySolver single = new DoubleDummySolver(new ForkJoinPool(1), 16);
+        TrickTable table = single.solve(masks);
+        TrickTable rotatedTable = single.solve(rotated);
+        for (Card.Suit strain : Card.Suit.values()) {
+            for (Player declarer : Player.values()) {
+                Player moved = Player.values()[(declarer.ordinal() + 1) % 4];
+                assertEquals(table.getTricks(strain, declarer), rotatedTable.getTricks(strain, moved));
+            }
+        }
+        Map<String, Object> stats = single.getCacheStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(table, single.solve(masks));
+    }
+
+    @Test
+    void testOutOfTimeFailsAndStaysFailed() {
+        DoubleDummySolver hurried = new DoubleDummySolver(new ForkJoinPool(1), 16, 0);
+        long[] deal = new DealStream(3).deal(0);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> hurried.solve(deal));
+        assertTrue(e.getMessage().contains("time budget"));
+        // Not solved again: it would only run out of time again
+        assertThrows(IllegalStateException.class, () -> hurried.solve(deal));
+        Map<String, Object> stats = hurried.getCacheStats();
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(1L, stats.get("hits"));
+    }
+
+    @Test
+    void testAsyncCallersShareOneSolve() {
+        DoubleDummySolver single = new DoubleDummySolver(new ForkJoinPool(1), 16);
+        long[] deal = ending(new DealStream(4).deal(0), 8, new Random(4));
+        CompletableFuture<TrickTable> first = single.solveAsync(deal);
+        CompletableFuture<TrickTable> second = single.solveAsync(deal.clone());
+        assertEquals(first.join(), second.join());
+        assertEquals(1L, single.getCacheStats().get("misses"));
+        assertTrue(single.solveAsync(deal).isDone());
+        // One worker, so one table is kept however many strains were searched
+        assertEquals(1, single.getCacheStats().get("tablesKept"));
+    }
+
+    @Test
+    void testInvalidHands() {
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new long[]{1L, 1L, 4L, 8L}));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new long[]{1L, 2L, 4L, 24L}));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new long[4]));
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "BRIDGE_BENCHMARKS", matches = "true")
+    void benchmarkFullDeals() {
+        DealStream deals = new DealStream(11);
+        int count = 10;
+        long start = System.nanoTime();
+        for (int k = 0; k < count; k++) {
+            solver.solve(deals.deal(k));
+        }
+        long perTable = (System.nanoTime() - start) / count / 1_000_000;
+        System.out.println("Double-dummy: " + perTable + " ms per 20-way table on "
+                + ForkJoinPool.commonPool().getParallelism() + " workers");
+    }
+
+    /**
+     * {@code cards} cards picked at random from each hand of a full deal.
+     */
+    private static long[] ending(long[] deal, int cards, Random random) {
+        long[] masks = new long[4];
+        for (int seat = 0; seat < 4; seat++) {
+            List<Integer> held = new ArrayList<>();
+            for (long rest = deal[seat]; rest != 0; rest &= rest - 1) {
+                held.add(Long.numberOfTrailingZeros(rest));
+            }
+            Collections.shuffle(held, random);
+            for (int i = 0; i < cards; i++) {
+                masks[seat] |= 1L << held.get(i);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * North-South's tricks by plain minimax over every card.
+     */
+    private static int bruteForce(long[] masks, int trump, int leader) {
+        if (masks[0] == 0) {
+            return 0;
+        }
+        return bruteForceTrick(masks, trump, leader, 0, -1, -1, -1);
+    }
+
+    private static int bruteForceTrick(long[] masks, int trump, int seat, int played, int led, int winner, int winningCard) {
+        if (played == 4) {
+            return (winner % 2 == 0 ? 1 : 0) + bruteForce(masks, trump, winner);
+        }
+        long playable = masks[seat];
+        if (led >= 0 && (playable & SUIT << (led * 13)) != 0) {
+            playable &= SUIT << (led * 13);
+        }
+        boolean northSouth = seat % 2 == 0;
+        int best = northSouth ? -1 : Integer.MAX_VALUE;
+        for (long rest = playable; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+            boolean wins = played == 0
+                    || (card / 13 == winningCard / 13 && card > winningCard)
+                    || (card / 13 == trump && winningCard / 13 != trump);
+            masks[seat] ^= 1L << card;
+            int tricks = bruteForceTrick(masks, trump, (seat + 1) % 4, played + 1, played == 0 ? card / 13 : led,
+                    wins ? seat : winner, wins ? card : winningCard);
+            masks[seat] ^= 1L << card;
+            best = northSouth ? Math.max(best, tricks) : Math.min(best, tricks);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Deal;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testDefaultSessionOutsideRequest() {
+        GameSessionStore store = new GameSessionStore(60_000, 10, clock::get);
+        GameSession session = store.current();
+        assertEquals(GameSessionStore.DEFAULT_SESSION_ID, session.getId());
+        assertSame(session, store.current());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testRequestsResolveByHttpSessionThenTableHeader() {
+        GameSessionStore store = new GameSessionStore(60_000, 10, clock::get);
+
+        MockHttpServletRequest browser = new MockHttpServletRequest();
+        browser.setSession(new MockHttpSession(null, "abc"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(browser));
+        GameSession bySession = store.current();
+        assertEquals("http:abc", bySession.getId());
+
+        MockHttpServletRequest table = new MockHttpServletRequest();
+        table.setSession(new MockHttpSession(null, "abc"));
+        table.addHeader(GameSessionStore.TABLE_HEADER, "7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(table));
+        GameSession byTable = store.current();
+        assertEquals("http:abc/table:7", byTable.getId());
+        assertNotSame(bySession, byTable);
+
+        // Another browser naming the same table gets a table of its own
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.setSession(new MockHttpSession(null, "xyz"));
+        other.addHeader(GameSessionStore.TABLE_HEADER, "7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(other));
+        assertEquals("http:xyz/table:7", store.current().getId());
+
+        // A malformed table name is ignored
+        MockHttpServletRequest odd = new MockHttpServletRequest();
+        odd.setSession(new MockHttpSession(null, "abc"));
+        odd.addHeader(GameSessionStore.TABLE_HEADER, "../7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(odd));
+        assertSame(bySession, store.current());
+
+        // A later request from the same browser gets its session back
+        MockHttpServletRequest again = new MockHttpServletRequest();
+        again.setSession(new MockHttpSession(null, "abc"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(again));
+        assertSame(bySession, store.current());
+    }
+
+    @Test
+    void testIdleSessionsAreSwept() {
+        GameSessionStore store = new GameSessionStore(60_000, 10, clock::get);
+        GameSession idle = store.get("idle");
+        store.get("busy");
+        clock.addAndGet(40_000);
+        store.get("busy");
+        clock.addAndGet(30_000);
+        // The sweep runs on this lookup: "idle" is 70s old, "busy" only 30s
+        store.get("busy");
+        assertEquals(1, store.size());
+        assertNotSame(idle, store.get("idle"));
+        assertEquals(1L, store.getStats().get("idleEvictions"));
+    }
+
+    @Test
+    void testLockedSessionIsNotSwept() {
+        GameSessionStore store = new GameSessionStore(60_000, 10, clock::get);
+        GameSession session = store.get("slow");
+        session.getLock().lock();
+        try {
+            clock.addAndGet(120_000);
+            store.get("other");
+            assertSame(session, store.get("slow"));
+        } finally {
+            session.getLock().unlock();
+        }
+    }
+
+    @Test
+    void testFollowedSessionIsNotSwept() {
+        GameSessionStore store = new GameSessionStore(60_000, 10, clock::get);
+        GameSession session = store.get("watched");
+        GameEventListener listener = new GameEventListener() { };
+        session.addListener(listener);
+        clock.addAndGet(120_000);
+        store.get("other");
+        assertSame(session, store.get("watched"));
+
+        session.removeListener(listener);
+        clock.addAndGet(120_000);
+        store.get("other");
+        assertNotSame(session, store.get("watched"));
+    }
+
+    @Test
+    void testCapEvictsIdlestUnlockedSessions() {
+        GameSessionStore store = new GameSessionStore(600_000, 10, clock::get);
+        GameSession oldest = store.get("s0");
+        oldest.getLock().lock();
+        try {
+            for (int i = 1; i < 10; i++) {
+                clock.incrementAndGet();
+                store.get("s" + i);
+            }
+            assertEquals(10, store.size());
+            store.get("new");
+            assertEquals(10, store.size());
+            // s0 is the idlest but a request holds it, so s1 goes instead
+            assertSame(oldest, store.get("s0"));
+            assertEquals(1L, store.getStats().get("capEvictions"));
+            assertEquals(11L, store.getStats().get("created"));
+        } finally {
+            oldest.getLock().unlock();
+        }
+    }
+
+    @Test
+    void testCapEvictionSkipsRecentlyUsedSessions() {
+        GameSessionStore store = new GameSessionStore(600_000, 10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            store.get("s" + i);
+        }
+        // s0 is the oldest created but the most recently used
+        GameSession used = store.get("s0");
+        store.get("new");
+        assertSame(used, store.get("s0"));
+        assertEquals(1L, store.getStats().get("capEvictions"));
+        assertEquals(11L, store.getStats().get("created"));
+    }
+
+    @Test
+    void testSessionsKeepSeparateGames() {
+        GameSessionStore store = new GameSessionStore(60_000, 10, clock::get);
+        BridgeBiddingService service = new TestServices().sessions(store).build();
+        MockHttpSession browser = new MockHttpSession(null, "abc");
+
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        first.setSession(browser);
+        first.addHeader(GameSessionStore.TABLE_HEADER, "1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(first));
+        service.startNewDeal(Player.NORTH);
+        int firstHistory = service.getBiddingHistory().size();
+        Deal firstDeal = service.getCurrentDeal();
+
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        second.setSession(browser);
+        second.addHeader(GameSessionStore.TABLE_HEADER, "2");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(second));
+        assertNull(service.getCurrentDeal());
+        service.startNewDeal(Player.SOUTH);
+
+        MockHttpServletRequest back = new MockHttpServletRequest();
+        back.setSession(browser);
+        back.addHeader(GameSessionStore.TABLE_HEADER, "1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(back));
+        assertSame(firstDeal, service.getCurrentDeal());
+        assertEquals(firstHistory, service.getBiddingHistory().size());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testRejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new GameSessionStore(0, 10, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new GameSessionStore(60_000, 0, clock::get));
+    }
+}
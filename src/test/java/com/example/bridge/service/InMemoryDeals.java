@@ -0,0 +1,81 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Deal;
+import com.example.bridge.repository.DealRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link DealRepository} kept in memory, for tests that run without a database. Deals get an
+ * id on their first save as the database would give them, and are listed in id order. Trick
+ * tables written by id are kept apart, as a database column would be, rather than set on the
+ * deal objects the tests hold. Only the methods the service calls are supported; the rest throw.
+ */
+final class InMemoryDeals implements InvocationHandler {
+
+    private final Map<Long, Deal> deals = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> doubleDummyTricks = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final DealRepository repository = (DealRepository) Proxy.newProxyInstance(
+            DealRepository.class.getClassLoader(), new Class<?>[]{DealRepository.class}, this);
+
+    DealRepository repository() {
+        return repository;
+    }
+
+    /**
+     * The trick table last written for deal {@code id} by updateDoubleDummyTricks, or null.
+     */
+    String doubleDummyTricks(long id) {
+        return doubleDummyTricks.get(id);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws ReflectiveOperationException {
+        switch (method.getName()) {
+            case "save", "saveAndFlush":
+                return save((Deal) args[0]);
+            case "findById":
+                return Optional.ofNullable(deals.get((Long) args[0]));
+            case "updateDoubleDummyTricks":
+                if (!deals.containsKey((Long) args[0])) {
+                    return 0;
+                }
+                doubleDummyTricks.put((Long) args[0], (String) args[1]);
+                return 1;
+            case "findAll":
+                if (args == null) {
+                    return new ArrayList<>(deals.values());
+                }
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "InMemoryDeals" + deals.keySet();
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException(method.toString());
+    }
+
+    private Deal save(Deal deal) throws ReflectiveOperationException {
+        if (deal.getId() == null) {
+            Field id = Deal.class.getDeclaredField("id");
+            id.setAccessible(true);
+            id.set(deal, ids.incrementAndGet());
+        }
+        deals.put(deal.getId(), deal);
+        return deal;
+    }
+}
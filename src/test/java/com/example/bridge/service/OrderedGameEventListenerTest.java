@@ -0,0 +1,58 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedGameEventListenerTest {
+
+    private final List<String> delivered = new ArrayList<>();
+
+    @Test
+    void testFailingListenerDoesNotStopLaterEvents() {
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void dealStarted(Player dealer) {
+                throw new IllegalStateException("client went away");
+            }
+
+            @Override
+            public void auctionFinished(String contract) {
+                delivered.add(contract);
+            }
+        };
+        OrderedGameEventListener ordered = new OrderedGameEventListener(listener, Runnable::run);
+        ordered.dealStarted(Player.NORTH);
+        ordered.auctionFinished("3NT");
+        ordered.auctionFinished("4S");
+        assertEquals(List.of("3NT", "4S"), delivered);
+    }
+
+    @Test
+    void testRejectedEventDoesNotStopLaterEvents() {
+        AtomicBoolean reject = new AtomicBoolean(true);
+        Executor executor = task -> {
+            if (reject.getAndSet(false)) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        };
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void auctionFinished(String contract) {
+                delivered.add(contract);
+            }
+        };
+        OrderedGameEventListener ordered = new OrderedGameEventListener(listener, executor);
+        ordered.auctionFinished("3NT");
+        ordered.auctionFinished("4S");
+        assertEquals(List.of("4S"), delivered);
+    }
+}
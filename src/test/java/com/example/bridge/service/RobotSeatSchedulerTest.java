@@ -0,0 +1,144 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.AuctionState;
+import com.example.bridge.model.Bid;
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import com.example.bridge.model.Hand;
+import com.example.bridge.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobotSeatSchedulerTest {
+
+    private final BridgeExecutors executors = new BridgeExecutors(false, 2);
+    private final BridgeBiddingService service = TestServices.service();
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown();
+    }
+
+    @Test
+    void testRobotSeatsFollowTrainingMode() {
+        assertEquals(EnumSet.of(Player.NORTH, Player.EAST, Player.WEST), RobotSeatScheduler.robotSeats("single", Player.SOUTH));
+        assertEquals(EnumSet.of(Player.EAST, Player.WEST), RobotSeatScheduler.robotSeats("pair", Player.SOUTH));
+        assertTrue(RobotSeatScheduler.robotSeats("all", Player.SOUTH).isEmpty());
+        assertEquals(RobotSeatScheduler.robotSeats("single", Player.SOUTH), RobotSeatScheduler.robotSeats(null, Player.SOUTH));
+    }
+
+    @Test
+    void testWaitingCallerGetsRobotCallsUpToUser() {
+        RobotSeatScheduler scheduler = new RobotSeatScheduler(executors.getRobotExecutor(), executors.getEnginePool(), 1000, 5000);
+        service.startNewDeal(Player.WEST);
+        CompletableFuture<Integer> robots = scheduler.play(service.getSession(), RobotSeatScheduler.robotSeats("single", Player.SOUTH), 5000);
+        assertTrue(robots.isDone());
+        assertEquals(3, robots.join());
+        assertEquals(Player.SOUTH.ordinal(), service.getCurrentBidderIndex());
+        List<Bid> history = service.getBiddingHistory();
+        assertEquals(List.of(Player.WEST, Player.NORTH, Player.EAST),
+                List.of(history.get(0).getPlayer(), history.get(1).getPlayer(), history.get(2).getPlayer()));
+    }
+
+    @Test
+    void testRobotsCarryOnInBackground() throws Exception {
+        RobotSeatScheduler scheduler = new RobotSeatScheduler(executors.getRobotExecutor(), executors.getEnginePool(), 1000, 0);
+        service.startNewDeal(Player.EAST);
+        GameSession session = service.getSession();
+        CompletableFuture<Integer> robots = scheduler.play(session, RobotSeatScheduler.robotSeats("pair", Player.SOUTH), 0);
+        assertEquals(1, robots.get(10, TimeUnit.SECONDS));
+        assertEquals(Player.SOUTH, session.getBidder());
+        assertEquals(Player.EAST, service.getBiddingHistory().get(0).getPlayer());
+    }
+
+    @Test
+    void testRobotPassesWhenOverBudget() {
+        RobotSeatScheduler scheduler = new RobotSeatScheduler(executors.getRobotExecutor(), executors.getEnginePool(), 20, 5000);
+        service.startNewDeal(Player.NORTH);
+        // A robot too slow for its budget once its decision has started
+        service.getSession().dealBiddingSystem = new BiddingSystem() {
+            @Override
+            public String getName() {
+                return "slow";
+            }
+
+            @Override
+            public int getVersion() {
+                return 1;
+            }
+
+            @Override
+            public Call chooseCall(Hand hand, Player bidder, AuctionState auction) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Call.bid(1, Card.Suit.CLUBS);
+            }
+        };
+        scheduler.play(service.getSession(), RobotSeatScheduler.robotSeats("single", Player.SOUTH), 5000).join();
+        assertEquals(2, service.getBiddingHistory().size());
+        assertTrue(service.getBiddingHistory().stream().allMatch(Bid::isPass));
+        assertEquals(2L, scheduler.getStats().get("overBudget"));
+    }
+
+    @Test
+    void testBusyEngineDecisionIsMadeOnCaller() {
+        // Decisions queue behind a busy engine and only get a worker after the budget is spent
+        List<Runnable> engine = new ArrayList<>();
+        RobotSeatScheduler scheduler = new RobotSeatScheduler(executors.getRobotExecutor(), engine::add, 20, 5000);
+        service.startNewDeal(Player.NORTH, 10);
+        scheduler.play(service.getSession(), RobotSeatScheduler.robotSeats("single", Player.SOUTH), 5000).join();
+        assertEquals(0L, scheduler.getStats().get("overBudget"));
+        assertEquals(2L, scheduler.getStats().get("onCaller"));
+
+        // The robots made their own calls, as with an idle engine, not passes for the backlog
+        BridgeBiddingService idle = TestServices.service();
+        idle.startNewDeal(Player.NORTH, 10);
+        new RobotSeatScheduler(Runnable::run, Runnable::run, 1000, 5000)
+                .play(idle.getSession(), RobotSeatScheduler.robotSeats("single", Player.SOUTH), 5000).join();
+        assertEquals(idle.getBiddingHistory(), service.getBiddingHistory());
+
+        // The withdrawn decisions get a worker at last but decide nothing
+        engine.forEach(Runnable::run);
+        assertEquals(2L, scheduler.getStats().get("decisions"));
+        assertEquals(2, service.getBiddingHistory().size());
+    }
+
+    @Test
+    void testBackgroundCallsStopAtNewDeal() {
+        List<Runnable> queued = new ArrayList<>();
+        RobotSeatScheduler scheduler = new RobotSeatScheduler(queued::add, executors.getEnginePool(), 1000, 0);
+        service.startNewDeal(Player.NORTH);
+        CompletableFuture<Integer> robots = scheduler.play(service.getSession(), RobotSeatScheduler.robotSeats("single", Player.SOUTH), 0);
+        assertFalse(robots.isDone());
+        service.startNewDeal(Player.NORTH);
+        queued.forEach(Runnable::run);
+        assertEquals(0, robots.join());
+        assertTrue(service.getBiddingHistory().isEmpty());
+    }
+
+    @Test
+    void testServicePlaysRobotsForTrainingMode() {
+        service.startNewDeal(Player.NORTH);
+        assertEquals(0, service.playRobots("all").join());
+        assertTrue(service.getBiddingHistory().isEmpty());
+        assertEquals(2, service.playRobots("single").join());
+        assertEquals(Player.SOUTH.ordinal(), service.getCurrentBidderIndex());
+    }
+
+    @Test
+    void testRejectsBadSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RobotSeatScheduler(Runnable::run, Runnable::run, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RobotSeatScheduler(Runnable::run, Runnable::run, 10, -1));
+    }
+}
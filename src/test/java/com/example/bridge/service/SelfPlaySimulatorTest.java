@@ -0,0 +1,87 @@
+package com.example.bridge.service;
+
+import com.example.bridge.model.Call;
+import com.example.bridge.model.Card;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlaySimulatorTest {
+
+    private final BiddingSystem natural = new BiddingSystemRegistry().get(BiddingSystemRegistry.DEFAULT_SYSTEM);
+
+    @Test
+    void testSameSeedSameResultsAtAnyParallelism() {
+        Map<String, Object> parallel = new SelfPlaySimulator().run(natural, 99L, 4000);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            Map<String, Object> serial = new SelfPlaySimulator(single).run(natural, 99L, 4000);
+            for (String key : new String[]{"calls", "passedOut", "contracts", "strains", "frequencies", "byCombinedHcp", "ruleFirings"}) {
+                assertEquals(parallel.get(key), serial.get(key), key);
+            }
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTotalsAddUp() {
+        long boards = 5000;
+        Map<String, Object> report = new SelfPlaySimulator().run(natural, 7L, boards);
+        assertEquals(boards, report.get("boards"));
+
+        long contracts = ((Map<String, Long>) report.get("contracts")).values().stream().mapToLong(Long::longValue).sum();
+        long strains = ((Map<String, Long>) report.get("strains")).values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(boards, contracts + (Long) report.get("passedOut"));
+        assertEquals(contracts, strains);
+
+        long byHcp = 0;
+        for (Map<String, Object> row : (List<Map<String, Object>>) report.get("byCombinedHcp")) {
+            byHcp += (Long) row.get("partscore") + (Long) row.get("game") + (Long) row.get("smallSlam") + (Long) row.get("grandSlam");
+        }
+        assertEquals(contracts, byHcp);
+
+        long fired = (Long) report.get("noRuleMatched");
+        for (Map<String, Object> row : (List<Map<String, Object>>) report.get("ruleFirings")) {
+            fired += (Long) row.get("fired");
+        }
+        // Every call made is one rule lookup
+        assertEquals(report.get("calls"), fired);
+        assertTrue((Long) report.get("calls") >= 4 * boards);
+    }
+
+    @Test
+    void testCategory() {
+        assertEquals(0, SelfPlaySimulator.category(Call.bid(2, Card.Suit.NOTRUMP)));
+        assertEquals(1, SelfPlaySimulator.category(Call.bid(3, Card.Suit.NOTRUMP)));
+        assertEquals(0, SelfPlaySimulator.category(Call.bid(3, Card.Suit.SPADES)));
+        assertEquals(1, SelfPlaySimulator.category(Call.bid(4, Card.Suit.HEARTS)));
+        assertEquals(0, SelfPlaySimulator.category(Call.bid(4, Card.Suit.DIAMONDS)));
+        assertEquals(1, SelfPlaySimulator.category(Call.bid(5, Card.Suit.CLUBS)));
+        assertEquals(2, SelfPlaySimulator.category(Call.bid(6, Card.Suit.CLUBS)));
+        assertEquals(3, SelfPlaySimulator.category(Call.bid(7, Card.Suit.NOTRUMP)));
+    }
+
+    @Test
+    void testRejectsBadBoardCount() {
+        SelfPlaySimulator simulator = new SelfPlaySimulator();
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(natural, 1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(natural, 1L, SelfPlaySimulator.MAX_BOARDS + 1));
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "BRIDGE_BENCHMARKS", matches = "true")
+    void benchmarkBoardsPerMinute() {
+        SelfPlaySimulator simulator = new SelfPlaySimulator();
+        simulator.run(natural, 1L, 200_000); // warm-up
+        Map<String, Object> report = simulator.run(natural, 2L, 1_000_000);
+        System.out.println("Self-play: " + report.get("boardsPerMinute") + " boards/min");
+        assertTrue((Long) report.get("boardsPerMinute") >= 1_000_000L);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bridge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationJobsTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final SimulationJobs jobs = new SimulationJobs(pool);
+    private final BiddingSystem natural = TestServices.BIDDING_SYSTEMS.get(BiddingSystemRegistry.DEFAULT_SYSTEM);
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testJobRunsInBackgroundAndKeepsReport() throws InterruptedException {
+        Map<String, Object> job = jobs.submit(natural, 42L, 200);
+        long id = (Long) job.get("id");
+
+        Map<String, Object> done = waitForFinish(id);
+        assertEquals("done", done.get("state"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> report = (Map<String, Object>) done.get("report");
+        // The same seed and boards give the same report as a direct run
+        assertEquals(new SelfPlaySimulator(pool).run(natural, 42L, 200).get("contracts"), report.get("contracts"));
+        assertNull(jobs.get(id + 1));
+    }
+
+    @Test
+    void testRejectsBadBoardsAndTooManyPendingJobs() throws InterruptedException {
+        assertThrows(IllegalArgumentException.class, () -> jobs.submit(natural, 1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> jobs.submit(natural, 1L, SelfPlaySimulator.MAX_BOARDS + 1));
+
+        // Keep the pool busy so that no job can finish meanwhile
+        CountDownLatch release = new CountDownLatch(1);
+        ForkJoinPool busy = new ForkJoinPool(1);
+        SimulationJobs blocked = new SimulationJobs(busy);
+        busy.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            long last = 0;
+            for (int i = 0; i < SimulationJobs.MAX_PENDING_JOBS; i++) {
+                last = (Long) blocked.submit(natural, i, 100).get("id");
+            }
+            assertThrows(IllegalStateException.class, () -> blocked.submit(natural, 1L, 100));
+            assertEquals("queued", blocked.get(last).get("state"));
+
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (!"done".equals(blocked.get(last).get("state")) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("done", blocked.get(last).get("state"));
+            assertNotNull(blocked.submit(natural, 1L, 100).get("id"));
+        } finally {
+            release.countDown();
+            blocked.shutdown();
+            busy.shutdownNow();
+        }
+    }
+
+    private Map<String, Object> waitForFinish(long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        Map<String, Object> job = jobs.get(id);
+        while (!"done".equals(job.get("state")) && !"failed".equals(job.get("state"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobs.get(id);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bridge.service;
+
+import com.example.bridge.repository.DealRepository;
+
+/**
+ * Builds a {@link BridgeBiddingService} the way the application context would, for tests that
+ * run without Spring. The registry, executors, advice engine and simulation jobs are shared, as
+ * they are stateless or long-lived; sessions, robot seats, the deal pool and the saved deals are
+ * fresh per service unless given. The deal pool is off by default, so every board is dealt on
+ * demand, and saved deals are kept in memory.
+ */
+final class TestServices {
+
+    static final BiddingSystemRegistry BIDDING_SYSTEMS = new BiddingSystemRegistry();
+    static final BridgeExecutors EXECUTORS = new BridgeExecutors(false, 0);
+    static final AdviceEngine ADVICE_ENGINE = new AdviceEngine(AdviceEngine.DEFAULT_BUDGET_MILLIS, 0);
+    static final SimulationJobs SIMULATIONS = new SimulationJobs(EXECUTORS);
+
+    private BiddingSystemRegistry biddingSystems = BIDDING_SYSTEMS;
+    private BridgeExecutors executors = EXECUTORS;
+    private GameSessionStore sessions;
+    private RobotSeatScheduler robotSeats;
+    private DealPool dealPool;
+    private DealRepository deals;
+
+    static BridgeBiddingService service() {
+        return new TestServices().build();
+    }
+
+    TestServices biddingSystems(BiddingSystemRegistry biddingSystems) {
+        this.biddingSystems = biddingSystems;
+        return this;
+    }
+
+    TestServices executors(BridgeExecutors executors) {
+        this.executors = executors;
+        return this;
+    }
+
+    TestServices sessions(GameSessionStore sessions) {
+        this.sessions = sessions;
+        return this;
+    }
+
+    TestServices robotSeats(RobotSeatScheduler robotSeats) {
+        this.robotSeats = robotSeats;
+        return this;
+    }
+
+    TestServices dealPool(DealPool dealPool) {
+        this.dealPool = dealPool;
+        return this;
+    }
+
+    TestServices deals(DealRepository deals) {
+        this.deals = deals;
+        return this;
+    }
+
+    BridgeBiddingService build() {
+        return new BridgeBiddingService(
+                biddingSystems,
+                sessions != null ? sessions : new GameSessionStore(
+                        GameSessionStore.DEFAULT_IDLE_TIMEOUT_MINUTES, GameSessionStore.DEFAULT_MAX_SESSIONS),
+                executors,
+                robotSeats != null ? robotSeats : new RobotSeatScheduler(executors,
+                        RobotSeatScheduler.DEFAULT_CALL_BUDGET_MILLIS, RobotSeatScheduler.DEFAULT_WAIT_MILLIS),
+                ADVICE_ENGINE,
+                dealPool != null ? dealPool : new DealPool(biddingSystems, executors, 0, 1),
+                SIMULATIONS,
+                deals != null ? deals : new InMemoryDeals().repository());
+    }
+}